@@ -0,0 +1,81 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.javamoney.moneta.Money;
+
+import com.google.common.base.Preconditions;
+
+import model.Level;
+import model.Venue;
+import util.TestObjectFactory;
+
+/**
+ * Venues and partly sold TicketReservers for the benchmarks.
+ *
+ * @author bstoll
+ *
+ */
+final class BenchmarkVenues {
+
+	private static final int LEVELS = 10;
+
+	private static final int SEATS_IN_ROW = 100;
+
+	private BenchmarkVenues() {
+	}
+
+	/**
+	 * @param seats
+	 *            Number of seats. Either the 6,250 seats of the test venue or a
+	 *            multiple of 1,000, which is laid out as 10 levels of rows of 100
+	 *            seats.
+	 * @return the Venue.
+	 */
+	static Venue venue(int seats) {
+		if (seats == TestObjectFactory.TOTAL_SEATS_IN_VENUE) {
+			return TestObjectFactory.TEST_VENUE;
+		}
+		Preconditions.checkArgument(seats > 0 && seats % (LEVELS * SEATS_IN_ROW) == 0,
+				"Invalid seats, Must be 6250 or a multiple of 1000");
+
+		List<Level> levels = new ArrayList<>(LEVELS);
+		for (int id = 1; id <= LEVELS; id++) {
+			levels.add(new Level(id, "Level " + id, Money.of(10 * id, "USD"), seats / (LEVELS * SEATS_IN_ROW),
+					SEATS_IN_ROW));
+		}
+		return new Venue(1, "Benchmark", levels);
+	}
+
+	/**
+	 * Sets up a TicketReserver with a share of its seats already reserved. The
+	 * reserved seats are spread at random, with a fixed seed, over the venue.
+	 *
+	 * @param seats
+	 *            Number of seats, see {@link #venue(int)}.
+	 * @param occupancy
+	 *            Percentage of seats already reserved.
+	 * @param seatAllocation
+	 *            How seats are picked.
+	 * @return the TicketReserver.
+	 */
+	static TicketReserver newReserver(int seats, int occupancy, SeatAllocation seatAllocation) {
+		// The DEBUG logging of the default configuration would swamp the results.
+		org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.WARN);
+
+		TicketReserver ticketReserver = new TicketReserver(venue(seats), seatAllocation);
+		Random random = new Random(seats);
+		int[] states = new int[seats];
+		int lastSeatHoldId = 0;
+		for (int index = 0; index < seats; index++) {
+			if (random.nextInt(100) < occupancy) {
+				states[index] = (++lastSeatHoldId << 1) | SeatStateStore.RESERVED;
+			}
+		}
+		ticketReserver.restoreSeatStates(states, lastSeatHoldId);
+		return ticketReserver;
+	}
+
+}
@@ -0,0 +1,46 @@
+package ticketsystem;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of handing out confirmation numbers from 16 threads at once, the
+ * UUID.randomUUID() strings TicketReserver used to return against a shared
+ * {@link TimeBasedConfirmationNumberGenerator}.
+ *
+ * @author bstoll
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class ConfirmationNumberBenchmark {
+
+	private final ConfirmationNumberGenerator timeBased = new TimeBasedConfirmationNumberGenerator(1);
+
+	@Benchmark
+	public String randomUuid() {
+		return UUID.randomUUID().toString();
+	}
+
+	@Benchmark
+	public String timeBased() {
+		return timeBased.next();
+	}
+
+}
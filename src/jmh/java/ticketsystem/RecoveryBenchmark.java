@@ -0,0 +1,195 @@
+package ticketsystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Level;
+import model.SeatHold;
+import model.Venue;
+
+/**
+ * Startup time of a DefaultTicketService recovering an 80,000 seat venue from
+ * a snapshot plus the journal tail written after it, against replaying the
+ * whole journal.
+ *
+ * <p>
+ * The journal is a long on sale: customers hold 1 to 8 seats, a few of them
+ * reserve and the rest let their holds expire. The snapshot is taken 99% of the
+ * way through, which truncates the journal, so a copy of the whole journal is
+ * kept for the full replay. The journals and snapshot are written once per
+ * trial, outside of the measurement.
+ *
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=RecoveryBenchmark}.
+ *
+ * @author bstoll
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecoveryBenchmark {
+
+	private static final int LEVELS = 8;
+
+	private static final int ROWS = 100;
+
+	private static final int SEATS_IN_ROW = 100;
+
+	private static final int OUTSTANDING_HOLDS = 1000;
+
+	private static final double RESERVE_CHANCE = 0.016;
+
+	private static final String EMAIL = "customer@email.com";
+
+	@Param({ "1000000" })
+	public int operations;
+
+	private Venue venue;
+
+	private Path directory;
+
+	private Path journalPath;
+
+	private Path fullJournalPath;
+
+	private Path snapshotPath;
+
+	private Path missingSnapshotPath;
+
+	// Shared by every recovered service, so each invocation does not start threads.
+	private final ScheduledThreadPoolExecutor executor = DefaultTicketService.newExpirationExecutor();
+
+	private final ThreadPoolExecutor listenerExecutor = DefaultTicketService.newListenerExecutor();
+
+	@Setup(org.openjdk.jmh.annotations.Level.Trial)
+	public void writeJournal() throws IOException {
+		org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.WARN);
+
+		List<Level> levels = new ArrayList<>();
+		for (int id = 1; id <= LEVELS; id++) {
+			levels.add(new Level(id, "Level " + id, Money.of(10 * id, "USD"), ROWS, SEATS_IN_ROW));
+		}
+		venue = new Venue(1, "Benchmark", levels);
+
+		directory = Files.createTempDirectory("recovery-benchmark");
+		journalPath = directory.resolve("journal");
+		fullJournalPath = directory.resolve("full-journal");
+		snapshotPath = directory.resolve("snapshot");
+		missingSnapshotPath = directory.resolve("missing");
+
+		// Generate the history straight against a TicketReserver, the service would
+		// need to wait for holds to expire.
+		TicketReserver generator = new TicketReserver(venue);
+		ArrayDeque<SeatHold> outstanding = new ArrayDeque<>();
+		Random random = new Random(42);
+		int beforeSnapshot = (int) (operations * 0.99);
+
+		try (Journal journal = new Journal(journalPath, Durability.ASYNC)) {
+			generate(generator, outstanding, random, beforeSnapshot, journal);
+		}
+		Files.copy(journalPath, fullJournalPath);
+		try (Journal journal = new Journal(journalPath, Durability.ASYNC)) {
+			DefaultTicketService ticketService = newService(journal);
+			ticketService.recover(missingSnapshotPath);
+			ticketService.writeSnapshot(snapshotPath);
+			ticketService.shutdown();
+		}
+		try (Journal journal = new Journal(journalPath, Durability.ASYNC);
+				Journal fullJournal = new Journal(fullJournalPath, Durability.ASYNC)) {
+			generate(generator, outstanding, random, operations - beforeSnapshot, journal, fullJournal);
+		}
+	}
+
+	@TearDown(org.openjdk.jmh.annotations.Level.Trial)
+	public void deleteJournal() throws IOException {
+		executor.shutdownNow();
+		listenerExecutor.shutdown();
+		Files.deleteIfExists(journalPath);
+		Files.deleteIfExists(fullJournalPath);
+		Files.deleteIfExists(snapshotPath);
+		Files.deleteIfExists(directory);
+	}
+
+	@Benchmark
+	public DefaultTicketService snapshotAndJournalTail() throws IOException {
+		return recover(journalPath, snapshotPath);
+	}
+
+	@Benchmark
+	public DefaultTicketService fullJournalReplay() throws IOException {
+		return recover(fullJournalPath, missingSnapshotPath);
+	}
+
+	private DefaultTicketService recover(Path journalFile, Path snapshot) throws IOException {
+		try (Journal journal = new Journal(journalFile, Durability.ASYNC)) {
+			DefaultTicketService ticketService = newService(journal);
+			ticketService.recover(snapshot);
+			ticketService.shutdown();
+			return ticketService;
+		}
+	}
+
+	private DefaultTicketService newService(Journal journal) {
+		return new DefaultTicketService(new TicketReserver(venue), 2, TimeUnit.HOURS, null, LockingMode.GLOBAL,
+				journal, executor, listenerExecutor, new ReservationRegistry());
+	}
+
+	private static void generate(TicketReserver ticketReserver, ArrayDeque<SeatHold> outstanding, Random random,
+			int operations, Journal... journals) {
+		long expiresAtMillis = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2);
+		for (int i = 0; i < operations; i++) {
+			if (outstanding.size() >= OUTSTANDING_HOLDS) {
+				SeatHold seatHold = outstanding.poll();
+				if (random.nextDouble() < RESERVE_CHANCE) {
+					String confirmationNumber = ticketReserver.reserveSeats(seatHold);
+					for (Journal journal : journals) {
+						journal.appendReserve(seatHold.getId(), confirmationNumber);
+					}
+				} else {
+					ticketReserver.expireSeatHold(seatHold);
+					for (Journal journal : journals) {
+						journal.appendExpire(seatHold.getId());
+					}
+				}
+			} else {
+				SeatHold seatHold = ticketReserver.findAndHoldSeats(1 + random.nextInt(8), Optional.empty(),
+						Optional.empty(), EMAIL);
+				if (seatHold != null) {
+					int[] seatIndexes = ticketReserver.seatIndexesOf(seatHold);
+					for (Journal journal : journals) {
+						journal.appendHold(seatHold.getId(), expiresAtMillis, EMAIL, seatIndexes);
+					}
+					outstanding.add(seatHold);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package ticketsystem;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of TicketReserver.numberOfSeatsAvailable, by venue size and by how much
+ * of the venue is already sold.
+ *
+ * @author bstoll
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatsAvailableBenchmark {
+
+	@Param({ "6250", "100000", "1000000" })
+	public int venueSeats;
+
+	@Param({ "0", "50", "95" })
+	public int occupancy;
+
+	private TicketReserver ticketReserver;
+
+	private final Optional<Integer> venueLevel = Optional.of(1);
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ticketReserver = BenchmarkVenues.newReserver(venueSeats, occupancy, SeatAllocation.FIRST_AVAILABLE);
+	}
+
+	@Benchmark
+	public int numberOfSeatsAvailable() {
+		return ticketReserver.numberOfSeatsAvailable(Optional.empty());
+	}
+
+	@Benchmark
+	public int numberOfSeatsAvailableOnLevel() {
+		return ticketReserver.numberOfSeatsAvailable(venueLevel);
+	}
+
+}
@@ -0,0 +1,106 @@
+package ticketsystem;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.SeatHold;
+
+/**
+ * Single threaded cost of the TicketReserver operations that change seats, by
+ * venue size and by how much of the venue is already sold.
+ *
+ * <p>
+ * Every call leaves the venue as it found it. A group of seats is held before
+ * each call for reserveSeats and expireSeatHold to work on, and everything held
+ * or reserved is released after it, outside of the measurement. Each call is
+ * timed on its own, see {@link SeatsAvailableBenchmark} for the query.
+ *
+ * @author bstoll
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketReserverBenchmark {
+
+	private static final String EMAIL = "customer@email.com";
+
+	@Param({ "6250", "100000", "1000000" })
+	public int venueSeats;
+
+	@Param({ "0", "50", "95" })
+	public int occupancy;
+
+	@Param({ "FIRST_AVAILABLE", "CONTIGUOUS" })
+	public SeatAllocation seatAllocation;
+
+	@Param({ "4" })
+	public int groupSize;
+
+	private TicketReserver ticketReserver;
+
+	// Held before each call, for reserveSeats and expireSeatHold.
+	private SeatHold seatHold;
+
+	private int seatsAvailable;
+
+	// Held by findAndHoldSeats.
+	private SeatHold heldByCall;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ticketReserver = BenchmarkVenues.newReserver(venueSeats, occupancy, seatAllocation);
+	}
+
+	@Setup(Level.Invocation)
+	public void holdSeats() {
+		seatsAvailable = ticketReserver.numberOfSeatsAvailable(Optional.empty());
+		seatHold = ticketReserver.findAndHoldSeats(groupSize, Optional.empty(), Optional.empty(), EMAIL);
+	}
+
+	@TearDown(Level.Invocation)
+	public void releaseSeats() {
+		if (heldByCall != null) {
+			ticketReserver.expireSeatHold(heldByCall);
+			heldByCall = null;
+		}
+		// Unless the call expired it already.
+		if (ticketReserver.numberOfSeatsAvailable(Optional.empty()) < seatsAvailable) {
+			ticketReserver.expireSeatHold(seatHold);
+		}
+	}
+
+	@Benchmark
+	public SeatHold findAndHoldSeats() {
+		heldByCall = ticketReserver.findAndHoldSeats(groupSize, Optional.empty(), Optional.empty(), EMAIL);
+		return heldByCall;
+	}
+
+	@Benchmark
+	public String reserveSeats() {
+		return ticketReserver.reserveSeats(seatHold);
+	}
+
+	@Benchmark
+	public void expireSeatHold() {
+		ticketReserver.expireSeatHold(seatHold);
+	}
+
+}
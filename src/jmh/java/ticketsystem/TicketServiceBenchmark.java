@@ -0,0 +1,101 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.SeatHold;
+import model.Venue;
+
+/**
+ * DefaultTicketService under contention. Three threads hold seats on a random
+ * level while a fourth reads the number of available seats, and the
+ * expiration thread releases the holds again a millisecond later. The
+ * writers group has eight threads holding seats and nothing else, to compare
+ * how the locking modes hand the TicketReserver between threads.
+ *
+ * <p>
+ * With a small venue that is mostly sold the free seats run out and most holds
+ * fail, which is measured as is.
+ *
+ * @author bstoll
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketServiceBenchmark {
+
+	private static final String EMAIL = "customer@email.com";
+
+	@Param({ "6250", "100000", "1000000" })
+	public int venueSeats;
+
+	@Param({ "0", "50", "95" })
+	public int occupancy;
+
+	@Param({ "GLOBAL", "PER_LEVEL", "SINGLE_WRITER" })
+	public LockingMode lockingMode;
+
+	@Param({ "4" })
+	public int groupSize;
+
+	private DefaultTicketService ticketService;
+
+	private final List<Optional<Integer>> levels = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		TicketReserver ticketReserver = BenchmarkVenues.newReserver(venueSeats, occupancy,
+				SeatAllocation.FIRST_AVAILABLE);
+		ticketService = new DefaultTicketService(ticketReserver, 1, TimeUnit.MILLISECONDS, null, lockingMode);
+
+		Venue venue = ticketReserver.getVenue();
+		for (int level = venue.getMinLevel(); level <= venue.getMaxLevel(); level++) {
+			levels.add(Optional.of(level));
+		}
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(3)
+	public SeatHold findAndHoldSeats() {
+		Optional<Integer> level = levels.get(ThreadLocalRandom.current().nextInt(levels.size()));
+		return ticketService.findAndHoldSeats(groupSize, level, level, EMAIL);
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public int numSeatsAvailable() {
+		return ticketService.numSeatsAvailable(Optional.empty());
+	}
+
+	@Benchmark
+	@Group("writers")
+	@GroupThreads(8)
+	public SeatHold findAndHoldSeatsOnly() {
+		return findAndHoldSeats();
+	}
+
+}
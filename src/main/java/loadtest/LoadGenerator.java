@@ -0,0 +1,306 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import metrics.LatencyHistogram;
+import model.SeatHold;
+import ticketsystem.TicketService;
+
+/**
+ * Drives a TicketService with the holds and reserves of a {@link LoadProfile}.
+ *
+ * <p>
+ * Each thread sends its share of the holds on a fixed schedule, the threads
+ * offset from each other so the holds are spread evenly. A thread that falls
+ * behind sends the late holds back to back until it catches up, and their
+ * latency is measured from when they were scheduled. A stalled service shows
+ * up as the latency every customer would have seen instead of as one slow call
+ * (coordinated omission). Every thread records into its own histograms, which
+ * are only added together for the report.
+ *
+ * @author bstoll
+ *
+ */
+public final class LoadGenerator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+
+	private static final Listener NO_LISTENER = new Listener() {
+	};
+
+	private final TicketService ticketService;
+
+	private final LoadProfile profile;
+
+	private final Listener listener;
+
+	private final String[] customerEmails;
+
+	private final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("load-generator-%d")
+			.setDaemon(true).build();
+
+	private final List<Worker> workers = new ArrayList<>();
+
+	private final List<Thread> threads = new ArrayList<>();
+
+	private volatile boolean running;
+
+	/**
+	 * Sets up a LoadGenerator.
+	 *
+	 * @param ticketService
+	 *            The TicketService. Must not be null.
+	 * @param profile
+	 *            The LoadProfile. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public LoadGenerator(TicketService ticketService, LoadProfile profile) {
+		this(ticketService, profile, null);
+	}
+
+	/**
+	 * Sets up a LoadGenerator.
+	 *
+	 * @param ticketService
+	 *            The TicketService. Must not be null.
+	 * @param profile
+	 *            The LoadProfile. Must not be null.
+	 * @param listener
+	 *            Told about every SeatHold held and reserved, on the thread that
+	 *            sent it. May be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public LoadGenerator(TicketService ticketService, LoadProfile profile, Listener listener) {
+		Preconditions.checkArgument(ticketService != null, "Invalid ticketService. Must not be null");
+		Preconditions.checkArgument(profile != null, "Invalid profile. Must not be null");
+		this.ticketService = ticketService;
+		this.profile = profile;
+		this.listener = listener != null ? listener : NO_LISTENER;
+		this.customerEmails = new String[profile.getCustomers()];
+		for (int i = 0; i < customerEmails.length; i++) {
+			customerEmails[i] = "customer" + i + "@email.com";
+		}
+	}
+
+	/**
+	 * Sends holds until {@link #stop()} is called, ignoring the duration of the
+	 * profile. Returns straight away.
+	 *
+	 * @throws IllegalStateException
+	 *             if the LoadGenerator was already started.
+	 */
+	public void start() {
+		start(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Stops sending holds. Calls already sent are left to finish.
+	 */
+	public void stop() {
+		running = false;
+		for (Thread thread : threads) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Sends holds for the warmup and duration of the profile and waits for the
+	 * last one to finish.
+	 *
+	 * @return what was measured after the warmup.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting, the LoadGenerator is stopped.
+	 * @throws IllegalStateException
+	 *             if the LoadGenerator was already started.
+	 */
+	public LoadReport run() throws InterruptedException {
+		start(profile.getWarmupNanos() + profile.getDurationNanos());
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} finally {
+			stop();
+		}
+
+		long holdsSent = 0;
+		long holdsFailed = 0;
+		long reservations = 0;
+		long errors = 0;
+		LatencyHistogram holdLatencies = new LatencyHistogram();
+		LatencyHistogram reserveLatencies = new LatencyHistogram();
+		for (Worker worker : workers) {
+			holdsSent += worker.holdsSent;
+			holdsFailed += worker.holdsFailed;
+			reservations += worker.reservations;
+			errors += worker.errors;
+			holdLatencies.add(worker.holdLatencies);
+			reserveLatencies.add(worker.reserveLatencies);
+		}
+		return new LoadReport(profile.getHoldsPerSecond(), profile.getDurationNanos(), holdsSent, holdsFailed,
+				reservations, errors, holdLatencies, reserveLatencies);
+	}
+
+	private synchronized void start(long runNanos) {
+		Preconditions.checkState(threads.isEmpty(), "LoadGenerator was already started");
+		running = true;
+
+		int numberOfThreads = profile.getThreads();
+		double periodNanos = numberOfThreads * (TimeUnit.SECONDS.toNanos(1) / profile.getHoldsPerSecond());
+		long startNanos = System.nanoTime();
+		long measureFromNanos = startNanos + profile.getWarmupNanos();
+		long endNanos = startNanos + runNanos;
+		for (int i = 0; i < numberOfThreads; i++) {
+			long firstNanos = startNanos + (long) (periodNanos * i / numberOfThreads);
+			Worker worker = new Worker(firstNanos, periodNanos, measureFromNanos, endNanos);
+			workers.add(worker);
+			threads.add(threadFactory.newThread(worker));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+	}
+
+	/**
+	 * Told about the SeatHolds a LoadGenerator holds and reserves.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	public interface Listener {
+
+		/**
+		 * Called after seats are held.
+		 *
+		 * @param seatHold
+		 *            The SeatHold.
+		 */
+		default void seatsHeld(SeatHold seatHold) {
+		}
+
+		/**
+		 * Called after held seats are reserved.
+		 *
+		 * @param seatHold
+		 *            The SeatHold.
+		 */
+		default void seatsReserved(SeatHold seatHold) {
+		}
+
+	}
+
+	private final class Worker implements Runnable {
+
+		private final long firstNanos;
+
+		private final double periodNanos;
+
+		private final long measureFromNanos;
+
+		private final long endNanos;
+
+		private final LatencyHistogram holdLatencies = new LatencyHistogram();
+
+		private final LatencyHistogram reserveLatencies = new LatencyHistogram();
+
+		private long holdsSent;
+
+		private long holdsFailed;
+
+		private long reservations;
+
+		private long errors;
+
+		Worker(long firstNanos, double periodNanos, long measureFromNanos, long endNanos) {
+			this.firstNanos = firstNanos;
+			this.periodNanos = periodNanos;
+			this.measureFromNanos = measureFromNanos;
+			this.endNanos = endNanos;
+		}
+
+		@Override
+		public void run() {
+			Random random = ThreadLocalRandom.current();
+			// Scheduled times are worked out from the start so rounding does not
+			// drift.
+			long sent = 0;
+			long scheduledNanos = firstNanos;
+			while (running && scheduledNanos - endNanos < 0) {
+				long waitNanos = scheduledNanos - System.nanoTime();
+				if (waitNanos > 0) {
+					LockSupport.parkNanos(waitNanos);
+					continue;
+				}
+				send(random, scheduledNanos, scheduledNanos - measureFromNanos >= 0);
+				sent++;
+				scheduledNanos = firstNanos + (long) (sent * periodNanos);
+			}
+		}
+
+		private void send(Random random, long scheduledNanos, boolean measured) {
+			int numSeats = profile.nextGroupSize(random);
+			LoadProfile.LevelRange levelRange = profile.nextLevelRange(random);
+			String customerEmail = customerEmails[random.nextInt(customerEmails.length)];
+
+			SeatHold seatHold;
+			long heldNanos;
+			try {
+				seatHold = ticketService.findAndHoldSeats(numSeats, levelRange.getMinLevel(), levelRange.getMaxLevel(),
+						customerEmail);
+				heldNanos = System.nanoTime();
+			} catch (RuntimeException e) {
+				LOG.debug("send(), findAndHoldSeats failed", e);
+				if (measured) {
+					errors++;
+				}
+				return;
+			}
+			if (measured) {
+				holdsSent++;
+				holdLatencies.recordValue(heldNanos - scheduledNanos);
+			}
+			if (seatHold == null) {
+				if (measured) {
+					holdsFailed++;
+				}
+				return;
+			}
+			listener.seatsHeld(seatHold);
+
+			if (random.nextDouble() < profile.getReserveProbability()) {
+				try {
+					ticketService.reserveSeats(seatHold.getId(), customerEmail);
+					if (measured) {
+						reserveLatencies.recordValue(System.nanoTime() - heldNanos);
+						reservations++;
+					}
+				} catch (RuntimeException e) {
+					// The hold can expire before it is reserved if the service is far
+					// behind.
+					LOG.debug("send(), reserveSeats failed", e);
+					if (measured) {
+						errors++;
+					}
+					return;
+				}
+				listener.seatsReserved(seatHold);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+
+import com.google.common.collect.ImmutableSet;
+
+import model.Level;
+import model.Venue;
+import ticketsystem.DefaultTicketService;
+import ticketsystem.LockFreeTicketService;
+import ticketsystem.LockingMode;
+import ticketsystem.SeatAllocation;
+import ticketsystem.TicketReserver;
+import ticketsystem.TicketService;
+
+/**
+ * Runs a {@link LoadGenerator} against a TicketService from the command line
+ * and prints the {@link LoadReport}.
+ *
+ * <p>
+ * Options are passed as {@code --name value}, run with {@code --help} for the
+ * list. Group sizes and level ranges are comma separated lists of values, each
+ * optionally followed by {@code :weight}, for example
+ * {@code --groups 2:50,4:30,8:20 --levels-asked any:2,1-2,3}.
+ *
+ * @author bstoll
+ *
+ */
+public class LoadGeneratorApp {
+
+	private static final Set<String> OPTIONS = ImmutableSet.of("help", "service", "locking", "allocation", "levels",
+			"rows", "seats", "expiry", "rate", "threads", "warmup", "duration", "groups", "levels-asked", "reserve",
+			"customers");
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Options, defaults in brackets:",
+			"  --service default|lockfree        TicketService to drive [default]",
+			"  --locking GLOBAL|PER_LEVEL|SINGLE_WRITER  LockingMode of the default service [GLOBAL]",
+			"  --allocation FIRST_AVAILABLE|CONTIGUOUS  SeatAllocation of the default service [FIRST_AVAILABLE]",
+			"  --levels n                        Levels in the venue [4]",
+			"  --rows n                          Rows in each level [25]",
+			"  --seats n                         Seats in each row [100]",
+			"  --expiry seconds                  Hold expiry [10]",
+			"  --rate holds                      Holds sent a second [1000]",
+			"  --threads n                       Threads sending holds [4]",
+			"  --warmup seconds                  Time before measuring [5]",
+			"  --duration seconds                Time measured [30]",
+			"  --groups n[:weight],...           Seats asked for [1,2,...,10]",
+			"  --levels-asked any|n|min-max[:weight],...  Level ranges asked for [any]",
+			"  --reserve probability             Chance held seats are reserved [0.5]",
+			"  --customers n                     Distinct customer emails [1000]");
+
+	public static void main(String[] args) throws InterruptedException {
+		org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.WARN);
+
+		TicketService ticketService;
+		LoadProfile profile;
+		try {
+			Map<String, String> options = parseOptions(args);
+			if (options.containsKey("help")) {
+				System.out.println(USAGE);
+				return;
+			}
+			profile = newProfile(options);
+			Venue venue = newVenue(intOption(options, "levels", 4), intOption(options, "rows", 25),
+					intOption(options, "seats", 100));
+			ticketService = newTicketService(options, venue);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(1);
+			return;
+		}
+
+		System.out.printf("Venue: %d seats, %d holds/s from %d threads%n",
+				ticketService.numSeatsAvailable(Optional.empty()), Math.round(profile.getHoldsPerSecond()),
+				profile.getThreads());
+		LoadReport report = new LoadGenerator(ticketService, profile).run();
+		report.print(System.out);
+		System.exit(0);
+	}
+
+	static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("--")) {
+				throw new IllegalArgumentException("Unexpected argument " + args[i]);
+			}
+			String name = args[i].substring(2);
+			if (!OPTIONS.contains(name)) {
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+			if (name.equals("help")) {
+				options.put(name, "");
+			} else if (i + 1 < args.length) {
+				options.put(name, args[++i]);
+			} else {
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+		}
+		return options;
+	}
+
+	static LoadProfile newProfile(Map<String, String> options) {
+		LoadProfile.Builder builder = new LoadProfile.Builder()
+				.holdsPerSecond(Double.parseDouble(options.getOrDefault("rate", "1000")))
+				.threads(intOption(options, "threads", 4))
+				.warmup(intOption(options, "warmup", 5), TimeUnit.SECONDS)
+				.duration(intOption(options, "duration", 30), TimeUnit.SECONDS)
+				.reserveProbability(Double.parseDouble(options.getOrDefault("reserve", "0.5")))
+				.customers(intOption(options, "customers", 1000));
+
+		for (String[] groupSize : weightedValues(options.get("groups"))) {
+			builder.groupSize(Integer.parseInt(groupSize[0]), Double.parseDouble(groupSize[1]));
+		}
+		for (String[] levelRange : weightedValues(options.get("levels-asked"))) {
+			String range = levelRange[0];
+			double weight = Double.parseDouble(levelRange[1]);
+			if (range.equals("any")) {
+				builder.levelRange(Optional.empty(), Optional.empty(), weight);
+			} else {
+				int dash = range.indexOf('-');
+				int minLevel = Integer.parseInt(dash < 0 ? range : range.substring(0, dash));
+				int maxLevel = Integer.parseInt(dash < 0 ? range : range.substring(dash + 1));
+				builder.levelRange(Optional.of(minLevel), Optional.of(maxLevel), weight);
+			}
+		}
+		return builder.build();
+	}
+
+	// Splits "a:2,b" into {a, 2} and {b, 1}.
+	private static List<String[]> weightedValues(String spec) {
+		List<String[]> values = new ArrayList<>();
+		if (spec != null) {
+			for (String value : spec.split(",")) {
+				String[] parts = value.trim().split(":", 2);
+				values.add(new String[] { parts[0], parts.length > 1 ? parts[1] : "1" });
+			}
+		}
+		return values;
+	}
+
+	private static TicketService newTicketService(Map<String, String> options, Venue venue) {
+		int expirySeconds = intOption(options, "expiry", 10);
+		String service = options.getOrDefault("service", "default");
+		if (service.equals("lockfree")) {
+			return new LockFreeTicketService(venue, expirySeconds, TimeUnit.SECONDS);
+		}
+		if (!service.equals("default")) {
+			throw new IllegalArgumentException("Unknown service " + service);
+		}
+		SeatAllocation seatAllocation = SeatAllocation
+				.valueOf(options.getOrDefault("allocation", SeatAllocation.FIRST_AVAILABLE.name()));
+		LockingMode lockingMode = LockingMode.valueOf(options.getOrDefault("locking", LockingMode.GLOBAL.name()));
+		return new DefaultTicketService(new TicketReserver(venue, seatAllocation), expirySeconds, TimeUnit.SECONDS,
+				null, lockingMode);
+	}
+
+	private static Venue newVenue(int numberOfLevels, int rows, int seatsInRow) {
+		List<Level> levels = new ArrayList<>();
+		for (int id = 1; id <= numberOfLevels; id++) {
+			levels.add(new Level(id, "Level " + id, Money.of(10 * id, "USD"), rows, seatsInRow));
+		}
+		return new Venue(1, "Load Test Venue", levels);
+	}
+
+	private static int intOption(Map<String, String> options, String name, int defaultValue) {
+		String value = options.get(name);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+}
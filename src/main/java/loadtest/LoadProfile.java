@@ -0,0 +1,313 @@
+package loadtest;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * What a {@link LoadGenerator} sends to a TicketService: how many holds a
+ * second and from how many threads, for how long, and what each hold asks for.
+ *
+ * <p>
+ * Holds are sent at a fixed rate whether or not the service keeps up (open
+ * loop). Each one asks for a number of seats picked from the group sizes and a
+ * level range picked from the level ranges, both in proportion to their
+ * weights. Once held, the seats are reserved with the reserve probability and
+ * otherwise left to expire.
+ *
+ * <p>
+ * Profiles are put together with a {@link Builder}.
+ *
+ * @author bstoll
+ *
+ */
+public final class LoadProfile {
+
+	private final double holdsPerSecond;
+
+	private final int threads;
+
+	private final long warmupNanos;
+
+	private final long durationNanos;
+
+	private final WeightedChoice<Integer> groupSizes;
+
+	private final WeightedChoice<LevelRange> levelRanges;
+
+	private final double reserveProbability;
+
+	private final int customers;
+
+	private LoadProfile(Builder builder, WeightedChoice<Integer> groupSizes, WeightedChoice<LevelRange> levelRanges) {
+		this.holdsPerSecond = builder.holdsPerSecond;
+		this.threads = builder.threads;
+		this.warmupNanos = builder.warmupNanos;
+		this.durationNanos = builder.durationNanos;
+		this.groupSizes = groupSizes;
+		this.levelRanges = levelRanges;
+		this.reserveProbability = builder.reserveProbability;
+		this.customers = builder.customers;
+	}
+
+	/**
+	 * @return the holds sent a second, across all threads.
+	 */
+	public double getHoldsPerSecond() {
+		return holdsPerSecond;
+	}
+
+	/**
+	 * @return the number of threads sending holds.
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return how long holds are sent before they are measured, in nanoseconds.
+	 */
+	public long getWarmupNanos() {
+		return warmupNanos;
+	}
+
+	/**
+	 * @return how long holds are sent and measured after the warmup, in
+	 *         nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return the chance, from 0 to 1, that held seats are reserved.
+	 */
+	public double getReserveProbability() {
+		return reserveProbability;
+	}
+
+	/**
+	 * @return the number of distinct customer emails holds are sent for.
+	 */
+	public int getCustomers() {
+		return customers;
+	}
+
+	int nextGroupSize(Random random) {
+		return groupSizes.next(random);
+	}
+
+	LevelRange nextLevelRange(Random random) {
+		return levelRanges.next(random);
+	}
+
+	/**
+	 * Range of levels a hold asks for. Either end may be empty.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	static final class LevelRange {
+
+		private final Optional<Integer> minLevel;
+
+		private final Optional<Integer> maxLevel;
+
+		LevelRange(Optional<Integer> minLevel, Optional<Integer> maxLevel) {
+			this.minLevel = minLevel;
+			this.maxLevel = maxLevel;
+		}
+
+		Optional<Integer> getMinLevel() {
+			return minLevel;
+		}
+
+		Optional<Integer> getMaxLevel() {
+			return maxLevel;
+		}
+
+	}
+
+	/**
+	 * Builds a LoadProfile. Anything not set keeps the defaults of the old
+	 * simulator scaled up: 1,000 holds a second from 4 threads for 30 seconds
+	 * after a 5 second warmup, 1 to 10 seats anywhere in the venue, half of them
+	 * reserved, from 1,000 customers.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	public static final class Builder {
+
+		private double holdsPerSecond = 1000;
+
+		private int threads = 4;
+
+		private long warmupNanos = TimeUnit.SECONDS.toNanos(5);
+
+		private long durationNanos = TimeUnit.SECONDS.toNanos(30);
+
+		private final WeightedChoice<Integer> groupSizes = new WeightedChoice<>();
+
+		private final WeightedChoice<LevelRange> levelRanges = new WeightedChoice<>();
+
+		private double reserveProbability = 0.5;
+
+		private int customers = 1000;
+
+		/**
+		 * @param holdsPerSecond
+		 *            The holds sent a second, across all threads. Must be greater
+		 *            than 0.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if the rate is not greater than 0.
+		 */
+		public Builder holdsPerSecond(double holdsPerSecond) {
+			Preconditions.checkArgument(holdsPerSecond > 0 && !Double.isInfinite(holdsPerSecond),
+					"Invalid holdsPerSecond, Must be greater than 0");
+			this.holdsPerSecond = holdsPerSecond;
+			return this;
+		}
+
+		/**
+		 * @param threads
+		 *            The number of threads sending holds. Must be greater than 0.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if threads is not greater than 0.
+		 */
+		public Builder threads(int threads) {
+			Preconditions.checkArgument(threads > 0, "Invalid threads, Must be greater than 0");
+			this.threads = threads;
+			return this;
+		}
+
+		/**
+		 * @param warmup
+		 *            How long holds are sent before they are measured. Must be 0
+		 *            or greater.
+		 * @param unit
+		 *            The TimeUnit of the warmup. Must not be null.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if any of the constraints are invalidated.
+		 */
+		public Builder warmup(long warmup, TimeUnit unit) {
+			Preconditions.checkArgument(warmup >= 0, "Invalid warmup, Must be 0 or greater");
+			Preconditions.checkArgument(unit != null, "Invalid TimeUnit for warmup. Must not be null");
+			this.warmupNanos = unit.toNanos(warmup);
+			return this;
+		}
+
+		/**
+		 * @param duration
+		 *            How long holds are sent and measured after the warmup. Must be
+		 *            greater than 0.
+		 * @param unit
+		 *            The TimeUnit of the duration. Must not be null.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if any of the constraints are invalidated.
+		 */
+		public Builder duration(long duration, TimeUnit unit) {
+			Preconditions.checkArgument(duration > 0, "Invalid duration, Must be greater than 0");
+			Preconditions.checkArgument(unit != null, "Invalid TimeUnit for duration. Must not be null");
+			this.durationNanos = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * Adds a group size holds can ask for. Replaces the default of 1 to 10
+		 * seats.
+		 *
+		 * @param numSeats
+		 *            The number of seats. Must be greater than 0.
+		 * @param weight
+		 *            How often it is asked for, relative to the other group sizes.
+		 *            Must be greater than 0.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if any of the constraints are invalidated.
+		 */
+		public Builder groupSize(int numSeats, double weight) {
+			Preconditions.checkArgument(numSeats > 0, "Invalid numSeats, Must be greater than 0");
+			groupSizes.add(numSeats, weight);
+			return this;
+		}
+
+		/**
+		 * Adds a level range holds can ask for. Replaces the default of the whole
+		 * venue.
+		 *
+		 * @param minLevel
+		 *            The minimum level. Must not be null, may be empty.
+		 * @param maxLevel
+		 *            The maximum level. Must not be null, may be empty.
+		 * @param weight
+		 *            How often it is asked for, relative to the other level
+		 *            ranges. Must be greater than 0.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if any of the constraints are invalidated.
+		 */
+		public Builder levelRange(Optional<Integer> minLevel, Optional<Integer> maxLevel, double weight) {
+			Preconditions.checkArgument(minLevel != null, "Invalid minLevel. Must not be null");
+			Preconditions.checkArgument(maxLevel != null, "Invalid maxLevel. Must not be null");
+			Preconditions.checkArgument(
+					!minLevel.isPresent() || !maxLevel.isPresent() || minLevel.get() <= maxLevel.get(),
+					"Invalid level range, minLevel must not be greater than maxLevel");
+			levelRanges.add(new LevelRange(minLevel, maxLevel), weight);
+			return this;
+		}
+
+		/**
+		 * @param reserveProbability
+		 *            The chance, from 0 to 1, that held seats are reserved.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if the probability is out of range.
+		 */
+		public Builder reserveProbability(double reserveProbability) {
+			Preconditions.checkArgument(reserveProbability >= 0 && reserveProbability <= 1,
+					"Invalid reserveProbability, Must be between 0 and 1");
+			this.reserveProbability = reserveProbability;
+			return this;
+		}
+
+		/**
+		 * @param customers
+		 *            The number of distinct customer emails holds are sent for.
+		 *            Must be greater than 0.
+		 * @return this Builder.
+		 * @throws IllegalArgumentException
+		 *             if customers is not greater than 0.
+		 */
+		public Builder customers(int customers) {
+			Preconditions.checkArgument(customers > 0, "Invalid customers, Must be greater than 0");
+			this.customers = customers;
+			return this;
+		}
+
+		/**
+		 * @return the LoadProfile.
+		 */
+		public LoadProfile build() {
+			WeightedChoice<Integer> profileGroupSizes = new WeightedChoice<>(groupSizes);
+			if (profileGroupSizes.isEmpty()) {
+				for (int numSeats = 1; numSeats <= 10; numSeats++) {
+					profileGroupSizes.add(numSeats, 1);
+				}
+			}
+			WeightedChoice<LevelRange> profileLevelRanges = new WeightedChoice<>(levelRanges);
+			if (profileLevelRanges.isEmpty()) {
+				profileLevelRanges.add(new LevelRange(Optional.empty(), Optional.empty()), 1);
+			}
+			return new LoadProfile(this, profileGroupSizes, profileLevelRanges);
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+package loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import metrics.LatencyHistogram;
+
+/**
+ * What a {@link LoadGenerator} measured after its warmup.
+ *
+ * <p>
+ * Hold latencies are taken from the time each hold was scheduled to be sent,
+ * not the time it was sent, so time spent waiting behind a slow call is
+ * counted (coordinated omission correction). Reserve latencies are taken from
+ * the time the hold returned, as reserves are sent straight after it.
+ *
+ * @author bstoll
+ *
+ */
+public final class LoadReport {
+
+	private static final double[] PERCENTILES = { 50, 99, 99.9 };
+
+	private final double targetHoldsPerSecond;
+
+	private final long durationNanos;
+
+	private final long holdsSent;
+
+	private final long holdsFailed;
+
+	private final long reservations;
+
+	private final long errors;
+
+	private final LatencyHistogram holdLatencies;
+
+	private final LatencyHistogram reserveLatencies;
+
+	LoadReport(double targetHoldsPerSecond, long durationNanos, long holdsSent, long holdsFailed, long reservations,
+			long errors, LatencyHistogram holdLatencies, LatencyHistogram reserveLatencies) {
+		this.targetHoldsPerSecond = targetHoldsPerSecond;
+		this.durationNanos = durationNanos;
+		this.holdsSent = holdsSent;
+		this.holdsFailed = holdsFailed;
+		this.reservations = reservations;
+		this.errors = errors;
+		this.holdLatencies = holdLatencies;
+		this.reserveLatencies = reserveLatencies;
+	}
+
+	/**
+	 * @return how long was measured, in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return the number of holds sent, including failed ones.
+	 */
+	public long getHoldsSent() {
+		return holdsSent;
+	}
+
+	/**
+	 * @return the number of holds that returned no SeatHold because there were
+	 *         not enough seats.
+	 */
+	public long getHoldsFailed() {
+		return holdsFailed;
+	}
+
+	/**
+	 * @return the number of SeatHolds reserved.
+	 */
+	public long getReservations() {
+		return reservations;
+	}
+
+	/**
+	 * @return the number of holds and reserves that threw an exception.
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return the holds and reserves completed a second.
+	 */
+	public double getOperationsPerSecond() {
+		return (holdsSent + reservations) / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+
+	/**
+	 * @return the latency of every hold in nanoseconds, from when it was
+	 *         scheduled to be sent.
+	 */
+	public LatencyHistogram getHoldLatencies() {
+		return holdLatencies;
+	}
+
+	/**
+	 * @return the latency of every reserve in nanoseconds.
+	 */
+	public LatencyHistogram getReserveLatencies() {
+		return reserveLatencies;
+	}
+
+	/**
+	 * Prints the report.
+	 *
+	 * @param out
+	 *            Where to print it.
+	 */
+	public void print(PrintStream out) {
+		double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+		out.printf("Measured %.1f s, target %.0f holds/s, sent %.0f holds/s%n", seconds, targetHoldsPerSecond,
+				holdsSent / seconds);
+		out.printf("Holds: %d sent, %d not enough seats, reservations: %d, errors: %d%n", holdsSent, holdsFailed,
+				reservations, errors);
+		out.printf("Throughput: %.0f ops/s%n", getOperationsPerSecond());
+		out.printf("%-8s %10s %10s %10s %10s %10s%n", "latency", "mean us", "p50 us", "p99 us", "p99.9 us", "max us");
+		printLatencies(out, "hold", holdLatencies);
+		printLatencies(out, "reserve", reserveLatencies);
+	}
+
+	private static void printLatencies(PrintStream out, String name, LatencyHistogram latencies) {
+		out.printf("%-8s %10.1f", name, latencies.getMean() / 1000);
+		for (double percentile : PERCENTILES) {
+			out.printf(" %10.1f", latencies.getValueAtPercentile(percentile) / 1000.0);
+		}
+		out.printf(" %10.1f%n", latencies.getMaxValue() / 1000.0);
+	}
+
+}
@@ -0,0 +1,98 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Picks values at random, each in proportion to its weight.
+ *
+ * <p>
+ * Picking is a binary search over the running total of the weights and does
+ * not allocate. This class is not thread safe while values are being added.
+ *
+ * @author bstoll
+ *
+ * @param <T>
+ *            The type of value picked.
+ */
+final class WeightedChoice<T> {
+
+	private final List<T> values = new ArrayList<>();
+
+	private double[] cumulativeWeights = new double[0];
+
+	/**
+	 * Sets up an empty WeightedChoice.
+	 */
+	WeightedChoice() {
+	}
+
+	/**
+	 * Sets up a WeightedChoice with the same values and weights as another.
+	 *
+	 * @param other
+	 *            The WeightedChoice to copy.
+	 */
+	WeightedChoice(WeightedChoice<T> other) {
+		values.addAll(other.values);
+		cumulativeWeights = other.cumulativeWeights.clone();
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value
+	 *            The value. Must not be null.
+	 * @param weight
+	 *            Its weight. Must be greater than 0.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	void add(T value, double weight) {
+		Preconditions.checkArgument(value != null, "Invalid value. Must not be null");
+		Preconditions.checkArgument(weight > 0 && !Double.isInfinite(weight),
+				"Invalid weight, Must be greater than 0");
+		int size = values.size();
+		cumulativeWeights = Arrays.copyOf(cumulativeWeights, size + 1);
+		cumulativeWeights[size] = (size == 0 ? 0 : cumulativeWeights[size - 1]) + weight;
+		values.add(value);
+	}
+
+	/**
+	 * Picks a value.
+	 *
+	 * @param random
+	 *            The source of randomness.
+	 * @return the value.
+	 * @throws IllegalStateException
+	 *             if no value was added.
+	 */
+	T next(Random random) {
+		Preconditions.checkState(!values.isEmpty(), "No values to pick from");
+		double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+		int index = Arrays.binarySearch(cumulativeWeights, target);
+		// Landing on a boundary picks the value above it, otherwise take the
+		// insertion point.
+		index = index >= 0 ? index + 1 : -index - 1;
+		return values.get(Math.min(index, values.size() - 1));
+	}
+
+	/**
+	 * @return the values, in the order they were added.
+	 */
+	List<T> getValues() {
+		return values;
+	}
+
+	/**
+	 * @return true if no value was added.
+	 */
+	boolean isEmpty() {
+		return values.isEmpty();
+	}
+
+}
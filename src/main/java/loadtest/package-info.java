@@ -0,0 +1,7 @@
+/**
+ * Package for the headless load generator used to size a TicketService.
+ * 
+ * @author bstoll
+ *
+ */
+package loadtest;
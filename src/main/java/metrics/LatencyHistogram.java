@@ -0,0 +1,175 @@
+package metrics;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Log linear histogram of latencies, or any other non negative long values.
+ *
+ * <p>
+ * Values below 256 get a bucket each. Above that every power of two is cut
+ * into 128 equal buckets, so a value is reported to within 1/128 (0.8%) of
+ * what was recorded, across the whole range of a long. All buckets are
+ * allocated up front and recording a value only increments a counter, so
+ * recording never allocates.
+ *
+ * <p>
+ * This class is not thread safe. Record into one histogram per thread and
+ * {@link #add(LatencyHistogram)} them together to report, or record into a
+ * {@link LatencyRecorder} from many threads at once.
+ *
+ * @author bstoll
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	// Magnitude of Long.MAX_VALUE, the highest value that can be recorded.
+	private static final int MAX_MAGNITUDE = 62 - SUB_BUCKET_BITS;
+
+	static final int BUCKETS = (MAX_MAGNITUDE + 2) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+
+	private long totalCount;
+
+	private long min = Long.MAX_VALUE;
+
+	private long max;
+
+	private double sum;
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value
+	 *            The value. Must be 0 or greater.
+	 * @throws IllegalArgumentException
+	 *             if the value is negative.
+	 */
+	public void recordValue(long value) {
+		Preconditions.checkArgument(value >= 0, "Invalid value, Must be 0 or greater");
+		counts[bucketOf(value)]++;
+		totalCount++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds every value recorded in another histogram to this one.
+	 *
+	 * @param other
+	 *            The other histogram. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if other is null.
+	 */
+	public void add(LatencyHistogram other) {
+		Preconditions.checkArgument(other != null, "Invalid histogram. Must not be null");
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts[bucket] += other.counts[bucket];
+		}
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	// Adds the counts taken from a LatencyRecorder.
+	void add(long[] bucketCounts, long minValue, long maxValue, double valueSum) {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts[bucket] += bucketCounts[bucket];
+			totalCount += bucketCounts[bucket];
+		}
+		sum += valueSum;
+		min = Math.min(min, minValue);
+		max = Math.max(max, maxValue);
+	}
+
+	/**
+	 * Forgets every value recorded.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+
+	/**
+	 * Finds the value that the given percentage of the recorded values are less
+	 * than or equal to.
+	 *
+	 * @param percentile
+	 *            The percentile, from 0 to 100.
+	 * @return the highest value that falls in the same bucket as the value at the
+	 *         percentile, never more than the largest value recorded. 0 if
+	 *         nothing was recorded.
+	 * @throws IllegalArgumentException
+	 *             if the percentile is out of range.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Preconditions.checkArgument(percentile >= 0 && percentile <= 100,
+				"Invalid percentile, Must be between 0 and 100");
+		if (totalCount == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long count = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			count += counts[bucket];
+			if (count >= target) {
+				return Math.min(highestValueIn(bucket), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return the number of values recorded.
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * @return the smallest value recorded, 0 if nothing was recorded.
+	 */
+	public long getMinValue() {
+		return totalCount == 0 ? 0 : min;
+	}
+
+	/**
+	 * @return the largest value recorded, 0 if nothing was recorded.
+	 */
+	public long getMaxValue() {
+		return max;
+	}
+
+	/**
+	 * @return the mean of the values recorded, 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		return totalCount == 0 ? 0 : sum / totalCount;
+	}
+
+	// Values below 2 * SUB_BUCKETS are their own bucket. Above that the
+	// magnitude is how far the value has to be shifted to fit in the upper
+	// half of the sub buckets.
+	static int bucketOf(long value) {
+		int magnitude = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return (magnitude << SUB_BUCKET_BITS) + (int) (value >>> magnitude);
+	}
+
+	static long highestValueIn(int bucket) {
+		int magnitude = Math.max(0, (bucket >>> SUB_BUCKET_BITS) - 1);
+		long subBucket = bucket - ((long) magnitude << SUB_BUCKET_BITS);
+		return ((subBucket + 1) << magnitude) - 1;
+	}
+
+}
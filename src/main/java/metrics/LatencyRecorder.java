@@ -0,0 +1,66 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Thread safe recorder of latencies, with the same buckets as a
+ * {@link LatencyHistogram}.
+ *
+ * <p>
+ * Recording a value is a handful of atomic updates and never allocates or
+ * blocks, so it can be left on in production. {@link #snapshot()} copies the
+ * counts into a LatencyHistogram to report on. Values recorded while a
+ * snapshot is taken may or may not make it in.
+ *
+ * @author bstoll
+ *
+ */
+public final class LatencyRecorder {
+
+	private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKETS);
+
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+	private final AtomicLong max = new AtomicLong();
+
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value
+	 *            The value. Must be 0 or greater.
+	 * @throws IllegalArgumentException
+	 *             if the value is negative.
+	 */
+	public void recordValue(long value) {
+		Preconditions.checkArgument(value >= 0, "Invalid value, Must be 0 or greater");
+		counts.incrementAndGet(LatencyHistogram.bucketOf(value));
+		sum.add(value);
+		// Only contend on the extremes when they actually move.
+		if (value < min.get()) {
+			min.accumulateAndGet(value, Math::min);
+		}
+		if (value > max.get()) {
+			max.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	/**
+	 * @return a LatencyHistogram with every value recorded so far.
+	 */
+	public LatencyHistogram snapshot() {
+		long[] bucketCounts = new long[LatencyHistogram.BUCKETS];
+		for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+			bucketCounts[bucket] = counts.get(bucket);
+		}
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.add(bucketCounts, min.get(), max.get(), sum.sum());
+		return histogram;
+	}
+
+}
@@ -0,0 +1,7 @@
+/**
+ * Package for recording and reporting latencies and other measurements.
+ * 
+ * @author bstoll
+ *
+ */
+package metrics;
@@ -0,0 +1,75 @@
+package model;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Event represents a single performance held in a Venue. Many Events can share
+ * the same Venue, its Levels and Seats are the layout of every one of them and
+ * only the seat states are kept per Event.
+ * 
+ * This class is Immutable.
+ * 
+ * @author bstoll
+ *
+ */
+public final class Event {
+
+	private final int id;
+	private final String name;
+	private final Venue venue;
+
+	/**
+	 * Sets up an Event.
+	 * 
+	 * @param id
+	 *            The Id of the Event. Must be greater than 0.
+	 * @param name
+	 *            The Name of the Event. Must not be null or empty.
+	 * @param venue
+	 *            The Venue the Event is held in. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public Event(int id, String name, Venue venue) {
+		Preconditions.checkArgument(id > 0, "Invalid Event id. Must be greater than 0");
+		Preconditions.checkArgument(name != null, "Invalid Name. Must not be null");
+		Preconditions.checkArgument(!name.isEmpty(), "Invalid Name. Must not be empty string");
+		Preconditions.checkArgument(venue != null, "Invalid Venue. Must not be null");
+
+		this.id = id;
+		this.name = name;
+		this.venue = venue;
+	}
+
+	/**
+	 * @return the id
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the venue
+	 */
+	public Venue getVenue() {
+		return venue;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Event [id=" + id + ", name=" + name + ", venue=" + venue.getName() + "]";
+	}
+
+}
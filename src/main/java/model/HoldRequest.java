@@ -0,0 +1,89 @@
+package model;
+
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * HoldRequest is one request to find and hold seats, as passed to the batch
+ * findAndHoldSeats of a TicketService. This object is Immutable.
+ * 
+ * @author bstoll
+ *
+ */
+public final class HoldRequest {
+
+	private final int numSeats;
+	private final Optional<Integer> minLevel;
+	private final Optional<Integer> maxLevel;
+	private final String customerEmail;
+
+	/**
+	 * Sets up a HoldRequest.
+	 * 
+	 * @param numSeats
+	 *            The number of seats to find and hold. Must be greater than 0.
+	 * @param minLevel
+	 *            The minimum level to search on. Must not be null.
+	 *            Optional.empty() defaults to the min level of the venue.
+	 * @param maxLevel
+	 *            The maximum level to search on. Must not be null.
+	 *            Optional.empty() defaults to the max level of the venue.
+	 * @param customerEmail
+	 *            The Customer email. Must not be null or empty.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public HoldRequest(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel, String customerEmail) {
+		Preconditions.checkArgument(numSeats > 0, "Invalid numSeats. Must be greater than 0");
+		Preconditions.checkArgument(minLevel != null, "Invalid minLevel. Must not be null");
+		Preconditions.checkArgument(maxLevel != null, "Invalid maxLevel. Must not be null");
+		Preconditions.checkArgument(customerEmail != null, "Invalid Customer email. Must not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer email. Must not be empty string");
+
+		this.numSeats = numSeats;
+		this.minLevel = minLevel;
+		this.maxLevel = maxLevel;
+		this.customerEmail = customerEmail;
+	}
+
+	/**
+	 * @return the numSeats
+	 */
+	public int getNumSeats() {
+		return numSeats;
+	}
+
+	/**
+	 * @return the minLevel
+	 */
+	public Optional<Integer> getMinLevel() {
+		return minLevel;
+	}
+
+	/**
+	 * @return the maxLevel
+	 */
+	public Optional<Integer> getMaxLevel() {
+		return maxLevel;
+	}
+
+	/**
+	 * @return the customerEmail
+	 */
+	public String getCustomerEmail() {
+		return customerEmail;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "HoldRequest [numSeats=" + numSeats + ", minLevel=" + minLevel + ", maxLevel=" + maxLevel
+				+ ", customerEmail=" + customerEmail + "]";
+	}
+
+}
@@ -0,0 +1,92 @@
+package model;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * HoldResult is the outcome of one {@link HoldRequest} of a batch: the
+ * SeatHold if seats were held, nothing if there were not enough seats, or the
+ * exception the request was rejected with. This object is Immutable.
+ * 
+ * @author bstoll
+ *
+ */
+public final class HoldResult {
+
+	private final HoldRequest request;
+	private final SeatHold seatHold;
+	private final RuntimeException failure;
+
+	/**
+	 * Sets up a HoldResult for a request that was processed.
+	 * 
+	 * @param request
+	 *            The HoldRequest. Must not be null.
+	 * @param seatHold
+	 *            The SeatHold, null if the seats could not be found.
+	 * @throws IllegalArgumentException
+	 *             If request is null.
+	 */
+	public HoldResult(HoldRequest request, SeatHold seatHold) {
+		Preconditions.checkArgument(request != null, "Invalid request. Must not be null");
+		this.request = request;
+		this.seatHold = seatHold;
+		this.failure = null;
+	}
+
+	/**
+	 * Sets up a HoldResult for a request that was rejected.
+	 * 
+	 * @param request
+	 *            The HoldRequest. Must not be null.
+	 * @param failure
+	 *            Why the request was rejected. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public HoldResult(HoldRequest request, RuntimeException failure) {
+		Preconditions.checkArgument(request != null, "Invalid request. Must not be null");
+		Preconditions.checkArgument(failure != null, "Invalid failure. Must not be null");
+		this.request = request;
+		this.seatHold = null;
+		this.failure = failure;
+	}
+
+	/**
+	 * @return the request
+	 */
+	public HoldRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * @return the SeatHold, null if no seats were held.
+	 */
+	public SeatHold getSeatHold() {
+		return seatHold;
+	}
+
+	/**
+	 * @return the exception the request was rejected with, null if it was not.
+	 */
+	public RuntimeException getFailure() {
+		return failure;
+	}
+
+	/**
+	 * @return true if seats were held.
+	 */
+	public boolean isHeld() {
+		return seatHold != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "HoldResult [request=" + request + ", seatHold=" + seatHold + ", failure=" + failure + "]";
+	}
+
+}
@@ -1,97 +1,131 @@
-package model;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-import javax.money.MonetaryAmount;
-
-import com.google.common.base.Preconditions;
-
-/**
- * Level represents a collection of seats inside of a venue. They are identified
- * by id and name. This is Immutable.
- * 
- * <p>
- * Currently price is static for the entire level.
- * 
- * 
- * @author bstoll
- *
- */
-public final class Level {
-
-	private final int id;
-
-	private final String name;
-
-	private final List<Seat> seats;
-
-	/**
-	 * 
-	 * @param name
-	 *            name of the level. Must not be empty or null.
-	 * @param pricePerTicket
-	 *            The Price of a ticket at this level. Must not be null and must be
-	 *            greater than 0.
-	 * @param numberOfRows
-	 *            The number of rows in this level. Must be greater than 0.
-	 * @param seatsInRow
-	 *            The number of seats in a row. Must be greater than 0.
-	 * 
-	 * @throws IllegalArgumentException
-	 *             if any of the constraints are invalidated.
-	 * 
-	 */
-	public Level(int id, String name, MonetaryAmount pricePerTicket, int numberOfRows, int seatsInRow) {
-		Preconditions.checkArgument(id > 0, "Invalid level, Must be greater than 0");
-		Preconditions.checkArgument(numberOfRows > 0, "Invalid Number Of Rows, Must be greater than 0");
-		Preconditions.checkArgument(name != null && !name.isEmpty(), "Invalid Name, Must not be null or empty");
-		Preconditions.checkArgument(pricePerTicket != null, "Invalid Price, Must not be null");
-		Preconditions.checkArgument(pricePerTicket.isPositive(), "Invalid Price, Must be greater than 0");
-		Preconditions.checkArgument(numberOfRows > 0, "Invalid Number Of Rows, Must be greater than 0");
-		Preconditions.checkArgument(seatsInRow > 0, "Invalid Seats in Row, Must be greater than 0");
-
-		this.id = id;
-		this.name = name;
-		this.seats = new ArrayList<>();
-
-		for (int row = 1; row <= numberOfRows; row++) {
-			for (int seatNumber = 1; seatNumber <= seatsInRow; seatNumber++) {
-				Seat seat = new Seat(id, row, seatNumber, pricePerTicket);
-				seats.add(seat);
-
-			}
-		}
-
-	}
-
-	/**
-	 * @return the id of the Level.
-	 */
-	public int getId() {
-		return id;
-	}
-
-	/**
-	 * @return the name of the Level.
-	 */
-	public String getName() {
-		return name;
-	}
-
-	/**
-	 * @return Unmodifiable list of Seats.
-	 */
-	public List<Seat> getSeats() {
-		return Collections.unmodifiableList(seats);
-	}
-
-	/**
-	 * @return the total number of seats on this level.
-	 */
-	public int getTotalNumberOfSeats() {
-		return seats.size();
-	}
-
-}
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.money.MonetaryAmount;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Level represents a collection of seats inside of a venue. They are identified
+ * by id and name. This is Immutable.
+ * 
+ * <p>
+ * Currently price is static for the entire level.
+ * 
+ * 
+ * @author bstoll
+ *
+ */
+public final class Level {
+
+	private final int id;
+
+	private final String name;
+
+	private final int numberOfRows;
+
+	private final int seatsInRow;
+
+	private final Price price;
+
+	private final List<Seat> seats;
+
+	/**
+	 * 
+	 * @param name
+	 *            name of the level. Must not be empty or null.
+	 * @param pricePerTicket
+	 *            The Price of a ticket at this level. Must not be null, must be
+	 *            greater than 0 and must be a whole number of the currency's
+	 *            minor units, so 10.005 USD is refused rather than rounded.
+	 * @param numberOfRows
+	 *            The number of rows in this level. Must be greater than 0.
+	 * @param seatsInRow
+	 *            The number of seats in a row. Must be greater than 0.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 * 
+	 */
+	public Level(int id, String name, MonetaryAmount pricePerTicket, int numberOfRows, int seatsInRow) {
+		Preconditions.checkArgument(id > 0, "Invalid level, Must be greater than 0");
+		Preconditions.checkArgument(numberOfRows > 0, "Invalid Number Of Rows, Must be greater than 0");
+		Preconditions.checkArgument(name != null && !name.isEmpty(), "Invalid Name, Must not be null or empty");
+		Preconditions.checkArgument(pricePerTicket != null, "Invalid Price, Must not be null");
+		Preconditions.checkArgument(numberOfRows > 0, "Invalid Number Of Rows, Must be greater than 0");
+		Preconditions.checkArgument(seatsInRow > 0, "Invalid Seats in Row, Must be greater than 0");
+
+		this.id = id;
+		this.name = name;
+		this.numberOfRows = numberOfRows;
+		this.seatsInRow = seatsInRow;
+		// Validated once and shared by every Seat.
+		this.price = new Price(pricePerTicket);
+
+		List<Seat> seats = new ArrayList<>(numberOfRows * seatsInRow);
+
+		for (int row = 1; row <= numberOfRows; row++) {
+			for (int seatNumber = 1; seatNumber <= seatsInRow; seatNumber++) {
+				Seat seat = new Seat(price, id, row, seatNumber);
+				seats.add(seat);
+
+			}
+		}
+
+		this.seats = Collections.unmodifiableList(seats);
+
+	}
+
+	/**
+	 * @return the id of the Level.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * @return the name of the Level.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the number of rows in this Level.
+	 */
+	public int getNumberOfRows() {
+		return numberOfRows;
+	}
+
+	/**
+	 * @return the number of seats in each row of this Level.
+	 */
+	public int getSeatsInRow() {
+		return seatsInRow;
+	}
+
+	/**
+	 * @return the Price of a ticket at this Level.
+	 */
+	public Price getPrice() {
+		return price;
+	}
+
+	/**
+	 * @return Unmodifiable list of Seats, ordered by row then seat number.
+	 */
+	public List<Seat> getSeats() {
+		return seats;
+	}
+
+	/**
+	 * @return the total number of seats on this level.
+	 */
+	public int getTotalNumberOfSeats() {
+		return seats.size();
+	}
+
+}
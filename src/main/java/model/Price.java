@@ -0,0 +1,151 @@
+package model;
+
+import java.math.BigDecimal;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Price of a ticket, held as a long count of the currency's minor units (cents
+ * for USD) so prices can be compared and added up without going through
+ * MonetaryAmount arithmetic. A Level's Price is shared by all of its Seats.
+ *
+ * This class is Immutable.
+ *
+ * @author bstoll
+ *
+ */
+public final class Price {
+
+	private final long minorUnits;
+	private final CurrencyUnit currency;
+	private final MonetaryAmount amount;
+
+	/**
+	 * Sets up a Price.
+	 *
+	 * @param amount
+	 *            The amount. Must not be null, must be greater than 0 and must be
+	 *            a whole number of the currency's minor units that fits in a
+	 *            long. Amounts are never rounded, a price of 10.005 USD is
+	 *            refused.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public Price(MonetaryAmount amount) {
+		Preconditions.checkArgument(amount != null, "Invalid Price, Price must not be null");
+		Preconditions.checkArgument(amount.isPositive(), "Invalid Price, Must be greater than 0");
+
+		BigDecimal minor = amount.getNumber().numberValue(BigDecimal.class)
+				.movePointRight(fractionDigits(amount.getCurrency()));
+		try {
+			this.minorUnits = minor.longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Invalid Price, Must be a whole number of minor units: " + amount, e);
+		}
+		this.currency = amount.getCurrency();
+		this.amount = amount;
+	}
+
+	/**
+	 * Sets up a Price.
+	 *
+	 * @param minorUnits
+	 *            The amount in minor units of the currency. Must be greater than 0.
+	 * @param currency
+	 *            The currency. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public Price(long minorUnits, CurrencyUnit currency) {
+		Preconditions.checkArgument(minorUnits > 0, "Invalid Price, Must be greater than 0");
+		Preconditions.checkArgument(currency != null, "Invalid Currency, Must not be null");
+		this.minorUnits = minorUnits;
+		this.currency = currency;
+		this.amount = toAmount(minorUnits, currency);
+	}
+
+	/**
+	 * @return the amount in minor units of the currency.
+	 */
+	public long getMinorUnits() {
+		return minorUnits;
+	}
+
+	/**
+	 * @return the currency
+	 */
+	public CurrencyUnit getCurrency() {
+		return currency;
+	}
+
+	/**
+	 * @return the amount as a MonetaryAmount.
+	 */
+	public MonetaryAmount getAmount() {
+		return amount;
+	}
+
+	/**
+	 * Converts an amount in minor units to a MonetaryAmount.
+	 *
+	 * @param minorUnits
+	 *            The amount in minor units of the currency.
+	 * @param currency
+	 *            The currency. Must not be null.
+	 * @return the MonetaryAmount.
+	 */
+	public static MonetaryAmount toAmount(long minorUnits, CurrencyUnit currency) {
+		return Money.of(BigDecimal.valueOf(minorUnits, fractionDigits(currency)), currency);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(minorUnits);
+		result = prime * result + currency.hashCode();
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Price other = (Price) obj;
+		if (minorUnits != other.minorUnits)
+			return false;
+		if (!currency.equals(other.currency))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "Price [" + amount + "]";
+	}
+
+	private static int fractionDigits(CurrencyUnit currency) {
+		// Pseudo currencies report -1, treat them as having no minor unit.
+		return Math.max(currency.getDefaultFractionDigits(), 0);
+	}
+
+}
@@ -0,0 +1,91 @@
+package model;
+
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Reservation represents the seats of a SeatHold that were reserved for an
+ * Event, identified by the confirmation number handed out for them. This
+ * object is Immutable.
+ *
+ * @author bstoll
+ *
+ */
+public final class Reservation {
+
+	private final String confirmationNumber;
+	private final Event event;
+	private final SeatHold seatHold;
+
+	/**
+	 * Sets up a Reservation.
+	 *
+	 * @param confirmationNumber
+	 *            The confirmation number. Must not be null or empty.
+	 * @param event
+	 *            The Event the seats were reserved for. Must not be null.
+	 * @param seatHold
+	 *            The SeatHold that was reserved. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public Reservation(String confirmationNumber, Event event, SeatHold seatHold) {
+		Preconditions.checkArgument(confirmationNumber != null, "Invalid confirmation number. Must not be null");
+		Preconditions.checkArgument(!confirmationNumber.isEmpty(),
+				"Invalid confirmation number. Must not be empty string");
+		Preconditions.checkArgument(event != null, "Invalid Event. Must not be null");
+		Preconditions.checkArgument(seatHold != null, "Invalid SeatHold. Must not be null");
+
+		this.confirmationNumber = confirmationNumber;
+		this.event = event;
+		this.seatHold = seatHold;
+	}
+
+	/**
+	 * @return the confirmationNumber
+	 */
+	public String getConfirmationNumber() {
+		return confirmationNumber;
+	}
+
+	/**
+	 * @return the event
+	 */
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return the SeatHold that was reserved.
+	 */
+	public SeatHold getSeatHold() {
+		return seatHold;
+	}
+
+	/**
+	 * @return the customerEmail
+	 */
+	public String getCustomerEmail() {
+		return seatHold.getCustomerEmail();
+	}
+
+	/**
+	 * @return Unmodifiable List of the reserved seats.
+	 */
+	public List<Seat> getSeats() {
+		return seatHold.getSeats();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Reservation [confirmationNumber=" + confirmationNumber + ", eventId=" + event.getId() + ", seatHold="
+				+ seatHold + "]";
+	}
+
+}
@@ -1,89 +1,206 @@
-package model;
-
-import java.util.Collections;
-import java.util.List;
-
-import com.google.common.base.Preconditions;
-
-/**
- * SeatHold represents a specific hold on selected number of seats. They are
- * tied directly to a users email. This object is Immutable.
- * 
- * @author bstoll
- *
- */
-public final class SeatHold {
-
-	private final int id;
-	private final String customerEmail;
-	private final List<Seat> seats;
-
-	/**
-	 * Sets up a SeatHold.
-	 * 
-	 * @param id
-	 *            The int id of the SeatHold. Must be greater than 0.
-	 * @param customerEmail
-	 *            The Customer email. Must not be null or empty.
-	 * @param seats
-	 *            The Seats. Must not be null or empty. Each Seat in the List must
-	 *            not be null.
-	 * @throws IllegalArgumentException
-	 *             If any of the constraints are invalidated.
-	 * @throws NullPointerException
-	 *             If any of the Seats in the List are null.
-	 */
-	public SeatHold(int id, String customerEmail, List<Seat> seats) {
-
-		Preconditions.checkArgument(id > 0, "Invalid seathold id. Must be greater than 0");
-		Preconditions.checkArgument(customerEmail != null, "Invalid Customer email. Must not be null");
-		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer email. Must not be empty string");
-		Preconditions.checkArgument(seats != null, "Invalid seats. Must not be null");
-		Preconditions.checkArgument(!seats.isEmpty(), "Invalid seats. Must not be empty");
-		seats.forEach(Preconditions::checkNotNull);
-
-		this.id = id;
-		this.customerEmail = customerEmail;
-		this.seats = seats;
-	}
-
-	/**
-	 * @return the id
-	 */
-	public int getId() {
-		return id;
-	}
-
-	/**
-	 * @return the customerEmail
-	 */
-	public String getCustomerEmail() {
-		return customerEmail;
-	}
-
-	/**
-	 * @return UnmodifiableCollection of the seats
-	 */
-	public List<Seat> getSeats() {
-		return Collections.unmodifiableList(seats);
-	}
-
-	/**
-	 * @return the numberOfSeats
-	 */
-	public int getNumberOfSeats() {
-		return seats.size();
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#toString()
-	 */
-	@Override
-	public String toString() {
-		return "SeatHold [id=" + id + ", customerEmail=" + customerEmail + ", numberSeats=" + seats.size()
-				+ ", numberSeats=" + seats + "]";
-	}
-
-}
+package model;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.money.CurrencyUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * SeatHold represents a specific hold on selected number of seats. They are
+ * tied directly to a users email. This object is Immutable.
+ * 
+ * <p>
+ * A SeatHold set up from seat ids keeps only the ids and the
+ * {@link SeatRegistry} they belong to, its List of Seats is a view over them
+ * made on first use.
+ * 
+ * @author bstoll
+ *
+ */
+public final class SeatHold {
+
+	private final int id;
+	private final String customerEmail;
+	// Set when the SeatHold was set up from seat ids, null otherwise.
+	private final SeatRegistry seatRegistry;
+	private final int[] seatIds;
+	// Racy single check, any thread may make the view.
+	private List<Seat> seats;
+
+	/**
+	 * Sets up a SeatHold.
+	 * 
+	 * @param id
+	 *            The int id of the SeatHold. Must be greater than 0.
+	 * @param customerEmail
+	 *            The Customer email. Must not be null or empty.
+	 * @param seats
+	 *            The Seats. Must not be null or empty. Each Seat in the List must
+	 *            not be null.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 * @throws NullPointerException
+	 *             If any of the Seats in the List are null.
+	 */
+	public SeatHold(int id, String customerEmail, List<Seat> seats) {
+
+		Preconditions.checkArgument(id > 0, "Invalid seathold id. Must be greater than 0");
+		Preconditions.checkArgument(customerEmail != null, "Invalid Customer email. Must not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer email. Must not be empty string");
+		Preconditions.checkArgument(seats != null, "Invalid seats. Must not be null");
+		Preconditions.checkArgument(!seats.isEmpty(), "Invalid seats. Must not be empty");
+		seats.forEach(Preconditions::checkNotNull);
+
+		this.id = id;
+		this.customerEmail = customerEmail;
+		this.seatRegistry = null;
+		this.seatIds = null;
+		this.seats = Collections.unmodifiableList(seats);
+	}
+
+	/**
+	 * Sets up a SeatHold from the ids of its seats.
+	 * 
+	 * @param id
+	 *            The int id of the SeatHold. Must be greater than 0.
+	 * @param customerEmail
+	 *            The Customer email. Must not be null or empty.
+	 * @param seatRegistry
+	 *            The SeatRegistry of the Venue. Must not be null.
+	 * @param seatIds
+	 *            The id of each Seat in the SeatRegistry. Must not be null or
+	 *            empty. The SeatHold keeps its own copy.
+	 * @throws IllegalArgumentException
+	 *             If any of the constraints are invalidated.
+	 */
+	public SeatHold(int id, String customerEmail, SeatRegistry seatRegistry, int[] seatIds) {
+
+		Preconditions.checkArgument(id > 0, "Invalid seathold id. Must be greater than 0");
+		Preconditions.checkArgument(customerEmail != null, "Invalid Customer email. Must not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer email. Must not be empty string");
+		Preconditions.checkArgument(seatRegistry != null, "Invalid SeatRegistry. Must not be null");
+		Preconditions.checkArgument(seatIds != null, "Invalid seats. Must not be null");
+		Preconditions.checkArgument(seatIds.length > 0, "Invalid seats. Must not be empty");
+		for (int seatId : seatIds) {
+			Preconditions.checkArgument(seatId >= 0 && seatId < seatRegistry.size(), "Invalid seat id. No such Seat");
+		}
+
+		this.id = id;
+		this.customerEmail = customerEmail;
+		this.seatRegistry = seatRegistry;
+		this.seatIds = seatIds.clone();
+	}
+
+	/**
+	 * @return the id
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * @return the customerEmail
+	 */
+	public String getCustomerEmail() {
+		return customerEmail;
+	}
+
+	/**
+	 * @return UnmodifiableCollection of the seats
+	 */
+	public List<Seat> getSeats() {
+		List<Seat> view = seats;
+		if (view == null) {
+			view = new SeatList();
+			seats = view;
+		}
+		return view;
+	}
+
+	/**
+	 * @param index
+	 *            The position of the Seat in this SeatHold.
+	 * @return the Seat at the position, without making the List of Seats.
+	 */
+	public Seat getSeat(int index) {
+		return seatIds != null ? seatRegistry.getSeat(seatIds[index]) : seats.get(index);
+	}
+
+	/**
+	 * @return the SeatRegistry the seat ids belong to, null if this SeatHold was
+	 *         set up from a List of Seats.
+	 */
+	public SeatRegistry getSeatRegistry() {
+		return seatRegistry;
+	}
+
+	/**
+	 * @param index
+	 *            The position of the Seat in this SeatHold.
+	 * @return the id of the Seat at the position in {@link #getSeatRegistry()}.
+	 * @throws IllegalStateException
+	 *             if this SeatHold was set up from a List of Seats.
+	 */
+	public int getSeatId(int index) {
+		Preconditions.checkState(seatIds != null, "SeatHold was not set up from seat ids");
+		return seatIds[index];
+	}
+
+	/**
+	 * @return the numberOfSeats
+	 */
+	public int getNumberOfSeats() {
+		return seatIds != null ? seatIds.length : seats.size();
+	}
+
+	/**
+	 * Adds up the prices of the seats in minor units, without any MonetaryAmount
+	 * arithmetic.
+	 * 
+	 * @return the total Price of the seats.
+	 * @throws IllegalStateException
+	 *             if the seats are priced in more than one currency.
+	 */
+	public Price getTotalPrice() {
+		CurrencyUnit currency = getSeat(0).getPrice().getCurrency();
+		long total = 0;
+		for (int i = 0; i < getNumberOfSeats(); i++) {
+			Price price = getSeat(i).getPrice();
+			Preconditions.checkState(price.getCurrency().equals(currency),
+					"Seats are priced in more than one currency");
+			total = Math.addExact(total, price.getMinorUnits());
+		}
+		return new Price(total, currency);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "SeatHold [id=" + id + ", customerEmail=" + customerEmail + ", numberSeats=" + getNumberOfSeats()
+				+ ", numberSeats=" + getSeats() + "]";
+	}
+
+	// Unmodifiable List of the Seats looked up by id.
+	private final class SeatList extends AbstractList<Seat> implements RandomAccess {
+
+		@Override
+		public Seat get(int index) {
+			return seatRegistry.getSeat(seatIds[index]);
+		}
+
+		@Override
+		public int size() {
+			return seatIds.length;
+		}
+
+	}
+
+}
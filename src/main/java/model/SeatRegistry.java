@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Gives every Seat of a Venue a dense int id, from 0 to {@link #size()} - 1.
+ * Levels are laid out in ascending level id order and each level row by row,
+ * so the id of a Seat follows from its level id, row and seat number and id
+ * order is the same as {@link Seat#compareTo(Seat)} order.
+ *
+ * <p>
+ * Seats are looked up by id or by coordinates in constant time, so anything
+ * kept per Seat can be kept in an array indexed by id. This class is
+ * Immutable.
+ *
+ * @author bstoll
+ *
+ */
+public final class SeatRegistry {
+
+	/**
+	 * Level ids are mapped through a table when they span at most this many ids
+	 * per level, otherwise by binary search.
+	 */
+	private static final int MAX_LEVEL_ID_SPREAD = 64;
+
+	private final Seat[] seats;
+
+	private final Level[] levels;
+
+	private final int[] levelIds;
+
+	// levelOffsets[ordinal] is the id of the first seat of the level.
+	private final int[] levelOffsets;
+
+	private final int minLevelId;
+
+	// ordinalByLevelId[levelId - minLevelId] is the ordinal of the level or -1,
+	// null when the level ids are too far apart.
+	private final int[] ordinalByLevelId;
+
+	/**
+	 * Sets up a SeatRegistry.
+	 *
+	 * @param levels
+	 *            The Levels of the Venue in ascending id order.
+	 */
+	SeatRegistry(Collection<Level> levels) {
+		this.levels = levels.toArray(new Level[0]);
+		this.levelIds = new int[this.levels.length];
+		this.levelOffsets = new int[this.levels.length];
+
+		int size = 0;
+		for (int ordinal = 0; ordinal < this.levels.length; ordinal++) {
+			levelIds[ordinal] = this.levels[ordinal].getId();
+			levelOffsets[ordinal] = size;
+			size += this.levels[ordinal].getTotalNumberOfSeats();
+		}
+
+		this.seats = new Seat[size];
+		for (int ordinal = 0; ordinal < this.levels.length; ordinal++) {
+			int id = levelOffsets[ordinal];
+			for (Seat seat : this.levels[ordinal].getSeats()) {
+				seats[id++] = seat;
+			}
+		}
+
+		this.minLevelId = levelIds[0];
+		long spread = (long) levelIds[levelIds.length - 1] - minLevelId + 1;
+		if (spread <= (long) MAX_LEVEL_ID_SPREAD * levelIds.length) {
+			this.ordinalByLevelId = new int[(int) spread];
+			Arrays.fill(ordinalByLevelId, -1);
+			for (int ordinal = 0; ordinal < levelIds.length; ordinal++) {
+				ordinalByLevelId[levelIds[ordinal] - minLevelId] = ordinal;
+			}
+		} else {
+			this.ordinalByLevelId = null;
+		}
+	}
+
+	/**
+	 * @return the number of Seats, one more than the highest id.
+	 */
+	public int size() {
+		return seats.length;
+	}
+
+	/**
+	 * @param id
+	 *            The Seat id. Must be between 0 and size() - 1.
+	 * @return the Seat with the id.
+	 * @throws IllegalArgumentException
+	 *             if there is no Seat with the id.
+	 */
+	public Seat getSeat(int id) {
+		Preconditions.checkArgument(id >= 0 && id < seats.length, "Invalid Seat id, No such Seat");
+		return seats[id];
+	}
+
+	/**
+	 * @param levelId
+	 *            The Level id.
+	 * @param row
+	 *            The Row.
+	 * @param seatNumber
+	 *            The Seat number.
+	 * @return the Seat at the coordinates, null if the Venue has no such Seat.
+	 */
+	public Seat getSeat(int levelId, int row, int seatNumber) {
+		int id = idOf(levelId, row, seatNumber);
+		return id >= 0 ? seats[id] : null;
+	}
+
+	/**
+	 * @param levelId
+	 *            The Level id.
+	 * @param row
+	 *            The Row.
+	 * @param seatNumber
+	 *            The Seat number.
+	 * @return the id of the Seat at the coordinates, -1 if the Venue has no such
+	 *         Seat.
+	 */
+	public int idOf(int levelId, int row, int seatNumber) {
+		int ordinal = levelOrdinal(levelId);
+		if (ordinal < 0) {
+			return -1;
+		}
+		Level level = levels[ordinal];
+		if (row < 1 || row > level.getNumberOfRows() || seatNumber < 1 || seatNumber > level.getSeatsInRow()) {
+			return -1;
+		}
+		return levelOffsets[ordinal] + (row - 1) * level.getSeatsInRow() + (seatNumber - 1);
+	}
+
+	/**
+	 * Finds the id of a Seat. The seat does not need to be the same instance as
+	 * the one in the Venue, only its level, row and seat number are used.
+	 *
+	 * @param seat
+	 *            The Seat. Must not be null.
+	 * @return the id of the Seat, -1 if the Venue has no such Seat.
+	 */
+	public int idOf(Seat seat) {
+		return idOf(seat.getLevelId(), seat.getRow(), seat.getSeatNumber());
+	}
+
+	private int levelOrdinal(int levelId) {
+		if (ordinalByLevelId != null) {
+			int slot = levelId - minLevelId;
+			return slot >= 0 && slot < ordinalByLevelId.length ? ordinalByLevelId[slot] : -1;
+		}
+		int ordinal = Arrays.binarySearch(levelIds, levelId);
+		return ordinal >= 0 ? ordinal : -1;
+	}
+
+}
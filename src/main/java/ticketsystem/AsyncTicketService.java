@@ -0,0 +1,64 @@
+package ticketsystem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import model.HoldRequest;
+import model.HoldResult;
+import model.SeatHold;
+
+/**
+ * Non blocking variant of {@link TicketService}. Every call returns at once,
+ * the result or the exception the blocking call would have thrown completes
+ * the returned future.
+ */
+public interface AsyncTicketService {
+	/**
+	 * The number of seats in the requested level that are neither held nor reserved
+	 *
+	 * @param venueLevel
+	 *            a numeric venue level identifier to limit the search
+	 * @return the number of tickets available on the provided level
+	 */
+	CompletableFuture<Integer> numSeatsAvailableAsync(Optional<Integer> venueLevel);
+
+	/**
+	 * Find and hold the best available seats for a customer
+	 *
+	 * @param numSeats
+	 *            the number of seats to find and hold
+	 * @param minLevel
+	 *            the minimum venue level
+	 * @param maxLevel
+	 *            the maximum venue level
+	 * @param customerEmail
+	 *            unique identifier for the customer
+	 * @return a SeatHold object identifying the specific seats and related
+	 *         information, null if no seats could be held
+	 */
+	CompletableFuture<SeatHold> findAndHoldSeatsAsync(int numSeats, Optional<Integer> minLevel,
+			Optional<Integer> maxLevel, String customerEmail);
+
+	/**
+	 * Find and hold the best available seats for many requests at once
+	 *
+	 * @param requests
+	 *            the requests to find and hold seats for
+	 * @return one result per request, in the same order
+	 * @see TicketService#findAndHoldSeats(List)
+	 */
+	CompletableFuture<List<HoldResult>> findAndHoldSeatsAsync(List<HoldRequest> requests);
+
+	/**
+	 * Commit seats held for a specific customer
+	 *
+	 * @param seatHoldId
+	 *            the seat hold identifier
+	 * @param customerEmail
+	 *            the email address of the customer to which the seat hold is
+	 *            assigned
+	 * @return a reservation confirmation code
+	 */
+	CompletableFuture<String> reserveSeatsAsync(int seatHoldId, String customerEmail);
+}
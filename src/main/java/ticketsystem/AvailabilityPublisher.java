@@ -0,0 +1,169 @@
+package ticketsystem;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes immutable {@link SeatAvailability} versions of the seats of a
+ * Venue for readers that must not take the reservation lock.
+ *
+ * <p>
+ * Writers report every seat that is taken or freed, the changes collect in a
+ * per level draft that copies a bitmap block the first time it is changed.
+ * {@link #publish(int, int)} then turns the drafts of a range of levels into
+ * new {@link LevelAvailability} versions and swaps them into the current
+ * SeatAvailability, bumping its epoch. Several levels changed by the same
+ * operation become visible together.
+ *
+ * <p>
+ * A level's draft is meant to be externally synchronized on with the same lock
+ * that guards the level's seats. Publishing different levels from different
+ * threads is safe, reading {@link #getAvailability()} is safe from any thread.
+ *
+ * @author bstoll
+ *
+ */
+final class AvailabilityPublisher {
+
+	private final LevelDraft[] drafts;
+
+	private final AtomicReference<SeatAvailability> availability;
+
+	/**
+	 * Sets up an AvailabilityPublisher with every seat available.
+	 *
+	 * @param seatIndex
+	 *            The SeatIndex of the Venue.
+	 */
+	AvailabilityPublisher(SeatIndex seatIndex) {
+		LevelAvailability[] levels = new LevelAvailability[seatIndex.getNumberOfLevels()];
+		this.drafts = new LevelDraft[levels.length];
+		for (int ordinal = 0; ordinal < levels.length; ordinal++) {
+			levels[ordinal] = new LevelAvailability(seatIndex.levelStart(ordinal),
+					seatIndex.levelEnd(ordinal) - seatIndex.levelStart(ordinal));
+			drafts[ordinal] = new LevelDraft(levels[ordinal], seatIndex.levelStart(ordinal));
+		}
+		this.availability = new AtomicReference<>(new SeatAvailability(seatIndex, levels, 0));
+	}
+
+	/**
+	 * Marks a seat as no longer available in the draft of its level.
+	 *
+	 * @param ordinal
+	 *            The ordinal of the seat's level.
+	 * @param index
+	 *            The seat index.
+	 */
+	void seatTaken(int ordinal, int index) {
+		drafts[ordinal].set(index, false);
+	}
+
+	/**
+	 * Marks a seat as available again in the draft of its level.
+	 *
+	 * @param ordinal
+	 *            The ordinal of the seat's level.
+	 * @param index
+	 *            The seat index.
+	 */
+	void seatFreed(int ordinal, int index) {
+		drafts[ordinal].set(index, true);
+	}
+
+	/**
+	 * Publishes the drafts of a range of levels in a new SeatAvailability. Does
+	 * nothing if none of them changed.
+	 *
+	 * @param firstOrdinal
+	 *            The ordinal of the first level to publish.
+	 * @param lastOrdinal
+	 *            The ordinal of the last level to publish, inclusive.
+	 */
+	void publish(int firstOrdinal, int lastOrdinal) {
+		LevelAvailability[] published = null;
+		for (int ordinal = firstOrdinal; ordinal <= lastOrdinal; ordinal++) {
+			LevelAvailability level = drafts[ordinal].publish();
+			if (level != null) {
+				if (published == null) {
+					published = new LevelAvailability[lastOrdinal - firstOrdinal + 1];
+				}
+				published[ordinal - firstOrdinal] = level;
+			}
+		}
+		if (published == null) {
+			return;
+		}
+
+		// Levels outside the range may be published at the same time by writers
+		// holding other locks, only swap in ours.
+		SeatAvailability current;
+		SeatAvailability next;
+		do {
+			current = availability.get();
+			next = current.withLevels(firstOrdinal, published);
+		} while (!availability.compareAndSet(current, next));
+	}
+
+	/**
+	 * @return the last published SeatAvailability.
+	 */
+	SeatAvailability getAvailability() {
+		return availability.get();
+	}
+
+	/**
+	 * Changes made to a level since its last published LevelAvailability.
+	 */
+	private static final class LevelDraft {
+
+		private final int firstIndex;
+
+		private LevelAvailability published;
+
+		// null while there is nothing to publish.
+		private long[][] blocks;
+
+		// copied[block] is true once the block no longer is shared with published.
+		private boolean[] copied;
+
+		private int seatsAvailable;
+
+		LevelDraft(LevelAvailability published, int firstIndex) {
+			this.firstIndex = firstIndex;
+			this.published = published;
+			this.seatsAvailable = published.getSeatsAvailable();
+		}
+
+		void set(int index, boolean available) {
+			if (blocks == null) {
+				blocks = published.getBlocks().clone();
+				copied = new boolean[blocks.length];
+			}
+			int offset = index - firstIndex;
+			int block = offset >>> LevelAvailability.BLOCK_SHIFT;
+			if (!copied[block]) {
+				blocks[block] = blocks[block].clone();
+				copied[block] = true;
+			}
+			int word = (offset & (LevelAvailability.BLOCK_SEATS - 1)) >>> 6;
+			if (available) {
+				blocks[block][word] |= 1L << offset;
+				seatsAvailable++;
+			} else {
+				blocks[block][word] &= ~(1L << offset);
+				seatsAvailable--;
+			}
+		}
+
+		LevelAvailability publish() {
+			if (blocks == null) {
+				return null;
+			}
+			published = new LevelAvailability(published, blocks, seatsAvailable);
+			blocks = null;
+			copied = null;
+			return published;
+		}
+
+	}
+
+}
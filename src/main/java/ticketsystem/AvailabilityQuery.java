@@ -0,0 +1,19 @@
+package ticketsystem;
+
+/**
+ * Read only view of which seats are available, for reads that must not wait
+ * behind holds and reservations.
+ * 
+ * @author bstoll
+ *
+ */
+public interface AvailabilityQuery {
+	/**
+	 * The seats that were available as of the last completed hold or
+	 * expiration. Never takes a lock, the SeatAvailability returned does not
+	 * change afterwards.
+	 *
+	 * @return the last published SeatAvailability
+	 */
+	SeatAvailability getSeatAvailability();
+}
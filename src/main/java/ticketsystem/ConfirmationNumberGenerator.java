@@ -0,0 +1,42 @@
+package ticketsystem;
+
+/**
+ * Hands out the confirmation numbers returned for reservations. Every number
+ * must be unique, and implementations must be thread safe.
+ *
+ * @author bstoll
+ *
+ */
+@FunctionalInterface
+public interface ConfirmationNumberGenerator {
+
+	/**
+	 * @return a confirmation number never handed out before.
+	 */
+	String next();
+
+	/**
+	 * Told of a confirmation number handed out before a restart, as it is
+	 * replayed from the journal, so it is never handed out again. Generators
+	 * whose numbers can not repeat across restarts have nothing to do.
+	 *
+	 * @param confirmationNumber
+	 *            A confirmation number handed out earlier, possibly by another
+	 *            kind of generator.
+	 */
+	default void skipPast(String confirmationNumber) {
+	}
+
+	/**
+	 * The number kept in a snapshot and given to {@link #skipPast(String)} after
+	 * a restart, so numbers handed out before the snapshot are not handed out
+	 * again even once their journal records are gone.
+	 *
+	 * @return a number at least as far along as any handed out so far, null if
+	 *         there is none or numbers can not repeat across restarts.
+	 */
+	default String lastIssued() {
+		return null;
+	}
+
+}
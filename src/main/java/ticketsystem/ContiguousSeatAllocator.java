@@ -0,0 +1,82 @@
+package ticketsystem;
+
+import model.Level;
+
+/**
+ * Allocator that keeps groups together. Looks for a block of adjacent free
+ * seats in a single row, on the lowest level that has one. Each level keeps a
+ * {@link FreeRunIndex} of its rows, so finding a block is O(log rows + log
+ * seats) instead of a scan of the level.
+ *
+ * <p>
+ * When no level in range has a large enough block, for example when the group
+ * is wider than a row, the seats are taken the same way as
+ * {@link FirstAvailableSeatAllocator} does.
+ *
+ * @author bstoll
+ *
+ */
+final class ContiguousSeatAllocator implements SeatAllocator {
+
+	private final SeatIndex seatIndex;
+
+	private final FreeRunIndex[] freeRunsByLevel;
+
+	private final SeatAllocator fallback;
+
+	ContiguousSeatAllocator(SeatIndex seatIndex, SeatStateStore seatStates) {
+		this.seatIndex = seatIndex;
+		this.fallback = new FirstAvailableSeatAllocator(seatIndex, seatStates);
+		this.freeRunsByLevel = new FreeRunIndex[seatIndex.getNumberOfLevels()];
+		for (int ordinal = 0; ordinal < freeRunsByLevel.length; ordinal++) {
+			Level level = seatIndex.level(ordinal);
+			freeRunsByLevel[ordinal] = new FreeRunIndex(level.getNumberOfRows(), level.getSeatsInRow());
+		}
+	}
+
+	@Override
+	public int[] findBestSeats(int numSeats, int minLevel, int maxLevel) {
+		for (int ordinal = 0; ordinal < freeRunsByLevel.length; ordinal++) {
+			int levelId = seatIndex.levelId(ordinal);
+			if (levelId < minLevel) {
+				continue;
+			} else if (levelId > maxLevel) {
+				break;
+			}
+
+			int offset = freeRunsByLevel[ordinal].findRun(numSeats);
+			if (offset >= 0) {
+				int[] seats = new int[numSeats];
+				int first = seatIndex.levelStart(ordinal) + offset;
+				for (int i = 0; i < numSeats; i++) {
+					seats[i] = first + i;
+				}
+				return seats;
+			}
+		}
+
+		// Nowhere to sit together, split the group up.
+		return fallback.findBestSeats(numSeats, minLevel, maxLevel);
+	}
+
+	// The fallback keeps its own free seats, it has to hear of every change too.
+	@Override
+	public void seatHeld(int index) {
+		update(index, false);
+		fallback.seatHeld(index);
+	}
+
+	@Override
+	public void seatReleased(int index) {
+		update(index, true);
+		fallback.seatReleased(index);
+	}
+
+	private void update(int index, boolean free) {
+		int ordinal = seatIndex.levelOrdinalOf(index);
+		FreeRunIndex freeRuns = freeRunsByLevel[ordinal];
+		int offset = index - seatIndex.levelStart(ordinal);
+		freeRuns.set(offset / freeRuns.getSeatsInRow(), offset % freeRuns.getSeatsInRow(), free);
+	}
+
+}
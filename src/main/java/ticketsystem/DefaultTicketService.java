@@ -1,194 +1,777 @@
-package ticketsystem;
-
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.google.common.base.Preconditions;
-
-import model.SeatHold;
-
-/**
- * Default Ticket Service. Allows holding and reserving tickets.
- * 
- * 
- * @author bstoll
- *
- */
-public class DefaultTicketService implements TicketService {
-
-	private static final Logger LOG = LoggerFactory.getLogger(DefaultTicketService.class);
-
-	private final TicketReserver ticketReserver;
-
-	private final ConcurrentHashMap<Integer, TemporarySeatHold> tempSeatHolds = new ConcurrentHashMap<>();
-
-	private final ConcurrentHashMap<Integer, ScheduledFuture<?>> tempSeatHoldFutures = new ConcurrentHashMap<>();
-
-	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-
-	private final long expirationTime;
-
-	private final TimeUnit expirationUnits;
-
-	private final Consumer<SeatHold> expirationListener;
-
-	/**
-	 * Sets up Default Ticket Service. This will use default expiration time of 2
-	 * minutes.
-	 * 
-	 * @param ticketReserver
-	 *            The TicketReserver. Must not be null.
-	 * @throws IllegalArgumentException
-	 *             if ticketReserver is null.
-	 */
-	public DefaultTicketService(TicketReserver ticketReserver) {
-		this(ticketReserver, 2, TimeUnit.MINUTES);
-	}
-
-	/**
-	 * Sets up Default Ticket Service.
-	 * 
-	 * @param ticketReserver
-	 *            The TicketReserver. Must not be null.
-	 * @param expirationTime
-	 *            The time it takes to expire. This is in combination with TimeUnit.
-	 *            Must be greater than 0.
-	 * @param expirationUnits
-	 *            The TimeUnit for expiration. Must not be null.
-	 * @throws IllegalArgumentException
-	 *             if any of the constraints are invalidated.
-	 */
-	public DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits) {
-		this(ticketReserver, expirationTime, expirationUnits, null);
-
-	}
-
-	/**
-	 * Sets up Default Ticket Service.
-	 * 
-	 * @param ticketReserver
-	 *            The TicketReserver. Must not be null.
-	 * @param expirationTime
-	 *            The time it takes to expire. This is in combination with TimeUnit.
-	 *            Must be greater than 0.
-	 * @param expirationUnits
-	 *            The TimeUnit for expiration. Must not be null.
-	 * @param expirationListener
-	 *            Listener for Expiring SeatHolds.
-	 * @throws IllegalArgumentException
-	 *             if any of the constraints are invalidated.
-	 */
-	public DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits,
-			Consumer<SeatHold> expirationListener) {
-		Preconditions.checkArgument(ticketReserver != null, "Invalid ticketReserver. Must not be null");
-		Preconditions.checkArgument(expirationTime > 0, "Invalid expirationTime. Must be greater than 0");
-		Preconditions.checkArgument(expirationUnits != null, "Invalid TimeUnit for Expiration. Must not be null");
-		this.expirationTime = expirationTime;
-		this.expirationUnits = expirationUnits;
-		this.ticketReserver = ticketReserver;
-		this.expirationListener = expirationListener;
-
-	}
-
-	@Override
-	public int numSeatsAvailable(Optional<Integer> venueLevel) {
-		LOG.debug("numSeatsAvailable(), venueLevel = {}", venueLevel);
-		synchronized (ticketReserver) {
-			return ticketReserver.numberOfSeatsAvailable(venueLevel);
-		}
-	}
-
-	@Override
-	public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
-			String customerEmail) {
-		LOG.debug("findAndHoldSeats()");
-
-		synchronized (ticketReserver) {
-
-			SeatHold seatHold = ticketReserver.findAndHoldSeats(numSeats, minLevel, maxLevel, customerEmail);
-			if (seatHold != null) {
-				TemporarySeatHold tempSeatHold = new TemporarySeatHold(seatHold);
-
-				tempSeatHolds.put(seatHold.getId(), tempSeatHold);
-
-				// Expire this SeatHold after set time.
-				ScheduledFuture<?> tempSeatHoldFuture = executor.schedule(tempSeatHold, expirationTime,
-						expirationUnits);
-				tempSeatHoldFutures.put(seatHold.getId(), tempSeatHoldFuture);
-			}
-
-			return seatHold;
-		}
-	}
-
-	@Override
-	public String reserveSeats(int seatHoldId, String customerEmail) {
-		LOG.debug("reserveSeats(), seatHold = {}, customerEmail ={}", seatHoldId, customerEmail);
-
-		Preconditions.checkArgument(seatHoldId > 0, "Invalid Seat ID, Must be greater than 0");
-		Preconditions.checkArgument(customerEmail != null, "Invalid Customer Email, Must not be null");
-		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer Email, Must not be null");
-
-		TemporarySeatHold tempSeatHold = tempSeatHolds.get(seatHoldId);
-		if (tempSeatHold != null) {
-			SeatHold seatHold = tempSeatHold.seatHold;
-
-			cancelSeatHoldExpiration(seatHold);
-
-			if (seatHold.getCustomerEmail().equals(customerEmail)) {
-				synchronized (ticketReserver) {
-					return ticketReserver.reserveSeats(seatHold);
-				}
-			} else {
-				throw new IllegalStateException("Customer Email does not match passed in ID");
-			}
-		} else {
-			throw new IllegalStateException("Seat Hold expired");
-		}
-	}
-
-	private void cancelSeatHoldExpiration(SeatHold seatHold) {
-		tempSeatHolds.remove(seatHold.getId());
-		ScheduledFuture<?> seatHoldFuture = tempSeatHoldFutures.remove(seatHold.getId());
-		if (seatHoldFuture != null) {
-			seatHoldFuture.cancel(true);
-		}
-	}
-
-	/**
-	 * A Temporary SeatHold is one that is meant to expire. When this is run the
-	 * SeatHold stored will expire.
-	 * 
-	 * 
-	 * @author bstoll
-	 *
-	 */
-	private class TemporarySeatHold implements Runnable {
-
-		private final SeatHold seatHold;
-
-		private TemporarySeatHold(SeatHold seatHold) {
-			this.seatHold = seatHold;
-		}
-
-		@Override
-		public void run() {
-			synchronized (ticketReserver) {
-				if (expirationListener != null) {
-					expirationListener.accept(seatHold);
-				}
-				ticketReserver.expireSeatHold(seatHold);
-			}
-		}
-
-	}
-
-}
+package ticketsystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import model.HoldRequest;
+import model.HoldResult;
+import model.Reservation;
+import model.SeatHold;
+import model.Venue;
+
+/**
+ * Default Ticket Service. Allows holding and reserving tickets.
+ * 
+ * <p>
+ * Access to the TicketReserver is guarded by a single monitor by default. With
+ * {@link LockingMode#PER_LEVEL} each Level has its own lock instead, so
+ * requests for different levels can be served in parallel. With
+ * {@link LockingMode#SINGLE_WRITER} a single writer thread runs every
+ * operation in turn, taking them off a ring buffer in batches.
+ * 
+ * <p>
+ * SeatHolds waiting to expire are kept in a {@link HoldExpirationWheel}, which
+ * is advanced every tick by a single daemon thread that expires everything that
+ * is due as one batch, under a single acquisition of the lock. The expiration
+ * listener is called afterwards on a separate thread, outside of the lock.
+ * Call {@link #shutdown()} when the service is no longer used.
+ * 
+ * <p>
+ * With a {@link Journal} every hold, reservation and expiration is appended to
+ * it while the lock is held. Holds and reservations are committed after the
+ * lock is released, so waiting for the disk does not hold up other requests.
+ * Snapshots written by {@link #writeSnapshot(Path)} together with the journal
+ * let {@link #recover(Path)} bring the state back after a restart.
+ * 
+ * <p>
+ * Latencies, lock wait and hold times and counts of every operation are
+ * recorded in the {@link TicketServiceMetrics} returned by
+ * {@link #getMetrics()}. {@link #registerMBeans(String)} exposes the seats
+ * left on each level and the expiration backlog over JMX.
+ * 
+ * <p>
+ * Seat maps are read from the {@link SeatAvailability} published by the
+ * TicketReserver after every hold and expiration, see
+ * {@link #getSeatAvailability()}. Reading it never takes the lock.
+ * 
+ * @author bstoll
+ *
+ */
+public class DefaultTicketService implements TicketService, AvailabilityQuery {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultTicketService.class);
+
+	private final TicketReserver ticketReserver;
+
+	private final ReservationLock reservationLock;
+
+	/**
+	 * Longest tick of the expiration wheel. SeatHolds expire at most this late.
+	 */
+	private static final long MAX_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	/**
+	 * Shortest tick of the expiration wheel, so short expirations do not keep
+	 * the expiration thread busy.
+	 */
+	private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static final int TICKS_PER_WHEEL = 512;
+
+	private final HoldExpirationWheel expirationWheel;
+
+	/**
+	 * Time between samples of the hold, reservation and expiration rates.
+	 */
+	private static final long RATE_SAMPLE_SECONDS = 5;
+
+	// Concrete executors so the MXBean can read their queue depth. Shared by
+	// every service of a shard in ShardedTicketService.
+	private final ScheduledThreadPoolExecutor executor;
+
+	private final ThreadPoolExecutor listenerExecutor;
+
+	// Shut down with the service unless they were passed in.
+	private final boolean ownsExecutors;
+
+	// Periodic tasks on the executor, cancelled when the service is shut down.
+	private final List<ScheduledFuture<?>> scheduledTasks = new CopyOnWriteArrayList<>();
+
+	private volatile boolean shutdown;
+
+	private final long expirationNanos;
+
+	private final Consumer<SeatHold> expirationListener;
+
+	private final Journal journal;
+
+	private final ReservationRegistry reservations;
+
+	private final TicketServiceMetrics metrics;
+
+	private final List<ObjectName> mbeanNames = new ArrayList<>();
+
+	/**
+	 * Sets up Default Ticket Service. This will use default expiration time of 2
+	 * minutes.
+	 * 
+	 * @param ticketReserver
+	 *            The TicketReserver. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if ticketReserver is null.
+	 */
+	public DefaultTicketService(TicketReserver ticketReserver) {
+		this(ticketReserver, 2, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Sets up Default Ticket Service.
+	 * 
+	 * @param ticketReserver
+	 *            The TicketReserver. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits) {
+		this(ticketReserver, expirationTime, expirationUnits, null);
+
+	}
+
+	/**
+	 * Sets up Default Ticket Service.
+	 * 
+	 * @param ticketReserver
+	 *            The TicketReserver. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @param expirationListener
+	 *            Listener for Expiring SeatHolds. Called on a separate thread once
+	 *            the seats have been released, may be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener) {
+		this(ticketReserver, expirationTime, expirationUnits, expirationListener, LockingMode.GLOBAL);
+	}
+
+	/**
+	 * Sets up Default Ticket Service.
+	 * 
+	 * @param ticketReserver
+	 *            The TicketReserver. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @param expirationListener
+	 *            Listener for Expiring SeatHolds. Called on a separate thread once
+	 *            the seats have been released, may be null.
+	 * @param lockingMode
+	 *            How access to the TicketReserver is synchronized. Must not be
+	 *            null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener, LockingMode lockingMode) {
+		this(ticketReserver, expirationTime, expirationUnits, expirationListener, lockingMode, null);
+	}
+
+	/**
+	 * Sets up Default Ticket Service.
+	 * 
+	 * @param ticketReserver
+	 *            The TicketReserver. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @param expirationListener
+	 *            Listener for Expiring SeatHolds. Called on a separate thread once
+	 *            the seats have been released, may be null.
+	 * @param lockingMode
+	 *            How access to the TicketReserver is synchronized. Must not be
+	 *            null.
+	 * @param journal
+	 *            Journal every hold, reservation and expiration is appended to.
+	 *            Holds and reservations are committed before they are returned.
+	 *            May be null, nothing is journaled then.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener, LockingMode lockingMode, Journal journal) {
+		this(ticketReserver, expirationTime, expirationUnits, expirationListener, lockingMode, journal,
+				newExpirationExecutor(), newListenerExecutor(), new ReservationRegistry(), true);
+	}
+
+	/**
+	 * Sets up Default Ticket Service that runs expiration and the expiration
+	 * listener on executors it may share with other services.
+	 * 
+	 * @param executor
+	 *            Runs expiration, rate sampling and snapshots.
+	 * @param listenerExecutor
+	 *            Calls the expiration listener.
+	 * @param reservations
+	 *            Records the Reservations made.
+	 * @see #DefaultTicketService(TicketReserver, long, TimeUnit, Consumer,
+	 *      LockingMode, Journal)
+	 */
+	DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener, LockingMode lockingMode, Journal journal,
+			ScheduledThreadPoolExecutor executor, ThreadPoolExecutor listenerExecutor,
+			ReservationRegistry reservations) {
+		this(ticketReserver, expirationTime, expirationUnits, expirationListener, lockingMode, journal, executor,
+				listenerExecutor, reservations, false);
+	}
+
+	private DefaultTicketService(TicketReserver ticketReserver, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener, LockingMode lockingMode, Journal journal,
+			ScheduledThreadPoolExecutor executor, ThreadPoolExecutor listenerExecutor,
+			ReservationRegistry reservations, boolean ownsExecutors) {
+		Preconditions.checkArgument(ticketReserver != null, "Invalid ticketReserver. Must not be null");
+		Preconditions.checkArgument(expirationTime > 0, "Invalid expirationTime. Must be greater than 0");
+		Preconditions.checkArgument(expirationUnits != null, "Invalid TimeUnit for Expiration. Must not be null");
+		Preconditions.checkArgument(lockingMode != null, "Invalid LockingMode. Must not be null");
+		this.expirationNanos = expirationUnits.toNanos(expirationTime);
+		this.ticketReserver = ticketReserver;
+		this.expirationListener = expirationListener;
+		this.journal = journal;
+		this.executor = executor;
+		this.listenerExecutor = listenerExecutor;
+		this.reservations = reservations;
+		this.ownsExecutors = ownsExecutors;
+
+		// Short expirations get a finer tick so they are not held much longer than
+		// asked for.
+		long tickNanos = Math.max(MIN_TICK_NANOS, Math.min(MAX_TICK_NANOS, expirationNanos / 4));
+		this.expirationWheel = new HoldExpirationWheel(tickNanos, TICKS_PER_WHEEL, System.nanoTime());
+		this.metrics = new TicketServiceMetrics(expirationWheel::size,
+				() -> ticketReserver.numberOfSeatsAvailable(Optional.empty()));
+		this.reservationLock = lockingMode.newLock(ticketReserver, metrics, journal);
+		scheduledTasks.add(
+				executor.scheduleAtFixedRate(this::expireSeatHolds, tickNanos, tickNanos, TimeUnit.NANOSECONDS));
+		scheduledTasks.add(executor.scheduleAtFixedRate(() -> metrics.sampleRates(System.nanoTime()),
+				RATE_SAMPLE_SECONDS, RATE_SAMPLE_SECONDS, TimeUnit.SECONDS));
+
+	}
+
+	/**
+	 * @return a single threaded executor for expiration.
+	 */
+	static ScheduledThreadPoolExecutor newExpirationExecutor() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+				new ThreadFactoryBuilder().setNameFormat("seat-hold-expiration-%d").setDaemon(true).build());
+		// Cancelled tasks would otherwise keep their service reachable.
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
+	/**
+	 * @return a single threaded executor for expiration listeners.
+	 */
+	static ThreadPoolExecutor newListenerExecutor() {
+		return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNameFormat("seat-hold-expiration-listener-%d").setDaemon(true).build());
+	}
+
+	@Override
+	public int numSeatsAvailable(Optional<Integer> venueLevel) {
+		LOG.debug("numSeatsAvailable(), venueLevel = {}", venueLevel);
+		long startNanos = System.nanoTime();
+		try {
+			// Counters are maintained by the reserver, no need to take the lock.
+			return ticketReserver.numberOfSeatsAvailable(venueLevel);
+		} finally {
+			metrics.recordNumSeatsAvailable(System.nanoTime() - startNanos);
+		}
+	}
+
+	@Override
+	public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
+			String customerEmail) {
+		LOG.debug("findAndHoldSeats()");
+
+		long startNanos = System.nanoTime();
+		try {
+			SeatHold seatHold = holdSeats(numSeats, minLevel, maxLevel, customerEmail);
+			metrics.recordFindAndHoldSeats(System.nanoTime() - startNanos, seatHold != null);
+			return seatHold;
+		} catch (RuntimeException e) {
+			metrics.recordFindAndHoldSeatsError(System.nanoTime() - startNanos);
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The whole batch is served under one acquisition of the lock, for every
+	 * level any of the requests asks for, and the journal is committed once.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if requests or one of the requests is null.
+	 */
+	@Override
+	public List<HoldResult> findAndHoldSeats(List<HoldRequest> requests) {
+		LOG.debug("findAndHoldSeats(), numberOfRequests = {}", requests == null ? 0 : requests.size());
+		Preconditions.checkArgument(requests != null, "Invalid requests, Must not be null");
+
+		long startNanos = System.nanoTime();
+		List<HoldResult> results = holdSeats(requests);
+		long elapsedNanos = System.nanoTime() - startNanos;
+		for (HoldResult result : results) {
+			if (result.getFailure() != null) {
+				metrics.recordFindAndHoldSeatsError(elapsedNanos);
+			} else {
+				metrics.recordFindAndHoldSeats(elapsedNanos, result.isHeld());
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public String reserveSeats(int seatHoldId, String customerEmail) {
+		LOG.debug("reserveSeats(), seatHold = {}, customerEmail ={}", seatHoldId, customerEmail);
+
+		long startNanos = System.nanoTime();
+		try {
+			String confirmationNumber = reserve(seatHoldId, customerEmail);
+			metrics.recordReserveSeats(System.nanoTime() - startNanos);
+			return confirmationNumber;
+		} catch (RuntimeException e) {
+			metrics.recordReserveSeatsError(System.nanoTime() - startNanos);
+			throw e;
+		}
+	}
+
+	/**
+	 * Never takes the reservation lock.
+	 */
+	@Override
+	public Reservation findReservation(String confirmationNumber) {
+		return reservations.get(confirmationNumber);
+	}
+
+	/**
+	 * Never takes the reservation lock.
+	 */
+	@Override
+	public List<Reservation> findReservations(String customerEmail) {
+		return reservations.getByCustomerEmail(customerEmail);
+	}
+
+	@Override
+	public SeatAvailability getSeatAvailability() {
+		return ticketReserver.getSeatAvailability();
+	}
+
+	/**
+	 * Stops expiring SeatHolds, sampling rates and writing snapshots, and stops
+	 * the threads this service started. Executors that were passed in are left
+	 * running for the services sharing them. New SeatHolds are refused with an
+	 * IllegalStateException afterwards, SeatHolds already made can still be
+	 * reserved. With {@link LockingMode#SINGLE_WRITER} the writer thread is
+	 * stopped once it has run what was already queued, and every later request
+	 * is refused.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		for (ScheduledFuture<?> task : scheduledTasks) {
+			task.cancel(false);
+		}
+		scheduledTasks.clear();
+		if (ownsExecutors) {
+			executor.shutdownNow();
+			listenerExecutor.shutdown();
+		}
+		reservationLock.shutdown();
+	}
+
+	/**
+	 * @return true once {@link #shutdown()} was called.
+	 */
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	/**
+	 * @return the metrics of this service.
+	 */
+	public TicketServiceMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Registers a {@link TicketServiceMXBean} with the platform MBeanServer,
+	 * named {@code ticketsystem:type=DefaultTicketService,name="<name>"}, along
+	 * with the MBeans of the TicketReserver under the same name, see
+	 * {@link TicketReserver#registerMBeans(String)}.
+	 * 
+	 * @param name
+	 *            Name telling this service apart from others. Must not be null or
+	 *            empty.
+	 * @throws IllegalArgumentException
+	 *             if name is null or empty.
+	 * @throws IllegalStateException
+	 *             if the MBeans are already registered or the name is taken.
+	 */
+	public void registerMBeans(String name) {
+		ObjectName objectName = MBeans.objectName("DefaultTicketService", name);
+		synchronized (mbeanNames) {
+			Preconditions.checkState(mbeanNames.isEmpty(), "MBeans are already registered");
+			MBeans.register(new TicketServiceStatus(metrics, expirationWheel, expirationNanos, executor,
+					listenerExecutor), objectName, mbeanNames);
+			try {
+				ticketReserver.registerMBeans(name);
+			} catch (IllegalStateException e) {
+				MBeans.unregisterAll(mbeanNames);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Unregisters the MBeans registered by {@link #registerMBeans(String)}. Does
+	 * nothing if none are registered.
+	 */
+	public void unregisterMBeans() {
+		synchronized (mbeanNames) {
+			if (!mbeanNames.isEmpty()) {
+				MBeans.unregisterAll(mbeanNames);
+				ticketReserver.unregisterMBeans();
+			}
+		}
+	}
+
+	private SeatHold holdSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
+			String customerEmail) {
+		Preconditions.checkState(!shutdown, "Ticket service is shut down");
+		// Bad arguments are left for the TicketReserver to reject once locked.
+		Venue venue = ticketReserver.getVenue();
+		int lowestLevel = minLevel != null && minLevel.isPresent() ? minLevel.get() : venue.getMinLevel();
+		int highestLevel = maxLevel != null && maxLevel.isPresent() ? maxLevel.get() : venue.getMaxLevel();
+
+		SeatHold seatHold = reservationLock.withLevels(lowestLevel, highestLevel, () -> {
+
+			SeatHold newSeatHold = ticketReserver.findAndHoldSeats(numSeats, minLevel, maxLevel, customerEmail);
+			if (newSeatHold != null) {
+				// Expire this SeatHold after set time.
+				expirationWheel.schedule(newSeatHold, System.nanoTime() + expirationNanos);
+				if (journal != null) {
+					journal.appendHold(newSeatHold.getId(),
+							System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(expirationNanos),
+							customerEmail, ticketReserver.seatIndexesOf(newSeatHold));
+				}
+			}
+
+			return newSeatHold;
+		});
+
+		if (seatHold != null && journal != null) {
+			journal.commit();
+		}
+		return seatHold;
+	}
+
+	private List<HoldResult> holdSeats(List<HoldRequest> requests) {
+		Preconditions.checkState(!shutdown, "Ticket service is shut down");
+		if (requests.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		// Lock every level any request may touch. Bad levels are left for the
+		// TicketReserver to reject per request.
+		Venue venue = ticketReserver.getVenue();
+		int lowestLevel = Integer.MAX_VALUE;
+		int highestLevel = Integer.MIN_VALUE;
+		for (HoldRequest request : requests) {
+			Preconditions.checkArgument(request != null, "Invalid request, Must not be null");
+			int minLevel = request.getMinLevel().orElse(venue.getMinLevel());
+			int maxLevel = request.getMaxLevel().orElse(venue.getMaxLevel());
+			lowestLevel = Math.min(lowestLevel, Math.min(minLevel, maxLevel));
+			highestLevel = Math.max(highestLevel, Math.max(minLevel, maxLevel));
+		}
+
+		List<HoldResult> results = reservationLock.withLevels(lowestLevel, highestLevel, () -> {
+			List<HoldResult> newResults = ticketReserver.findAndHoldSeats(requests);
+			long deadlineNanos = System.nanoTime() + expirationNanos;
+			long expiresAtMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(expirationNanos);
+			for (HoldResult result : newResults) {
+				SeatHold seatHold = result.getSeatHold();
+				if (seatHold != null) {
+					expirationWheel.schedule(seatHold, deadlineNanos);
+					if (journal != null) {
+						journal.appendHold(seatHold.getId(), expiresAtMillis, seatHold.getCustomerEmail(),
+								ticketReserver.seatIndexesOf(seatHold));
+					}
+				}
+			}
+			return newResults;
+		});
+
+		if (journal != null) {
+			journal.commit();
+		}
+		return results;
+	}
+
+	private String reserve(int seatHoldId, String customerEmail) {
+		Preconditions.checkArgument(seatHoldId > 0, "Invalid Seat ID, Must be greater than 0");
+		Preconditions.checkArgument(customerEmail != null, "Invalid Customer Email, Must not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer Email, Must not be null");
+
+		SeatHold seatHold = expirationWheel.get(seatHoldId);
+		if (seatHold != null) {
+
+			if (seatHold.getCustomerEmail().equals(customerEmail)) {
+				String confirmationNumber = withSeatHoldLevels(seatHold, () -> {
+					// Expiration may have beaten us to it since the lookup. Cancelled under
+					// the lock so a snapshot never sees held seats without their SeatHold.
+					if (expirationWheel.cancel(seatHoldId) == null) {
+						throw new IllegalStateException("Seat Hold expired");
+					}
+					String newConfirmationNumber = ticketReserver.reserveSeats(seatHold);
+					if (journal != null) {
+						journal.appendReserve(seatHoldId, newConfirmationNumber);
+					}
+					// Also under the lock, so a snapshot never sees reserved seats without
+					// their Reservation.
+					reservations.add(newConfirmationNumber, ticketReserver.getEvent(), seatHold);
+					return newConfirmationNumber;
+				});
+
+				if (journal != null) {
+					journal.commit();
+				}
+				return confirmationNumber;
+			} else {
+				throw new IllegalStateException("Customer Email does not match passed in ID");
+			}
+		} else {
+			throw new IllegalStateException("Seat Hold expired");
+		}
+	}
+
+	/**
+	 * Writes a snapshot of every seat, every SeatHold waiting to expire and every
+	 * Reservation of the Event, along with how far the journal had got. Every level is locked while the state is
+	 * copied, the file is written after the locks are released. Once the snapshot
+	 * is on disk the journal records before it are dropped, see
+	 * {@link Journal#truncateBefore(long)}.
+	 * 
+	 * @param path
+	 *            The snapshot file, replaced if it exists. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if path is null.
+	 * @throws IOException
+	 *             if the snapshot could not be written or the journal could not
+	 *             be truncated.
+	 */
+	public void writeSnapshot(Path path) throws IOException {
+		Preconditions.checkArgument(path != null, "Invalid path, Must not be null");
+		Venue venue = ticketReserver.getVenue();
+
+		Snapshot snapshot = reservationLock.withLevels(venue.getMinLevel(), venue.getMaxLevel(), () -> {
+			long nowNanos = System.nanoTime();
+			long nowMillis = System.currentTimeMillis();
+			List<Snapshot.ActiveSeatHold> activeSeatHolds = new ArrayList<>(expirationWheel.size());
+			expirationWheel.forEach((seatHold, deadlineNanos) -> activeSeatHolds
+					.add(new Snapshot.ActiveSeatHold(seatHold.getId(),
+							nowMillis + TimeUnit.NANOSECONDS.toMillis(deadlineNanos - nowNanos),
+							seatHold.getCustomerEmail())));
+			List<Snapshot.ReservedSeatHold> reservedSeatHolds = new ArrayList<>();
+			for (Reservation reservation : reservations.getByEvent(ticketReserver.getEvent())) {
+				reservedSeatHolds.add(new Snapshot.ReservedSeatHold(reservation.getSeatHold().getId(),
+						reservation.getConfirmationNumber(), reservation.getCustomerEmail()));
+			}
+			return new Snapshot(journal != null ? journal.getAppendedPosition() : 0,
+					ticketReserver.getSeatHoldCount(), ticketReserver.getLastConfirmationNumber(),
+					ticketReserver.copySeatStates(), activeSeatHolds, reservedSeatHolds);
+		});
+
+		// The journal must reach at least as far as the snapshot says it does.
+		if (journal != null) {
+			journal.sync();
+		}
+		snapshot.write(path);
+		if (journal != null) {
+			journal.truncateBefore(snapshot.getJournalPosition());
+		}
+	}
+
+	/**
+	 * Writes a snapshot every period on the expiration thread, see
+	 * {@link #writeSnapshot(Path)}. A snapshot that fails is logged and the next
+	 * one is still written.
+	 * 
+	 * @param path
+	 *            The snapshot file. Must not be null.
+	 * @param period
+	 *            Time between snapshots. Must be greater than 0.
+	 * @param unit
+	 *            The TimeUnit of period. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 * @throws IllegalStateException
+	 *             if the service was shut down.
+	 */
+	public void scheduleSnapshots(Path path, long period, TimeUnit unit) {
+		Preconditions.checkArgument(path != null, "Invalid path, Must not be null");
+		Preconditions.checkArgument(period > 0, "Invalid period, Must be greater than 0");
+		Preconditions.checkArgument(unit != null, "Invalid TimeUnit, Must not be null");
+		Preconditions.checkState(!shutdown, "Ticket service is shut down");
+		scheduledTasks.add(executor.scheduleWithFixedDelay(() -> {
+			try {
+				writeSnapshot(path);
+			} catch (IOException | RuntimeException e) {
+				LOG.error("scheduleSnapshots(), failed to write snapshot " + path, e);
+			}
+		}, period, period, unit));
+	}
+
+	/**
+	 * Brings back the state from before a restart: loads the snapshot if there
+	 * is one and replays the journal records written after it. SeatHolds that
+	 * were waiting to expire expire when they were due to, or on the next tick if
+	 * that time has passed.
+	 * 
+	 * <p>
+	 * Reservations kept in the snapshot or replayed from the journal can be
+	 * looked up again.
+	 * 
+	 * <p>
+	 * Must be called before the service is used, while every seat of the
+	 * TicketReserver is still available.
+	 * 
+	 * @param snapshotPath
+	 *            The snapshot file. Must not be null. If it does not exist the
+	 *            whole journal is replayed.
+	 * @return the number of SeatHolds waiting to expire.
+	 * @throws IllegalArgumentException
+	 *             if snapshotPath is null.
+	 * @throws IllegalStateException
+	 *             if the service has been used, the snapshot or journal do not
+	 *             match the TicketReserver, or the journal was truncated past the
+	 *             snapshot.
+	 * @throws IOException
+	 *             if the snapshot or journal could not be read.
+	 */
+	public int recover(Path snapshotPath) throws IOException {
+		Preconditions.checkArgument(snapshotPath != null, "Invalid snapshotPath, Must not be null");
+		Preconditions.checkState(expirationWheel.size() == 0, "Can only recover before the service is used");
+
+		Snapshot snapshot = Files.exists(snapshotPath) ? Snapshot.read(snapshotPath) : null;
+		long journalPosition = snapshot != null ? snapshot.getJournalPosition() : 0;
+		if (journal != null) {
+			Preconditions.checkState(journalPosition >= journal.getBasePosition(),
+					"Journal starts at %s, after the snapshot at %s", journal.getBasePosition(), journalPosition);
+		}
+
+		ReservationRecovery recovery = new ReservationRecovery(ticketReserver, reservations);
+		if (snapshot != null) {
+			recovery.restore(snapshot);
+		}
+		if (journal != null) {
+			long records = journal.replay(journalPosition, recovery);
+			LOG.debug("recover(), replayed {} journal records", records);
+		}
+
+		long nowNanos = System.nanoTime();
+		long nowMillis = System.currentTimeMillis();
+		recovery.forEachActiveSeatHold((seatHold, expiresAtMillis) -> expirationWheel.schedule(seatHold,
+				nowNanos + TimeUnit.MILLISECONDS.toNanos(expiresAtMillis - nowMillis)));
+		return recovery.getNumberOfActiveSeatHolds();
+	}
+
+	// Lock every level between the lowest and highest level of the held seats.
+	private <T> T withSeatHoldLevels(SeatHold seatHold, Supplier<T> action) {
+		int lowestLevel = Integer.MAX_VALUE;
+		int highestLevel = Integer.MIN_VALUE;
+		for (int i = 0; i < seatHold.getNumberOfSeats(); i++) {
+			int levelId = seatHold.getSeat(i).getLevelId();
+			lowestLevel = Math.min(lowestLevel, levelId);
+			highestLevel = Math.max(highestLevel, levelId);
+		}
+		return reservationLock.withLevels(lowestLevel, highestLevel, action);
+	}
+
+	// Runs every tick on the expiration thread. Everything that is due is expired
+	// under one acquisition of the lock, listeners are told afterwards on their
+	// own thread so a slow listener does not hold up reservations. Exceptions are
+	// logged rather than thrown, a thrown exception would stop the tick from
+	// running again.
+	private void expireSeatHolds() {
+		long startNanos = System.nanoTime();
+		List<SeatHold> dueSeatHolds = expirationWheel.expireDue(startNanos);
+		if (dueSeatHolds.isEmpty()) {
+			return;
+		}
+
+		int lowestLevel = Integer.MAX_VALUE;
+		int highestLevel = Integer.MIN_VALUE;
+		for (SeatHold seatHold : dueSeatHolds) {
+			for (int i = 0; i < seatHold.getNumberOfSeats(); i++) {
+				int levelId = seatHold.getSeat(i).getLevelId();
+				lowestLevel = Math.min(lowestLevel, levelId);
+				highestLevel = Math.max(highestLevel, levelId);
+			}
+		}
+
+		List<SeatHold> expiredSeatHolds;
+		try {
+			expiredSeatHolds = reservationLock.withLevels(lowestLevel, highestLevel, () -> {
+				List<SeatHold> expired = ticketReserver.expireSeatHolds(dueSeatHolds);
+				if (journal != null) {
+					// Nobody waits on an expiration, it is made durable with the next commit.
+					for (SeatHold seatHold : expired) {
+						journal.appendExpire(seatHold.getId());
+					}
+				}
+				return expired;
+			});
+		} catch (RuntimeException e) {
+			LOG.error("expireSeatHolds(), failed to expire " + dueSeatHolds.size() + " SeatHolds", e);
+			return;
+		}
+		metrics.recordExpiration(System.nanoTime() - startNanos, expiredSeatHolds.size());
+
+		if (expirationListener != null && !expiredSeatHolds.isEmpty()) {
+			listenerExecutor.execute(() -> notifyExpired(expiredSeatHolds));
+		}
+	}
+
+	private void notifyExpired(List<SeatHold> expiredSeatHolds) {
+		for (SeatHold seatHold : expiredSeatHolds) {
+			try {
+				expirationListener.accept(seatHold);
+			} catch (RuntimeException e) {
+				LOG.error("notifyExpired(), listener failed for SeatHold with id = " + seatHold.getId(), e);
+			}
+		}
+	}
+
+}
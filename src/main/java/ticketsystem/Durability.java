@@ -0,0 +1,32 @@
+package ticketsystem;
+
+/**
+ * When records appended to a {@link Journal} are forced to disk.
+ *
+ * @author bstoll
+ *
+ */
+public enum Durability {
+
+	/**
+	 * Every record is written and forced to disk as it is appended. The slowest
+	 * mode, one force per operation.
+	 */
+	FSYNC_PER_OP,
+
+	/**
+	 * Records are buffered and {@link Journal#commit()} waits until they are on
+	 * disk. Whoever commits first writes and forces everything buffered so far,
+	 * callers that arrive while a force is in progress are covered by the next
+	 * one, so many operations share a single force.
+	 */
+	GROUP_COMMIT,
+
+	/**
+	 * Records are buffered and forced to disk in the background every few
+	 * milliseconds. {@link Journal#commit()} does not wait, a crash may lose the
+	 * last few operations.
+	 */
+	ASYNC
+
+}
@@ -0,0 +1,165 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.google.common.base.Preconditions;
+
+import model.Event;
+import model.Venue;
+
+/**
+ * Seat inventory of every Event held in one Venue. The Venue's Levels and
+ * Seats, and the {@link SeatIndex} laid over them, are built once and shared by
+ * every Event. Each Event only gets a {@link TicketReserver} with its own seat
+ * states: a packed int per seat, a bit per seat for the published
+ * availability and the allocator's search structures.
+ *
+ * <p>
+ * Adding, removing and looking up Events is thread safe. Each TicketReserver
+ * still needs to be externally synchronized on, the same as on its own.
+ *
+ * @author bstoll
+ *
+ */
+public final class EventInventory {
+
+	private final Venue venue;
+
+	private final SeatAllocation seatAllocation;
+
+	private final SeatIndex seatIndex;
+
+	private final ConfirmationNumberGenerator confirmationNumbers;
+
+	private final ConcurrentNavigableMap<Integer, TicketReserver> reserversByEventId = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Sets up an EventInventory with no Events. Seats are allocated with
+	 * {@link SeatAllocation#FIRST_AVAILABLE}.
+	 *
+	 * @param venue
+	 *            The Venue every Event is held in. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if venue is null.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public EventInventory(Venue venue) {
+		this(venue, SeatAllocation.FIRST_AVAILABLE);
+	}
+
+	/**
+	 * Sets up an EventInventory with no Events.
+	 *
+	 * @param venue
+	 *            The Venue every Event is held in. Must not be null.
+	 * @param seatAllocation
+	 *            The strategy used to pick seats for every Event. Must not be
+	 *            null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public EventInventory(Venue venue, SeatAllocation seatAllocation) {
+		this(venue, seatAllocation, TimeBasedConfirmationNumberGenerator.shared());
+	}
+
+	/**
+	 * Sets up an EventInventory with no Events.
+	 *
+	 * @param venue
+	 *            The Venue every Event is held in. Must not be null.
+	 * @param seatAllocation
+	 *            The strategy used to pick seats for every Event. Must not be
+	 *            null.
+	 * @param confirmationNumbers
+	 *            Hands out the confirmation numbers of every Event. Must not be
+	 *            null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public EventInventory(Venue venue, SeatAllocation seatAllocation,
+			ConfirmationNumberGenerator confirmationNumbers) {
+		Preconditions.checkArgument(venue != null, "Invalid Venue, Must not be null");
+		Preconditions.checkArgument(seatAllocation != null, "Invalid SeatAllocation, Must not be null");
+		Preconditions.checkArgument(confirmationNumbers != null,
+				"Invalid ConfirmationNumberGenerator, Must not be null");
+		this.venue = venue;
+		this.seatAllocation = seatAllocation;
+		this.seatIndex = new SeatIndex(venue);
+		this.confirmationNumbers = confirmationNumbers;
+	}
+
+	/**
+	 * Adds an Event with every seat available.
+	 *
+	 * @param event
+	 *            The Event. Must not be null and must be held in this
+	 *            inventory's Venue, the same instance.
+	 * @return the TicketReserver of the Event.
+	 * @throws IllegalArgumentException
+	 *             if event is null or held in another Venue.
+	 * @throws IllegalStateException
+	 *             if an Event with the same id was already added.
+	 */
+	public TicketReserver addEvent(Event event) {
+		Preconditions.checkArgument(event != null, "Invalid Event, Must not be null");
+		Preconditions.checkArgument(event.getVenue() == venue, "Invalid Event, Must be held in the inventory's Venue");
+		TicketReserver ticketReserver = new TicketReserver(event, seatAllocation, seatIndex, confirmationNumbers);
+		Preconditions.checkState(reserversByEventId.putIfAbsent(event.getId(), ticketReserver) == null,
+				"Event already exists for this id");
+		return ticketReserver;
+	}
+
+	/**
+	 * @param eventId
+	 *            The Event id.
+	 * @return the TicketReserver of the Event, null if there is no such Event.
+	 */
+	public TicketReserver getReserver(int eventId) {
+		return reserversByEventId.get(eventId);
+	}
+
+	/**
+	 * Removes an Event, once it is over or cancelled.
+	 *
+	 * @param eventId
+	 *            The Event id.
+	 * @return the TicketReserver the Event had, null if there is no such Event.
+	 */
+	public TicketReserver removeEvent(int eventId) {
+		return reserversByEventId.remove(eventId);
+	}
+
+	/**
+	 * @return the Events, ordered by id.
+	 */
+	public List<Event> getEvents() {
+		List<Event> events = new ArrayList<>(reserversByEventId.size());
+		for (TicketReserver ticketReserver : reserversByEventId.values()) {
+			events.add(ticketReserver.getEvent());
+		}
+		return events;
+	}
+
+	/**
+	 * @return the number of Events.
+	 */
+	public int getNumberOfEvents() {
+		return reserversByEventId.size();
+	}
+
+	/**
+	 * @return the Venue every Event is held in.
+	 */
+	public Venue getVenue() {
+		return venue;
+	}
+
+}
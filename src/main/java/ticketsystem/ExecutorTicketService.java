@@ -0,0 +1,160 @@
+package ticketsystem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import model.HoldRequest;
+import model.HoldResult;
+import model.SeatHold;
+
+/**
+ * {@link AsyncTicketService} that runs holds and reservations of a blocking
+ * {@link TicketService} on its own reservation threads. Callers only enqueue
+ * the request, so no caller thread ever waits for the TicketService's lock.
+ *
+ * <p>
+ * Requests wait in a bounded queue. When it is full the returned future fails
+ * with a {@link RejectedExecutionException} instead of blocking the caller, so
+ * an overloaded service pushes back on the front end. numSeatsAvailable does
+ * not take the lock in {@link DefaultTicketService} and is answered on the
+ * calling thread.
+ *
+ * <p>
+ * Futures are completed on a reservation thread. Dependent stages that do more
+ * than hand off the result should use the async variants of CompletableFuture
+ * with the caller's own executor so they do not hold up the next request.
+ *
+ * @author bstoll
+ *
+ */
+public class ExecutorTicketService implements AsyncTicketService {
+
+	/**
+	 * Requests that can wait in the queue by default.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+	private final TicketService ticketService;
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Sets up an ExecutorTicketService with a single reservation thread. With
+	 * {@link LockingMode#GLOBAL} only one request can hold the lock at a time,
+	 * so one thread is enough.
+	 *
+	 * @param ticketService
+	 *            The TicketService to run requests on. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if ticketService is null.
+	 */
+	public ExecutorTicketService(TicketService ticketService) {
+		this(ticketService, 1, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Sets up an ExecutorTicketService.
+	 *
+	 * @param ticketService
+	 *            The TicketService to run requests on. Must not be null.
+	 * @param threads
+	 *            The number of reservation threads. Must be greater than 0.
+	 *            More than one only helps with {@link LockingMode#PER_LEVEL}.
+	 * @param queueCapacity
+	 *            The number of requests that can wait for a reservation thread.
+	 *            Must be greater than 0.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public ExecutorTicketService(TicketService ticketService, int threads, int queueCapacity) {
+		Preconditions.checkArgument(ticketService != null, "Invalid ticketService. Must not be null");
+		Preconditions.checkArgument(threads > 0, "Invalid threads. Must be greater than 0");
+		Preconditions.checkArgument(queueCapacity > 0, "Invalid queueCapacity. Must be greater than 0");
+		this.ticketService = ticketService;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new ThreadFactoryBuilder().setNameFormat("ticket-service-reservation-%d").setDaemon(true).build());
+	}
+
+	@Override
+	public CompletableFuture<Integer> numSeatsAvailableAsync(Optional<Integer> venueLevel) {
+		CompletableFuture<Integer> future = new CompletableFuture<>();
+		complete(future, () -> ticketService.numSeatsAvailable(venueLevel));
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<SeatHold> findAndHoldSeatsAsync(int numSeats, Optional<Integer> minLevel,
+			Optional<Integer> maxLevel, String customerEmail) {
+		return submit(() -> ticketService.findAndHoldSeats(numSeats, minLevel, maxLevel, customerEmail));
+	}
+
+	@Override
+	public CompletableFuture<List<HoldResult>> findAndHoldSeatsAsync(List<HoldRequest> requests) {
+		return submit(() -> ticketService.findAndHoldSeats(requests));
+	}
+
+	@Override
+	public CompletableFuture<String> reserveSeatsAsync(int seatHoldId, String customerEmail) {
+		return submit(() -> ticketService.reserveSeats(seatHoldId, customerEmail));
+	}
+
+	/**
+	 * @return the number of requests waiting for a reservation thread.
+	 */
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Stops taking new requests. Requests already queued are still run, new
+	 * ones fail with a {@link RejectedExecutionException}.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Waits for the queued requests to finish after {@link #shutdown()}.
+	 *
+	 * @param timeout
+	 *            The longest time to wait.
+	 * @param unit
+	 *            The unit of timeout.
+	 * @return true if every request finished, false if the timeout passed first.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> request) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> complete(future, request));
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	// Errors fail the future too, otherwise whoever waits on it never returns.
+	private static <T> void complete(CompletableFuture<T> future, Supplier<T> request) {
+		try {
+			future.complete(request.get());
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+		}
+	}
+
+}
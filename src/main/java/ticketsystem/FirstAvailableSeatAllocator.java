@@ -0,0 +1,78 @@
+package ticketsystem;
+
+/**
+ * Allocator that takes the first available seats in seat order. Starts on the
+ * lowest level and takes all of its seats before continuing up to the next
+ * level.
+ * 
+ * <p>
+ * Free seats are found with a {@link FreeSeatBitmap} per level, so full rows
+ * and blocks of rows are skipped without looking at their seats.
+ * 
+ * @author bstoll
+ *
+ */
+final class FirstAvailableSeatAllocator implements SeatAllocator {
+
+	private final SeatIndex seatIndex;
+
+	private final SeatStateStore seatStates;
+
+	private final FreeSeatBitmap[] freeSeatsByLevel;
+
+	FirstAvailableSeatAllocator(SeatIndex seatIndex, SeatStateStore seatStates) {
+		this.seatIndex = seatIndex;
+		this.seatStates = seatStates;
+		this.freeSeatsByLevel = new FreeSeatBitmap[seatIndex.getNumberOfLevels()];
+		for (int ordinal = 0; ordinal < freeSeatsByLevel.length; ordinal++) {
+			freeSeatsByLevel[ordinal] = new FreeSeatBitmap(seatIndex.levelEnd(ordinal) - seatIndex.levelStart(ordinal));
+		}
+	}
+
+	// Loop through each level starting at the minimum. Find best seats then
+	// continue up higher to fufill order.
+	@Override
+	public int[] findBestSeats(int numSeatsToFind, int minLevel, int maxLevel) {
+
+		if (numSeatsToFind > seatStates.getNumberOfSeatsAvailable()) {
+			return null;
+		}
+
+		int[] seats = new int[numSeatsToFind];
+
+		int seatsFound = 0;
+
+		for (int ordinal = 0; ordinal < seatIndex.getNumberOfLevels() && seatsFound < numSeatsToFind; ordinal++) {
+			int levelId = seatIndex.levelId(ordinal);
+
+			if (levelId < minLevel || seatStates.getNumberOfSeatsAvailable(ordinal) == 0) {
+				continue;
+			} else if (levelId > maxLevel) {
+				break;
+			}
+
+			// Need to take all seats on lowest, then fill in from next row.
+			FreeSeatBitmap freeSeats = freeSeatsByLevel[ordinal];
+			int start = seatIndex.levelStart(ordinal);
+			for (int seat = freeSeats.nextFree(0); seat >= 0 && seatsFound < numSeatsToFind; seat = freeSeats
+					.nextFree(seat + 1)) {
+				seats[seatsFound++] = start + seat;
+			}
+		}
+
+		return seatsFound == numSeatsToFind ? seats : null;
+	}
+
+	@Override
+	public void seatHeld(int index) {
+		int ordinal = seatIndex.levelOrdinalOf(index);
+		freeSeatsByLevel[ordinal].set(index - seatIndex.levelStart(ordinal), false);
+	}
+
+	@Override
+	public void seatReleased(int index) {
+		int ordinal = seatIndex.levelOrdinalOf(index);
+		freeSeatsByLevel[ordinal].set(index - seatIndex.levelStart(ordinal), true);
+	}
+
+}
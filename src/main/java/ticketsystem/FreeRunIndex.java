@@ -0,0 +1,192 @@
+package ticketsystem;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Index of the runs of adjacent free seats in the rows of one Level.
+ *
+ * <p>
+ * Every row has a segment tree over its seats. Each node stores the free run
+ * at the start of its range, the free run at the end of its range and the
+ * longest free run anywhere in its range, so marking a seat is O(log seats).
+ * On top of that a max tree over the rows stores the longest run of each row,
+ * which finds the first row with a long enough run in O(log rows).
+ *
+ * <p>
+ * Rows and seats are 0 based here. This class is not thread safe.
+ *
+ * @author bstoll
+ *
+ */
+final class FreeRunIndex {
+
+	private final int numberOfRows;
+
+	private final int seatsInRow;
+
+	// Leaves per row tree and per row max tree. Both are powers of two.
+	private final int seatLeaves;
+
+	private final int rowLeaves;
+
+	// Row trees, row r uses the slots [r * 2 * seatLeaves, (r + 1) * 2 *
+	// seatLeaves). Node 1 is the root and node n has children 2n and 2n + 1.
+	private final int[] prefix;
+
+	private final int[] suffix;
+
+	private final int[] longest;
+
+	private final int[] rowLongest;
+
+	/**
+	 * Sets up a FreeRunIndex with every seat free.
+	 *
+	 * @param numberOfRows
+	 *            The number of rows. Must be greater than 0.
+	 * @param seatsInRow
+	 *            The number of seats in a row. Must be greater than 0.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	FreeRunIndex(int numberOfRows, int seatsInRow) {
+		Preconditions.checkArgument(numberOfRows > 0, "Invalid Number Of Rows, Must be greater than 0");
+		Preconditions.checkArgument(seatsInRow > 0, "Invalid Seats in Row, Must be greater than 0");
+		this.numberOfRows = numberOfRows;
+		this.seatsInRow = seatsInRow;
+		this.seatLeaves = Integer.highestOneBit(seatsInRow) == seatsInRow ? seatsInRow
+				: Integer.highestOneBit(seatsInRow) << 1;
+		this.rowLeaves = Integer.highestOneBit(numberOfRows) == numberOfRows ? numberOfRows
+				: Integer.highestOneBit(numberOfRows) << 1;
+
+		int rowTreeSize = 2 * seatLeaves;
+		this.prefix = new int[numberOfRows * rowTreeSize];
+		this.suffix = new int[numberOfRows * rowTreeSize];
+		this.longest = new int[numberOfRows * rowTreeSize];
+		this.rowLongest = new int[2 * rowLeaves];
+
+		for (int row = 0; row < numberOfRows; row++) {
+			int base = row * rowTreeSize;
+			// Padding leaves past the end of the row stay at 0, they are never free.
+			for (int seat = 0; seat < seatsInRow; seat++) {
+				int leaf = base + seatLeaves + seat;
+				prefix[leaf] = 1;
+				suffix[leaf] = 1;
+				longest[leaf] = 1;
+			}
+			for (int node = seatLeaves - 1; node > 0; node--) {
+				merge(base, node, seatLeaves / Integer.highestOneBit(node));
+			}
+			rowLongest[rowLeaves + row] = longest[base + 1];
+		}
+		for (int node = rowLeaves - 1; node > 0; node--) {
+			rowLongest[node] = Math.max(rowLongest[2 * node], rowLongest[2 * node + 1]);
+		}
+	}
+
+	/**
+	 * @return the longest run of free seats in any row.
+	 */
+	int longestRun() {
+		return rowLongest[1];
+	}
+
+	/**
+	 * Marks a seat as free or taken.
+	 *
+	 * @param row
+	 *            0 based row.
+	 * @param seat
+	 *            0 based seat in the row.
+	 * @param free
+	 *            true if the seat is now free.
+	 */
+	void set(int row, int seat, boolean free) {
+		int base = row * 2 * seatLeaves;
+		int node = seatLeaves + seat;
+		int value = free ? 1 : 0;
+		prefix[base + node] = value;
+		suffix[base + node] = value;
+		longest[base + node] = value;
+
+		for (int length = 2; node > 1; length <<= 1) {
+			node >>= 1;
+			merge(base, node, length);
+		}
+
+		node = rowLeaves + row;
+		rowLongest[node] = longest[base + 1];
+		while (node > 1) {
+			node >>= 1;
+			rowLongest[node] = Math.max(rowLongest[2 * node], rowLongest[2 * node + 1]);
+		}
+	}
+
+	/**
+	 * Finds the first row, then the first seat in that row, that starts a run of
+	 * at least numSeats free seats.
+	 *
+	 * @param numSeats
+	 *            the size of the run. Must be greater than 0.
+	 * @return row * seatsInRow + seat of the first seat in the run, -1 if no row
+	 *         has a long enough run.
+	 */
+	int findRun(int numSeats) {
+		if (numSeats > seatsInRow || rowLongest[1] < numSeats) {
+			return -1;
+		}
+
+		int node = 1;
+		while (node < rowLeaves) {
+			node = rowLongest[2 * node] >= numSeats ? 2 * node : 2 * node + 1;
+		}
+		int row = node - rowLeaves;
+
+		int base = row * 2 * seatLeaves;
+		int start = 0;
+		int length = seatLeaves;
+		node = 1;
+		while (node < seatLeaves) {
+			int left = 2 * node;
+			int right = left + 1;
+			length >>= 1;
+			if (longest[base + left] >= numSeats) {
+				node = left;
+			} else if (suffix[base + left] + prefix[base + right] >= numSeats) {
+				// The run straddles the middle of this node.
+				return row * seatsInRow + start + length - suffix[base + left];
+			} else {
+				node = right;
+				start += length;
+			}
+		}
+		return row * seatsInRow + start;
+	}
+
+	/**
+	 * @return the number of rows indexed.
+	 */
+	int getNumberOfRows() {
+		return numberOfRows;
+	}
+
+	/**
+	 * @return the number of seats in each row.
+	 */
+	int getSeatsInRow() {
+		return seatsInRow;
+	}
+
+	// Recompute a node from its children. length is the number of leaves under
+	// the node.
+	private void merge(int base, int node, int length) {
+		int left = base + 2 * node;
+		int right = left + 1;
+		int half = length >> 1;
+		int at = base + node;
+		prefix[at] = prefix[left] == half ? half + prefix[right] : prefix[left];
+		suffix[at] = suffix[right] == half ? half + suffix[left] : suffix[right];
+		longest[at] = Math.max(Math.max(longest[left], longest[right]), suffix[left] + prefix[right]);
+	}
+
+}
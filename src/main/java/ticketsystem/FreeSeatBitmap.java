@@ -0,0 +1,134 @@
+package ticketsystem;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Bitmap of the free seats of one Level with summary tiers on top of it.
+ *
+ * <p>
+ * Tier 0 has a bit per seat, set while the seat is free. Every tier above has
+ * a bit per word of the tier below, set while that word has any bit set, up to
+ * a tier of a single word. Finding the next free seat skips a whole word of a
+ * tier with one {@link Long#numberOfTrailingZeros(long)}, so a level with only
+ * a few free seats left is searched in O(tiers) instead of seat by seat.
+ * Marking a seat is O(tiers) as well, and there are only 3 tiers up to 262,144
+ * seats.
+ *
+ * <p>
+ * Seats are 0 based from the start of the level. This class is not thread
+ * safe.
+ *
+ * @author bstoll
+ *
+ */
+final class FreeSeatBitmap {
+
+	private final int numberOfSeats;
+
+	// tiers[0] has a bit per seat, tiers[t] a bit per word of tiers[t - 1]. The
+	// last tier is a single word.
+	private final long[][] tiers;
+
+	/**
+	 * Sets up a FreeSeatBitmap with every seat free.
+	 *
+	 * @param numberOfSeats
+	 *            The number of seats. Must be greater than 0.
+	 * @throws IllegalArgumentException
+	 *             if numberOfSeats is not greater than 0.
+	 */
+	FreeSeatBitmap(int numberOfSeats) {
+		Preconditions.checkArgument(numberOfSeats > 0, "Invalid Number Of Seats, Must be greater than 0");
+		this.numberOfSeats = numberOfSeats;
+
+		int numberOfTiers = 1;
+		for (int bits = numberOfSeats; bits > 64; bits = (bits + 63) >>> 6) {
+			numberOfTiers++;
+		}
+		this.tiers = new long[numberOfTiers][];
+
+		int bits = numberOfSeats;
+		for (int tier = 0; tier < numberOfTiers; tier++) {
+			long[] words = new long[(bits + 63) >>> 6];
+			for (int word = 0; word < words.length - 1; word++) {
+				words[word] = -1L;
+			}
+			// Bits past the end are never set.
+			words[words.length - 1] = -1L >>> (-bits & 63);
+			tiers[tier] = words;
+			bits = words.length;
+		}
+	}
+
+	/**
+	 * Marks a seat as free or taken.
+	 *
+	 * @param seat
+	 *            The seat.
+	 * @param free
+	 *            true if the seat is free.
+	 */
+	void set(int seat, boolean free) {
+		int bit = seat;
+		for (long[] words : tiers) {
+			int word = bit >>> 6;
+			long before = words[word];
+			long after = free ? before | (1L << bit) : before & ~(1L << bit);
+			words[word] = after;
+			// The tier above only changes when the word goes from or to empty.
+			if ((before == 0) == (after == 0)) {
+				return;
+			}
+			bit = word;
+		}
+	}
+
+	/**
+	 * @param seat
+	 *            The seat.
+	 * @return true if the seat is free.
+	 */
+	boolean isFree(int seat) {
+		return (tiers[0][seat >>> 6] & (1L << seat)) != 0;
+	}
+
+	/**
+	 * Finds the first free seat at or after a seat.
+	 *
+	 * @param fromSeat
+	 *            The seat to start at. May be past the last seat.
+	 * @return the first free seat at or after fromSeat, -1 if there is none.
+	 */
+	int nextFree(int fromSeat) {
+		if (fromSeat >= numberOfSeats) {
+			return -1;
+		}
+
+		// Climb until a tier has a set bit at or after the position, then go back
+		// down taking the first set bit of each word below it.
+		int tier = 0;
+		int bit = fromSeat;
+		while (true) {
+			long[] words = tiers[tier];
+			int word = bit >>> 6;
+			if (word < words.length) {
+				long remaining = words[word] & (-1L << bit);
+				if (remaining != 0) {
+					bit = (word << 6) + Long.numberOfTrailingZeros(remaining);
+					break;
+				}
+			}
+			if (tier == tiers.length - 1) {
+				return -1;
+			}
+			bit = word + 1;
+			tier++;
+		}
+		while (tier > 0) {
+			tier--;
+			bit = (bit << 6) + Long.numberOfTrailingZeros(tiers[tier][bit]);
+		}
+		return bit;
+	}
+
+}
@@ -0,0 +1,37 @@
+package ticketsystem;
+
+import java.util.function.Supplier;
+
+/**
+ * Single lock for the whole venue. Synchronizes on the TicketReserver monitor no
+ * matter which levels are asked for. Time spent waiting for and holding the
+ * monitor is recorded in the TicketServiceMetrics.
+ * 
+ * @author bstoll
+ *
+ */
+final class GlobalReservationLock implements ReservationLock {
+
+	private final TicketReserver ticketReserver;
+
+	private final TicketServiceMetrics metrics;
+
+	GlobalReservationLock(TicketReserver ticketReserver, TicketServiceMetrics metrics) {
+		this.ticketReserver = ticketReserver;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public <T> T withLevels(int minLevel, int maxLevel, Supplier<T> action) {
+		long requestedNanos = System.nanoTime();
+		synchronized (ticketReserver) {
+			long acquiredNanos = System.nanoTime();
+			try {
+				return action.get();
+			} finally {
+				metrics.recordLock(acquiredNanos - requestedNanos, System.nanoTime() - acquiredNanos);
+			}
+		}
+	}
+
+}
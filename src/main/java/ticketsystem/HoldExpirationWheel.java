@@ -0,0 +1,332 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.ObjLongConsumer;
+
+import com.google.common.base.Preconditions;
+
+import model.SeatHold;
+
+/**
+ * Hashed timing wheel that keeps track of SeatHolds waiting to expire.
+ *
+ * <p>
+ * Time is cut into ticks and the wheel has one bucket per tick, wrapping
+ * around. A SeatHold goes into the bucket of the tick it expires on, so
+ * scheduling and cancelling are O(1) and expiring walks one bucket per tick,
+ * handing back every SeatHold that is due as a single batch. SeatHolds further
+ * out than one turn of the wheel stay in their bucket until the wheel comes
+ * around to their tick.
+ *
+ * <p>
+ * The same entries are also chained in a hash table keyed by the primitive
+ * SeatHold id, so a SeatHold can be looked up or cancelled by id without
+ * boxing. A third list keeps them in the order they were scheduled, so the
+ * SeatHold that has been waiting longest is known without a search.
+ *
+ * <p>
+ * This class is thread safe. Every method synchronizes on the wheel and does
+ * O(1) work, except {@link #expireDue(long)} which is O(entries in the buckets
+ * passed over).
+ *
+ * @author bstoll
+ *
+ */
+final class HoldExpirationWheel {
+
+	private static final int INITIAL_TABLE_SIZE = 64;
+
+	private final long tickNanos;
+
+	private final long startNanos;
+
+	private final Entry[] buckets;
+
+	private final int bucketMask;
+
+	private Entry[] table = new Entry[INITIAL_TABLE_SIZE];
+
+	private int size;
+
+	// First and last scheduled entries still waiting to expire.
+	private Entry oldest;
+
+	private Entry newest;
+
+	// Every tick up to and including this one has been expired.
+	private long lastExpiredTick;
+
+	/**
+	 * Sets up a HoldExpirationWheel.
+	 *
+	 * @param tickNanos
+	 *            Length of a tick in nanoseconds. Must be greater than 0.
+	 * @param ticksPerWheel
+	 *            Number of buckets. Must be a power of two.
+	 * @param startNanos
+	 *            The {@link System#nanoTime()} the wheel starts at.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	HoldExpirationWheel(long tickNanos, int ticksPerWheel, long startNanos) {
+		Preconditions.checkArgument(tickNanos > 0, "Invalid tick, Must be greater than 0");
+		Preconditions.checkArgument(ticksPerWheel > 0 && Integer.bitCount(ticksPerWheel) == 1,
+				"Invalid ticksPerWheel, Must be a power of two");
+		this.tickNanos = tickNanos;
+		this.startNanos = startNanos;
+		this.buckets = new Entry[ticksPerWheel];
+		this.bucketMask = ticksPerWheel - 1;
+	}
+
+	/**
+	 * Schedules a SeatHold to expire.
+	 *
+	 * @param seatHold
+	 *            The SeatHold. Must not be null or already scheduled.
+	 * @param deadlineNanos
+	 *            The {@link System#nanoTime()} after which it expires.
+	 * @throws IllegalArgumentException
+	 *             if seatHold is null.
+	 * @throws IllegalStateException
+	 *             if a SeatHold with the same id is already scheduled.
+	 */
+	synchronized void schedule(SeatHold seatHold, long deadlineNanos) {
+		Preconditions.checkArgument(seatHold != null, "Invalid seatHold, Must not be null");
+		Preconditions.checkState(find(seatHold.getId()) == null, "SeatHold is already scheduled");
+
+		// Round up so a SeatHold never expires early, and never land on a tick that
+		// has already been passed over.
+		long deadlineTick = Math.max(lastExpiredTick + 1, (deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+		Entry entry = new Entry(seatHold, deadlineTick, deadlineNanos);
+
+		Entry head = buckets[(int) (deadlineTick & bucketMask)];
+		entry.next = head;
+		if (head != null) {
+			head.previous = entry;
+		}
+		buckets[(int) (deadlineTick & bucketMask)] = entry;
+
+		entry.older = newest;
+		if (newest != null) {
+			newest.newer = entry;
+		} else {
+			oldest = entry;
+		}
+		newest = entry;
+
+		int slot = slot(seatHold.getId(), table.length);
+		entry.nextInTable = table[slot];
+		table[slot] = entry;
+		if (++size > table.length - (table.length >> 2)) {
+			resize();
+		}
+	}
+
+	/**
+	 * @param seatHoldId
+	 *            The SeatHold id.
+	 * @return the scheduled SeatHold, null if it is not scheduled.
+	 */
+	synchronized SeatHold get(int seatHoldId) {
+		Entry entry = find(seatHoldId);
+		return entry != null ? entry.seatHold : null;
+	}
+
+	/**
+	 * Stops a SeatHold from expiring.
+	 *
+	 * @param seatHoldId
+	 *            The SeatHold id.
+	 * @return the SeatHold that was cancelled, null if it was not scheduled. A
+	 *         null means it already expired or was already cancelled.
+	 */
+	synchronized SeatHold cancel(int seatHoldId) {
+		Entry entry = removeFromTable(seatHoldId);
+		if (entry == null) {
+			return null;
+		}
+		unlink(entry);
+		return entry.seatHold;
+	}
+
+	/**
+	 * Expires every SeatHold that is due by the given time. Expired SeatHolds are
+	 * no longer scheduled when this returns.
+	 *
+	 * @param nowNanos
+	 *            The current {@link System#nanoTime()}.
+	 * @return the expired SeatHolds, in no particular order. Empty if none.
+	 */
+	synchronized List<SeatHold> expireDue(long nowNanos) {
+		long currentTick = (nowNanos - startNanos) / tickNanos;
+		List<SeatHold> expired = new ArrayList<>();
+
+		// Once a full turn is passed over every bucket has been looked at.
+		long lastTick = Math.min(currentTick, lastExpiredTick + buckets.length);
+		for (long tick = lastExpiredTick + 1; tick <= lastTick; tick++) {
+			Entry entry = buckets[(int) (tick & bucketMask)];
+			while (entry != null) {
+				Entry next = entry.next;
+				if (entry.deadlineTick <= currentTick) {
+					unlink(entry);
+					removeFromTable(entry.seatHold.getId());
+					expired.add(entry.seatHold);
+				}
+				entry = next;
+			}
+		}
+		lastExpiredTick = Math.max(lastExpiredTick, currentTick);
+
+		return expired;
+	}
+
+	/**
+	 * Calls the action for every scheduled SeatHold, in no particular order.
+	 *
+	 * @param action
+	 *            Called with each SeatHold and the {@link System#nanoTime()} it
+	 *            expires at, rounded up to its tick.
+	 */
+	synchronized void forEach(ObjLongConsumer<SeatHold> action) {
+		for (Entry head : table) {
+			for (Entry entry = head; entry != null; entry = entry.nextInTable) {
+				action.accept(entry.seatHold, startNanos + entry.deadlineTick * tickNanos);
+			}
+		}
+	}
+
+	/**
+	 * @return the unrounded deadline passed to {@link #schedule(SeatHold, long)}
+	 *         for the SeatHold that was scheduled first of those still waiting
+	 *         to expire, empty if none are waiting.
+	 */
+	synchronized OptionalLong oldestDeadlineNanos() {
+		return oldest != null ? OptionalLong.of(oldest.deadlineNanos) : OptionalLong.empty();
+	}
+
+	/**
+	 * @return the number of SeatHolds waiting to expire.
+	 */
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return the length of a tick in nanoseconds.
+	 */
+	long getTickNanos() {
+		return tickNanos;
+	}
+
+	private Entry find(int seatHoldId) {
+		Entry entry = table[slot(seatHoldId, table.length)];
+		while (entry != null && entry.seatHold.getId() != seatHoldId) {
+			entry = entry.nextInTable;
+		}
+		return entry;
+	}
+
+	private Entry removeFromTable(int seatHoldId) {
+		int slot = slot(seatHoldId, table.length);
+		Entry previous = null;
+		Entry entry = table[slot];
+		while (entry != null && entry.seatHold.getId() != seatHoldId) {
+			previous = entry;
+			entry = entry.nextInTable;
+		}
+		if (entry != null) {
+			if (previous == null) {
+				table[slot] = entry.nextInTable;
+			} else {
+				previous.nextInTable = entry.nextInTable;
+			}
+			entry.nextInTable = null;
+			size--;
+		}
+		return entry;
+	}
+
+	private void unlink(Entry entry) {
+		unlinkFromBucket(entry);
+		if (entry.older != null) {
+			entry.older.newer = entry.newer;
+		} else {
+			oldest = entry.newer;
+		}
+		if (entry.newer != null) {
+			entry.newer.older = entry.older;
+		} else {
+			newest = entry.older;
+		}
+		entry.older = null;
+		entry.newer = null;
+	}
+
+	private void unlinkFromBucket(Entry entry) {
+		if (entry.previous != null) {
+			entry.previous.next = entry.next;
+		} else {
+			buckets[(int) (entry.deadlineTick & bucketMask)] = entry.next;
+		}
+		if (entry.next != null) {
+			entry.next.previous = entry.previous;
+		}
+		entry.previous = null;
+		entry.next = null;
+	}
+
+	private void resize() {
+		Entry[] newTable = new Entry[table.length << 1];
+		for (Entry head : table) {
+			Entry entry = head;
+			while (entry != null) {
+				Entry next = entry.nextInTable;
+				int slot = slot(entry.seatHold.getId(), newTable.length);
+				entry.nextInTable = newTable[slot];
+				newTable[slot] = entry;
+				entry = next;
+			}
+		}
+		table = newTable;
+	}
+
+	// SeatHold ids are handed out in sequence, spread them so neighbours do not
+	// share a slot.
+	private static int slot(int seatHoldId, int tableLength) {
+		int hash = seatHoldId * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (tableLength - 1);
+	}
+
+	/**
+	 * A scheduled SeatHold. Linked into its wheel bucket, its hash table slot and
+	 * the order it was scheduled in.
+	 */
+	private static final class Entry {
+
+		private final SeatHold seatHold;
+
+		private final long deadlineTick;
+
+		private final long deadlineNanos;
+
+		private Entry previous;
+
+		private Entry next;
+
+		private Entry nextInTable;
+
+		private Entry older;
+
+		private Entry newer;
+
+		private Entry(SeatHold seatHold, long deadlineTick, long deadlineNanos) {
+			this.seatHold = seatHold;
+			this.deadlineTick = deadlineTick;
+			this.deadlineNanos = deadlineNanos;
+		}
+
+	}
+
+}
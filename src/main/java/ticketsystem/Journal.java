@@ -0,0 +1,644 @@
+package ticketsystem;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Append only write ahead journal of the holds, reservations and expirations
+ * made by a Ticket Service.
+ *
+ * <p>
+ * Every record is laid out as the length of its body (int), the body and a
+ * CRC32 of the body (int). The body starts with the record type (byte):
+ * <ul>
+ * <li>HOLD: SeatHold id (int), expiration time in epoch milliseconds (long),
+ * customer email, number of seats (int) and the {@link SeatIndex} index of
+ * each seat (int).</li>
+ * <li>RESERVE: SeatHold id (int) and confirmation number.</li>
+ * <li>EXPIRE: SeatHold id (int).</li>
+ * <li>BASE: the position of the record that follows it (long). Only ever the
+ * first record of a journal that was truncated.</li>
+ * </ul>
+ * Strings are written as their UTF-8 length (int) followed by the bytes.
+ *
+ * <p>
+ * Positions count the bytes of every record ever appended, BASE records aside,
+ * so they stay the same when the journal is truncated. On restart the journal
+ * is replayed from the position recorded in the last {@link Snapshot}, see
+ * {@link DefaultTicketService#recover(Path)}. Once a snapshot is on disk the
+ * records before its position are dropped with {@link #truncateBefore(long)}.
+ *
+ * <p>
+ * Records are appended to an in memory buffer and written through a
+ * FileChannel. When they are forced to disk depends on the {@link Durability}.
+ * Appending is cheap and meant to happen while the reservation lock is held,
+ * {@link #commit()} is meant to be called once the lock has been released.
+ *
+ * <p>
+ * A write that fails leaves the end of the file unknown, so the Journal is
+ * failed from then on: appending, committing and syncing throw an
+ * IllegalStateException rather than hand out results that may not be durable.
+ * The records that could not be written are kept, not dropped.
+ *
+ * <p>
+ * This class is thread safe.
+ *
+ * @author bstoll
+ *
+ */
+public final class Journal implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Journal.class);
+
+	static final byte HOLD = 1;
+
+	static final byte RESERVE = 2;
+
+	static final byte EXPIRE = 3;
+
+	static final byte BASE = 4;
+
+	/**
+	 * Length, type, position and CRC32 of a BASE record.
+	 */
+	static final int BASE_RECORD_LENGTH = 4 + 1 + 8 + 4;
+
+	private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * How often records are forced to disk with {@link Durability#ASYNC}.
+	 */
+	private static final long ASYNC_FLUSH_MILLIS = 10;
+
+	private final Path path;
+
+	// Only replaced by truncateBefore, which holds the flushLock.
+	private volatile FileChannel channel;
+
+	// Position of the first record in the file, and the length of the BASE
+	// record in front of it. Only change while the flushLock is held.
+	private long basePosition;
+
+	private int baseRecordLength;
+
+	private final Durability durability;
+
+	private final CRC32 crc = new CRC32();
+
+	// Only one thread writes and forces at a time. Lock order is flushLock, then
+	// the journal.
+	private final Object flushLock = new Object();
+
+	private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+	private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+	private long appendedPosition;
+
+	private volatile long durablePosition;
+
+	private volatile IOException failure;
+
+	private final ScheduledExecutorService flusher;
+
+	/**
+	 * Opens a Journal, creating the file if it does not exist. Records are
+	 * appended after the ones already in the file.
+	 *
+	 * @param path
+	 *            The journal file. Must not be null.
+	 * @param durability
+	 *            When records are forced to disk. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 * @throws IOException
+	 *             if the file can not be opened.
+	 */
+	public Journal(Path path, Durability durability) throws IOException {
+		Preconditions.checkArgument(path != null, "Invalid path, Must not be null");
+		Preconditions.checkArgument(durability != null, "Invalid Durability, Must not be null");
+		this.path = path;
+		this.durability = durability;
+		openChannel();
+		this.appendedPosition = basePosition + channel.size() - baseRecordLength;
+		this.durablePosition = appendedPosition;
+
+		if (durability == Durability.ASYNC) {
+			this.flusher = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().setNameFormat("journal-flusher-%d").setDaemon(true).build());
+			flusher.scheduleWithFixedDelay(this::flushInBackground, ASYNC_FLUSH_MILLIS, ASYNC_FLUSH_MILLIS,
+					TimeUnit.MILLISECONDS);
+		} else {
+			this.flusher = null;
+		}
+	}
+
+	/**
+	 * Appends a HOLD record.
+	 *
+	 * @param seatHoldId
+	 *            The SeatHold id.
+	 * @param expiresAtMillis
+	 *            When the SeatHold expires, in epoch milliseconds.
+	 * @param customerEmail
+	 *            The customer email. Must not be null.
+	 * @param seatIndexes
+	 *            The indexes of the held seats. Must not be null.
+	 * @throws UncheckedIOException
+	 *             if the record could not be forced to disk with
+	 *             {@link Durability#FSYNC_PER_OP}.
+	 * @throws IllegalStateException
+	 *             if an earlier write failed.
+	 */
+	public void appendHold(int seatHoldId, long expiresAtMillis, String customerEmail, int[] seatIndexes) {
+		Preconditions.checkArgument(customerEmail != null, "Invalid customerEmail, Must not be null");
+		Preconditions.checkArgument(seatIndexes != null, "Invalid seatIndexes, Must not be null");
+		byte[] email = customerEmail.getBytes(StandardCharsets.UTF_8);
+		long position;
+		synchronized (this) {
+			ByteBuffer buffer = startRecord(HOLD, 4 + 8 + 4 + email.length + 4 + 4 * seatIndexes.length);
+			buffer.putInt(seatHoldId);
+			buffer.putLong(expiresAtMillis);
+			buffer.putInt(email.length);
+			buffer.put(email);
+			buffer.putInt(seatIndexes.length);
+			for (int index : seatIndexes) {
+				buffer.putInt(index);
+			}
+			position = endRecord();
+		}
+		appended(position);
+	}
+
+	/**
+	 * Appends a RESERVE record.
+	 *
+	 * @param seatHoldId
+	 *            The SeatHold id.
+	 * @param confirmationNumber
+	 *            The confirmation number handed out. Must not be null.
+	 * @throws UncheckedIOException
+	 *             if the record could not be forced to disk with
+	 *             {@link Durability#FSYNC_PER_OP}.
+	 * @throws IllegalStateException
+	 *             if an earlier write failed.
+	 */
+	public void appendReserve(int seatHoldId, String confirmationNumber) {
+		Preconditions.checkArgument(confirmationNumber != null, "Invalid confirmationNumber, Must not be null");
+		byte[] confirmation = confirmationNumber.getBytes(StandardCharsets.UTF_8);
+		long position;
+		synchronized (this) {
+			ByteBuffer buffer = startRecord(RESERVE, 4 + 4 + confirmation.length);
+			buffer.putInt(seatHoldId);
+			buffer.putInt(confirmation.length);
+			buffer.put(confirmation);
+			position = endRecord();
+		}
+		appended(position);
+	}
+
+	/**
+	 * Appends an EXPIRE record.
+	 *
+	 * @param seatHoldId
+	 *            The SeatHold id.
+	 * @throws UncheckedIOException
+	 *             if the record could not be forced to disk with
+	 *             {@link Durability#FSYNC_PER_OP}.
+	 * @throws IllegalStateException
+	 *             if an earlier write failed.
+	 */
+	public void appendExpire(int seatHoldId) {
+		long position;
+		synchronized (this) {
+			ByteBuffer buffer = startRecord(EXPIRE, 4);
+			buffer.putInt(seatHoldId);
+			position = endRecord();
+		}
+		appended(position);
+	}
+
+	/**
+	 * Reads the records from a position to the end of the journal, in the order
+	 * they were appended. A torn or corrupt record at the end, left behind by a
+	 * crash in the middle of a write, is cut off the file along with anything
+	 * after it so new records are appended after the last good one.
+	 *
+	 * <p>
+	 * Must be called before anything is appended.
+	 *
+	 * @param fromPosition
+	 *            Position of the first record to read, a position the journal had
+	 *            earlier. {@link #getBasePosition()} reads the whole journal.
+	 * @param handler
+	 *            Called for every record. Must not be null.
+	 * @return the number of records read.
+	 * @throws IllegalArgumentException
+	 *             if handler is null or fromPosition is before the start or past
+	 *             the end of the journal.
+	 * @throws IllegalStateException
+	 *             if something was appended already.
+	 * @throws IOException
+	 *             if the file can not be read or holds an unknown record type.
+	 */
+	long replay(long fromPosition, RecordHandler handler) throws IOException {
+		Preconditions.checkArgument(handler != null, "Invalid handler, Must not be null");
+		synchronized (flushLock) {
+			synchronized (this) {
+				Preconditions.checkState(pending.position() == 0 && appendedPosition == durablePosition,
+						"Journal must be replayed before anything is appended");
+				long size = basePosition + channel.size() - baseRecordLength;
+				Preconditions.checkArgument(fromPosition >= basePosition && fromPosition <= size,
+						"Invalid fromPosition, Must be within the journal");
+
+				channel.position(fileOffset(fromPosition));
+				// Not closed, that would close the channel.
+				DataInputStream in = new DataInputStream(
+						new BufferedInputStream(Channels.newInputStream(channel), INITIAL_BUFFER_SIZE));
+				CRC32 readCrc = new CRC32();
+				byte[] body = new byte[256];
+				long position = fromPosition;
+				long records = 0;
+
+				while (position < size) {
+					int length;
+					try {
+						length = in.readInt();
+						if (length <= 0 || length > size - position - 8) {
+							break;
+						}
+						if (body.length < length) {
+							body = new byte[Math.max(length, body.length * 2)];
+						}
+						in.readFully(body, 0, length);
+						readCrc.reset();
+						readCrc.update(body, 0, length);
+						if (in.readInt() != (int) readCrc.getValue()) {
+							break;
+						}
+					} catch (EOFException e) {
+						break;
+					}
+
+					dispatch(ByteBuffer.wrap(body, 0, length), handler);
+					position += 4 + length + 4;
+					records++;
+				}
+
+				if (position < size) {
+					LOG.warn("replay(), cutting off {} bytes of torn journal at position {}", size - position,
+							position);
+					channel.truncate(fileOffset(position));
+				}
+				channel.position(fileOffset(position));
+				appendedPosition = position;
+				durablePosition = position;
+
+				return records;
+			}
+		}
+	}
+
+	/**
+	 * Drops the records before a position, once a {@link Snapshot} that was
+	 * taken at that position is on disk and they are no longer needed. The
+	 * records from the position on are copied to a temporary file behind a BASE
+	 * record, which is then moved over the journal file. Records can be appended
+	 * meanwhile, they are written once the new file is in place.
+	 *
+	 * @param position
+	 *            Position of the first record to keep.
+	 * @throws IllegalArgumentException
+	 *             if position is before the start of the journal or past the
+	 *             records that are on disk.
+	 * @throws IllegalStateException
+	 *             if an earlier write failed.
+	 * @throws IOException
+	 *             if the new file could not be written. The journal is left as
+	 *             it was, or failed if the file could not be opened again.
+	 */
+	void truncateBefore(long position) throws IOException {
+		synchronized (flushLock) {
+			checkNotFailed();
+			Preconditions.checkArgument(position >= basePosition && position <= durablePosition,
+					"Invalid position, Must be within the records on disk");
+			if (position == basePosition) {
+				return;
+			}
+
+			Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+			try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				ByteBuffer base = ByteBuffer.allocate(BASE_RECORD_LENGTH);
+				base.putInt(1 + 8);
+				base.put(BASE);
+				base.putLong(position);
+				CRC32 baseCrc = new CRC32();
+				baseCrc.update(base.array(), 4, 1 + 8);
+				base.putInt((int) baseCrc.getValue());
+				base.flip();
+				while (base.hasRemaining()) {
+					target.write(base);
+				}
+
+				long from = fileOffset(position);
+				long count = channel.size() - from;
+				for (long copied = 0; copied < count;) {
+					copied += channel.transferTo(from + copied, count - copied, target);
+				}
+				target.force(false);
+			}
+
+			// The file can not be replaced while it is open on Windows. Whether or not
+			// the move happened, the journal carries on with whatever file is there.
+			channel.close();
+			try {
+				Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				try {
+					openChannel();
+				} catch (IOException e) {
+					failure = e;
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Makes the records appended so far as durable as the {@link Durability}
+	 * asks for. With {@link Durability#GROUP_COMMIT} this blocks until they are
+	 * on disk, the other modes return straight away.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the records could not be written.
+	 * @throws IllegalStateException
+	 *             if an earlier write failed.
+	 */
+	public void commit() {
+		checkNotFailed();
+		if (durability == Durability.GROUP_COMMIT) {
+			sync(getAppendedPosition());
+		}
+	}
+
+	/**
+	 * Writes and forces every record appended so far to disk, whatever the
+	 * {@link Durability}.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the records could not be written.
+	 * @throws IllegalStateException
+	 *             if an earlier write failed.
+	 */
+	public void sync() {
+		sync(getAppendedPosition());
+	}
+
+	/**
+	 * @return the Durability of this Journal.
+	 */
+	public Durability getDurability() {
+		return durability;
+	}
+
+	/**
+	 * @return the size of the journal in bytes, counting records that have not
+	 *         been written yet.
+	 */
+	public synchronized long getAppendedPosition() {
+		return appendedPosition;
+	}
+
+	/**
+	 * @return the position of the first record in the journal, 0 unless it was
+	 *         truncated.
+	 */
+	public long getBasePosition() {
+		synchronized (flushLock) {
+			return basePosition;
+		}
+	}
+
+	/**
+	 * @return the number of bytes of the journal known to be on disk.
+	 */
+	public long getDurablePosition() {
+		return durablePosition;
+	}
+
+	/**
+	 * Forces everything appended to disk and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (flusher != null) {
+			flusher.shutdown();
+		}
+		try {
+			sync();
+		} finally {
+			synchronized (flushLock) {
+				channel.close();
+			}
+		}
+	}
+
+	private static void dispatch(ByteBuffer body, RecordHandler handler) throws IOException {
+		byte type = body.get();
+		int seatHoldId = body.getInt();
+		switch (type) {
+		case HOLD:
+			long expiresAtMillis = body.getLong();
+			String customerEmail = readString(body);
+			int[] seatIndexes = new int[body.getInt()];
+			for (int i = 0; i < seatIndexes.length; i++) {
+				seatIndexes[i] = body.getInt();
+			}
+			handler.hold(seatHoldId, expiresAtMillis, customerEmail, seatIndexes);
+			break;
+		case RESERVE:
+			handler.reserve(seatHoldId, readString(body));
+			break;
+		case EXPIRE:
+			handler.expire(seatHoldId);
+			break;
+		default:
+			throw new IOException("Unknown journal record type " + type);
+		}
+	}
+
+	// Opens the journal file at its end and reads the BASE record, if there is one.
+	private void openChannel() throws IOException {
+		FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		long base = 0;
+		int length = 0;
+		try {
+			if (opened.size() >= BASE_RECORD_LENGTH) {
+				ByteBuffer record = ByteBuffer.allocate(BASE_RECORD_LENGTH);
+				while (record.hasRemaining()) {
+					opened.read(record, record.position());
+				}
+				CRC32 baseCrc = new CRC32();
+				baseCrc.update(record.array(), 4, 1 + 8);
+				if (record.getInt(0) == 1 + 8 && record.get(4) == BASE
+						&& record.getInt(4 + 1 + 8) == (int) baseCrc.getValue()) {
+					base = record.getLong(4 + 1);
+					length = BASE_RECORD_LENGTH;
+				}
+			}
+			opened.position(opened.size());
+		} catch (IOException e) {
+			opened.close();
+			throw e;
+		}
+		channel = opened;
+		basePosition = base;
+		baseRecordLength = length;
+	}
+
+	private long fileOffset(long position) {
+		return baseRecordLength + position - basePosition;
+	}
+
+	private static String readString(ByteBuffer body) {
+		byte[] bytes = new byte[body.getInt()];
+		body.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// Leaves room for the length and the whole body, the length is filled in by
+	// endRecord.
+	private ByteBuffer startRecord(byte type, int payloadLength) {
+		checkNotFailed();
+		int recordLength = 4 + 1 + payloadLength + 4;
+		if (pending.remaining() < recordLength) {
+			ByteBuffer larger = ByteBuffer
+					.allocate(Math.max(pending.capacity() * 2, pending.position() + recordLength));
+			pending.flip();
+			larger.put(pending);
+			pending = larger;
+		}
+		pending.mark();
+		pending.putInt(1 + payloadLength);
+		pending.put(type);
+		return pending;
+	}
+
+	private long endRecord() {
+		int end = pending.position();
+		pending.reset();
+		int start = pending.position();
+		int bodyLength = pending.getInt(start);
+
+		crc.reset();
+		crc.update(pending.array(), start + 4, bodyLength);
+		pending.position(end);
+		pending.putInt((int) crc.getValue());
+
+		appendedPosition += pending.position() - start;
+		return appendedPosition;
+	}
+
+	private void appended(long position) {
+		if (durability == Durability.FSYNC_PER_OP) {
+			sync(position);
+		}
+	}
+
+	// Whoever gets the flushLock writes everything that is pending, so callers
+	// queued up behind it are often already covered when they get their turn.
+	private void sync(long position) {
+		if (durablePosition >= position) {
+			return;
+		}
+		synchronized (flushLock) {
+			if (durablePosition >= position) {
+				return;
+			}
+			checkNotFailed();
+			long end;
+			synchronized (this) {
+				ByteBuffer swap = writing;
+				writing = pending;
+				pending = swap;
+				end = appendedPosition;
+			}
+			try {
+				writing.flip();
+				while (writing.hasRemaining()) {
+					channel.write(writing);
+				}
+				channel.force(false);
+			} catch (IOException e) {
+				// Part of the records may be on disk, retrying could write them twice.
+				// Keep what was not written and refuse anything further.
+				failure = e;
+				throw new UncheckedIOException("Could not write journal", e);
+			}
+			writing.clear();
+			durablePosition = end;
+		}
+	}
+
+	private void checkNotFailed() {
+		IOException cause = failure;
+		if (cause != null) {
+			throw new IllegalStateException(
+					"Journal has failed, records after position " + durablePosition + " may not be on disk", cause);
+		}
+	}
+
+	// Runs on the flusher thread. Exceptions are logged rather than thrown, a
+	// thrown exception would stop it from running again.
+	private void flushInBackground() {
+		if (!channel.isOpen() || failure != null) {
+			return;
+		}
+		try {
+			sync();
+		} catch (RuntimeException e) {
+			LOG.error("flushInBackground(), failed to write journal", e);
+		}
+	}
+
+	/**
+	 * Receives the records of a journal as it is replayed.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	interface RecordHandler {
+
+		void hold(int seatHoldId, long expiresAtMillis, String customerEmail, int[] seatIndexes);
+
+		void reserve(int seatHoldId, String confirmationNumber);
+
+		void expire(int seatHoldId);
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package ticketsystem;
+
+/**
+ * Immutable copy of which seats of one Level are available, as published by
+ * an {@link AvailabilityPublisher}.
+ *
+ * <p>
+ * The level's seats are a bitmap with a set bit for every available seat, cut
+ * into blocks of {@link #BLOCK_SEATS} seats. A new version shares every block
+ * it did not change with the version before it, so publishing a change copies
+ * one block and the array of blocks rather than the whole level.
+ *
+ * @author bstoll
+ *
+ */
+final class LevelAvailability {
+
+	/**
+	 * log2 of the number of seats in a block.
+	 */
+	static final int BLOCK_SHIFT = 12;
+
+	/**
+	 * Number of seats in a block.
+	 */
+	static final int BLOCK_SEATS = 1 << BLOCK_SHIFT;
+
+	private final int firstIndex;
+
+	private final int numberOfSeats;
+
+	private final long[][] blocks;
+
+	private final int seatsAvailable;
+
+	/**
+	 * Sets up a LevelAvailability with every seat available.
+	 *
+	 * @param firstIndex
+	 *            The seat index of the first seat on the level.
+	 * @param numberOfSeats
+	 *            The number of seats on the level.
+	 */
+	LevelAvailability(int firstIndex, int numberOfSeats) {
+		this.firstIndex = firstIndex;
+		this.numberOfSeats = numberOfSeats;
+		this.blocks = new long[(numberOfSeats + BLOCK_SEATS - 1) >>> BLOCK_SHIFT][];
+		for (int block = 0; block < blocks.length; block++) {
+			int seatsInBlock = Math.min(BLOCK_SEATS, numberOfSeats - (block << BLOCK_SHIFT));
+			blocks[block] = new long[(seatsInBlock + 63) >>> 6];
+			for (int offset = 0; offset < seatsInBlock; offset++) {
+				blocks[block][offset >>> 6] |= 1L << offset;
+			}
+		}
+		this.seatsAvailable = numberOfSeats;
+	}
+
+	/**
+	 * Sets up the next version of a LevelAvailability.
+	 *
+	 * @param previous
+	 *            The version this one replaces.
+	 * @param blocks
+	 *            The blocks of the bitmap. Blocks that did not change may be
+	 *            shared with previous, the rest must not be changed afterwards.
+	 * @param seatsAvailable
+	 *            The number of available seats.
+	 */
+	LevelAvailability(LevelAvailability previous, long[][] blocks, int seatsAvailable) {
+		this.firstIndex = previous.firstIndex;
+		this.numberOfSeats = previous.numberOfSeats;
+		this.blocks = blocks;
+		this.seatsAvailable = seatsAvailable;
+	}
+
+	/**
+	 * @param index
+	 *            The seat index of a seat on this level.
+	 * @return true if the seat is available.
+	 */
+	boolean isAvailable(int index) {
+		int offset = index - firstIndex;
+		return (blocks[offset >>> BLOCK_SHIFT][(offset & (BLOCK_SEATS - 1)) >>> 6] & (1L << offset)) != 0;
+	}
+
+	/**
+	 * @param index
+	 *            A seat index on this level, or one past its last seat.
+	 * @return the first available seat index at or after index, -1 if there is
+	 *         none.
+	 */
+	int nextAvailable(int index) {
+		int offset = index - firstIndex;
+		while (offset < numberOfSeats) {
+			long[] block = blocks[offset >>> BLOCK_SHIFT];
+			int word = (offset & (BLOCK_SEATS - 1)) >>> 6;
+			long bits = block[word] & (-1L << offset);
+			while (bits == 0 && ++word < block.length) {
+				bits = block[word];
+			}
+			if (bits != 0) {
+				return firstIndex + (offset & -BLOCK_SEATS) + (word << 6) + Long.numberOfTrailingZeros(bits);
+			}
+			offset = (offset & -BLOCK_SEATS) + BLOCK_SEATS;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the blocks of the bitmap. Must not be changed.
+	 */
+	long[][] getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * @return the number of available seats.
+	 */
+	int getSeatsAvailable() {
+		return seatsAvailable;
+	}
+
+}
@@ -0,0 +1,53 @@
+package ticketsystem;
+
+/**
+ * {@link LevelInventoryMXBean} reading the counters a TicketReserver keeps for
+ * one Level.
+ * 
+ * @author bstoll
+ *
+ */
+final class LevelInventory implements LevelInventoryMXBean {
+
+	private final TicketReserver ticketReserver;
+
+	private final int ordinal;
+
+	LevelInventory(TicketReserver ticketReserver, int ordinal) {
+		this.ticketReserver = ticketReserver;
+		this.ordinal = ordinal;
+	}
+
+	@Override
+	public int getLevelId() {
+		return ticketReserver.levelAt(ordinal).getId();
+	}
+
+	@Override
+	public String getLevelName() {
+		return ticketReserver.levelAt(ordinal).getName();
+	}
+
+	@Override
+	public int getTotalSeats() {
+		return ticketReserver.getNumberOfSeats(ordinal);
+	}
+
+	@Override
+	public int getSeatsAvailable() {
+		return ticketReserver.getNumberOfSeatsAvailable(ordinal);
+	}
+
+	@Override
+	public int getSeatsHeld() {
+		// The counters are read one at a time, do not let a reservation in between
+		// push this below 0.
+		return Math.max(0, getTotalSeats() - getSeatsAvailable() - getSeatsReserved());
+	}
+
+	@Override
+	public int getSeatsReserved() {
+		return ticketReserver.getNumberOfSeatsReserved(ordinal);
+	}
+
+}
@@ -0,0 +1,43 @@
+package ticketsystem;
+
+/**
+ * Live seat counts of one Level of a TicketReserver, registered by
+ * {@link TicketReserver#registerMBeans(String)}. Reading these never takes the
+ * reservation lock, so counts read together may be a few operations apart.
+ * 
+ * @author bstoll
+ *
+ */
+public interface LevelInventoryMXBean {
+
+	/**
+	 * @return the Level id.
+	 */
+	int getLevelId();
+
+	/**
+	 * @return the Level name.
+	 */
+	String getLevelName();
+
+	/**
+	 * @return the number of seats on the Level.
+	 */
+	int getTotalSeats();
+
+	/**
+	 * @return the number of seats neither held nor reserved.
+	 */
+	int getSeatsAvailable();
+
+	/**
+	 * @return the number of seats held and not yet reserved.
+	 */
+	int getSeatsHeld();
+
+	/**
+	 * @return the number of seats reserved.
+	 */
+	int getSeatsReserved();
+
+}
@@ -0,0 +1,62 @@
+package ticketsystem;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import model.Level;
+import model.Venue;
+
+/**
+ * One lock per Level of a Venue. Locks are always taken in ascending level id
+ * order and released in the reverse order, so callers locking overlapping
+ * ranges can not deadlock. Time spent waiting for and holding the locks is
+ * recorded in the TicketServiceMetrics.
+ * 
+ * @author bstoll
+ *
+ */
+final class LevelReservationLock implements ReservationLock {
+
+	private final int[] levelIds;
+
+	private final ReentrantLock[] locks;
+
+	private final TicketServiceMetrics metrics;
+
+	LevelReservationLock(Venue venue, TicketServiceMetrics metrics) {
+		this.levelIds = new int[venue.getLevels().size()];
+		this.locks = new ReentrantLock[levelIds.length];
+		int ordinal = 0;
+		for (Level level : venue.getLevels()) {
+			levelIds[ordinal] = level.getId();
+			locks[ordinal] = new ReentrantLock();
+			ordinal++;
+		}
+		this.metrics = metrics;
+	}
+
+	@Override
+	public <T> T withLevels(int minLevel, int maxLevel, Supplier<T> action) {
+		int first = 0;
+		while (first < levelIds.length && levelIds[first] < minLevel) {
+			first++;
+		}
+		int last = first;
+		long requestedNanos = System.nanoTime();
+		long acquiredNanos = requestedNanos;
+		try {
+			while (last < levelIds.length && levelIds[last] <= maxLevel) {
+				locks[last].lock();
+				last++;
+			}
+			acquiredNanos = System.nanoTime();
+			return action.get();
+		} finally {
+			metrics.recordLock(acquiredNanos - requestedNanos, System.nanoTime() - acquiredNanos);
+			while (last > first) {
+				locks[--last].unlock();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,373 @@
+package ticketsystem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import model.Event;
+import model.Reservation;
+import model.SeatHold;
+import model.Venue;
+
+/**
+ * Ticket Service that does not lock. The state of every seat is an entry in an
+ * AtomicIntegerArray, packed the same way as {@link SeatStateStore}: the
+ * SeatHold id shifted left by one with the low bit set when reserved, 0 when
+ * available.
+ *
+ * <p>
+ * findAndHoldSeats claims free seats one at a time with compare and set. If it
+ * can not claim enough seats it gives back the ones it did claim, so a failed
+ * request never leaves seats held. reserveSeats and expiration race for the
+ * SeatHold by removing it from the map of active holds, the one that removes it
+ * then moves the seats from held to reserved or back to available.
+ *
+ * <p>
+ * Seats are picked the same way as {@link SeatAllocation#FIRST_AVAILABLE}.
+ * Under contention a request may skip a seat that another request claimed and
+ * then gave back.
+ *
+ * <p>
+ * SeatHolds expire on a single daemon thread per service. Call
+ * {@link #shutdown()} when the service is no longer used.
+ *
+ * @author bstoll
+ *
+ */
+public class LockFreeTicketService implements TicketService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LockFreeTicketService.class);
+
+	private static final int RESERVED = 1;
+
+	private final Venue venue;
+
+	private final SeatIndex seatIndex;
+
+	private final AtomicIntegerArray states;
+
+	private final AtomicIntegerArray availableSeatsByLevel;
+
+	private final AtomicInteger availableSeatsInVenue;
+
+	private final AtomicInteger seatHoldCount = new AtomicInteger();
+
+	private final ConcurrentHashMap<Integer, ActiveSeatHold> activeSeatHolds = new ConcurrentHashMap<>();
+
+	private final ScheduledThreadPoolExecutor executor;
+
+	private final long expirationTime;
+
+	private final TimeUnit expirationUnits;
+
+	private final Consumer<SeatHold> expirationListener;
+
+	private final Event event;
+
+	private final ReservationRegistry reservations = new ReservationRegistry();
+
+	private final ConfirmationNumberGenerator confirmationNumbers;
+
+	/**
+	 * Sets up Lock Free Ticket Service. This will use default expiration time of
+	 * 2 minutes.
+	 *
+	 * @param venue
+	 *            The Venue. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if venue is null.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public LockFreeTicketService(Venue venue) {
+		this(venue, 2, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Sets up Lock Free Ticket Service.
+	 *
+	 * @param venue
+	 *            The Venue. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public LockFreeTicketService(Venue venue, long expirationTime, TimeUnit expirationUnits) {
+		this(venue, expirationTime, expirationUnits, null);
+	}
+
+	/**
+	 * Sets up Lock Free Ticket Service.
+	 *
+	 * @param venue
+	 *            The Venue. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @param expirationListener
+	 *            Listener for Expiring SeatHolds.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public LockFreeTicketService(Venue venue, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener) {
+		this(venue, expirationTime, expirationUnits, expirationListener, TimeBasedConfirmationNumberGenerator.shared());
+	}
+
+	/**
+	 * Sets up Lock Free Ticket Service that hands out confirmation numbers from
+	 * the given generator.
+	 *
+	 * @param venue
+	 *            The Venue. Must not be null.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @param expirationListener
+	 *            Listener for Expiring SeatHolds.
+	 * @param confirmationNumbers
+	 *            Hands out confirmation numbers. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public LockFreeTicketService(Venue venue, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener, ConfirmationNumberGenerator confirmationNumbers) {
+		Preconditions.checkArgument(venue != null, "Invalid Venue, Must not be null");
+		Preconditions.checkArgument(expirationTime > 0, "Invalid expirationTime. Must be greater than 0");
+		Preconditions.checkArgument(expirationUnits != null, "Invalid TimeUnit for Expiration. Must not be null");
+		Preconditions.checkArgument(confirmationNumbers != null,
+				"Invalid ConfirmationNumberGenerator, Must not be null");
+		this.venue = venue;
+		this.confirmationNumbers = confirmationNumbers;
+		this.seatIndex = new SeatIndex(venue);
+		this.states = new AtomicIntegerArray(seatIndex.size());
+		this.availableSeatsByLevel = new AtomicIntegerArray(seatIndex.getNumberOfLevels());
+		for (int ordinal = 0; ordinal < seatIndex.getNumberOfLevels(); ordinal++) {
+			availableSeatsByLevel.set(ordinal, seatIndex.levelEnd(ordinal) - seatIndex.levelStart(ordinal));
+		}
+		this.availableSeatsInVenue = new AtomicInteger(seatIndex.size());
+		this.expirationTime = expirationTime;
+		this.expirationUnits = expirationUnits;
+		this.expirationListener = expirationListener;
+		this.event = new Event(venue.getId(), venue.getName(), venue);
+		this.executor = new ScheduledThreadPoolExecutor(1,
+				new ThreadFactoryBuilder().setNameFormat("lock-free-seat-hold-expiration-%d").setDaemon(true).build());
+		// Reserved SeatHolds cancel their expiration, do not keep them queued.
+		executor.setRemoveOnCancelPolicy(true);
+	}
+
+	@Override
+	public int numSeatsAvailable(Optional<Integer> venueLevel) {
+		LOG.debug("numSeatsAvailable(), venueLevel = {}", venueLevel);
+		if (venueLevel != null && venueLevel.isPresent()) {
+			int ordinal = seatIndex.levelOrdinal(venueLevel.get());
+			if (ordinal >= 0) {
+				return availableSeatsByLevel.get(ordinal);
+			} else {
+				throw new IllegalArgumentException("Invalid Level for Venue.");
+			}
+		} else {
+			return availableSeatsInVenue.get();
+		}
+	}
+
+	@Override
+	public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
+			String customerEmail) {
+		LOG.debug("findAndHoldSeats(), numSeats = {}, customerEmail = {}", numSeats, customerEmail);
+		Preconditions.checkArgument(numSeats > 0, "Invalid numSeats, Number of Seats must be greater than 0");
+		Preconditions.checkArgument(customerEmail != null, "Invalid customerEmail, Email can not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid customerEmail, Email can not be empty");
+		Preconditions.checkArgument(minLevel != null,
+				"Invalid minLevel, Can not be null. Pass in Optional.empty() to default to min level of venue");
+		Preconditions.checkArgument(maxLevel != null,
+				"Invalid maxLevel, Can not be null. Pass in Optional.empty() to default to max level of venue");
+
+		int actualMin = minLevel.isPresent() ? minLevel.get() : venue.getMinLevel();
+		int actualMax = maxLevel.isPresent() ? maxLevel.get() : venue.getMaxLevel();
+
+		Preconditions.checkArgument(actualMax <= venue.getMaxLevel() && actualMax >= venue.getMinLevel(),
+				"Invalid Max, Must be less than or equal to venue max and greater than or equal to venue min");
+		Preconditions.checkArgument(actualMin >= venue.getMinLevel() && actualMin <= venue.getMaxLevel(),
+				"Invalid Min, Must be greater than or equal to venue min and less than or equal to venue max");
+		Preconditions.checkArgument(actualMin <= actualMax, "Invalid Min/Max. Min must be less than Max");
+
+		if (numSeats > availableSeatsInVenue.get()) {
+			return null;
+		}
+
+		int seatHoldId = seatHoldCount.incrementAndGet();
+		Preconditions.checkState(seatHoldId <= SeatStateStore.MAX_SEAT_HOLD_ID, "Ran out of SeatHold ids");
+		int heldState = seatHoldId << 1;
+
+		int[] claimed = new int[numSeats];
+		int seatsClaimed = 0;
+
+		for (int ordinal = 0; ordinal < seatIndex.getNumberOfLevels() && seatsClaimed < numSeats; ordinal++) {
+			int levelId = seatIndex.levelId(ordinal);
+			if (levelId < actualMin || availableSeatsByLevel.get(ordinal) == 0) {
+				continue;
+			} else if (levelId > actualMax) {
+				break;
+			}
+
+			int end = seatIndex.levelEnd(ordinal);
+			for (int index = seatIndex.levelStart(ordinal); index < end && seatsClaimed < numSeats; index++) {
+				if (states.get(index) == 0 && states.compareAndSet(index, 0, heldState)) {
+					claimed[seatsClaimed++] = index;
+					availableSeatsByLevel.decrementAndGet(ordinal);
+					availableSeatsInVenue.decrementAndGet();
+				}
+			}
+		}
+
+		if (seatsClaimed < numSeats) {
+			LOG.debug("findAndHoldSeats(), not enough seats, giving back {}", seatsClaimed);
+			// Nobody else can see this hold yet, so the seats are still ours.
+			release(claimed, seatsClaimed);
+			return null;
+		}
+
+		SeatHold seatHold = new SeatHold(seatHoldId, customerEmail, venue.getSeatRegistry(), claimed);
+
+		ActiveSeatHold activeSeatHold = new ActiveSeatHold(seatHold, claimed);
+		activeSeatHolds.put(seatHoldId, activeSeatHold);
+		try {
+			activeSeatHold.future = executor.schedule(activeSeatHold, expirationTime, expirationUnits);
+		} catch (RejectedExecutionException e) {
+			activeSeatHolds.remove(seatHoldId, activeSeatHold);
+			release(claimed, seatsClaimed);
+			throw new IllegalStateException("Ticket service is shut down", e);
+		}
+
+		return seatHold;
+	}
+
+	@Override
+	public String reserveSeats(int seatHoldId, String customerEmail) {
+		LOG.debug("reserveSeats(), seatHold = {}, customerEmail ={}", seatHoldId, customerEmail);
+
+		Preconditions.checkArgument(seatHoldId > 0, "Invalid Seat ID, Must be greater than 0");
+		Preconditions.checkArgument(customerEmail != null, "Invalid Customer Email, Must not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid Customer Email, Must not be null");
+
+		ActiveSeatHold activeSeatHold = activeSeatHolds.get(seatHoldId);
+		if (activeSeatHold == null) {
+			throw new IllegalStateException("Seat Hold expired");
+		} else if (!activeSeatHold.seatHold.getCustomerEmail().equals(customerEmail)) {
+			throw new IllegalStateException("Customer Email does not match passed in ID");
+		}
+
+		// Whoever removes the hold owns its seats, expiration may have won.
+		if (!activeSeatHolds.remove(seatHoldId, activeSeatHold)) {
+			throw new IllegalStateException("Seat Hold expired");
+		}
+		ScheduledFuture<?> future = activeSeatHold.future;
+		if (future != null) {
+			future.cancel(false);
+		}
+
+		int heldState = seatHoldId << 1;
+		for (int index : activeSeatHold.seatIndexes) {
+			if (!states.compareAndSet(index, heldState, heldState | RESERVED)) {
+				throw new IllegalStateException("Seat is no longer held by SeatHold");
+			}
+		}
+
+		String confirmationNumber = confirmationNumbers.next();
+		reservations.add(confirmationNumber, event, activeSeatHold.seatHold);
+
+		LOG.debug("reserveSeats(), confirmationNumber = {}", confirmationNumber);
+
+		return confirmationNumber;
+	}
+
+	@Override
+	public Reservation findReservation(String confirmationNumber) {
+		return reservations.get(confirmationNumber);
+	}
+
+	@Override
+	public List<Reservation> findReservations(String customerEmail) {
+		return reservations.getByCustomerEmail(customerEmail);
+	}
+
+	/**
+	 * Stops the expiration thread. SeatHolds no longer expire afterwards and
+	 * new SeatHolds are refused with an IllegalStateException.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	// Put seats held by this service back to available.
+	private void release(int[] seatIndexes, int numberOfSeats) {
+		for (int i = 0; i < numberOfSeats; i++) {
+			int index = seatIndexes[i];
+			states.set(index, 0);
+			availableSeatsByLevel.incrementAndGet(seatIndex.levelOrdinalOf(index));
+			availableSeatsInVenue.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A SeatHold that has not been reserved or expired yet. When this is run the
+	 * SeatHold will expire, unless it was reserved first.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	private class ActiveSeatHold implements Runnable {
+
+		private final SeatHold seatHold;
+
+		private final int[] seatIndexes;
+
+		private volatile ScheduledFuture<?> future;
+
+		private ActiveSeatHold(SeatHold seatHold, int[] seatIndexes) {
+			this.seatHold = seatHold;
+			this.seatIndexes = seatIndexes;
+		}
+
+		@Override
+		public void run() {
+			if (activeSeatHolds.remove(seatHold.getId(), this)) {
+				if (expirationListener != null) {
+					expirationListener.accept(seatHold);
+				}
+				release(seatIndexes, seatIndexes.length);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,47 @@
+package ticketsystem;
+
+/**
+ * How DefaultTicketService synchronizes access to its TicketReserver.
+ * 
+ * @author bstoll
+ *
+ */
+public enum LockingMode {
+
+	/**
+	 * Every operation synchronizes on the TicketReserver monitor.
+	 */
+	GLOBAL {
+		@Override
+		ReservationLock newLock(TicketReserver ticketReserver, TicketServiceMetrics metrics, Journal journal) {
+			return new GlobalReservationLock(ticketReserver, metrics);
+		}
+	},
+
+	/**
+	 * Each Level has its own lock. Operations lock only the levels they work on,
+	 * in ascending level id order, so requests for different levels run in
+	 * parallel.
+	 */
+	PER_LEVEL {
+		@Override
+		ReservationLock newLock(TicketReserver ticketReserver, TicketServiceMetrics metrics, Journal journal) {
+			return new LevelReservationLock(ticketReserver.getVenue(), metrics);
+		}
+	},
+
+	/**
+	 * Operations are queued in a ring buffer and run one after another by a
+	 * single writer thread, so the TicketReserver is never handed between
+	 * threads. The writer commits the journal once per batch of operations.
+	 */
+	SINGLE_WRITER {
+		@Override
+		ReservationLock newLock(TicketReserver ticketReserver, TicketServiceMetrics metrics, Journal journal) {
+			return new SingleWriterReservationLock(metrics, journal);
+		}
+	};
+
+	abstract ReservationLock newLock(TicketReserver ticketReserver, TicketServiceMetrics metrics, Journal journal);
+
+}
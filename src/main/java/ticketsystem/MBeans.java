@@ -0,0 +1,105 @@
+package ticketsystem;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Registers and unregisters MBeans with the platform MBeanServer under the
+ * {@code ticketsystem} domain.
+ * 
+ * @author bstoll
+ *
+ */
+final class MBeans {
+
+	private static final String DOMAIN = "ticketsystem";
+
+	private MBeans() {
+	}
+
+	/**
+	 * @param type
+	 *            The type key.
+	 * @param name
+	 *            The name key, quoted. Must not be null or empty.
+	 * @return the ObjectName {@code ticketsystem:type=<type>,name="<name>"}.
+	 * @throws IllegalArgumentException
+	 *             if name is null or empty.
+	 */
+	static ObjectName objectName(String type, String name) {
+		Preconditions.checkArgument(name != null && !name.isEmpty(), "Invalid name, Must not be null or empty");
+		return objectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+	}
+
+	/**
+	 * @param parent
+	 *            ObjectName to add the key to.
+	 * @param key
+	 *            The key.
+	 * @param value
+	 *            The value.
+	 * @return the parent ObjectName with one more key.
+	 */
+	static ObjectName objectName(ObjectName parent, String key, Object value) {
+		return objectName(parent.getCanonicalName() + "," + key + "=" + value);
+	}
+
+	/**
+	 * Registers an MBean and remembers its name.
+	 * 
+	 * @param mbean
+	 *            The MBean.
+	 * @param objectName
+	 *            Its ObjectName.
+	 * @param registered
+	 *            The name is added here once registered.
+	 * @throws IllegalStateException
+	 *             if the MBean can not be registered, for example because the
+	 *             name is taken.
+	 */
+	static void register(Object mbean, ObjectName objectName, List<ObjectName> registered) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register MBean " + objectName, e);
+		}
+		registered.add(objectName);
+	}
+
+	/**
+	 * Unregisters every MBean in the list and empties it. MBeans already gone are
+	 * skipped.
+	 * 
+	 * @param registered
+	 *            The ObjectNames.
+	 */
+	static void unregisterAll(List<ObjectName> registered) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName objectName : registered) {
+			try {
+				if (server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+			} catch (JMException e) {
+				throw new IllegalStateException("Could not unregister MBean " + objectName, e);
+			}
+		}
+		registered.clear();
+	}
+
+	private static ObjectName objectName(String name) {
+		try {
+			return new ObjectName(name);
+		} catch (MalformedObjectNameException e) {
+			throw new IllegalArgumentException("Invalid MBean name " + name, e);
+		}
+	}
+
+}
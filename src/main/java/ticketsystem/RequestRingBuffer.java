@@ -0,0 +1,132 @@
+package ticketsystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Bounded ring buffer with many producers and a single consumer.
+ *
+ * <p>
+ * Every slot has a sequence number telling whose turn it is. A producer claims
+ * the next position with a compare and set on the tail, fills the slot and
+ * then bumps the slot's sequence to hand it to the consumer. The consumer
+ * takes the slot and bumps the sequence again by the capacity to hand it back
+ * to the producer one lap later. Nothing is locked and offering to a full
+ * buffer fails instead of waiting.
+ *
+ * <p>
+ * {@link #offer(Object)} is safe from any thread, {@link #poll()} and
+ * {@link #isEmpty()} must only be called by the one consumer thread.
+ *
+ * @author bstoll
+ *
+ */
+final class RequestRingBuffer<E> {
+
+	private final int capacity;
+
+	private final int mask;
+
+	private final AtomicReferenceArray<E> elements;
+
+	// sequences[slot] == position: free for the producer of position.
+	// sequences[slot] == position + 1: filled for the consumer of position.
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	// Only written by the consumer, read by size().
+	private final AtomicLong head = new AtomicLong();
+
+	/**
+	 * Sets up an empty RequestRingBuffer.
+	 *
+	 * @param capacity
+	 *            The number of elements it can hold. Must be a power of two.
+	 * @throws IllegalArgumentException
+	 *             if capacity is not a power of two.
+	 */
+	RequestRingBuffer(int capacity) {
+		Preconditions.checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1,
+				"Invalid capacity, Must be a power of two");
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.elements = new AtomicReferenceArray<>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for (int slot = 0; slot < capacity; slot++) {
+			sequences.set(slot, slot);
+		}
+	}
+
+	/**
+	 * Adds an element at the tail.
+	 *
+	 * @param element
+	 *            The element. Must not be null.
+	 * @return true if added, false if the buffer is full.
+	 */
+	boolean offer(E element) {
+		long position = tail.get();
+		int slot;
+		while (true) {
+			slot = (int) position & mask;
+			long difference = sequences.get(slot) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				// The consumer has not taken the element from the last lap yet.
+				return false;
+			} else {
+				// Another producer claimed the position first.
+				position = tail.get();
+			}
+		}
+		elements.lazySet(slot, element);
+		sequences.set(slot, position + 1);
+		return true;
+	}
+
+	/**
+	 * Takes the element at the head. Consumer only.
+	 *
+	 * @return the element, null if the buffer is empty.
+	 */
+	E poll() {
+		long position = head.get();
+		int slot = (int) position & mask;
+		if (sequences.get(slot) != position + 1) {
+			return null;
+		}
+		E element = elements.get(slot);
+		elements.lazySet(slot, null);
+		sequences.set(slot, position + capacity);
+		head.lazySet(position + 1);
+		return element;
+	}
+
+	/**
+	 * Consumer only.
+	 *
+	 * @return true if there is no element to take.
+	 */
+	boolean isEmpty() {
+		long position = head.get();
+		return sequences.get((int) position & mask) != position + 1;
+	}
+
+	/**
+	 * @return the number of elements that have been claimed and not yet taken.
+	 *         Only an estimate while producers or the consumer are running.
+	 */
+	int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(capacity, size));
+	}
+
+}
@@ -0,0 +1,34 @@
+package ticketsystem;
+
+import java.util.function.Supplier;
+
+/**
+ * Lock guarding the levels of a TicketReserver.
+ * 
+ * @author bstoll
+ *
+ */
+interface ReservationLock {
+
+	/**
+	 * Runs an action while holding the lock for every level with an id between
+	 * minLevel and maxLevel.
+	 * 
+	 * @param minLevel
+	 *            The lowest level id to lock.
+	 * @param maxLevel
+	 *            The highest level id to lock.
+	 * @param action
+	 *            The action to run.
+	 * @return the result of the action.
+	 */
+	<T> T withLevels(int minLevel, int maxLevel, Supplier<T> action);
+
+	/**
+	 * Stops any thread the lock runs actions on. Locks that run actions on the
+	 * calling thread have nothing to stop.
+	 */
+	default void shutdown() {
+	}
+
+}
@@ -0,0 +1,167 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
+
+import model.SeatHold;
+
+/**
+ * Rebuilds the state of a TicketReserver from a {@link Snapshot} and the
+ * {@link Journal} records written after it, keeping track of the SeatHolds
+ * that are still waiting to expire.
+ *
+ * <p>
+ * Expirations of SeatHolds that are not known are ignored. Those are SeatHolds
+ * that were already on their way to being expired when the snapshot was taken.
+ *
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author bstoll
+ *
+ */
+final class ReservationRecovery implements Journal.RecordHandler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ReservationRecovery.class);
+
+	private final TicketReserver ticketReserver;
+
+	private final ReservationRegistry reservations;
+
+	private final Map<Integer, SeatHold> activeSeatHolds = new LinkedHashMap<>();
+
+	private final Map<Integer, Long> expiresAtMillis = new HashMap<>();
+
+	/**
+	 * @param ticketReserver
+	 *            The TicketReserver to rebuild. Must not be null.
+	 * @param reservations
+	 *            Records each Reservation restored from the snapshot or replayed
+	 *            from the journal, may be null.
+	 */
+	ReservationRecovery(TicketReserver ticketReserver, ReservationRegistry reservations) {
+		Preconditions.checkArgument(ticketReserver != null, "Invalid ticketReserver. Must not be null");
+		this.ticketReserver = ticketReserver;
+		this.reservations = reservations;
+	}
+
+	/**
+	 * Puts back every seat, active SeatHold and Reservation of a Snapshot. Must
+	 * be called before any journal record is replayed.
+	 *
+	 * @param snapshot
+	 *            The Snapshot.
+	 * @throws IllegalStateException
+	 *             if the Snapshot does not match the Venue.
+	 */
+	void restore(Snapshot snapshot) {
+		int[] seatStates = snapshot.getSeatStates().clone();
+
+		// Pull the seats of the active SeatHolds out, they are put back as
+		// SeatHolds. Reserved seats stay, but are collected for their Reservation.
+		Map<Integer, List<Integer>> seatIndexesById = new HashMap<>();
+		for (Snapshot.ActiveSeatHold activeSeatHold : snapshot.getActiveSeatHolds()) {
+			seatIndexesById.put(activeSeatHold.getSeatHoldId(), new ArrayList<>());
+		}
+		Map<Integer, List<Integer>> reservedSeatIndexesById = new HashMap<>();
+		if (reservations != null) {
+			for (Snapshot.ReservedSeatHold reservedSeatHold : snapshot.getReservedSeatHolds()) {
+				reservedSeatIndexesById.put(reservedSeatHold.getSeatHoldId(), new ArrayList<>());
+			}
+		}
+		for (int index = 0; index < seatStates.length; index++) {
+			int state = seatStates[index];
+			if (state != 0 && (state & SeatStateStore.RESERVED) == 0) {
+				List<Integer> seatIndexes = seatIndexesById.get(state >>> 1);
+				if (seatIndexes != null) {
+					seatIndexes.add(index);
+				}
+				seatStates[index] = 0;
+			} else if (state != 0) {
+				List<Integer> seatIndexes = reservedSeatIndexesById.get(state >>> 1);
+				if (seatIndexes != null) {
+					seatIndexes.add(index);
+				}
+			}
+		}
+
+		ticketReserver.restoreSeatStates(seatStates, snapshot.getLastSeatHoldId());
+		// Reservations made before the snapshot are not replayed, their numbers
+		// must still never be handed out again.
+		ticketReserver.restoreLastConfirmationNumber(snapshot.getLastConfirmationNumber());
+		for (Snapshot.ActiveSeatHold activeSeatHold : snapshot.getActiveSeatHolds()) {
+			int[] seatIndexes = Ints.toArray(seatIndexesById.get(activeSeatHold.getSeatHoldId()));
+			hold(activeSeatHold.getSeatHoldId(), activeSeatHold.getExpiresAtMillis(), activeSeatHold.getCustomerEmail(),
+					seatIndexes);
+		}
+		if (reservations != null) {
+			for (Snapshot.ReservedSeatHold reservedSeatHold : snapshot.getReservedSeatHolds()) {
+				int[] seatIndexes = Ints.toArray(reservedSeatIndexesById.get(reservedSeatHold.getSeatHoldId()));
+				SeatHold seatHold = new SeatHold(reservedSeatHold.getSeatHoldId(), reservedSeatHold.getCustomerEmail(),
+						ticketReserver.getVenue().getSeatRegistry(), seatIndexes);
+				reservations.add(reservedSeatHold.getConfirmationNumber(), ticketReserver.getEvent(), seatHold);
+			}
+		}
+	}
+
+	@Override
+	public void hold(int seatHoldId, long expiresAt, String customerEmail, int[] seatIndexes) {
+		SeatHold seatHold = ticketReserver.restoreSeatHold(seatHoldId, customerEmail, seatIndexes);
+		activeSeatHolds.put(seatHoldId, seatHold);
+		expiresAtMillis.put(seatHoldId, expiresAt);
+	}
+
+	@Override
+	public void reserve(int seatHoldId, String confirmationNumber) {
+		SeatHold seatHold = activeSeatHolds.remove(seatHoldId);
+		Preconditions.checkState(seatHold != null, "Reserved SeatHold %s is not held", seatHoldId);
+		expiresAtMillis.remove(seatHoldId);
+		ticketReserver.restoreReservation(seatHold, confirmationNumber);
+		if (reservations != null) {
+			reservations.add(confirmationNumber, ticketReserver.getEvent(), seatHold);
+		}
+	}
+
+	@Override
+	public void expire(int seatHoldId) {
+		SeatHold seatHold = activeSeatHolds.remove(seatHoldId);
+		if (seatHold != null) {
+			expiresAtMillis.remove(seatHoldId);
+			ticketReserver.expireSeatHold(seatHold);
+		} else {
+			LOG.debug("expire(), SeatHold with id = {} was already expired", seatHoldId);
+		}
+	}
+
+	/**
+	 * Calls the action for every SeatHold still waiting to expire, in the order
+	 * they were held.
+	 *
+	 * @param action
+	 *            Called with each SeatHold and the epoch milliseconds it expires
+	 *            at.
+	 */
+	void forEachActiveSeatHold(ObjLongConsumer<SeatHold> action) {
+		for (SeatHold seatHold : activeSeatHolds.values()) {
+			action.accept(seatHold, expiresAtMillis.get(seatHold.getId()));
+		}
+	}
+
+	/**
+	 * @return the number of SeatHolds still waiting to expire.
+	 */
+	int getNumberOfActiveSeatHolds() {
+		return activeSeatHolds.size();
+	}
+
+}
@@ -0,0 +1,158 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Preconditions;
+
+import model.Event;
+import model.Reservation;
+import model.SeatHold;
+
+/**
+ * Remembers every Reservation made, by confirmation number and by customer
+ * email. Both lookups are a single hash map get.
+ *
+ * <p>
+ * Kept compact for millions of Reservations: each customer's Reservations are
+ * one array that doubles when full, and every Reservation of a customer shares
+ * one email String. A reserved SeatHold backed by seat ids keeps only its int
+ * array of ids.
+ *
+ * <p>
+ * This class is thread safe. Adding a Reservation is amortized O(1), it locks
+ * only the customer's own Reservations and never a bin of the map.
+ *
+ * @author bstoll
+ *
+ */
+final class ReservationRegistry {
+
+	private final ConcurrentMap<String, Reservation> reservationsByConfirmation = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, CustomerReservations> reservationsByEmail = new ConcurrentHashMap<>();
+
+	/**
+	 * Records a Reservation.
+	 *
+	 * @param confirmationNumber
+	 *            The confirmation number handed out for it.
+	 * @param event
+	 *            The Event the seats were reserved for.
+	 * @param seatHold
+	 *            The SeatHold that was reserved.
+	 * @return the Reservation.
+	 * @throws IllegalStateException
+	 *             if the confirmation number was already recorded.
+	 */
+	Reservation add(String confirmationNumber, Event event, SeatHold seatHold) {
+		CustomerReservations customerReservations = reservationsByEmail
+				.computeIfAbsent(seatHold.getCustomerEmail(), CustomerReservations::new);
+		Reservation reservation = new Reservation(confirmationNumber, event,
+				withCustomerEmail(seatHold, customerReservations.customerEmail));
+		Preconditions.checkState(reservationsByConfirmation.putIfAbsent(confirmationNumber, reservation) == null,
+				"Reservation already exists for this confirmation number");
+		customerReservations.add(reservation);
+		return reservation;
+	}
+
+	/**
+	 * @param confirmationNumber
+	 *            The confirmation number, may be null.
+	 * @return the Reservation, null if there is none for the confirmation
+	 *         number.
+	 */
+	Reservation get(String confirmationNumber) {
+		return confirmationNumber != null ? reservationsByConfirmation.get(confirmationNumber) : null;
+	}
+
+	/**
+	 * @param customerEmail
+	 *            The customer email, may be null.
+	 * @return Unmodifiable List of the customer's Reservations in the order they
+	 *         were made, empty if there are none.
+	 */
+	List<Reservation> getByCustomerEmail(String customerEmail) {
+		CustomerReservations customerReservations = customerEmail != null ? reservationsByEmail.get(customerEmail)
+				: null;
+		return customerReservations != null ? customerReservations.copy() : Collections.emptyList();
+	}
+
+	/**
+	 * Collects the Reservations of one Event, for a snapshot.
+	 *
+	 * @param event
+	 *            The Event.
+	 * @return the Event's Reservations, grouped by customer and in the order
+	 *         each customer made them.
+	 */
+	List<Reservation> getByEvent(Event event) {
+		List<Reservation> eventReservations = new ArrayList<>();
+		for (CustomerReservations customerReservations : reservationsByEmail.values()) {
+			for (Reservation reservation : customerReservations.copy()) {
+				if (reservation.getEvent().equals(event)) {
+					eventReservations.add(reservation);
+				}
+			}
+		}
+		return eventReservations;
+	}
+
+	/**
+	 * @return the number of Reservations recorded.
+	 */
+	int size() {
+		return reservationsByConfirmation.size();
+	}
+
+	// The reserved SeatHold is dropped by the service, so swapping it for one
+	// sharing the email costs nothing once it is collected. SeatHolds set up
+	// from a List of Seats keep their own email.
+	private static SeatHold withCustomerEmail(SeatHold seatHold, String customerEmail) {
+		if (seatHold.getCustomerEmail() == customerEmail || seatHold.getSeatRegistry() == null) {
+			return seatHold;
+		}
+		int[] seatIds = new int[seatHold.getNumberOfSeats()];
+		for (int i = 0; i < seatIds.length; i++) {
+			seatIds[i] = seatHold.getSeatId(i);
+		}
+		return new SeatHold(seatHold.getId(), customerEmail, seatHold.getSeatRegistry(), seatIds);
+	}
+
+	/**
+	 * The Reservations of one customer, in the order they were made.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	private static final class CustomerReservations {
+
+		// Shared by every Reservation of the customer.
+		private final String customerEmail;
+
+		private Reservation[] reservations = new Reservation[1];
+
+		private int size;
+
+		private CustomerReservations(String customerEmail) {
+			this.customerEmail = customerEmail;
+		}
+
+		private synchronized void add(Reservation reservation) {
+			if (size == reservations.length) {
+				reservations = Arrays.copyOf(reservations, size * 2);
+			}
+			reservations[size++] = reservation;
+		}
+
+		private synchronized List<Reservation> copy() {
+			return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(reservations, size)));
+		}
+
+	}
+
+}
@@ -0,0 +1,36 @@
+package ticketsystem;
+
+/**
+ * The seat allocation strategies a TicketReserver can use.
+ * 
+ * @author bstoll
+ *
+ */
+public enum SeatAllocation {
+
+	/**
+	 * Takes the first available seats in seat order, starting on the lowest
+	 * level. Groups may be split across rows.
+	 */
+	FIRST_AVAILABLE {
+		@Override
+		SeatAllocator newAllocator(SeatIndex seatIndex, SeatStateStore seatStates) {
+			return new FirstAvailableSeatAllocator(seatIndex, seatStates);
+		}
+	},
+
+	/**
+	 * Keeps groups together. Takes the first block of adjacent seats in a single
+	 * row on the lowest possible level. When no row has a large enough block it
+	 * falls back to {@link #FIRST_AVAILABLE}.
+	 */
+	CONTIGUOUS {
+		@Override
+		SeatAllocator newAllocator(SeatIndex seatIndex, SeatStateStore seatStates) {
+			return new ContiguousSeatAllocator(seatIndex, seatStates);
+		}
+	};
+
+	abstract SeatAllocator newAllocator(SeatIndex seatIndex, SeatStateStore seatStates);
+
+}
@@ -0,0 +1,47 @@
+package ticketsystem;
+
+/**
+ * Strategy used by the TicketReserver to pick which seats to hold. Allocators
+ * work on {@link SeatIndex} indexes and are told about every seat state change
+ * so they can keep their own search structures up to date.
+ * 
+ * <p>
+ * Implementations are not thread safe and are meant to be externally
+ * synchronized on, the same as the TicketReserver.
+ * 
+ * @author bstoll
+ *
+ */
+interface SeatAllocator {
+
+	/**
+	 * Finds the best available seats between two levels.
+	 * 
+	 * @param numSeats
+	 *            The Number of seats to find. Must be greater than 0.
+	 * @param minLevel
+	 *            The minimum level id to search on.
+	 * @param maxLevel
+	 *            The maximum level id to search on.
+	 * @return the indexes of the seats found, null if the order can not be
+	 *         fufilled.
+	 */
+	int[] findBestSeats(int numSeats, int minLevel, int maxLevel);
+
+	/**
+	 * Called after a seat has been held.
+	 * 
+	 * @param index
+	 *            The seat index.
+	 */
+	void seatHeld(int index);
+
+	/**
+	 * Called after a seat has been made available again.
+	 * 
+	 * @param index
+	 *            The seat index.
+	 */
+	void seatReleased(int index);
+
+}
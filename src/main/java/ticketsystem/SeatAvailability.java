@@ -0,0 +1,128 @@
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+import model.Seat;
+
+/**
+ * Immutable view of which seats of a Venue were available at one update
+ * epoch. Every hold or expiration that frees or takes seats publishes a new
+ * SeatAvailability with a higher epoch, the one being read is never changed,
+ * so it can be read from any thread without locking and stays consistent
+ * across calls.
+ *
+ * <p>
+ * Each level is a bitmap with a bit per seat, versions share the parts of the
+ * bitmap that did not change between them.
+ *
+ * @author bstoll
+ *
+ */
+public final class SeatAvailability {
+
+	private final SeatIndex seatIndex;
+
+	private final LevelAvailability[] levels;
+
+	private final long epoch;
+
+	private final int seatsAvailable;
+
+	SeatAvailability(SeatIndex seatIndex, LevelAvailability[] levels, long epoch) {
+		this.seatIndex = seatIndex;
+		this.levels = levels;
+		this.epoch = epoch;
+		int seatsAvailable = 0;
+		for (LevelAvailability level : levels) {
+			seatsAvailable += level.getSeatsAvailable();
+		}
+		this.seatsAvailable = seatsAvailable;
+	}
+
+	/**
+	 * @return the update epoch. Later versions have a higher epoch, 0 when
+	 *         nothing was ever published.
+	 */
+	public long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * @return number of available seats in the Venue.
+	 */
+	public int getNumberOfSeatsAvailable() {
+		return seatsAvailable;
+	}
+
+	/**
+	 * @param levelId
+	 *            The Level id.
+	 * @return number of available seats on the Level.
+	 * @throws IllegalArgumentException
+	 *             if the Venue does not contain the level.
+	 */
+	public int getNumberOfSeatsAvailable(int levelId) {
+		return levels[ordinalOf(levelId)].getSeatsAvailable();
+	}
+
+	/**
+	 * @param seat
+	 *            The Seat. Must not be null. Only its level, row and seat number
+	 *            are used.
+	 * @return true if the seat is available (not held or reserved).
+	 * @throws IllegalArgumentException
+	 *             if seat is null or the Venue does not contain it.
+	 */
+	public boolean isAvailable(Seat seat) {
+		Preconditions.checkArgument(seat != null, "Invalid Seat, Must not be null");
+		int index = seatIndex.indexOf(seat);
+		Preconditions.checkArgument(index >= 0, "Invalid Seat for Venue.");
+		return levels[seatIndex.levelOrdinal(seat.getLevelId())].isAvailable(index);
+	}
+
+	/**
+	 * @param levelId
+	 *            The Level id.
+	 * @return the available seats of the Level in row order.
+	 * @throws IllegalArgumentException
+	 *             if the Venue does not contain the level.
+	 */
+	public List<Seat> getAvailableSeats(int levelId) {
+		int ordinal = ordinalOf(levelId);
+		LevelAvailability level = levels[ordinal];
+		List<Seat> seats = new ArrayList<>(level.getSeatsAvailable());
+		for (int index = level.nextAvailable(seatIndex.levelStart(ordinal)); index >= 0; index = level
+				.nextAvailable(index + 1)) {
+			seats.add(seatIndex.seatAt(index));
+		}
+		return seats;
+	}
+
+	/**
+	 * @param firstOrdinal
+	 *            The ordinal of the first level in replacements.
+	 * @param replacements
+	 *            New versions of consecutive levels, null entries keep the
+	 *            current version.
+	 * @return the next SeatAvailability, with an epoch one higher.
+	 */
+	SeatAvailability withLevels(int firstOrdinal, LevelAvailability[] replacements) {
+		LevelAvailability[] next = levels.clone();
+		for (int i = 0; i < replacements.length; i++) {
+			if (replacements[i] != null) {
+				next[firstOrdinal + i] = replacements[i];
+			}
+		}
+		return new SeatAvailability(seatIndex, next, epoch + 1);
+	}
+
+	private int ordinalOf(int levelId) {
+		int ordinal = seatIndex.levelOrdinal(levelId);
+		Preconditions.checkArgument(ordinal >= 0, "Invalid Level for Venue.");
+		return ordinal;
+	}
+
+}
@@ -0,0 +1,155 @@
+package ticketsystem;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+import model.Level;
+import model.Seat;
+import model.SeatRegistry;
+import model.Venue;
+
+/**
+ * Assigns every Seat of a Venue a dense int index, the id given to it by the
+ * Venue's {@link SeatRegistry}. Levels are laid out in ascending level id order
+ * and each level is laid out row by row, so index order is the same as
+ * {@link Seat#compareTo(Seat)} order.
+ *
+ * <p>
+ * Levels are also given a dense ordinal (0 for the lowest level id) so per
+ * level data can be kept in arrays. This class is Immutable.
+ *
+ * @author bstoll
+ *
+ */
+final class SeatIndex {
+
+	private final SeatRegistry seatRegistry;
+
+	private final Level[] levels;
+
+	private final int[] levelIds;
+
+	// levelOffsets[ordinal] is the first index of the level, the last entry is
+	// the total number of seats.
+	private final int[] levelOffsets;
+
+	/**
+	 * Sets up a SeatIndex.
+	 *
+	 * @param venue
+	 *            The Venue to index. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if venue is null.
+	 */
+	SeatIndex(Venue venue) {
+		Preconditions.checkArgument(venue != null, "Invalid Venue, Must not be null");
+
+		this.seatRegistry = venue.getSeatRegistry();
+		this.levels = venue.getLevels().toArray(new Level[0]);
+		this.levelIds = new int[levels.length];
+		this.levelOffsets = new int[levels.length + 1];
+
+		int offset = 0;
+		for (int ordinal = 0; ordinal < levels.length; ordinal++) {
+			levelIds[ordinal] = levels[ordinal].getId();
+			levelOffsets[ordinal] = offset;
+			offset += levels[ordinal].getTotalNumberOfSeats();
+		}
+		levelOffsets[levels.length] = offset;
+	}
+
+	/**
+	 * @return the total number of seats indexed.
+	 */
+	int size() {
+		return levelOffsets[levels.length];
+	}
+
+	/**
+	 * @return the number of levels indexed.
+	 */
+	int getNumberOfLevels() {
+		return levels.length;
+	}
+
+	/**
+	 * @param levelId
+	 *            the Level id.
+	 * @return the ordinal of the level, -1 if the venue has no such level.
+	 */
+	int levelOrdinal(int levelId) {
+		int ordinal = Arrays.binarySearch(levelIds, levelId);
+		return ordinal >= 0 ? ordinal : -1;
+	}
+
+	/**
+	 * @param ordinal
+	 *            the level ordinal.
+	 * @return the Level id for the ordinal.
+	 */
+	int levelId(int ordinal) {
+		return levelIds[ordinal];
+	}
+
+	/**
+	 * @param ordinal
+	 *            the level ordinal.
+	 * @return the Level for the ordinal.
+	 */
+	Level level(int ordinal) {
+		return levels[ordinal];
+	}
+
+	/**
+	 * @param ordinal
+	 *            the level ordinal.
+	 * @return first seat index of the level.
+	 */
+	int levelStart(int ordinal) {
+		return levelOffsets[ordinal];
+	}
+
+	/**
+	 * @param ordinal
+	 *            the level ordinal.
+	 * @return seat index one past the last seat of the level.
+	 */
+	int levelEnd(int ordinal) {
+		return levelOffsets[ordinal + 1];
+	}
+
+	/**
+	 * @param index
+	 *            a valid seat index.
+	 * @return the ordinal of the level the seat index belongs to.
+	 */
+	int levelOrdinalOf(int index) {
+		// Levels are never empty, so an exact hit is the first seat of that level.
+		// Otherwise the insertion point is the next level.
+		int ordinal = Arrays.binarySearch(levelOffsets, 0, levels.length, index);
+		return ordinal >= 0 ? ordinal : -ordinal - 2;
+	}
+
+	/**
+	 * Finds the index of a Seat. The seat does not need to be the same instance
+	 * as the one in the venue, only its level, row and seat number are used.
+	 *
+	 * @param seat
+	 *            The Seat. Must not be null.
+	 * @return the index of the seat, -1 if the venue does not contain it.
+	 */
+	int indexOf(Seat seat) {
+		return seatRegistry.idOf(seat);
+	}
+
+	/**
+	 * @param index
+	 *            a valid seat index.
+	 * @return the Seat at the index.
+	 */
+	Seat seatAt(int index) {
+		return seatRegistry.getSeat(index);
+	}
+
+}
@@ -0,0 +1,227 @@
+package ticketsystem;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Packed store of the hold/reservation state of every seat in a Venue. Seats
+ * are addressed by their {@link SeatIndex} index and each seat costs a single
+ * int: the SeatHold id shifted left by one, with the low bit set when the seat
+ * is reserved. 0 means the seat is available.
+ *
+ * <p>
+ * Available seat counters are kept per level and for the whole venue, and
+ * reserved seat counters per level. Which seats are available is also kept in
+ * an {@link AvailabilityPublisher}, made visible by
+ * {@link #publishAvailability(int, int)}. The counters and
+ * {@link #getAvailability()} can be read from any thread, everything else is
+ * not thread safe and is meant to be externally synchronized on.
+ *
+ * @author bstoll
+ *
+ */
+final class SeatStateStore {
+
+	/**
+	 * Largest SeatHold id that fits in the packed state.
+	 */
+	static final int MAX_SEAT_HOLD_ID = Integer.MAX_VALUE >>> 1;
+
+	/**
+	 * Bit of the packed state that is set when the seat is reserved.
+	 */
+	static final int RESERVED = 1;
+
+	private final SeatIndex seatIndex;
+
+	private final int[] states;
+
+	private final AtomicIntegerArray availableSeatsByLevel;
+
+	private final AtomicInteger availableSeatsInVenue;
+
+	private final AtomicIntegerArray reservedSeatsByLevel;
+
+	private final AvailabilityPublisher availability;
+
+	/**
+	 * Sets up a SeatStateStore with every seat available.
+	 *
+	 * @param seatIndex
+	 *            The SeatIndex of the Venue. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if seatIndex is null.
+	 */
+	SeatStateStore(SeatIndex seatIndex) {
+		Preconditions.checkArgument(seatIndex != null, "Invalid SeatIndex, Must not be null");
+		this.seatIndex = seatIndex;
+		this.states = new int[seatIndex.size()];
+		this.availableSeatsByLevel = new AtomicIntegerArray(seatIndex.getNumberOfLevels());
+		for (int ordinal = 0; ordinal < seatIndex.getNumberOfLevels(); ordinal++) {
+			availableSeatsByLevel.set(ordinal, seatIndex.levelEnd(ordinal) - seatIndex.levelStart(ordinal));
+		}
+		this.availableSeatsInVenue = new AtomicInteger(seatIndex.size());
+		this.reservedSeatsByLevel = new AtomicIntegerArray(seatIndex.getNumberOfLevels());
+		this.availability = new AvailabilityPublisher(seatIndex);
+	}
+
+	/**
+	 * Holds a seat for a particular SeatHold ID.
+	 *
+	 * @param index
+	 *            The seat index.
+	 * @param seatHoldId
+	 *            The SeatHoldId. Must be greater than 0.
+	 * @throws IllegalArgumentException
+	 *             if invalid id passed in.
+	 * @throws IllegalStateException
+	 *             if seat is already held.
+	 */
+	void hold(int index, int seatHoldId) {
+		Preconditions.checkArgument(seatHoldId > 0 && seatHoldId <= MAX_SEAT_HOLD_ID,
+				"Seat Hold ID must be greater than 0");
+		Preconditions.checkState(states[index] == 0, "Seat must not already be held");
+		states[index] = seatHoldId << 1;
+		int ordinal = seatIndex.levelOrdinalOf(index);
+		availableSeatsByLevel.decrementAndGet(ordinal);
+		availableSeatsInVenue.decrementAndGet();
+		availability.seatTaken(ordinal, index);
+	}
+
+	/**
+	 * Reserves a seat for a particular SeatHold ID. The seat must have been held
+	 * by the same SeatHold ID and must not already be reserved.
+	 *
+	 * @param index
+	 *            The seat index.
+	 * @param seatHoldId
+	 *            The SeatHoldId. Must be greater than 0.
+	 * @throws IllegalArgumentException
+	 *             if invalid id passed in or id does not match the one already
+	 *             stored.
+	 * @throws IllegalStateException
+	 *             if seat is not already held or seat is already reserved
+	 */
+	void reserve(int index, int seatHoldId) {
+		Preconditions.checkArgument(seatHoldId > 0, "Seat Hold ID must be greater than 0");
+		int state = states[index];
+		Preconditions.checkState(state != 0, "Seat must already be held");
+		Preconditions.checkState((state & RESERVED) == 0, "Seat must not already be reserved");
+		Preconditions.checkArgument(seatHoldId == state >>> 1, "Seat Hold ID must match seatHoldId");
+		states[index] = state | RESERVED;
+		reservedSeatsByLevel.incrementAndGet(seatIndex.levelOrdinalOf(index));
+	}
+
+	/**
+	 * Clears all held and reservation data of a seat.
+	 *
+	 * @param index
+	 *            The seat index.
+	 */
+	void clear(int index) {
+		int state = states[index];
+		if (state != 0) {
+			states[index] = 0;
+			int ordinal = seatIndex.levelOrdinalOf(index);
+			if ((state & RESERVED) != 0) {
+				reservedSeatsByLevel.decrementAndGet(ordinal);
+			}
+			availableSeatsByLevel.incrementAndGet(ordinal);
+			availableSeatsInVenue.incrementAndGet();
+			availability.seatFreed(ordinal, index);
+		}
+	}
+
+	/**
+	 * @param index
+	 *            The seat index.
+	 * @return true if available (not held or reserved), false otherwise.
+	 */
+	boolean isAvailable(int index) {
+		return states[index] == 0;
+	}
+
+	/**
+	 * @param index
+	 *            The seat index.
+	 * @return true if held, false otherwise.
+	 */
+	boolean isHeld(int index) {
+		return states[index] != 0;
+	}
+
+	/**
+	 * @param index
+	 *            The seat index.
+	 * @return true if reserved, false otherwise.
+	 */
+	boolean isReserved(int index) {
+		return (states[index] & RESERVED) != 0;
+	}
+
+	/**
+	 * @param index
+	 *            The seat index.
+	 * @return the seatHoldId, -1 if not held by anyone.
+	 */
+	int getSeatHoldId(int index) {
+		int state = states[index];
+		return state == 0 ? -1 : state >>> 1;
+	}
+
+	/**
+	 * @return a copy of the packed state of every seat, in seat index order.
+	 */
+	int[] copyStates() {
+		return states.clone();
+	}
+
+	/**
+	 * @param ordinal
+	 *            The level ordinal.
+	 * @return number of available seats on the level.
+	 */
+	int getNumberOfSeatsAvailable(int ordinal) {
+		return availableSeatsByLevel.get(ordinal);
+	}
+
+	/**
+	 * @param ordinal
+	 *            The level ordinal.
+	 * @return number of reserved seats on the level.
+	 */
+	int getNumberOfSeatsReserved(int ordinal) {
+		return reservedSeatsByLevel.get(ordinal);
+	}
+
+	/**
+	 * @return number of available seats in the venue.
+	 */
+	int getNumberOfSeatsAvailable() {
+		return availableSeatsInVenue.get();
+	}
+
+	/**
+	 * Makes the seats held and cleared on a range of levels since they were last
+	 * published visible in {@link #getAvailability()}. Must be externally
+	 * synchronized on with the locks of those levels.
+	 *
+	 * @param firstOrdinal
+	 *            The ordinal of the first level.
+	 * @param lastOrdinal
+	 *            The ordinal of the last level, inclusive.
+	 */
+	void publishAvailability(int firstOrdinal, int lastOrdinal) {
+		availability.publish(firstOrdinal, lastOrdinal);
+	}
+
+	/**
+	 * @return the last published SeatAvailability. Safe to call from any thread.
+	 */
+	SeatAvailability getAvailability() {
+		return availability.getAvailability();
+	}
+
+}
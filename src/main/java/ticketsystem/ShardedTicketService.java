@@ -0,0 +1,324 @@
+package ticketsystem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import model.Event;
+import model.HoldRequest;
+import model.HoldResult;
+import model.Reservation;
+import model.SeatHold;
+
+/**
+ * Ticket service for many Events of one {@link EventInventory}. Every request
+ * is routed by Event id to a {@link TicketService} of its own, so each Event
+ * keeps the semantics of a {@link DefaultTicketService} and requests for
+ * different Events never wait on the same lock.
+ *
+ * <p>
+ * Events are spread over a fixed number of shards, {@code eventId % shards}.
+ * Each shard owns one expiration scheduler and one expiration listener thread
+ * shared by the services of its Events, instead of two threads per Event, so
+ * expiration runs on as many threads as there are shards.
+ *
+ * <p>
+ * Reservations of every Event are remembered together, so a confirmation
+ * number or customer email is looked up across all Events, also through the
+ * TicketService of a single Event.
+ *
+ * <p>
+ * This class is thread safe.
+ *
+ * @author bstoll
+ *
+ */
+public final class ShardedTicketService {
+
+	private final EventInventory eventInventory;
+
+	private final long expirationTime;
+
+	private final TimeUnit expirationUnits;
+
+	private final Consumer<SeatHold> expirationListener;
+
+	private final LockingMode lockingMode;
+
+	private final Shard[] shards;
+
+	private final ConcurrentMap<Integer, DefaultTicketService> servicesByEventId = new ConcurrentHashMap<>();
+
+	// Written while holding this, so an Event is never added after shutdown has
+	// stopped the services.
+	private volatile boolean shutdown;
+
+	// Shared by every Event, so a confirmation number is found without knowing
+	// its Event.
+	private final ReservationRegistry reservations = new ReservationRegistry();
+
+	/**
+	 * Sets up a ShardedTicketService with a shard per available processor, a
+	 * default expiration time of 2 minutes and {@link LockingMode#GLOBAL}
+	 * locking of each Event.
+	 *
+	 * @param eventInventory
+	 *            The EventInventory holding the Events. Must not be null.
+	 * @throws IllegalArgumentException
+	 *             if eventInventory is null.
+	 */
+	public ShardedTicketService(EventInventory eventInventory) {
+		this(eventInventory, Runtime.getRuntime().availableProcessors(), 2, TimeUnit.MINUTES, null,
+				LockingMode.GLOBAL);
+	}
+
+	/**
+	 * Sets up a ShardedTicketService.
+	 *
+	 * @param eventInventory
+	 *            The EventInventory holding the Events. Must not be null.
+	 * @param shards
+	 *            The number of shards. Must be greater than 0.
+	 * @param expirationTime
+	 *            The time it takes to expire. This is in combination with TimeUnit.
+	 *            Must be greater than 0.
+	 * @param expirationUnits
+	 *            The TimeUnit for expiration. Must not be null.
+	 * @param expirationListener
+	 *            Listener for Expiring SeatHolds of every Event. Called on the
+	 *            listener thread of the Event's shard, may be null.
+	 * @param lockingMode
+	 *            How access to each Event's TicketReserver is synchronized. Must
+	 *            not be null. {@link LockingMode#SINGLE_WRITER} starts a writer
+	 *            thread per Event, stopped when the Event is removed or the
+	 *            service is shut down.
+	 * @throws IllegalArgumentException
+	 *             if any of the constraints are invalidated.
+	 */
+	public ShardedTicketService(EventInventory eventInventory, int shards, long expirationTime,
+			TimeUnit expirationUnits, Consumer<SeatHold> expirationListener, LockingMode lockingMode) {
+		Preconditions.checkArgument(eventInventory != null, "Invalid EventInventory, Must not be null");
+		Preconditions.checkArgument(shards > 0, "Invalid number of shards, Must be greater than 0");
+		Preconditions.checkArgument(expirationTime > 0, "Invalid Expiration Time, Must be greater than 0");
+		Preconditions.checkArgument(expirationUnits != null, "Invalid Expiration TimeUnit, Must not be null");
+		Preconditions.checkArgument(lockingMode != null, "Invalid LockingMode, Must not be null");
+
+		this.eventInventory = eventInventory;
+		this.expirationTime = expirationTime;
+		this.expirationUnits = expirationUnits;
+		this.expirationListener = expirationListener;
+		this.lockingMode = lockingMode;
+
+		this.shards = new Shard[shards];
+		for (int i = 0; i < shards; i++) {
+			this.shards[i] = new Shard(i);
+		}
+
+		// Events added to the inventory before this service was set up.
+		for (Event event : eventInventory.getEvents()) {
+			TicketReserver ticketReserver = eventInventory.getReserver(event.getId());
+			if (ticketReserver != null) {
+				servicesByEventId.put(event.getId(), newService(event.getId(), ticketReserver));
+			}
+		}
+	}
+
+	/**
+	 * Adds an Event to the EventInventory with every seat available.
+	 *
+	 * @param event
+	 *            The Event. Must not be null and must be held in the inventory's
+	 *            Venue.
+	 * @return the TicketService of the Event.
+	 * @throws IllegalArgumentException
+	 *             if event is null or held in another Venue.
+	 * @throws IllegalStateException
+	 *             if an Event with the same id was already added, or the service
+	 *             was shut down.
+	 * @see EventInventory#addEvent(Event)
+	 */
+	public synchronized TicketService addEvent(Event event) {
+		Preconditions.checkState(!shutdown, "Ticket service is shut down");
+		TicketReserver ticketReserver = eventInventory.addEvent(event);
+		DefaultTicketService ticketService;
+		try {
+			ticketService = newService(event.getId(), ticketReserver);
+		} catch (RuntimeException e) {
+			// Leave no Event in the inventory without a service.
+			eventInventory.removeEvent(event.getId());
+			throw e;
+		}
+		servicesByEventId.put(event.getId(), ticketService);
+		return ticketService;
+	}
+
+	/**
+	 * Removes an Event, dropping its SeatHolds without expiring them.
+	 *
+	 * @param eventId
+	 *            The Event id.
+	 * @return true if the Event was removed, false if there is no such Event.
+	 */
+	public synchronized boolean removeEvent(int eventId) {
+		DefaultTicketService ticketService = servicesByEventId.remove(eventId);
+		if (ticketService == null) {
+			return false;
+		}
+		ticketService.shutdown();
+		eventInventory.removeEvent(eventId);
+		return true;
+	}
+
+	/**
+	 * @param eventId
+	 *            The Event id.
+	 * @return the TicketService of the Event, null if there is no such Event.
+	 */
+	public TicketService getTicketService(int eventId) {
+		return servicesByEventId.get(eventId);
+	}
+
+	/**
+	 * @see TicketService#numSeatsAvailable(Optional)
+	 * @throws IllegalArgumentException
+	 *             if there is no Event for eventId.
+	 * @throws IllegalStateException
+	 *             if the service was shut down.
+	 */
+	public int numSeatsAvailable(int eventId, Optional<Integer> venueLevel) {
+		return serviceOf(eventId).numSeatsAvailable(venueLevel);
+	}
+
+	/**
+	 * @see TicketService#findAndHoldSeats(int, Optional, Optional, String)
+	 * @throws IllegalArgumentException
+	 *             if there is no Event for eventId.
+	 * @throws IllegalStateException
+	 *             if the service was shut down.
+	 */
+	public SeatHold findAndHoldSeats(int eventId, int numSeats, Optional<Integer> minLevel,
+			Optional<Integer> maxLevel, String customerEmail) {
+		return serviceOf(eventId).findAndHoldSeats(numSeats, minLevel, maxLevel, customerEmail);
+	}
+
+	/**
+	 * @see TicketService#findAndHoldSeats(List)
+	 * @throws IllegalArgumentException
+	 *             if there is no Event for eventId.
+	 * @throws IllegalStateException
+	 *             if the service was shut down.
+	 */
+	public List<HoldResult> findAndHoldSeats(int eventId, List<HoldRequest> requests) {
+		return serviceOf(eventId).findAndHoldSeats(requests);
+	}
+
+	/**
+	 * @see TicketService#reserveSeats(int, String)
+	 * @throws IllegalArgumentException
+	 *             if there is no Event for eventId.
+	 * @throws IllegalStateException
+	 *             if the service was shut down.
+	 */
+	public String reserveSeats(int eventId, int seatHoldId, String customerEmail) {
+		return serviceOf(eventId).reserveSeats(seatHoldId, customerEmail);
+	}
+
+	/**
+	 * Looks up a Reservation of any Event.
+	 *
+	 * @see TicketService#findReservation(String)
+	 */
+	public Reservation findReservation(String confirmationNumber) {
+		return reservations.get(confirmationNumber);
+	}
+
+	/**
+	 * Looks up the Reservations of a customer across every Event.
+	 *
+	 * @see TicketService#findReservations(String)
+	 */
+	public List<Reservation> findReservations(String customerEmail) {
+		return reservations.getByCustomerEmail(customerEmail);
+	}
+
+	/**
+	 * @param eventId
+	 *            The Event id.
+	 * @return the shard the Event is routed to.
+	 */
+	public int shardOf(int eventId) {
+		return Math.floorMod(eventId, shards.length);
+	}
+
+	/**
+	 * @return the number of shards.
+	 */
+	public int getNumberOfShards() {
+		return shards.length;
+	}
+
+	/**
+	 * @return the EventInventory holding the Events.
+	 */
+	public EventInventory getEventInventory() {
+		return eventInventory;
+	}
+
+	/**
+	 * Stops the threads of every shard and of every Event. SeatHolds no longer
+	 * expire afterwards, and requests and new Events are refused.
+	 */
+	public synchronized void shutdown() {
+		shutdown = true;
+		for (DefaultTicketService ticketService : servicesByEventId.values()) {
+			ticketService.shutdown();
+		}
+		for (Shard shard : shards) {
+			shard.expirationExecutor.shutdownNow();
+			shard.listenerExecutor.shutdown();
+		}
+	}
+
+	private DefaultTicketService serviceOf(int eventId) {
+		DefaultTicketService ticketService = servicesByEventId.get(eventId);
+		Preconditions.checkArgument(ticketService != null, "Invalid Event id, No such Event");
+		Preconditions.checkState(!shutdown, "Ticket service is shut down");
+		return ticketService;
+	}
+
+	private DefaultTicketService newService(int eventId, TicketReserver ticketReserver) {
+		Shard shard = shards[shardOf(eventId)];
+		return new DefaultTicketService(ticketReserver, expirationTime, expirationUnits, expirationListener,
+				lockingMode, null, shard.expirationExecutor, shard.listenerExecutor, reservations);
+	}
+
+	/**
+	 * Threads shared by the services of the Events routed to one shard.
+	 */
+	private static final class Shard {
+
+		private final ScheduledThreadPoolExecutor expirationExecutor;
+
+		private final ThreadPoolExecutor listenerExecutor;
+
+		private Shard(int index) {
+			expirationExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+					.setNameFormat("seat-hold-expiration-shard-" + index + "-%d").setDaemon(true).build());
+			expirationExecutor.setRemoveOnCancelPolicy(true);
+			listenerExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+					new ThreadFactoryBuilder().setNameFormat("seat-hold-expiration-listener-shard-" + index + "-%d")
+							.setDaemon(true).build());
+		}
+
+	}
+
+}
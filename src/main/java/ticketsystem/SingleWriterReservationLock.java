@@ -0,0 +1,267 @@
+package ticketsystem;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs every action on one dedicated writer thread instead of locking. Callers
+ * put their action in a {@link RequestRingBuffer} and wait for the writer to
+ * hand back the result, the TicketReserver is only ever touched by the writer
+ * so no lock is passed between threads.
+ *
+ * <p>
+ * The writer drains the ring in batches of up to {@link #MAX_BATCH} actions.
+ * Once a batch has run the journal is committed once for all of it before any
+ * caller is woken up, so the callers' own commits find their records already
+ * durable. Time spent queued and running is recorded in the
+ * TicketServiceMetrics as lock wait and hold time.
+ *
+ * <p>
+ * When the ring is full callers back off until there is room. On machines with
+ * more than one processor the writer and waiting callers spin briefly before
+ * they park, a park and unpark per request costs more than most requests.
+ *
+ * <p>
+ * {@link #shutdown()} stops the writer once every action already queued has
+ * run. Actions offered afterwards are refused with an IllegalStateException.
+ *
+ * @author bstoll
+ *
+ */
+final class SingleWriterReservationLock implements ReservationLock {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SingleWriterReservationLock.class);
+
+	/**
+	 * Number of actions the ring holds.
+	 */
+	static final int RING_CAPACITY = 1024;
+
+	/**
+	 * Most actions run before the journal is committed and callers are woken.
+	 */
+	static final int MAX_BATCH = 256;
+
+	// Spinning only pays off when the writer and callers have cores of their own.
+	private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1_000 : 0;
+
+	private static final long FULL_BACKOFF_NANOS = 1_000;
+
+	// How long the writer parks at a time while it waits for callers to finish
+	// queueing before it stops.
+	private static final long STOPPING_PARK_NANOS = 100_000;
+
+	private final RequestRingBuffer<Request<?>> ring = new RequestRingBuffer<>(RING_CAPACITY);
+
+	private final Request<?>[] batch = new Request<?>[MAX_BATCH];
+
+	private final TicketServiceMetrics metrics;
+
+	private final Journal journal;
+
+	private final Thread writer;
+
+	// Set by the writer before it parks, callers unpark it when they see it.
+	private volatile boolean writerParked;
+
+	private volatile boolean stopping;
+
+	// Callers between checking stopping and having queued their action. The
+	// writer does not stop while there are any, so no queued action is left
+	// behind.
+	private final AtomicInteger callersQueueing = new AtomicInteger();
+
+	/**
+	 * Sets up a SingleWriterReservationLock and starts its writer thread.
+	 *
+	 * @param metrics
+	 *            The metrics to record queue and run times in.
+	 * @param journal
+	 *            The journal committed after each batch, may be null.
+	 */
+	SingleWriterReservationLock(TicketServiceMetrics metrics, Journal journal) {
+		this.metrics = metrics;
+		this.journal = journal;
+		this.writer = new ThreadFactoryBuilder().setNameFormat("reservation-writer-%d").setDaemon(true).build()
+				.newThread(this::runWriter);
+		writer.start();
+	}
+
+	@Override
+	public <T> T withLevels(int minLevel, int maxLevel, Supplier<T> action) {
+		if (Thread.currentThread() == writer) {
+			// Already on the writer, queueing would wait on ourselves.
+			return action.get();
+		}
+
+		Request<T> request = new Request<>(action, Thread.currentThread());
+		callersQueueing.incrementAndGet();
+		try {
+			if (stopping) {
+				throw new IllegalStateException("Ticket service is shut down");
+			}
+			while (!ring.offer(request)) {
+				wakeWriter();
+				LockSupport.parkNanos(FULL_BACKOFF_NANOS);
+			}
+		} finally {
+			callersQueueing.decrementAndGet();
+		}
+		wakeWriter();
+		return request.await();
+	}
+
+	/**
+	 * Stops the writer thread after it has run every action already queued, and
+	 * waits for it to finish.
+	 */
+	@Override
+	public void shutdown() {
+		stopping = true;
+		LockSupport.unpark(writer);
+		if (Thread.currentThread() == writer) {
+			return;
+		}
+		boolean interrupted = false;
+		while (writer.isAlive()) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the number of actions waiting for the writer.
+	 */
+	int getQueueDepth() {
+		return ring.size();
+	}
+
+	private void wakeWriter() {
+		if (writerParked) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	private void runWriter() {
+		int idleSpins = 0;
+		while (!stopping || callersQueueing.get() > 0 || !ring.isEmpty()) {
+			int count = 0;
+			Request<?> request;
+			while (count < MAX_BATCH && (request = ring.poll()) != null) {
+				request.run(metrics);
+				batch[count++] = request;
+			}
+
+			if (count > 0) {
+				idleSpins = 0;
+				commitJournal();
+				for (int i = 0; i < count; i++) {
+					batch[i].complete();
+					batch[i] = null;
+				}
+			} else if (stopping) {
+				LockSupport.parkNanos(this, STOPPING_PARK_NANOS);
+			} else if (idleSpins < SPINS) {
+				idleSpins++;
+			} else {
+				// Callers check the flag after publishing, so either they see it set or
+				// we see their request here.
+				writerParked = true;
+				if (ring.isEmpty() && !stopping) {
+					LockSupport.park(this);
+				}
+				writerParked = false;
+			}
+		}
+	}
+
+	private void commitJournal() {
+		if (journal != null) {
+			try {
+				journal.commit();
+			} catch (RuntimeException e) {
+				// Callers commit again themselves and get the failure from there.
+				LOG.warn("runWriter(), could not commit journal after batch: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * An action waiting for the writer and its outcome.
+	 */
+	private static final class Request<T> {
+
+		private final Supplier<T> action;
+
+		private final Thread caller;
+
+		private final long queuedNanos = System.nanoTime();
+
+		private T result;
+
+		private Throwable failure;
+
+		private volatile boolean done;
+
+		Request(Supplier<T> action, Thread caller) {
+			this.action = action;
+			this.caller = caller;
+		}
+
+		void run(TicketServiceMetrics metrics) {
+			long startNanos = System.nanoTime();
+			try {
+				result = action.get();
+			} catch (Throwable e) {
+				// Kept for the caller, the writer must keep going.
+				failure = e;
+			} finally {
+				metrics.recordLock(startNanos - queuedNanos, System.nanoTime() - startNanos);
+			}
+		}
+
+		void complete() {
+			done = true;
+			LockSupport.unpark(caller);
+		}
+
+		T await() {
+			for (int spins = 0; spins < SPINS && !done; spins++) {
+				// Busy wait, most batches finish before parking would.
+			}
+			boolean interrupted = false;
+			while (!done) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					// The action can not be taken back, wait for it anyway.
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			} else if (failure instanceof Error) {
+				throw (Error) failure;
+			} else if (failure != null) {
+				throw new IllegalStateException(failure);
+			}
+			return result;
+		}
+
+	}
+
+}
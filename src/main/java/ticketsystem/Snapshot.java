@@ -0,0 +1,324 @@
+package ticketsystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point in time copy of the state of a TicketReserver, of the SeatHolds
+ * waiting to expire and of the Reservations, along with the {@link Journal}
+ * position it was taken at.
+ *
+ * <p>
+ * The file starts with a magic number and version (int each), the journal
+ * position (long), the id of the last SeatHold handed out (int), the last
+ * confirmation number handed out (UTF, empty if there is none) and the number
+ * of seats (int). The packed seat states follow run length encoded, as pairs of
+ * state and run length (int each), which keeps a mostly empty or mostly sold
+ * out venue down to a few bytes. Then the number of active SeatHolds (int) and
+ * for each its id (int), expiration time in epoch milliseconds (long) and
+ * customer email (UTF). Then the number of Reservations (int) and for each the
+ * id of the reserved SeatHold (int), confirmation number (UTF) and customer
+ * email (UTF). The seats of an active or reserved SeatHold are the seats held or
+ * reserved with its id. The file ends with a CRC32 of everything before it
+ * (int).
+ *
+ * <p>
+ * Snapshots are written to a temporary file that is then moved over the old
+ * one, so a crash while writing leaves the previous snapshot in place.
+ *
+ * @author bstoll
+ *
+ */
+final class Snapshot {
+
+	private static final int MAGIC = 0x54535350;
+
+	private static final int VERSION = 3;
+
+	private final long journalPosition;
+
+	private final int lastSeatHoldId;
+
+	private final String lastConfirmationNumber;
+
+	private final int[] seatStates;
+
+	private final List<ActiveSeatHold> activeSeatHolds;
+
+	private final List<ReservedSeatHold> reservedSeatHolds;
+
+	/**
+	 * Sets up a Snapshot.
+	 *
+	 * @param journalPosition
+	 *            Position of the first journal record not in the snapshot.
+	 * @param lastSeatHoldId
+	 *            The id of the last SeatHold handed out.
+	 * @param lastConfirmationNumber
+	 *            The {@link ConfirmationNumberGenerator#lastIssued()} number, may
+	 *            be null.
+	 * @param seatStates
+	 *            The packed state of every seat, see {@link SeatStateStore}.
+	 * @param activeSeatHolds
+	 *            The SeatHolds waiting to expire. Seats held by any other SeatHold
+	 *            are on their way to being expired and are written as available.
+	 * @param reservedSeatHolds
+	 *            The reserved SeatHolds, one per Reservation.
+	 */
+	Snapshot(long journalPosition, int lastSeatHoldId, String lastConfirmationNumber, int[] seatStates,
+			List<ActiveSeatHold> activeSeatHolds, List<ReservedSeatHold> reservedSeatHolds) {
+		this.journalPosition = journalPosition;
+		this.lastSeatHoldId = lastSeatHoldId;
+		this.lastConfirmationNumber = lastConfirmationNumber;
+		this.seatStates = seatStates;
+		this.activeSeatHolds = Collections.unmodifiableList(activeSeatHolds);
+		this.reservedSeatHolds = Collections.unmodifiableList(reservedSeatHolds);
+	}
+
+	/**
+	 * Reads a Snapshot.
+	 *
+	 * @param path
+	 *            The snapshot file.
+	 * @return the Snapshot.
+	 * @throws IOException
+	 *             if the file can not be read or is corrupt.
+	 */
+	static Snapshot read(Path path) throws IOException {
+		try (InputStream file = Files.newInputStream(path)) {
+			CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file), new CRC32());
+			DataInputStream in = new DataInputStream(checked);
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a snapshot file " + path);
+			}
+
+			long journalPosition = in.readLong();
+			int lastSeatHoldId = in.readInt();
+			String lastConfirmationNumber = in.readUTF();
+			int[] seatStates = new int[in.readInt()];
+			for (int index = 0; index < seatStates.length;) {
+				int state = in.readInt();
+				int end = index + in.readInt();
+				if (end <= index || end > seatStates.length) {
+					throw new IOException("Corrupt snapshot " + path);
+				}
+				while (index < end) {
+					seatStates[index++] = state;
+				}
+			}
+
+			int numberOfActiveSeatHolds = in.readInt();
+			List<ActiveSeatHold> activeSeatHolds = new ArrayList<>(Math.max(0, numberOfActiveSeatHolds));
+			for (int i = 0; i < numberOfActiveSeatHolds; i++) {
+				activeSeatHolds.add(new ActiveSeatHold(in.readInt(), in.readLong(), in.readUTF()));
+			}
+
+			int numberOfReservedSeatHolds = in.readInt();
+			List<ReservedSeatHold> reservedSeatHolds = new ArrayList<>(Math.max(0, numberOfReservedSeatHolds));
+			for (int i = 0; i < numberOfReservedSeatHolds; i++) {
+				reservedSeatHolds.add(new ReservedSeatHold(in.readInt(), in.readUTF(), in.readUTF()));
+			}
+
+			int crc = (int) checked.getChecksum().getValue();
+			if (in.readInt() != crc) {
+				throw new IOException("Corrupt snapshot " + path);
+			}
+			return new Snapshot(journalPosition, lastSeatHoldId,
+					lastConfirmationNumber.isEmpty() ? null : lastConfirmationNumber, seatStates, activeSeatHolds,
+					reservedSeatHolds);
+		}
+	}
+
+	/**
+	 * Writes this Snapshot and forces it to disk, replacing the file if it
+	 * exists.
+	 *
+	 * @param path
+	 *            The snapshot file.
+	 * @throws IOException
+	 *             if the file can not be written.
+	 */
+	void write(Path path) throws IOException {
+		Set<Integer> activeSeatHoldIds = new HashSet<>();
+		for (ActiveSeatHold activeSeatHold : activeSeatHolds) {
+			activeSeatHoldIds.add(activeSeatHold.seatHoldId);
+		}
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+			CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+			DataOutputStream out = new DataOutputStream(checked);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(journalPosition);
+			out.writeInt(lastSeatHoldId);
+			out.writeUTF(lastConfirmationNumber != null ? lastConfirmationNumber : "");
+			out.writeInt(seatStates.length);
+
+			int index = 0;
+			while (index < seatStates.length) {
+				int state = activeState(seatStates[index], activeSeatHoldIds);
+				int start = index;
+				while (index < seatStates.length && activeState(seatStates[index], activeSeatHoldIds) == state) {
+					index++;
+				}
+				out.writeInt(state);
+				out.writeInt(index - start);
+			}
+
+			out.writeInt(activeSeatHolds.size());
+			for (ActiveSeatHold activeSeatHold : activeSeatHolds) {
+				out.writeInt(activeSeatHold.seatHoldId);
+				out.writeLong(activeSeatHold.expiresAtMillis);
+				out.writeUTF(activeSeatHold.customerEmail);
+			}
+
+			out.writeInt(reservedSeatHolds.size());
+			for (ReservedSeatHold reservedSeatHold : reservedSeatHolds) {
+				out.writeInt(reservedSeatHold.seatHoldId);
+				out.writeUTF(reservedSeatHold.confirmationNumber);
+				out.writeUTF(reservedSeatHold.customerEmail);
+			}
+
+			out.writeInt((int) checked.getChecksum().getValue());
+			out.flush();
+			file.getFD().sync();
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * @return position of the first journal record not in the snapshot.
+	 */
+	long getJournalPosition() {
+		return journalPosition;
+	}
+
+	/**
+	 * @return the id of the last SeatHold handed out.
+	 */
+	int getLastSeatHoldId() {
+		return lastSeatHoldId;
+	}
+
+	/**
+	 * @return the last confirmation number handed out, null if there is none.
+	 */
+	String getLastConfirmationNumber() {
+		return lastConfirmationNumber;
+	}
+
+	/**
+	 * @return the packed state of every seat. Not a copy.
+	 */
+	int[] getSeatStates() {
+		return seatStates;
+	}
+
+	/**
+	 * @return the SeatHolds waiting to expire.
+	 */
+	List<ActiveSeatHold> getActiveSeatHolds() {
+		return activeSeatHolds;
+	}
+
+	/**
+	 * @return the reserved SeatHolds, one per Reservation.
+	 */
+	List<ReservedSeatHold> getReservedSeatHolds() {
+		return reservedSeatHolds;
+	}
+
+	// A held seat whose SeatHold is no longer waiting to expire is being expired.
+	private static int activeState(int state, Set<Integer> activeSeatHoldIds) {
+		if (state == 0 || (state & SeatStateStore.RESERVED) != 0 || activeSeatHoldIds.contains(state >>> 1)) {
+			return state;
+		}
+		return 0;
+	}
+
+	/**
+	 * A SeatHold waiting to expire.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	static final class ActiveSeatHold {
+
+		private final int seatHoldId;
+
+		private final long expiresAtMillis;
+
+		private final String customerEmail;
+
+		ActiveSeatHold(int seatHoldId, long expiresAtMillis, String customerEmail) {
+			this.seatHoldId = seatHoldId;
+			this.expiresAtMillis = expiresAtMillis;
+			this.customerEmail = customerEmail;
+		}
+
+		int getSeatHoldId() {
+			return seatHoldId;
+		}
+
+		long getExpiresAtMillis() {
+			return expiresAtMillis;
+		}
+
+		String getCustomerEmail() {
+			return customerEmail;
+		}
+
+	}
+
+	/**
+	 * A reserved SeatHold and the confirmation number handed out for it.
+	 *
+	 * @author bstoll
+	 *
+	 */
+	static final class ReservedSeatHold {
+
+		private final int seatHoldId;
+
+		private final String confirmationNumber;
+
+		private final String customerEmail;
+
+		ReservedSeatHold(int seatHoldId, String confirmationNumber, String customerEmail) {
+			this.seatHoldId = seatHoldId;
+			this.confirmationNumber = confirmationNumber;
+			this.customerEmail = customerEmail;
+		}
+
+		int getSeatHoldId() {
+			return seatHoldId;
+		}
+
+		String getConfirmationNumber() {
+			return confirmationNumber;
+		}
+
+		String getCustomerEmail() {
+			return customerEmail;
+		}
+
+	}
+
+}
@@ -1,288 +1,718 @@
-package ticketsystem;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.UUID;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.google.common.base.Preconditions;
-
-import model.Level;
-import model.Seat;
-import model.SeatHold;
-import model.SeatState;
-import model.Venue;
-
-/**
- * Helper class for the Ticket Service. This class is meant to handle all
- * holding and reservation of seats.
- * 
- * <p>
- * This class is not thread safe and is meant to be externally synchronized on.
- * 
- * @author bstoll
- *
- */
-public class TicketReserver {
-	private static final Logger LOG = LoggerFactory.getLogger(DefaultTicketService.class);
-
-	private final Venue venue;
-
-	private final SortedMap<Seat, SeatState> seatStates = new TreeMap<>();
-
-	private int seatHoldCount = 0;
-
-	/**
-	 * Sets up a Ticket Reserver.
-	 * 
-	 * @param venue
-	 *            The Venue to use. Can not be null.
-	 */
-	public TicketReserver(Venue venue) {
-		Preconditions.checkArgument(venue != null, "Invalid Venue, Must not be null");
-		this.venue = venue;
-		venue.getLevels().forEach((level) -> {
-			level.getSeats().forEach((seat) -> {
-				seatStates.put(seat, new SeatState());
-			});
-		});
-	}
-
-	/**
-	 * Find the Number of seats available in the venue. Optionally find number of
-	 * seats for a given level.
-	 * 
-	 * @param venueLevel
-	 *            if present, it will limit search to this venue level. If null it
-	 *            will be treated as if it was empty.
-	 * @return integer number of seats available. Never negative. 0 if nothing
-	 *         found.
-	 * @throws IllegalArgumentException
-	 *             if Venue does not contain the level passed in.
-	 */
-	public int numberOfSeatsAvailable(Optional<Integer> venueLevel) {
-		LOG.debug("numberOfSeatsAvailable(), venueLevel = {}", venueLevel);
-		int numberOfSeatsAvailable = 0;
-		if (venueLevel != null && venueLevel.isPresent()) {
-			int actualVenueLevel = venueLevel.get();
-			if (venue.containsLevelWithId(actualVenueLevel)) {
-				Level level = venue.getLevelById(actualVenueLevel);
-				numberOfSeatsAvailable = getNumAvailableSeats(level);
-			} else {
-				throw new IllegalArgumentException("Invalid Level for Venue.");
-			}
-		} else {
-			numberOfSeatsAvailable = getNumAvailableSeatsInVenue();
-		}
-
-		return numberOfSeatsAvailable;
-	}
-
-	/**
-	 * Finds a holds a specific number of seats. Optinally allowed to search on
-	 * certain levels. If no min or max is provided then they will default to min
-	 * venue level and max venue level respectively.
-	 * 
-	 * @param numSeats
-	 *            The Number of seats to request. Must be greater than 0.
-	 * @param minLevel
-	 *            The minimum level to search on. Must not be null. Pass in
-	 *            Optional.empty() will default to min venue level.
-	 * @param maxLevel
-	 *            The maximum level to search on. Must not be null. Pass in
-	 *            Optional.empty() will default to max venue level.
-	 * @param customerEmail
-	 *            The customer email to use. Must not be null.
-	 * @return SeatHold object containing the seats that were found. This will
-	 *         return null if nothing is found.
-	 * 
-	 * @throws IllegalArgumentException
-	 *             If any of the conditions are broken for the arguments.
-	 */
-	public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
-			String customerEmail) {
-		LOG.debug("findAndHoldSeats(), numSeats = {}, customerEmail = {}", numSeats, customerEmail);
-		Preconditions.checkArgument(numSeats > 0, "Invalid numSeats, Number of Seats must be greater than 0");
-		Preconditions.checkArgument(customerEmail != null, "Invalid customerEmail, Email can not be null");
-		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid customerEmail, Email can not be empty");
-		Preconditions.checkArgument(minLevel != null,
-				"Invalid minLevel, Can not be null. Pass in Optional.empty() to default to min level of venue");
-		Preconditions.checkArgument(maxLevel != null,
-				"Invalid maxLevel, Can not be null. Pass in Optional.empty() to default to max level of venue");
-
-		int actualMin = getMinLevel(minLevel);
-		int actualMax = getMaxLevel(maxLevel);
-
-		Preconditions.checkArgument(actualMax <= venue.getMaxLevel() && actualMax >= venue.getMinLevel(),
-				"Invalid Max, Must be less than or equal to venue max and greater than or equal to venue min");
-		Preconditions.checkArgument(actualMin >= venue.getMinLevel() && actualMin <= venue.getMaxLevel(),
-				"Invalid Min, Must be greater than or equal to venue min and less than or equal to venue max");
-		Preconditions.checkArgument(actualMin <= actualMax, "Invalid Min/Max. Min must be less than Max");
-
-		List<Seat> seats = findBestSeats(numSeats, actualMin, actualMax);
-
-		LOG.debug("findAndHoldSeats(), seatsFound = {}", seats.size());
-
-		SeatHold seatHold = null;
-
-		if (seats.size() == numSeats) {
-			seatHold = new SeatHold(++seatHoldCount, customerEmail, seats);
-
-			for (Seat seat : seats) {
-				SeatState seatState = seatStates.get(seat);
-				seatState.hold(seatHold.getId());
-			}
-		}
-
-		return seatHold;
-	}
-
-	/**
-	 * Reserve Seats.
-	 * 
-	 * @param seatHold
-	 *            The SeatHold object to reserve(lock in). Must not be null.
-	 * @return confirmationNumber for the Reservation.
-	 * @throws IllegalArgumentException
-	 *             if seatHold is null.
-	 * @throws IllegalStateException
-	 *             if there is no SeatReservation for the Seat.
-	 */
-	public String reserveSeats(SeatHold seatHold) {
-		LOG.debug("reserveSeats(), seatHold = {}", seatHold);
-		Preconditions.checkArgument(seatHold != null, "Invalid seatHold, Must not be null");
-
-		for (Seat seat : seatHold.getSeats()) {
-			SeatState seatState = seatStates.get(seat);
-			if (seatState != null) {
-				seatState.reserve(seatHold.getId());
-			} else {
-				throw new IllegalStateException("Seat does not exist");
-			}
-		}
-
-		String confirmationNumber = UUID.randomUUID().toString();
-
-		LOG.debug("reserveSeats(), confirmationNumber = {}", confirmationNumber);
-
-		return confirmationNumber;
-	}
-
-	/**
-	 * Expire SeatHold. This will void all of the seat reservations that were
-	 * contained in this seat hold.
-	 * 
-	 * @param seatHold
-	 *            The SeatHold to expire. Must not be null.
-	 * 
-	 */
-	public void expireSeatHold(SeatHold seatHold) {
-		LOG.debug("expireSeatHold(), seatHold = {}", seatHold);
-		Preconditions.checkArgument(seatHold != null, "Invalid seatHold, Must not be null");
-
-		for (Seat seat : seatHold.getSeats()) {
-			SeatState seatState = seatStates.get(seat);
-			if (seatState != null) {
-
-				// Verify they actually have the reservation on this seat.
-				if (seatState.getSeatHoldId() == seatHold.getId()) {
-					seatState.clear();
-				} else {
-					LOG.debug("expireSeatHold(), attempted to wipe seat that doesnt belong to seathold with id = {}",
-							seatHold.getId());
-					throw new IllegalStateException("Reservation doesnt belong to SeatHold");
-				}
-
-			} else {
-				throw new IllegalStateException("Seat does not actually exist");
-			}
-		}
-	}
-
-	// Loop through each level starting at the minimum. Find best seats then
-	// continue up higher to fufill order.
-	private List<Seat> findBestSeats(int numSeatsToFind, int minLevel, int maxLevel) {
-
-		List<Seat> seats = new ArrayList<>();
-
-		boolean seatsFound = false;
-
-		int seatsRemaining = numSeatsToFind - seats.size();
-
-		for (int levelId = minLevel; levelId <= maxLevel && !seatsFound; levelId++) {
-			Level level = venue.getLevelById(levelId);
-			int numSeatsAvailable = getNumAvailableSeats(level);
-
-			if (numSeatsAvailable == 0) {
-				continue;
-			}
-			// Need to take all seats on lowest, then fill in from next row.
-			List<Seat> allSeatsAtThisLevel = getAllAvailableSeats(level);
-
-			// Find number of seats to take here.
-			int numSeatsToTakeAtThisLevel = (numSeatsAvailable >= seatsRemaining) ? seatsRemaining : numSeatsAvailable;
-
-			for (int i = 0; i < numSeatsToTakeAtThisLevel; i++) {
-				seats.add(allSeatsAtThisLevel.get(i));
-			}
-
-			seatsRemaining = numSeatsToFind - seats.size();
-			seatsFound = seatsRemaining == 0;
-		}
-
-		return seats;
-	}
-
-	private int getNumAvailableSeatsInVenue() {
-		int numberOfSeatsAvaliableInVenue = 0;
-		for (int i = venue.getMinLevel(); i <= venue.getMaxLevel(); i++) {
-			Level level = venue.getLevelById(i);
-			numberOfSeatsAvaliableInVenue += getNumAvailableSeats(level);
-		}
-
-		return numberOfSeatsAvaliableInVenue;
-	}
-
-	private int getNumAvailableSeats(Level level) {
-		int numSeatsAvailable = getAllAvailableSeats(level).size();
-		return numSeatsAvailable;
-	}
-
-	private List<Seat> getAllAvailableSeats(Level level) {
-		List<Seat> allAvailableSeats = seatStates.entrySet().stream().filter(filterOutOtherLevels(level))
-				.filter(isSeatAvailable()).map(Map.Entry::getKey).collect(Collectors.toList());
-		return allAvailableSeats;
-	}
-
-	private Predicate<Entry<Seat, SeatState>> isSeatAvailable() {
-		return (entry) -> {
-			return entry.getValue().isAvailable();
-		};
-	}
-
-	private Predicate<Entry<Seat, SeatState>> filterOutOtherLevels(Level level) {
-		return (entry) -> {
-			return level.getSeats().contains(entry.getKey());
-		};
-	}
-
-	// Need to check that max level is present. If not set to max level of venue.
-	private int getMaxLevel(Optional<Integer> maxLevelOptional) {
-		return maxLevelOptional.isPresent() ? maxLevelOptional.get() : venue.getMaxLevel();
-	}
-
-	// Need to check that min level is present. If not set to min level of venue.
-	private int getMinLevel(Optional<Integer> minLevelOptional) {
-		return minLevelOptional.isPresent() ? minLevelOptional.get() : venue.getMinLevel();
-	}
-
-}
+package ticketsystem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import model.Event;
+import model.HoldRequest;
+import model.HoldResult;
+import model.Level;
+import model.SeatHold;
+import model.Venue;
+
+/**
+ * Helper class for the Ticket Service. This class is meant to handle all
+ * holding and reservation of seats.
+ * 
+ * <p>
+ * Seat state is kept in a packed {@link SeatStateStore} addressed by the dense
+ * seat indexes of a {@link SeatIndex}, the search and update loops work on
+ * those indexes and only turn them into Seat objects for the SeatHold. Which
+ * seats get picked is up to the {@link SeatAllocation} strategy.
+ * 
+ * <p>
+ * This class is not thread safe and is meant to be externally synchronized on.
+ * The one exception is {@link #numberOfSeatsAvailable(Optional)}, which reads
+ * per level counters that are kept up to date by hold and expire and can be
+ * read without holding the external lock.
+ * 
+ * <p>
+ * Every operation that takes or frees seats publishes a new
+ * {@link SeatAvailability} for the levels it changed before it returns, see
+ * {@link #getSeatAvailability()}. It is read through a single volatile
+ * reference, so readers never wait for the external lock.
+ * 
+ * <p>
+ * Operations only touch the seats of the levels they work on, so the external
+ * lock may be per level: findAndHoldSeats needs the levels from minLevel to
+ * maxLevel, reserveSeats and expireSeatHold need the levels of the SeatHold's
+ * seats.
+ * 
+ * @author bstoll
+ *
+ */
+public class TicketReserver implements AvailabilityQuery {
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultTicketService.class);
+
+	private final Event event;
+
+	private final Venue venue;
+
+	private final SeatIndex seatIndex;
+
+	private final SeatStateStore seatStates;
+
+	private final SeatAllocator seatAllocator;
+
+	private final ConfirmationNumberGenerator confirmationNumbers;
+
+	private final AtomicInteger seatHoldCount = new AtomicInteger();
+
+	private final List<ObjectName> mbeanNames = new ArrayList<>();
+
+	/**
+	 * Sets up a Ticket Reserver. Seats are allocated with
+	 * {@link SeatAllocation#FIRST_AVAILABLE}.
+	 * 
+	 * @param venue
+	 *            The Venue to use. Can not be null.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public TicketReserver(Venue venue) {
+		this(venue, SeatAllocation.FIRST_AVAILABLE);
+	}
+
+	/**
+	 * Sets up a Ticket Reserver for a single Event held in the Venue, with the
+	 * same id and name as the Venue.
+	 * 
+	 * @param venue
+	 *            The Venue to use. Can not be null.
+	 * @param seatAllocation
+	 *            The strategy used to pick seats. Can not be null.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public TicketReserver(Venue venue, SeatAllocation seatAllocation) {
+		this(singleEvent(venue), seatAllocation);
+	}
+
+	/**
+	 * Sets up a Ticket Reserver for an Event. The Venue's Levels and Seats are
+	 * shared with every other Event held in it, only the state of the seats
+	 * belongs to this TicketReserver.
+	 * 
+	 * @param event
+	 *            The Event to reserve seats for. Can not be null.
+	 * @param seatAllocation
+	 *            The strategy used to pick seats. Can not be null.
+	 * @throws IllegalStateException
+	 *             if the {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY}
+	 *             system property is not set.
+	 */
+	public TicketReserver(Event event, SeatAllocation seatAllocation) {
+		this(event, seatAllocation, TimeBasedConfirmationNumberGenerator.shared());
+	}
+
+	/**
+	 * Sets up a Ticket Reserver for an Event that hands out confirmation numbers
+	 * from the given generator. By default one
+	 * {@link TimeBasedConfirmationNumberGenerator} is shared by every
+	 * TicketReserver in the JVM, with the node id of the
+	 * {@value TimeBasedConfirmationNumberGenerator#NODE_ID_PROPERTY} system
+	 * property.
+	 * 
+	 * @param event
+	 *            The Event to reserve seats for. Can not be null.
+	 * @param seatAllocation
+	 *            The strategy used to pick seats. Can not be null.
+	 * @param confirmationNumbers
+	 *            Hands out confirmation numbers. Can not be null.
+	 */
+	public TicketReserver(Event event, SeatAllocation seatAllocation,
+			ConfirmationNumberGenerator confirmationNumbers) {
+		this(event, seatAllocation, event != null ? new SeatIndex(event.getVenue()) : null, confirmationNumbers);
+	}
+
+	/**
+	 * Sets up a Ticket Reserver for an Event with a SeatIndex shared with other
+	 * Events held in the same Venue.
+	 * 
+	 * @param event
+	 *            The Event to reserve seats for. Can not be null.
+	 * @param seatAllocation
+	 *            The strategy used to pick seats. Can not be null.
+	 * @param seatIndex
+	 *            The SeatIndex of the Event's Venue.
+	 * @param confirmationNumbers
+	 *            Hands out confirmation numbers. Can not be null.
+	 */
+	TicketReserver(Event event, SeatAllocation seatAllocation, SeatIndex seatIndex,
+			ConfirmationNumberGenerator confirmationNumbers) {
+		Preconditions.checkArgument(event != null, "Invalid Event, Must not be null");
+		Preconditions.checkArgument(seatAllocation != null, "Invalid SeatAllocation, Must not be null");
+		Preconditions.checkArgument(confirmationNumbers != null,
+				"Invalid ConfirmationNumberGenerator, Must not be null");
+		this.event = event;
+		this.venue = event.getVenue();
+		this.seatIndex = seatIndex;
+		this.seatStates = new SeatStateStore(seatIndex);
+		this.seatAllocator = seatAllocation.newAllocator(seatIndex, seatStates);
+		this.confirmationNumbers = confirmationNumbers;
+	}
+
+	/**
+	 * Find the Number of seats available in the venue. Optionally find number of
+	 * seats for a given level. This is O(1) and safe to call without external
+	 * synchronization.
+	 * 
+	 * @param venueLevel
+	 *            if present, it will limit search to this venue level. If null it
+	 *            will be treated as if it was empty.
+	 * @return integer number of seats available. Never negative. 0 if nothing
+	 *         found.
+	 * @throws IllegalArgumentException
+	 *             if Venue does not contain the level passed in.
+	 */
+	public int numberOfSeatsAvailable(Optional<Integer> venueLevel) {
+		LOG.debug("numberOfSeatsAvailable(), venueLevel = {}", venueLevel);
+		int numberOfSeatsAvailable = 0;
+		if (venueLevel != null && venueLevel.isPresent()) {
+			int actualVenueLevel = venueLevel.get();
+			int ordinal = seatIndex.levelOrdinal(actualVenueLevel);
+			if (ordinal >= 0) {
+				numberOfSeatsAvailable = seatStates.getNumberOfSeatsAvailable(ordinal);
+			} else {
+				throw new IllegalArgumentException("Invalid Level for Venue.");
+			}
+		} else {
+			numberOfSeatsAvailable = seatStates.getNumberOfSeatsAvailable();
+		}
+
+		return numberOfSeatsAvailable;
+	}
+
+	/**
+	 * Finds a holds a specific number of seats. Optinally allowed to search on
+	 * certain levels. If no min or max is provided then they will default to min
+	 * venue level and max venue level respectively.
+	 * 
+	 * @param numSeats
+	 *            The Number of seats to request. Must be greater than 0.
+	 * @param minLevel
+	 *            The minimum level to search on. Must not be null. Pass in
+	 *            Optional.empty() will default to min venue level.
+	 * @param maxLevel
+	 *            The maximum level to search on. Must not be null. Pass in
+	 *            Optional.empty() will default to max venue level.
+	 * @param customerEmail
+	 *            The customer email to use. Must not be null.
+	 * @return SeatHold object containing the seats that were found. This will
+	 *         return null if nothing is found.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If any of the conditions are broken for the arguments.
+	 * @throws IllegalStateException
+	 *             if SeatHold ids ran out. No seats are held then.
+	 */
+	public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
+			String customerEmail) {
+		LOG.debug("findAndHoldSeats(), numSeats = {}, customerEmail = {}", numSeats, customerEmail);
+		int[] changedLevels = { Integer.MAX_VALUE, -1 };
+		SeatHold seatHold = hold(numSeats, minLevel, maxLevel, customerEmail, changedLevels);
+		if (seatHold != null) {
+			seatStates.publishAvailability(changedLevels[0], changedLevels[1]);
+		}
+		return seatHold;
+	}
+
+	/**
+	 * Finds and holds seats for many requests in one pass. Requests are served
+	 * in list order, the same as calling
+	 * {@link #findAndHoldSeats(int, Optional, Optional, String)} for each, but
+	 * the seats held by the whole batch are published in a single
+	 * {@link SeatAvailability}. A request that is rejected or fails does not
+	 * stop the rest of the batch, and leaves no seats held.
+	 * 
+	 * @param requests
+	 *            The requests. Must not be null. Each request must not be null.
+	 * @return one HoldResult per request, in the same order.
+	 * @throws IllegalArgumentException
+	 *             if requests or one of the requests is null.
+	 */
+	public List<HoldResult> findAndHoldSeats(List<HoldRequest> requests) {
+		LOG.debug("findAndHoldSeats(), numberOfRequests = {}", requests == null ? 0 : requests.size());
+		Preconditions.checkArgument(requests != null, "Invalid requests, Must not be null");
+		for (HoldRequest request : requests) {
+			Preconditions.checkArgument(request != null, "Invalid request, Must not be null");
+		}
+
+		List<HoldResult> results = new ArrayList<>(requests.size());
+		int[] changedLevels = { Integer.MAX_VALUE, -1 };
+		try {
+			for (HoldRequest request : requests) {
+				try {
+					results.add(new HoldResult(request, hold(request.getNumSeats(), request.getMinLevel(),
+							request.getMaxLevel(), request.getCustomerEmail(), changedLevels)));
+				} catch (IllegalArgumentException | IllegalStateException e) {
+					results.add(new HoldResult(request, e));
+				}
+			}
+		} finally {
+			if (changedLevels[1] >= 0) {
+				seatStates.publishAvailability(changedLevels[0], changedLevels[1]);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Reserve Seats.
+	 * 
+	 * @param seatHold
+	 *            The SeatHold object to reserve(lock in). Must not be null.
+	 * @return confirmationNumber for the Reservation.
+	 * @throws IllegalArgumentException
+	 *             if seatHold is null.
+	 * @throws IllegalStateException
+	 *             if there is no SeatReservation for the Seat.
+	 */
+	public String reserveSeats(SeatHold seatHold) {
+		LOG.debug("reserveSeats(), seatHold = {}", seatHold);
+		Preconditions.checkArgument(seatHold != null, "Invalid seatHold, Must not be null");
+
+		reserve(seatHold);
+
+		String confirmationNumber = confirmationNumbers.next();
+
+		LOG.debug("reserveSeats(), confirmationNumber = {}", confirmationNumber);
+
+		return confirmationNumber;
+	}
+
+	/**
+	 * Expire SeatHold. This will void all of the seat reservations that were
+	 * contained in this seat hold.
+	 * 
+	 * @param seatHold
+	 *            The SeatHold to expire. Must not be null.
+	 * 
+	 */
+	public void expireSeatHold(SeatHold seatHold) {
+		LOG.debug("expireSeatHold(), seatHold = {}", seatHold);
+		Preconditions.checkArgument(seatHold != null, "Invalid seatHold, Must not be null");
+
+		try {
+			expire(seatHold);
+		} finally {
+			publishAvailability(Collections.singletonList(seatHold));
+		}
+	}
+
+	/**
+	 * Expire a batch of SeatHolds. Meant for expiring everything that is due
+	 * under a single acquisition of the external lock. A SeatHold that can not be
+	 * expired is logged and skipped, the rest of the batch is still expired.
+	 * 
+	 * @param seatHolds
+	 *            The SeatHolds to expire. Must not be null. Each SeatHold must not
+	 *            be null.
+	 * @return the SeatHolds that were expired.
+	 * @throws IllegalArgumentException
+	 *             if seatHolds or one of the SeatHolds is null.
+	 */
+	public List<SeatHold> expireSeatHolds(Collection<SeatHold> seatHolds) {
+		LOG.debug("expireSeatHolds(), numberOfSeatHolds = {}", seatHolds == null ? 0 : seatHolds.size());
+		Preconditions.checkArgument(seatHolds != null, "Invalid seatHolds, Must not be null");
+		for (SeatHold seatHold : seatHolds) {
+			Preconditions.checkArgument(seatHold != null, "Invalid seatHold, Must not be null");
+		}
+
+		List<SeatHold> expiredSeatHolds = new ArrayList<>(seatHolds.size());
+		try {
+			for (SeatHold seatHold : seatHolds) {
+				try {
+					expire(seatHold);
+					expiredSeatHolds.add(seatHold);
+				} catch (IllegalStateException e) {
+					LOG.warn("expireSeatHolds(), could not expire SeatHold with id = {}: {}", seatHold.getId(),
+							e.getMessage());
+				}
+			}
+		} finally {
+			// One new SeatAvailability for the whole batch.
+			publishAvailability(seatHolds);
+		}
+		return expiredSeatHolds;
+	}
+
+	/**
+	 * @param seatHold
+	 *            The SeatHold. Must not be null.
+	 * @return the {@link SeatIndex} index of each seat in the SeatHold, in the
+	 *         same order as its seats.
+	 * @throws IllegalStateException
+	 *             if a seat does not exist in the Venue.
+	 */
+	int[] seatIndexesOf(SeatHold seatHold) {
+		int[] seatIndexes = new int[seatHold.getNumberOfSeats()];
+		for (int i = 0; i < seatIndexes.length; i++) {
+			seatIndexes[i] = seatIndexOf(seatHold, i);
+			Preconditions.checkState(seatIndexes[i] >= 0, "Seat does not exist");
+		}
+		return seatIndexes;
+	}
+
+	/**
+	 * @return a copy of the packed state of every seat, see
+	 *         {@link SeatStateStore}.
+	 */
+	int[] copySeatStates() {
+		return seatStates.copyStates();
+	}
+
+	/**
+	 * @return the id of the last SeatHold handed out, 0 if none.
+	 */
+	int getSeatHoldCount() {
+		return seatHoldCount.get();
+	}
+
+	/**
+	 * Puts back the state of every seat from a snapshot. Only allowed while every
+	 * seat is still available.
+	 * 
+	 * @param states
+	 *            The packed state of every seat, see {@link SeatStateStore}.
+	 * @param lastSeatHoldId
+	 *            The id of the last SeatHold handed out. Ids handed out from now
+	 *            on continue after it.
+	 * @throws IllegalStateException
+	 *             if a seat is not available or states does not match the Venue.
+	 */
+	void restoreSeatStates(int[] states, int lastSeatHoldId) {
+		Preconditions.checkState(states.length == seatIndex.size(), "Seat states do not match the Venue");
+		Preconditions.checkState(seatStates.getNumberOfSeatsAvailable() == seatIndex.size(),
+				"Seats can only be restored while every seat is available");
+		for (int index = 0; index < states.length; index++) {
+			int state = states[index];
+			if (state != 0) {
+				seatStates.hold(index, state >>> 1);
+				if ((state & SeatStateStore.RESERVED) != 0) {
+					seatStates.reserve(index, state >>> 1);
+				}
+				seatAllocator.seatHeld(index);
+			}
+		}
+		seatStates.publishAvailability(0, seatIndex.getNumberOfLevels() - 1);
+		seatHoldCount.accumulateAndGet(lastSeatHoldId, Math::max);
+	}
+
+	/**
+	 * Puts back a SeatHold from a snapshot or journal and holds its seats.
+	 * SeatHold ids handed out from now on continue after its id.
+	 * 
+	 * @param seatHoldId
+	 *            The SeatHold id.
+	 * @param customerEmail
+	 *            The customer email.
+	 * @param seatIndexes
+	 *            The {@link SeatIndex} index of each held seat.
+	 * @return the SeatHold.
+	 * @throws IllegalStateException
+	 *             if one of the seats is not available.
+	 */
+	SeatHold restoreSeatHold(int seatHoldId, String customerEmail, int[] seatIndexes) {
+		SeatHold seatHold = new SeatHold(seatHoldId, customerEmail, venue.getSeatRegistry(), seatIndexes);
+
+		for (int index : seatIndexes) {
+			seatStates.hold(index, seatHoldId);
+			seatAllocator.seatHeld(index);
+		}
+		publishAvailability(seatIndexes);
+		seatHoldCount.accumulateAndGet(seatHoldId, Math::max);
+		return seatHold;
+	}
+
+	/**
+	 * Puts back a reservation from a journal. Same as
+	 * {@link #reserveSeats(SeatHold)} without handing out a new confirmation
+	 * number, the one handed out before is never handed out again.
+	 * 
+	 * @param seatHold
+	 *            The SeatHold that was reserved.
+	 * @param confirmationNumber
+	 *            The confirmation number handed out for it.
+	 * @throws IllegalStateException
+	 *             if a seat is not held by the SeatHold.
+	 */
+	void restoreReservation(SeatHold seatHold, String confirmationNumber) {
+		reserve(seatHold);
+		confirmationNumbers.skipPast(confirmationNumber);
+	}
+
+	/**
+	 * @return the {@link ConfirmationNumberGenerator#lastIssued()} number of the
+	 *         generator, null if there is none.
+	 */
+	String getLastConfirmationNumber() {
+		return confirmationNumbers.lastIssued();
+	}
+
+	/**
+	 * Puts back the last confirmation number from a snapshot, confirmation
+	 * numbers handed out from now on continue after it.
+	 * 
+	 * @param lastConfirmationNumber
+	 *            The {@link ConfirmationNumberGenerator#lastIssued()} number.
+	 */
+	void restoreLastConfirmationNumber(String lastConfirmationNumber) {
+		confirmationNumbers.skipPast(lastConfirmationNumber);
+	}
+
+	/**
+	 * Registers a {@link LevelInventoryMXBean} for every Level with the platform
+	 * MBeanServer, named
+	 * {@code ticketsystem:type=TicketReserver,name="<name>",level=<level id>}.
+	 * 
+	 * @param name
+	 *            Name telling this TicketReserver apart from others. Must not be
+	 *            null or empty.
+	 * @throws IllegalArgumentException
+	 *             if name is null or empty.
+	 * @throws IllegalStateException
+	 *             if the MBeans are already registered or the name is taken.
+	 */
+	public void registerMBeans(String name) {
+		ObjectName objectName = MBeans.objectName("TicketReserver", name);
+		synchronized (mbeanNames) {
+			Preconditions.checkState(mbeanNames.isEmpty(), "MBeans are already registered");
+			try {
+				for (int ordinal = 0; ordinal < seatIndex.getNumberOfLevels(); ordinal++) {
+					MBeans.register(new LevelInventory(this, ordinal),
+							MBeans.objectName(objectName, "level", seatIndex.levelId(ordinal)), mbeanNames);
+				}
+			} catch (IllegalStateException e) {
+				MBeans.unregisterAll(mbeanNames);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Unregisters the MBeans registered by {@link #registerMBeans(String)}. Does
+	 * nothing if none are registered.
+	 */
+	public void unregisterMBeans() {
+		synchronized (mbeanNames) {
+			MBeans.unregisterAll(mbeanNames);
+		}
+	}
+
+	/**
+	 * @param ordinal
+	 *            The level ordinal.
+	 * @return the Level.
+	 */
+	Level levelAt(int ordinal) {
+		return seatIndex.level(ordinal);
+	}
+
+	/**
+	 * @param ordinal
+	 *            The level ordinal.
+	 * @return the number of seats on the level.
+	 */
+	int getNumberOfSeats(int ordinal) {
+		return seatIndex.levelEnd(ordinal) - seatIndex.levelStart(ordinal);
+	}
+
+	/**
+	 * @param ordinal
+	 *            The level ordinal.
+	 * @return the number of available seats on the level. Safe to call without
+	 *         external synchronization.
+	 */
+	int getNumberOfSeatsAvailable(int ordinal) {
+		return seatStates.getNumberOfSeatsAvailable(ordinal);
+	}
+
+	/**
+	 * @param ordinal
+	 *            The level ordinal.
+	 * @return the number of reserved seats on the level. Safe to call without
+	 *         external synchronization.
+	 */
+	int getNumberOfSeatsReserved(int ordinal) {
+		return seatStates.getNumberOfSeatsReserved(ordinal);
+	}
+
+	@Override
+	public SeatAvailability getSeatAvailability() {
+		return seatStates.getAvailability();
+	}
+
+	/**
+	 * @return the Event seats are reserved for.
+	 */
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return the Venue seats are reserved in.
+	 */
+	public Venue getVenue() {
+		return venue;
+	}
+
+	private void reserve(SeatHold seatHold) {
+		for (int i = 0; i < seatHold.getNumberOfSeats(); i++) {
+			int index = seatIndexOf(seatHold, i);
+			if (index >= 0) {
+				seatStates.reserve(index, seatHold.getId());
+			} else {
+				throw new IllegalStateException("Seat does not exist");
+			}
+		}
+	}
+
+	private void expire(SeatHold seatHold) {
+		for (int i = 0; i < seatHold.getNumberOfSeats(); i++) {
+			int index = seatIndexOf(seatHold, i);
+			if (index >= 0) {
+
+				// Verify they actually have the reservation on this seat.
+				if (seatStates.getSeatHoldId(index) == seatHold.getId()) {
+					seatStates.clear(index);
+					seatAllocator.seatReleased(index);
+				} else {
+					LOG.debug("expireSeatHold(), attempted to wipe seat that doesnt belong to seathold with id = {}",
+							seatHold.getId());
+					throw new IllegalStateException("Reservation doesnt belong to SeatHold");
+				}
+
+			} else {
+				throw new IllegalStateException("Seat does not actually exist");
+			}
+		}
+	}
+
+	// Holds the seats without publishing them, widens changedLevels ({first,
+	// last} level ordinal) to cover the levels of the seats held.
+	private SeatHold hold(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel, String customerEmail,
+			int[] changedLevels) {
+		Preconditions.checkArgument(numSeats > 0, "Invalid numSeats, Number of Seats must be greater than 0");
+		Preconditions.checkArgument(customerEmail != null, "Invalid customerEmail, Email can not be null");
+		Preconditions.checkArgument(!customerEmail.isEmpty(), "Invalid customerEmail, Email can not be empty");
+		Preconditions.checkArgument(minLevel != null,
+				"Invalid minLevel, Can not be null. Pass in Optional.empty() to default to min level of venue");
+		Preconditions.checkArgument(maxLevel != null,
+				"Invalid maxLevel, Can not be null. Pass in Optional.empty() to default to max level of venue");
+
+		int actualMin = getMinLevel(minLevel);
+		int actualMax = getMaxLevel(maxLevel);
+
+		Preconditions.checkArgument(actualMax <= venue.getMaxLevel() && actualMax >= venue.getMinLevel(),
+				"Invalid Max, Must be less than or equal to venue max and greater than or equal to venue min");
+		Preconditions.checkArgument(actualMin >= venue.getMinLevel() && actualMin <= venue.getMaxLevel(),
+				"Invalid Min, Must be greater than or equal to venue min and less than or equal to venue max");
+		Preconditions.checkArgument(actualMin <= actualMax, "Invalid Min/Max. Min must be less than Max");
+
+		int[] seatIndexes = seatAllocator.findBestSeats(numSeats, actualMin, actualMax);
+
+		SeatHold seatHold = null;
+
+		if (seatIndexes != null) {
+			LOG.debug("findAndHoldSeats(), seatsFound = {}", seatIndexes.length);
+
+			int seatHoldId = seatHoldCount.incrementAndGet();
+			Preconditions.checkState(seatHoldId <= SeatStateStore.MAX_SEAT_HOLD_ID, "Ran out of SeatHold ids");
+			seatHold = new SeatHold(seatHoldId, customerEmail, venue.getSeatRegistry(), seatIndexes);
+
+			int seatsHeld = 0;
+			try {
+				for (int index : seatIndexes) {
+					seatStates.hold(index, seatHoldId);
+					seatAllocator.seatHeld(index);
+					seatsHeld++;
+					int ordinal = seatIndex.levelOrdinalOf(index);
+					changedLevels[0] = Math.min(changedLevels[0], ordinal);
+					changedLevels[1] = Math.max(changedLevels[1], ordinal);
+				}
+			} catch (RuntimeException e) {
+				// Nobody has seen the SeatHold, give back the seats it already took.
+				for (int i = 0; i < seatsHeld; i++) {
+					seatStates.clear(seatIndexes[i]);
+					seatAllocator.seatReleased(seatIndexes[i]);
+				}
+				throw e;
+			}
+		}
+
+		return seatHold;
+	}
+
+	// Publishes the levels from the lowest to the highest level of the seats.
+	private void publishAvailability(int[] seatIndexes) {
+		if (seatIndexes.length > 0) {
+			int first = Integer.MAX_VALUE;
+			int last = -1;
+			for (int index : seatIndexes) {
+				int ordinal = seatIndex.levelOrdinalOf(index);
+				first = Math.min(first, ordinal);
+				last = Math.max(last, ordinal);
+			}
+			seatStates.publishAvailability(first, last);
+		}
+	}
+
+	// Same for the seats of SeatHolds, seats that do not exist in the Venue are
+	// skipped.
+	private void publishAvailability(Collection<SeatHold> seatHolds) {
+		int first = Integer.MAX_VALUE;
+		int last = -1;
+		for (SeatHold seatHold : seatHolds) {
+			for (int i = 0; i < seatHold.getNumberOfSeats(); i++) {
+				int index = seatIndexOf(seatHold, i);
+				if (index >= 0) {
+					int ordinal = seatIndex.levelOrdinalOf(index);
+					first = Math.min(first, ordinal);
+					last = Math.max(last, ordinal);
+				}
+			}
+		}
+		if (last >= 0) {
+			seatStates.publishAvailability(first, last);
+		}
+	}
+
+	// SeatHolds made in this Venue carry the index of each seat, others are
+	// looked up. Returns -1 if the seat does not exist in the Venue.
+	private int seatIndexOf(SeatHold seatHold, int i) {
+		if (seatHold.getSeatRegistry() == venue.getSeatRegistry()) {
+			return seatHold.getSeatId(i);
+		}
+		return seatIndex.indexOf(seatHold.getSeat(i));
+	}
+
+	private static Event singleEvent(Venue venue) {
+		Preconditions.checkArgument(venue != null, "Invalid Venue, Must not be null");
+		return new Event(venue.getId(), venue.getName(), venue);
+	}
+
+	// Need to check that max level is present. If not set to max level of venue.
+	private int getMaxLevel(Optional<Integer> maxLevelOptional) {
+		return maxLevelOptional.isPresent() ? maxLevelOptional.get() : venue.getMaxLevel();
+	}
+
+	// Need to check that min level is present. If not set to min level of venue.
+	private int getMinLevel(Optional<Integer> minLevelOptional) {
+		return minLevelOptional.isPresent() ? minLevelOptional.get() : venue.getMinLevel();
+	}
+
+}
@@ -1,7 +1,12 @@
 package ticketsystem;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import model.HoldRequest;
+import model.HoldResult;
+import model.Reservation;
 import model.SeatHold;
 
 public interface TicketService {
@@ -31,6 +36,29 @@ public interface TicketService {
 	SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
 			String customerEmail);
 
+	/**
+	 * Find and hold the best available seats for many requests at once. The
+	 * requests are served in list order. A request that is rejected does not stop
+	 * the rest of the batch.
+	 *
+	 * @param requests
+	 *            the requests to find and hold seats for
+	 * @return one result per request, in the same order, holding the SeatHold or
+	 *         the exception the request was rejected with
+	 */
+	default List<HoldResult> findAndHoldSeats(List<HoldRequest> requests) {
+		List<HoldResult> results = new ArrayList<>(requests.size());
+		for (HoldRequest request : requests) {
+			try {
+				results.add(new HoldResult(request, findAndHoldSeats(request.getNumSeats(), request.getMinLevel(),
+						request.getMaxLevel(), request.getCustomerEmail())));
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				results.add(new HoldResult(request, e));
+			}
+		}
+		return results;
+	}
+
 	/**
 	 * Commit seats held for a specific customer
 	 *
@@ -42,4 +70,23 @@ public interface TicketService {
 	 * @return a reservation confirmation code
 	 */
 	String reserveSeats(int seatHoldId, String customerEmail);
+
+	/**
+	 * Look up a reservation by the confirmation code handed out for it
+	 *
+	 * @param confirmationNumber
+	 *            the reservation confirmation code
+	 * @return the reservation, null if there is none for the code
+	 */
+	Reservation findReservation(String confirmationNumber);
+
+	/**
+	 * Look up every reservation of a customer
+	 *
+	 * @param customerEmail
+	 *            the email address of the customer
+	 * @return the customer's reservations in the order they were made, empty if
+	 *         there are none
+	 */
+	List<Reservation> findReservations(String customerEmail);
 }
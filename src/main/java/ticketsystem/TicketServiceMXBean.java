@@ -0,0 +1,71 @@
+package ticketsystem;
+
+/**
+ * Live state of a DefaultTicketService, registered by
+ * {@link DefaultTicketService#registerMBeans(String)}. Shows how fast seats
+ * are being held and reserved and whether expiration is keeping up. Reading
+ * these never takes the reservation lock.
+ * 
+ * @author bstoll
+ *
+ */
+public interface TicketServiceMXBean {
+
+	/**
+	 * @return the number of seats available in the venue.
+	 */
+	int getSeatsAvailable();
+
+	/**
+	 * @return the number of SeatHolds waiting to expire.
+	 */
+	int getOutstandingSeatHolds();
+
+	/**
+	 * @return how long ago the oldest SeatHold still waiting to expire was held,
+	 *         in milliseconds. 0 if none are waiting. More than the expiration
+	 *         time means expiration is falling behind.
+	 */
+	long getOldestSeatHoldAgeMillis();
+
+	/**
+	 * @return the number of tasks waiting on the expiration thread.
+	 */
+	int getExpirationQueueDepth();
+
+	/**
+	 * @return the number of expired batches waiting for the expiration listener.
+	 */
+	int getExpirationListenerQueueDepth();
+
+	/**
+	 * @return SeatHolds created a second, over the last few seconds.
+	 */
+	double getHoldsPerSecond();
+
+	/**
+	 * @return SeatHolds reserved a second, over the last few seconds.
+	 */
+	double getReservationsPerSecond();
+
+	/**
+	 * @return SeatHolds expired a second, over the last few seconds.
+	 */
+	double getExpirationsPerSecond();
+
+	/**
+	 * @return the number of SeatHolds created.
+	 */
+	long getSeatHoldsCreated();
+
+	/**
+	 * @return the number of SeatHolds reserved.
+	 */
+	long getReservations();
+
+	/**
+	 * @return the number of SeatHolds expired.
+	 */
+	long getSeatHoldsExpired();
+
+}
@@ -0,0 +1,262 @@
+package ticketsystem;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import metrics.LatencyHistogram;
+import metrics.LatencyRecorder;
+
+/**
+ * Latencies, counts and gauges of a DefaultTicketService.
+ *
+ * <p>
+ * Every call to numSeatsAvailable, findAndHoldSeats and reserveSeats is timed,
+ * including calls that throw, as is every batch of SeatHolds expired. Time
+ * spent waiting for the reservation lock is recorded apart from the time spent
+ * holding it, so a slow service can be told apart from a contended one.
+ *
+ * <p>
+ * Recording never allocates or blocks. Latencies are in nanoseconds and are
+ * read as {@link LatencyHistogram} snapshots. Rates are worked out from the
+ * counts each time {@link #sampleRates(long)} is called.
+ *
+ * @author bstoll
+ *
+ */
+public final class TicketServiceMetrics {
+
+	private final LatencyRecorder numSeatsAvailableLatencies = new LatencyRecorder();
+
+	private final LatencyRecorder findAndHoldSeatsLatencies = new LatencyRecorder();
+
+	private final LatencyRecorder reserveSeatsLatencies = new LatencyRecorder();
+
+	private final LatencyRecorder expirationLatencies = new LatencyRecorder();
+
+	private final LatencyRecorder lockWaitTimes = new LatencyRecorder();
+
+	private final LatencyRecorder lockHoldTimes = new LatencyRecorder();
+
+	private final LongAdder seatHoldsCreated = new LongAdder();
+
+	private final LongAdder seatHoldsNotFound = new LongAdder();
+
+	private final LongAdder findAndHoldSeatsErrors = new LongAdder();
+
+	private final LongAdder reservations = new LongAdder();
+
+	private final LongAdder reserveSeatsErrors = new LongAdder();
+
+	private final LongAdder seatHoldsExpired = new LongAdder();
+
+	private final IntSupplier outstandingSeatHolds;
+
+	private final IntSupplier seatsAvailable;
+
+	private volatile double holdsPerSecond;
+
+	private volatile double reservationsPerSecond;
+
+	private volatile double expirationsPerSecond;
+
+	// Counts at the last sample, only touched by the thread sampling rates.
+	private long lastSampleNanos;
+
+	private long lastSeatHoldsCreated;
+
+	private long lastReservations;
+
+	private long lastSeatHoldsExpired;
+
+	/**
+	 * Sets up TicketServiceMetrics.
+	 *
+	 * @param outstandingSeatHolds
+	 *            Reads the number of SeatHolds waiting to expire.
+	 * @param seatsAvailable
+	 *            Reads the number of seats available in the venue.
+	 */
+	TicketServiceMetrics(IntSupplier outstandingSeatHolds, IntSupplier seatsAvailable) {
+		this.outstandingSeatHolds = outstandingSeatHolds;
+		this.seatsAvailable = seatsAvailable;
+		this.lastSampleNanos = System.nanoTime();
+	}
+
+	void recordNumSeatsAvailable(long nanos) {
+		numSeatsAvailableLatencies.recordValue(nanos);
+	}
+
+	void recordFindAndHoldSeats(long nanos, boolean held) {
+		findAndHoldSeatsLatencies.recordValue(nanos);
+		if (held) {
+			seatHoldsCreated.increment();
+		} else {
+			seatHoldsNotFound.increment();
+		}
+	}
+
+	void recordFindAndHoldSeatsError(long nanos) {
+		findAndHoldSeatsLatencies.recordValue(nanos);
+		findAndHoldSeatsErrors.increment();
+	}
+
+	void recordReserveSeats(long nanos) {
+		reserveSeatsLatencies.recordValue(nanos);
+		reservations.increment();
+	}
+
+	void recordReserveSeatsError(long nanos) {
+		reserveSeatsLatencies.recordValue(nanos);
+		reserveSeatsErrors.increment();
+	}
+
+	void recordExpiration(long nanos, int expired) {
+		expirationLatencies.recordValue(nanos);
+		seatHoldsExpired.add(expired);
+	}
+
+	void recordLock(long waitNanos, long holdNanos) {
+		lockWaitTimes.recordValue(waitNanos);
+		lockHoldTimes.recordValue(holdNanos);
+	}
+
+	// Rates since the last sample. Called from a single thread.
+	void sampleRates(long nowNanos) {
+		double seconds = (nowNanos - lastSampleNanos) / 1e9;
+		if (seconds <= 0) {
+			return;
+		}
+		long seatHoldsCreatedNow = getSeatHoldsCreated();
+		long reservationsNow = getReservations();
+		long seatHoldsExpiredNow = getSeatHoldsExpired();
+		holdsPerSecond = (seatHoldsCreatedNow - lastSeatHoldsCreated) / seconds;
+		reservationsPerSecond = (reservationsNow - lastReservations) / seconds;
+		expirationsPerSecond = (seatHoldsExpiredNow - lastSeatHoldsExpired) / seconds;
+		lastSampleNanos = nowNanos;
+		lastSeatHoldsCreated = seatHoldsCreatedNow;
+		lastReservations = reservationsNow;
+		lastSeatHoldsExpired = seatHoldsExpiredNow;
+	}
+
+	/**
+	 * @return the latencies of numSeatsAvailable.
+	 */
+	public LatencyHistogram getNumSeatsAvailableLatencies() {
+		return numSeatsAvailableLatencies.snapshot();
+	}
+
+	/**
+	 * @return the latencies of findAndHoldSeats.
+	 */
+	public LatencyHistogram getFindAndHoldSeatsLatencies() {
+		return findAndHoldSeatsLatencies.snapshot();
+	}
+
+	/**
+	 * @return the latencies of reserveSeats.
+	 */
+	public LatencyHistogram getReserveSeatsLatencies() {
+		return reserveSeatsLatencies.snapshot();
+	}
+
+	/**
+	 * @return the time taken to expire each batch of due SeatHolds, including
+	 *         waiting for the lock.
+	 */
+	public LatencyHistogram getExpirationLatencies() {
+		return expirationLatencies.snapshot();
+	}
+
+	/**
+	 * @return the time each operation waited to get the reservation lock.
+	 */
+	public LatencyHistogram getLockWaitTimes() {
+		return lockWaitTimes.snapshot();
+	}
+
+	/**
+	 * @return the time each operation held the reservation lock.
+	 */
+	public LatencyHistogram getLockHoldTimes() {
+		return lockHoldTimes.snapshot();
+	}
+
+	/**
+	 * @return the number of findAndHoldSeats calls that held seats.
+	 */
+	public long getSeatHoldsCreated() {
+		return seatHoldsCreated.sum();
+	}
+
+	/**
+	 * @return the number of findAndHoldSeats calls that found too few seats.
+	 */
+	public long getSeatHoldsNotFound() {
+		return seatHoldsNotFound.sum();
+	}
+
+	/**
+	 * @return the number of findAndHoldSeats calls that threw.
+	 */
+	public long getFindAndHoldSeatsErrors() {
+		return findAndHoldSeatsErrors.sum();
+	}
+
+	/**
+	 * @return the number of SeatHolds reserved.
+	 */
+	public long getReservations() {
+		return reservations.sum();
+	}
+
+	/**
+	 * @return the number of reserveSeats calls that threw, including SeatHolds
+	 *         that had already expired.
+	 */
+	public long getReserveSeatsErrors() {
+		return reserveSeatsErrors.sum();
+	}
+
+	/**
+	 * @return the number of SeatHolds expired.
+	 */
+	public long getSeatHoldsExpired() {
+		return seatHoldsExpired.sum();
+	}
+
+	/**
+	 * @return SeatHolds created a second between the last two samples.
+	 */
+	public double getHoldsPerSecond() {
+		return holdsPerSecond;
+	}
+
+	/**
+	 * @return SeatHolds reserved a second between the last two samples.
+	 */
+	public double getReservationsPerSecond() {
+		return reservationsPerSecond;
+	}
+
+	/**
+	 * @return SeatHolds expired a second between the last two samples.
+	 */
+	public double getExpirationsPerSecond() {
+		return expirationsPerSecond;
+	}
+
+	/**
+	 * @return the number of SeatHolds waiting to expire right now.
+	 */
+	public int getOutstandingSeatHolds() {
+		return outstandingSeatHolds.getAsInt();
+	}
+
+	/**
+	 * @return the number of seats available in the venue right now.
+	 */
+	public int getSeatsAvailable() {
+		return seatsAvailable.getAsInt();
+	}
+
+}
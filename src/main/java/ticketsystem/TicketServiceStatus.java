@@ -0,0 +1,95 @@
+package ticketsystem;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TicketServiceMXBean} reading the metrics, expiration wheel and
+ * executors of a DefaultTicketService.
+ * 
+ * @author bstoll
+ *
+ */
+final class TicketServiceStatus implements TicketServiceMXBean {
+
+	private final TicketServiceMetrics metrics;
+
+	private final HoldExpirationWheel expirationWheel;
+
+	private final long expirationNanos;
+
+	private final ThreadPoolExecutor expirationExecutor;
+
+	private final ThreadPoolExecutor listenerExecutor;
+
+	TicketServiceStatus(TicketServiceMetrics metrics, HoldExpirationWheel expirationWheel, long expirationNanos,
+			ThreadPoolExecutor expirationExecutor, ThreadPoolExecutor listenerExecutor) {
+		this.metrics = metrics;
+		this.expirationWheel = expirationWheel;
+		this.expirationNanos = expirationNanos;
+		this.expirationExecutor = expirationExecutor;
+		this.listenerExecutor = listenerExecutor;
+	}
+
+	@Override
+	public int getSeatsAvailable() {
+		return metrics.getSeatsAvailable();
+	}
+
+	@Override
+	public int getOutstandingSeatHolds() {
+		return metrics.getOutstandingSeatHolds();
+	}
+
+	@Override
+	public long getOldestSeatHoldAgeMillis() {
+		OptionalLong deadlineNanos = expirationWheel.oldestDeadlineNanos();
+		if (!deadlineNanos.isPresent()) {
+			return 0;
+		}
+		long heldNanos = deadlineNanos.getAsLong() - expirationNanos;
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - heldNanos));
+	}
+
+	@Override
+	public int getExpirationQueueDepth() {
+		return expirationExecutor.getQueue().size();
+	}
+
+	@Override
+	public int getExpirationListenerQueueDepth() {
+		return listenerExecutor.getQueue().size();
+	}
+
+	@Override
+	public double getHoldsPerSecond() {
+		return metrics.getHoldsPerSecond();
+	}
+
+	@Override
+	public double getReservationsPerSecond() {
+		return metrics.getReservationsPerSecond();
+	}
+
+	@Override
+	public double getExpirationsPerSecond() {
+		return metrics.getExpirationsPerSecond();
+	}
+
+	@Override
+	public long getSeatHoldsCreated() {
+		return metrics.getSeatHoldsCreated();
+	}
+
+	@Override
+	public long getReservations() {
+		return metrics.getReservations();
+	}
+
+	@Override
+	public long getSeatHoldsExpired() {
+		return metrics.getSeatHoldsExpired();
+	}
+
+}
@@ -0,0 +1,242 @@
+package ticketsystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Confirmation numbers made of the time, a node id and a sequence number,
+ * written as 13 Crockford base32 characters and a Crockford check symbol, for
+ * example {@code 13ZJPEQXC0400=}. The check symbol is one of 37, so it may also
+ * be one of {@code *~$=U}. They are short enough to read out over the phone and
+ * mistyped numbers are caught by {@link #isValid(String)}.
+ *
+ * <p>
+ * The 63 bits encoded are 41 bits of milliseconds since 2017-01-01 UTC, good
+ * until 2086, 10 bits of node id and a 12 bit sequence within the
+ * millisecond. More than 4096 numbers in a millisecond borrow the next
+ * millisecond, so numbers keep increasing and stay unique without waiting for
+ * the clock. After a restart {@link #skipPast(String)} is given the
+ * {@link #lastIssued()} number kept in the snapshot and the numbers replayed
+ * from the journal, so numbers continue after them even if the clock was set
+ * back or the last run borrowed milliseconds ahead of it.
+ *
+ * <p>
+ * Numbers of two generators only stay apart if their node ids differ, so there
+ * is no default node id. Every service instance sharing one confirmation number
+ * space must be given its own, through
+ * {@link #TimeBasedConfirmationNumberGenerator(int)} or the
+ * {@value #NODE_ID_PROPERTY} system property for the generator shared by the
+ * TicketReservers that are not given one. Setting those up without the
+ * property fails.
+ *
+ * <p>
+ * This class is thread safe. Handing out a number is one compare and set on
+ * an AtomicLong, where UUID.randomUUID() goes through a shared SecureRandom.
+ *
+ * @author bstoll
+ *
+ */
+public final class TimeBasedConfirmationNumberGenerator implements ConfirmationNumberGenerator {
+
+	/**
+	 * Highest node id, node ids go from 0 to this.
+	 */
+	public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+	/**
+	 * Length of a confirmation number, check symbol included.
+	 */
+	public static final int LENGTH = 14;
+
+	/**
+	 * System property with the node id of the generator shared by every
+	 * TicketReserver of the JVM that was not given one.
+	 */
+	public static final String NODE_ID_PROPERTY = "ticketsystem.confirmationNodeId";
+
+	// Shared by the TicketReservers of this JVM that were not given a generator,
+	// set up on first use.
+	private static volatile TimeBasedConfirmationNumberGenerator shared;
+
+	// 2017-01-01T00:00:00Z
+	private static final long EPOCH_MILLIS = 1483228800000L;
+
+	private static final int SEQUENCE_BITS = 12;
+
+	private static final int NODE_BITS = 10;
+
+	private static final int VALUE_CHARS = LENGTH - 1;
+
+	private static final char[] SYMBOLS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U".toCharArray();
+
+	private final long node;
+
+	// Milliseconds since the epoch in the high bits, sequence in the low bits.
+	private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+	/**
+	 * Sets up a TimeBasedConfirmationNumberGenerator.
+	 *
+	 * @param nodeId
+	 *            The id of this service instance. Must be between 0 and
+	 *            {@link #MAX_NODE_ID}.
+	 * @throws IllegalArgumentException
+	 *             if nodeId is out of range.
+	 */
+	public TimeBasedConfirmationNumberGenerator(int nodeId) {
+		Preconditions.checkArgument(nodeId >= 0 && nodeId <= MAX_NODE_ID,
+				"Invalid node id, Must be between 0 and " + MAX_NODE_ID);
+		this.node = nodeId;
+	}
+
+	@Override
+	public String next() {
+		long nowMillis = System.currentTimeMillis() - EPOCH_MILLIS;
+		long timeAndSequence;
+		while (true) {
+			long last = lastTimeAndSequence.get();
+			// A new millisecond starts at sequence 0, otherwise take the next
+			// sequence, carrying into the next millisecond when it runs out.
+			timeAndSequence = Math.max(nowMillis << SEQUENCE_BITS, last + 1);
+			if (lastTimeAndSequence.compareAndSet(last, timeAndSequence)) {
+				break;
+			}
+		}
+		return encodeTimeAndSequence(timeAndSequence);
+	}
+
+	/**
+	 * Numbers handed out from now on come after the confirmation number, if it
+	 * is one this class could have handed out. Others are ignored.
+	 */
+	@Override
+	public void skipPast(String confirmationNumber) {
+		if (isValid(confirmationNumber)) {
+			long value = decode(confirmationNumber);
+			long timeMillis = value >>> (NODE_BITS + SEQUENCE_BITS);
+			long sequence = value & ((1L << SEQUENCE_BITS) - 1);
+			lastTimeAndSequence.accumulateAndGet((timeMillis << SEQUENCE_BITS) | sequence, Math::max);
+		}
+	}
+
+	/**
+	 * @return the last number handed out or skipped past, null if there is none.
+	 */
+	@Override
+	public String lastIssued() {
+		long timeAndSequence = lastTimeAndSequence.get();
+		return timeAndSequence != 0 ? encodeTimeAndSequence(timeAndSequence) : null;
+	}
+
+	/**
+	 * @return the node id.
+	 */
+	public int getNodeId() {
+		return (int) node;
+	}
+
+	/**
+	 * Checks the length, the symbols and the check symbol of a confirmation
+	 * number. Lower case letters are accepted.
+	 *
+	 * @param confirmationNumber
+	 *            The confirmation number, may be null.
+	 * @return true if it could have been handed out by this class.
+	 */
+	public static boolean isValid(String confirmationNumber) {
+		if (confirmationNumber == null || confirmationNumber.length() != LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < VALUE_CHARS; i++) {
+			int digit = symbolValue(confirmationNumber.charAt(i));
+			if (digit < 0 || digit >= 32 || (i == 0 && digit >= 8)) {
+				return false;
+			}
+		}
+		long value = decode(confirmationNumber);
+		return symbolValue(confirmationNumber.charAt(VALUE_CHARS)) == (int) (value % SYMBOLS.length);
+	}
+
+	/**
+	 * @return the generator shared by the TicketReservers of this JVM that were
+	 *         not given one, with the node id of the {@value #NODE_ID_PROPERTY}
+	 *         system property.
+	 * @throws IllegalStateException
+	 *             if the system property is not set.
+	 * @throws IllegalArgumentException
+	 *             if the system property is not a valid node id.
+	 */
+	static TimeBasedConfirmationNumberGenerator shared() {
+		TimeBasedConfirmationNumberGenerator generator = shared;
+		if (generator == null) {
+			synchronized (TimeBasedConfirmationNumberGenerator.class) {
+				if (shared == null) {
+					shared = fromNodeIdProperty();
+				}
+				generator = shared;
+			}
+		}
+		return generator;
+	}
+
+	/**
+	 * @return a new generator with the node id of the {@value #NODE_ID_PROPERTY}
+	 *         system property.
+	 * @throws IllegalStateException
+	 *             if the system property is not set.
+	 * @throws IllegalArgumentException
+	 *             if the system property is not a valid node id.
+	 */
+	static TimeBasedConfirmationNumberGenerator fromNodeIdProperty() {
+		String property = System.getProperty(NODE_ID_PROPERTY);
+		Preconditions.checkState(property != null,
+				"No confirmation number node id, set the %s system property or pass a ConfirmationNumberGenerator",
+				NODE_ID_PROPERTY);
+		int nodeId;
+		try {
+			nodeId = Integer.parseInt(property.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid " + NODE_ID_PROPERTY + ", Must be a number", e);
+		}
+		return new TimeBasedConfirmationNumberGenerator(nodeId);
+	}
+
+	private String encodeTimeAndSequence(long timeAndSequence) {
+		long timeMillis = timeAndSequence >>> SEQUENCE_BITS;
+		long sequence = timeAndSequence & ((1L << SEQUENCE_BITS) - 1);
+		return encode((timeMillis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence);
+	}
+
+	// 13 base32 digits hold 65 bits, the leading digit only ever uses 3.
+	private static String encode(long value) {
+		char[] chars = new char[LENGTH];
+		long remaining = value;
+		for (int i = VALUE_CHARS - 1; i >= 0; i--) {
+			chars[i] = SYMBOLS[(int) (remaining & 31)];
+			remaining >>>= 5;
+		}
+		chars[VALUE_CHARS] = SYMBOLS[(int) (value % SYMBOLS.length)];
+		return new String(chars);
+	}
+
+	// The symbols must have been checked already.
+	private static long decode(String confirmationNumber) {
+		long value = 0;
+		for (int i = 0; i < VALUE_CHARS; i++) {
+			value = (value << 5) | symbolValue(confirmationNumber.charAt(i));
+		}
+		return value;
+	}
+
+	private static int symbolValue(char symbol) {
+		char upper = Character.toUpperCase(symbol);
+		for (int i = 0; i < SYMBOLS.length; i++) {
+			if (SYMBOLS[i] == upper) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
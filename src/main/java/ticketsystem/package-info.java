@@ -1,8 +1,8 @@
-
-/**
- * Package for the service implementations and service helpers.
- * 
- * @author bstoll
- *
- */
+
+/**
+ * Package for the service implementations and service helpers.
+ * 
+ * @author bstoll
+ *
+ */
 package ticketsystem;
\ No newline at end of file
@@ -1,128 +1,119 @@
-package ui;
-
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-
-import javafx.scene.control.Label;
-import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
-import model.Level;
-import model.Seat;
-import model.Venue;
-
-/**
- * Pane representing a Venue. This will set up all of the Seats in the Venue in
- * the UI.
- * 
- * @author bstoll
- *
- */
-public class VenuePane extends Pane {
-
-	private static final int ROW_GAP = 10;
-
-	private static final int LEVEL_GAP = 20;
-
-	private static final int TEXT_GAP = 20;
-
-	private static final int SEAT_GAP = 2;
-
-	private static final int SEAT_HEIGHT = 8;
-
-	private static final int SEAT_WIDTH = 8;
-
-	private static final Color[] COLORS = new Color[] { Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW };
-
-	private final Map<UUID, SeatView> seatViews = new HashMap<>();
-
-	public VenuePane(Venue venue) {
-
-		int y = 0;
-
-		int i = 0;
-
-		y += TEXT_GAP;
-		for (Level level : venue.getLevels()) {
-
-			Label label = new Label(level.getName());
-			label.setLayoutX(0);
-			label.setLayoutY(y);
-			super.getChildren().add(label);
-
-			y += TEXT_GAP;
-			int currentY = handleLevel(level, COLORS[i], y);
-			y = currentY;
-			y += LEVEL_GAP;
-			i++;
-		}
-
-	}
-
-	public void holdSeat(Seat seat) {
-		SeatView seatView = getSeatView(seat);
-		if (seatView != null) {
-			seatView.hold();
-		}
-	}
-
-	public void reserveSeat(Seat seat) {
-		SeatView seatView = getSeatView(seat);
-		if (seatView != null) {
-			seatView.reserve();
-		}
-	}
-
-	public void clearSeat(Seat seat) {
-		SeatView seatView = getSeatView(seat);
-		if (seatView != null) {
-			seatView.clear();
-		}
-	}
-
-	private final SeatView getSeatView(Seat seat) {
-		SeatView seatView = null;
-		if (seat != null) {
-			seatView = seatViews.get(seat.getUniqueSeatId());
-		}
-		return seatView;
-	}
-
-	private int handleLevel(Level level, Color color, int y) {
-		Multimap<Integer, Seat> seatsByRow = sortSeats(level.getSeats());
-
-		int maxY = y;
-
-		int x = 0;
-		for (Integer row : seatsByRow.keySet()) {
-			int yForRow = y + (ROW_GAP * row);
-			maxY = Math.max(yForRow, maxY);
-
-			for (Seat seat : seatsByRow.get(row)) {
-				SeatView seatView = new SeatView(x, yForRow, SEAT_WIDTH, SEAT_HEIGHT);
-				seatViews.put(seat.getUniqueSeatId(), seatView);
-				x += SEAT_WIDTH + SEAT_GAP;
-				super.getChildren().add(seatView);
-			}
-			x = 0;
-		}
-
-		return maxY;
-
-	}
-
-	private Multimap<Integer, Seat> sortSeats(Collection<Seat> seats) {
-		Multimap<Integer, Seat> seatsByRow = HashMultimap.create();
-		for (Seat seat : seats) {
-			seatsByRow.put(seat.getRow(), seat);
-		}
-
-		return seatsByRow;
-
-	}
-
-}
+package ui;
+
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import model.Level;
+import model.Seat;
+import model.SeatRegistry;
+import model.Venue;
+
+/**
+ * Pane representing a Venue. This will set up all of the Seats in the Venue in
+ * the UI.
+ * 
+ * @author bstoll
+ *
+ */
+public class VenuePane extends Pane {
+
+	private static final int ROW_GAP = 10;
+
+	private static final int LEVEL_GAP = 20;
+
+	private static final int TEXT_GAP = 20;
+
+	private static final int SEAT_GAP = 2;
+
+	private static final int SEAT_HEIGHT = 8;
+
+	private static final int SEAT_WIDTH = 8;
+
+	private static final Color[] COLORS = new Color[] { Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW };
+
+	private final SeatRegistry seatRegistry;
+
+	// Indexed by Seat id.
+	private final SeatView[] seatViews;
+
+	public VenuePane(Venue venue) {
+
+		this.seatRegistry = venue.getSeatRegistry();
+		this.seatViews = new SeatView[seatRegistry.size()];
+
+		int y = 0;
+
+		int i = 0;
+
+		y += TEXT_GAP;
+		for (Level level : venue.getLevels()) {
+
+			Label label = new Label(level.getName());
+			label.setLayoutX(0);
+			label.setLayoutY(y);
+			super.getChildren().add(label);
+
+			y += TEXT_GAP;
+			int currentY = handleLevel(level, COLORS[i], y);
+			y = currentY;
+			y += LEVEL_GAP;
+			i++;
+		}
+
+	}
+
+	public void holdSeat(Seat seat) {
+		SeatView seatView = getSeatView(seat);
+		if (seatView != null) {
+			seatView.hold();
+		}
+	}
+
+	public void reserveSeat(Seat seat) {
+		SeatView seatView = getSeatView(seat);
+		if (seatView != null) {
+			seatView.reserve();
+		}
+	}
+
+	public void clearSeat(Seat seat) {
+		SeatView seatView = getSeatView(seat);
+		if (seatView != null) {
+			seatView.clear();
+		}
+	}
+
+	private final SeatView getSeatView(Seat seat) {
+		SeatView seatView = null;
+		if (seat != null) {
+			int id = seatRegistry.idOf(seat);
+			if (id >= 0) {
+				seatView = seatViews[id];
+			}
+		}
+		return seatView;
+	}
+
+	private int handleLevel(Level level, Color color, int y) {
+		int maxY = y;
+
+		// Seats are ordered by row then seat number, so are their ids.
+		int id = seatRegistry.idOf(level.getSeats().get(0));
+		for (int row = 1; row <= level.getNumberOfRows(); row++) {
+			int yForRow = y + (ROW_GAP * row);
+			maxY = Math.max(yForRow, maxY);
+
+			int x = 0;
+			for (int seatNumber = 1; seatNumber <= level.getSeatsInRow(); seatNumber++) {
+				SeatView seatView = new SeatView(x, yForRow, SEAT_WIDTH, SEAT_HEIGHT);
+				seatViews[id++] = seatView;
+				x += SEAT_WIDTH + SEAT_GAP;
+				super.getChildren().add(seatView);
+			}
+		}
+
+		return maxY;
+
+	}
+
+}
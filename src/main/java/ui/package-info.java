@@ -1,8 +1,8 @@
-
-/**
- * Package containing all UI classes.
- * 
- * @author bstoll
- *
- */
+
+/**
+ * Package containing all UI classes.
+ * 
+ * @author bstoll
+ *
+ */
 package ui;
\ No newline at end of file
@@ -0,0 +1,109 @@
+package loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import model.SeatHold;
+import ticketsystem.DefaultTicketService;
+import ticketsystem.TicketReserver;
+import ticketsystem.TicketService;
+import util.TestObjectFactory;
+
+/**
+ * Load Generator Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class LoadGeneratorTest {
+
+	private static LoadProfile.Builder newProfile() {
+		return new LoadProfile.Builder().holdsPerSecond(1000).threads(2).warmup(0, TimeUnit.MILLISECONDS)
+				.duration(200, TimeUnit.MILLISECONDS).groupSize(1, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullTicketServiceShouldThrowIllegalArgument() {
+		new LoadGenerator(null, newProfile().build());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullProfileShouldThrowIllegalArgument() {
+		new LoadGenerator(new DefaultTicketService(new TicketReserver(TestObjectFactory.TEST_VENUE)), null);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void startTwiceShouldThrowIllegalState() {
+		LoadGenerator loadGenerator = new LoadGenerator(
+				new DefaultTicketService(new TicketReserver(TestObjectFactory.TEST_VENUE)), newProfile().build());
+		loadGenerator.start();
+		try {
+			loadGenerator.start();
+		} finally {
+			loadGenerator.stop();
+		}
+	}
+
+	@Test
+	public void testRun() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(new TicketReserver(TestObjectFactory.TEST_VENUE));
+		AtomicInteger held = new AtomicInteger();
+		AtomicInteger reserved = new AtomicInteger();
+		LoadGenerator loadGenerator = new LoadGenerator(ticketService, newProfile().reserveProbability(1).build(),
+				new LoadGenerator.Listener() {
+
+					@Override
+					public void seatsHeld(SeatHold seatHold) {
+						held.incrementAndGet();
+					}
+
+					@Override
+					public void seatsReserved(SeatHold seatHold) {
+						reserved.incrementAndGet();
+					}
+				});
+
+		LoadReport report = loadGenerator.run();
+
+		// 1,000 holds a second for 200ms, every hold is for one seat and reserved.
+		assertEquals(200, report.getHoldsSent(), 2);
+		assertEquals(0, report.getHoldsFailed());
+		assertEquals(0, report.getErrors());
+		assertEquals(report.getHoldsSent(), report.getReservations());
+		assertEquals(report.getHoldsSent(), report.getHoldLatencies().getTotalCount());
+		assertEquals(report.getReservations(), report.getReserveLatencies().getTotalCount());
+		assertEquals(report.getHoldsSent(), held.get());
+		assertEquals(report.getReservations(), reserved.get());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - report.getReservations(),
+				ticketService.numSeatsAvailable(Optional.empty()));
+		assertTrue(report.getOperationsPerSecond() > 0);
+	}
+
+	@Test
+	public void testWarmupIsNotMeasured() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(new TicketReserver(TestObjectFactory.TEST_VENUE));
+		AtomicInteger held = new AtomicInteger();
+		LoadGenerator loadGenerator = new LoadGenerator(ticketService,
+				newProfile().warmup(200, TimeUnit.MILLISECONDS).reserveProbability(0).build(),
+				new LoadGenerator.Listener() {
+
+					@Override
+					public void seatsHeld(SeatHold seatHold) {
+						held.incrementAndGet();
+					}
+				});
+
+		LoadReport report = loadGenerator.run();
+
+		assertEquals(400, held.get(), 4);
+		assertEquals(200, report.getHoldsSent(), 2);
+		assertEquals(0, report.getReservations());
+	}
+
+}
@@ -0,0 +1,114 @@
+package loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Load Profile Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class LoadProfileTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroRateShouldThrowIllegalArgument() {
+		new LoadProfile.Builder().holdsPerSecond(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroThreadsShouldThrowIllegalArgument() {
+		new LoadProfile.Builder().threads(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroDurationShouldThrowIllegalArgument() {
+		new LoadProfile.Builder().duration(0, TimeUnit.SECONDS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void reserveProbabilityOver1ShouldThrowIllegalArgument() {
+		new LoadProfile.Builder().reserveProbability(1.5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroWeightShouldThrowIllegalArgument() {
+		new LoadProfile.Builder().groupSize(4, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void minLevelOverMaxLevelShouldThrowIllegalArgument() {
+		new LoadProfile.Builder().levelRange(Optional.of(3), Optional.of(2), 1);
+	}
+
+	@Test
+	public void testDefaults() {
+		LoadProfile profile = new LoadProfile.Builder().build();
+		assertEquals(1000, profile.getHoldsPerSecond(), 0);
+		assertEquals(4, profile.getThreads());
+		assertEquals(TimeUnit.SECONDS.toNanos(30), profile.getDurationNanos());
+
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			int numSeats = profile.nextGroupSize(random);
+			assertTrue(numSeats >= 1 && numSeats <= 10);
+			LoadProfile.LevelRange levelRange = profile.nextLevelRange(random);
+			assertFalse(levelRange.getMinLevel().isPresent());
+			assertFalse(levelRange.getMaxLevel().isPresent());
+		}
+	}
+
+	@Test
+	public void testGroupSizesFollowWeights() {
+		LoadProfile profile = new LoadProfile.Builder().groupSize(2, 1).groupSize(8, 3).build();
+		Random random = new Random(1);
+		int eights = 0;
+		for (int i = 0; i < 10000; i++) {
+			int numSeats = profile.nextGroupSize(random);
+			assertTrue(numSeats == 2 || numSeats == 8);
+			if (numSeats == 8) {
+				eights++;
+			}
+		}
+		assertEquals(7500, eights, 300);
+	}
+
+	@Test
+	public void testBuilderChangesDoNotAffectBuiltProfile() {
+		LoadProfile.Builder builder = new LoadProfile.Builder().levelRange(Optional.of(1), Optional.of(1), 1);
+		LoadProfile profile = builder.build();
+		builder.levelRange(Optional.of(2), Optional.of(2), 1000);
+
+		Random random = new Random(1);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Optional.of(1), profile.nextLevelRange(random).getMaxLevel());
+		}
+	}
+
+	@Test
+	public void testParseOptions() {
+		LoadProfile profile = LoadGeneratorApp.newProfile(LoadGeneratorApp.parseOptions(new String[] { "--rate", "50",
+				"--threads", "2", "--groups", "3", "--levels-asked", "2-4:1", "--reserve", "0" }));
+		assertEquals(50, profile.getHoldsPerSecond(), 0);
+		assertEquals(2, profile.getThreads());
+		assertEquals(0, profile.getReserveProbability(), 0);
+
+		LoadProfile.LevelRange levelRange = profile.nextLevelRange(new Random(1));
+		assertEquals(3, profile.nextGroupSize(new Random(1)));
+		assertEquals(Optional.of(2), levelRange.getMinLevel());
+		assertEquals(Optional.of(4), levelRange.getMaxLevel());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownOptionShouldThrowIllegalArgument() {
+		LoadGeneratorApp.parseOptions(new String[] { "--speed", "10" });
+	}
+
+}
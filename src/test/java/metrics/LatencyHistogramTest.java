@@ -0,0 +1,100 @@
+package metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Latency Histogram Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class LatencyHistogramTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeValueShouldThrowIllegalArgument() {
+		new LatencyHistogram().recordValue(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void percentileOver100ShouldThrowIllegalArgument() {
+		new LatencyHistogram().getValueAtPercentile(100.1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addNullShouldThrowIllegalArgument() {
+		new LatencyHistogram().add(null);
+	}
+
+	@Test
+	public void testEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getTotalCount());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+		assertEquals(0, histogram.getMinValue());
+		assertEquals(0, histogram.getMaxValue());
+		assertEquals(0, histogram.getMean(), 0);
+	}
+
+	@Test
+	public void testBucketsAreContiguous() {
+		assertEquals(0, LatencyHistogram.bucketOf(0));
+		assertEquals(255, LatencyHistogram.bucketOf(255));
+		for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(LatencyHistogram.highestValueIn(bucket) >= value);
+			assertEquals(bucket + 1, LatencyHistogram.bucketOf(LatencyHistogram.highestValueIn(bucket) + 1));
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int value = 1; value <= 100; value++) {
+			histogram.recordValue(value);
+		}
+		assertEquals(100, histogram.getTotalCount());
+		assertEquals(50, histogram.getValueAtPercentile(50));
+		assertEquals(99, histogram.getValueAtPercentile(99));
+		assertEquals(100, histogram.getValueAtPercentile(100));
+		assertEquals(1, histogram.getValueAtPercentile(0));
+		assertEquals(1, histogram.getMinValue());
+		assertEquals(100, histogram.getMaxValue());
+		assertEquals(50.5, histogram.getMean(), 0.001);
+	}
+
+	@Test
+	public void testLargeValuesAreWithinPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1_000; value <= 1_000_000; value += 1_000) {
+			histogram.recordValue(value);
+		}
+		long p99 = histogram.getValueAtPercentile(99);
+		assertTrue(p99 >= 990_000);
+		assertTrue(p99 <= 990_000 * 129 / 128);
+		assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testAddAndReset() {
+		LatencyHistogram first = new LatencyHistogram();
+		LatencyHistogram second = new LatencyHistogram();
+		first.recordValue(10);
+		second.recordValue(20);
+		second.recordValue(30);
+
+		first.add(second);
+		assertEquals(3, first.getTotalCount());
+		assertEquals(10, first.getMinValue());
+		assertEquals(30, first.getMaxValue());
+		assertEquals(20, first.getValueAtPercentile(50));
+
+		first.reset();
+		assertEquals(0, first.getTotalCount());
+		assertEquals(0, first.getValueAtPercentile(50));
+	}
+
+}
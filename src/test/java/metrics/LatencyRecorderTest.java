@@ -0,0 +1,74 @@
+package metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Latency Recorder Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class LatencyRecorderTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeValueShouldThrowIllegalArgument() {
+		new LatencyRecorder().recordValue(-1);
+	}
+
+	@Test
+	public void testEmptySnapshot() {
+		LatencyHistogram histogram = new LatencyRecorder().snapshot();
+		assertEquals(0, histogram.getTotalCount());
+		assertEquals(0, histogram.getMinValue());
+		assertEquals(0, histogram.getMaxValue());
+	}
+
+	@Test
+	public void testSnapshotMatchesHistogram() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		LatencyHistogram expected = new LatencyHistogram();
+		for (long value = 7; value < 10_000_000; value = value * 5 / 3) {
+			recorder.recordValue(value);
+			expected.recordValue(value);
+		}
+
+		LatencyHistogram histogram = recorder.snapshot();
+		assertEquals(expected.getTotalCount(), histogram.getTotalCount());
+		assertEquals(expected.getMinValue(), histogram.getMinValue());
+		assertEquals(expected.getMaxValue(), histogram.getMaxValue());
+		assertEquals(expected.getMean(), histogram.getMean(), 0.001);
+		assertEquals(expected.getValueAtPercentile(50), histogram.getValueAtPercentile(50));
+		assertEquals(expected.getValueAtPercentile(99), histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		LatencyRecorder recorder = new LatencyRecorder();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int offset = t;
+			threads.add(new Thread(() -> {
+				for (int value = 1; value <= 10_000; value++) {
+					recorder.recordValue(value + offset);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		LatencyHistogram histogram = recorder.snapshot();
+		assertEquals(40_000, histogram.getTotalCount());
+		assertEquals(1, histogram.getMinValue());
+		assertEquals(10_003, histogram.getMaxValue());
+	}
+
+}
@@ -0,0 +1,46 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit tests for Event class.
+ * 
+ * @author bstoll
+ *
+ */
+public class EventTests {
+
+	@Test
+	public void testGetters() {
+		Event event = new Event(7, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE);
+		assertEquals(7, event.getId());
+		assertEquals(TestObjectFactory.TEST_NAME, event.getName());
+		assertSame(TestObjectFactory.TEST_VENUE, event.getVenue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroIdShouldThrowIllegalArgument() {
+		new Event(0, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullNameShouldThrowIllegalArgument() {
+		new Event(1, null, TestObjectFactory.TEST_VENUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyNameShouldThrowIllegalArgument() {
+		new Event(1, "", TestObjectFactory.TEST_VENUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullVenueShouldThrowIllegalArgument() {
+		new Event(1, TestObjectFactory.TEST_NAME, null);
+	}
+
+}
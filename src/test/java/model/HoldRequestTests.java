@@ -0,0 +1,53 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit tests for HoldRequest class.
+ * 
+ * @author bstoll
+ *
+ */
+public class HoldRequestTests {
+
+	@Test
+	public void testGetters() {
+		HoldRequest request = new HoldRequest(3, Optional.of(1), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		assertEquals(3, request.getNumSeats());
+		assertEquals(Optional.of(1), request.getMinLevel());
+		assertEquals(Optional.empty(), request.getMaxLevel());
+		assertEquals(TestObjectFactory.TEST_EMAIL, request.getCustomerEmail());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroSeatsShouldThrowIllegalArgument() {
+		new HoldRequest(0, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullMinLevelShouldThrowIllegalArgument() {
+		new HoldRequest(1, null, Optional.empty(), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullMaxLevelShouldThrowIllegalArgument() {
+		new HoldRequest(1, Optional.empty(), null, TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEmailShouldThrowIllegalArgument() {
+		new HoldRequest(1, Optional.empty(), Optional.empty(), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyEmailShouldThrowIllegalArgument() {
+		new HoldRequest(1, Optional.empty(), Optional.empty(), "");
+	}
+
+}
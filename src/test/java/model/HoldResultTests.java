@@ -0,0 +1,60 @@
+package model;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit tests for HoldResult class.
+ * 
+ * @author bstoll
+ *
+ */
+public class HoldResultTests {
+
+	private static final HoldRequest REQUEST = new HoldRequest(4, Optional.empty(), Optional.empty(),
+			TestObjectFactory.TEST_EMAIL);
+
+	@Test
+	public void testHeld() {
+		SeatHold seatHold = TestObjectFactory.newSeatHold();
+		HoldResult result = new HoldResult(REQUEST, seatHold);
+		assertSame(REQUEST, result.getRequest());
+		assertSame(seatHold, result.getSeatHold());
+		assertTrue(result.isHeld());
+		assertNull(result.getFailure());
+	}
+
+	@Test
+	public void testNotHeld() {
+		HoldResult result = new HoldResult(REQUEST, (SeatHold) null);
+		assertFalse(result.isHeld());
+		assertNull(result.getFailure());
+	}
+
+	@Test
+	public void testFailure() {
+		IllegalArgumentException failure = new IllegalArgumentException();
+		HoldResult result = new HoldResult(REQUEST, failure);
+		assertFalse(result.isHeld());
+		assertSame(failure, result.getFailure());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullRequestShouldThrowIllegalArgument() {
+		new HoldResult(null, TestObjectFactory.newSeatHold());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullFailureShouldThrowIllegalArgument() {
+		new HoldResult(REQUEST, (RuntimeException) null);
+	}
+
+}
@@ -0,0 +1,88 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigDecimal;
+
+import javax.money.Monetary;
+
+import org.javamoney.moneta.Money;
+import org.junit.Test;
+
+/**
+ * Unit tests for Price class.
+ *
+ *
+ * @author bstoll
+ *
+ */
+public class PriceTests {
+
+	@Test
+	public void testGetMinorUnits() {
+		assertEquals(1250, new Price(Money.of(12.5, "USD")).getMinorUnits());
+		assertEquals(500, new Price(Money.of(500, "JPY")).getMinorUnits());
+	}
+
+	@Test
+	public void trailingZerosAreWholeMinorUnits() {
+		assertEquals(1050, new Price(Money.of(new BigDecimal("10.5000"), "USD")).getMinorUnits());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooManyMinorUnitsShouldThrowIllegalArgument() {
+		new Price(Money.of(new BigDecimal("1E+20"), "USD"));
+	}
+
+	@Test
+	public void testGetCurrency() {
+		assertEquals(Monetary.getCurrency("USD"), new Price(Money.of(1, "USD")).getCurrency());
+	}
+
+	@Test
+	public void testGetAmount() {
+		assertEquals(Money.of(12.5, "USD"), new Price(Money.of(12.5, "USD")).getAmount());
+		assertEquals(0, Money.of(12.5, "USD").compareTo(new Price(1250, Monetary.getCurrency("USD")).getAmount()));
+	}
+
+	@Test
+	public void testToAmount() {
+		assertEquals(0, Money.of(0.07, "USD").compareTo(Price.toAmount(7, Monetary.getCurrency("USD"))));
+	}
+
+	@Test
+	public void priceEqualityTest() {
+		Price fromAmount = new Price(Money.of(1, "USD"));
+		Price fromMinorUnits = new Price(100, Monetary.getCurrency("USD"));
+		assertEquals(fromAmount, fromMinorUnits);
+		assertEquals(fromAmount.hashCode(), fromMinorUnits.hashCode());
+		assertNotEquals(fromAmount, new Price(100, Monetary.getCurrency("EUR")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullAmountShouldThrowIllegalArgument() {
+		new Price(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroAmountShouldThrowIllegalArgument() {
+		new Price(Money.of(0, "USD"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fractionOfMinorUnitShouldThrowIllegalArgument() {
+		new Price(Money.of(0.001, "USD"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroMinorUnitsShouldThrowIllegalArgument() {
+		new Price(0, Monetary.getCurrency("USD"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullCurrencyShouldThrowIllegalArgument() {
+		new Price(1, null);
+	}
+
+}
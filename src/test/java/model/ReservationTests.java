@@ -0,0 +1,52 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit tests for Reservation class.
+ *
+ *
+ * @author bstoll
+ *
+ */
+public class ReservationTests {
+
+	private static final Event TEST_EVENT = new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullConfirmationNumberOnConstructionShouldThrowIllegalArgument() {
+		new Reservation(null, TEST_EVENT, TestObjectFactory.newSeatHold());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyConfirmationNumberOnConstructionShouldThrowIllegalArgument() {
+		new Reservation("", TEST_EVENT, TestObjectFactory.newSeatHold());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEventOnConstructionShouldThrowIllegalArgument() {
+		new Reservation("ABC", null, TestObjectFactory.newSeatHold());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullSeatHoldOnConstructionShouldThrowIllegalArgument() {
+		new Reservation("ABC", TEST_EVENT, null);
+	}
+
+	@Test
+	public void testGetters() {
+		SeatHold seatHold = TestObjectFactory.newSeatHold();
+		Reservation reservation = new Reservation("ABC", TEST_EVENT, seatHold);
+		assertEquals("ABC", reservation.getConfirmationNumber());
+		assertSame(TEST_EVENT, reservation.getEvent());
+		assertSame(seatHold, reservation.getSeatHold());
+		assertEquals(TestObjectFactory.TEST_EMAIL, reservation.getCustomerEmail());
+		assertEquals(TestObjectFactory.TEST_SEATS, reservation.getSeats());
+	}
+
+}
@@ -1,86 +1,162 @@
-package model;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-import org.javamoney.moneta.Money;
-import org.junit.Test;
-
-import util.TestObjectFactory;
-
-/**
- * Unit tests for SeatHold class.
- * 
- * 
- * @author bstoll
- *
- */
-public class SeatHoldTests {
-
-	@Test
-	public void testGetId() {
-		assertEquals(1, TestObjectFactory.newSeatHold().getId());
-	}
-
-	@Test
-	public void testGetCustomerEmail() {
-		assertEquals(TestObjectFactory.TEST_EMAIL, TestObjectFactory.newSeatHold().getCustomerEmail());
-	}
-
-	@Test
-	public void testGetNumberOfSeats() {
-		assertEquals(4, TestObjectFactory.newSeatHold().getNumberOfSeats());
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void negativeIdShouldThrowIllegalArgument() {
-		new SeatHold(-1, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void zeroIdShouldThrowIllegalArgument() {
-		new SeatHold(0, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void emptySeatsShouldThrowIllegalArgument() {
-		new SeatHold(1, TestObjectFactory.TEST_EMAIL, Collections.emptyList());
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void nullSeatsShouldThrowIllegalArgument() {
-		new SeatHold(1, TestObjectFactory.TEST_EMAIL, null);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void emptyEmailShouldThrowIllegalArgument() {
-		new SeatHold(1, "", TestObjectFactory.TEST_SEATS);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void nullEmailShouldThrowIllegalArgument() {
-		new SeatHold(1, null, TestObjectFactory.TEST_SEATS);
-	}
-
-	@Test(expected = NullPointerException.class)
-	public void nullSeatInSeatsShouldThrowNullPointer() {
-		Seat seat1 = null;
-		Seat seat2 = new Seat(2, 2, 2, Money.of(2, "USD"));
-		List<Seat> seats = new ArrayList<>();
-		seats.add(seat1);
-		seats.add(seat2);
-
-		new SeatHold(1, TestObjectFactory.TEST_EMAIL, seats);
-	}
-
-	@Test
-	public void validConstruction() {
-		SeatHold hold = new SeatHold(1, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
-		assertNotNull(hold);
-	}
-
-}
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.javamoney.moneta.Money;
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit tests for SeatHold class.
+ * 
+ * 
+ * @author bstoll
+ *
+ */
+public class SeatHoldTests {
+
+	@Test
+	public void testGetId() {
+		assertEquals(1, TestObjectFactory.newSeatHold().getId());
+	}
+
+	@Test
+	public void testGetCustomerEmail() {
+		assertEquals(TestObjectFactory.TEST_EMAIL, TestObjectFactory.newSeatHold().getCustomerEmail());
+	}
+
+	@Test
+	public void testGetNumberOfSeats() {
+		assertEquals(4, TestObjectFactory.newSeatHold().getNumberOfSeats());
+	}
+
+	@Test
+	public void testGetTotalPrice() {
+		// Seats priced 1, 2, 3 and 4 USD.
+		Price total = TestObjectFactory.newSeatHold().getTotalPrice();
+		assertEquals(1000, total.getMinorUnits());
+		assertEquals(0, Money.of(10, "USD").compareTo(total.getAmount()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void mixedCurrenciesShouldThrowIllegalStateOnTotalPrice() {
+		List<Seat> seats = new ArrayList<>();
+		seats.add(new Seat(1, 1, 1, Money.of(1, "USD")));
+		seats.add(new Seat(1, 1, 2, Money.of(1, "EUR")));
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, seats).getTotalPrice();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeIdShouldThrowIllegalArgument() {
+		new SeatHold(-1, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroIdShouldThrowIllegalArgument() {
+		new SeatHold(0, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptySeatsShouldThrowIllegalArgument() {
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, Collections.emptyList());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullSeatsShouldThrowIllegalArgument() {
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyEmailShouldThrowIllegalArgument() {
+		new SeatHold(1, "", TestObjectFactory.TEST_SEATS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEmailShouldThrowIllegalArgument() {
+		new SeatHold(1, null, TestObjectFactory.TEST_SEATS);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullSeatInSeatsShouldThrowNullPointer() {
+		Seat seat1 = null;
+		Seat seat2 = new Seat(2, 2, 2, Money.of(2, "USD"));
+		List<Seat> seats = new ArrayList<>();
+		seats.add(seat1);
+		seats.add(seat2);
+
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, seats);
+	}
+
+	@Test
+	public void testSeatsFromSeatIds() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		SeatHold hold = new SeatHold(1, TestObjectFactory.TEST_EMAIL, registry, new int[] { 0, 1, 1250 });
+		assertEquals(3, hold.getNumberOfSeats());
+		assertSame(registry, hold.getSeatRegistry());
+		assertEquals(1250, hold.getSeatId(2));
+		assertSame(registry.getSeat(1250), hold.getSeat(2));
+		assertEquals(Arrays.asList(registry.getSeat(0), registry.getSeat(1), registry.getSeat(1250)),
+				hold.getSeats());
+		assertSame(hold.getSeats(), hold.getSeats());
+	}
+
+	@Test
+	public void changingSeatIdsAfterConstructionDoesNotChangeSeats() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		int[] seatIds = { 0, 1 };
+		SeatHold hold = new SeatHold(1, TestObjectFactory.TEST_EMAIL, registry, seatIds);
+		seatIds[1] = 1250;
+		assertEquals(1, hold.getSeatId(1));
+		assertSame(registry.getSeat(1), hold.getSeats().get(1));
+	}
+
+	@Test
+	public void testSeatsFromList() {
+		SeatHold hold = TestObjectFactory.newSeatHold();
+		assertNull(hold.getSeatRegistry());
+		assertSame(hold.getSeats().get(3), hold.getSeat(3));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void seatIdOfListBackedHoldShouldThrowIllegalState() {
+		TestObjectFactory.newSeatHold().getSeatId(0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void unmodifiableSeatsFromSeatIds() {
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_VENUE.getSeatRegistry(), new int[] { 0 })
+				.getSeats().remove(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptySeatIdsShouldThrowIllegalArgument() {
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_VENUE.getSeatRegistry(), new int[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownSeatIdShouldThrowIllegalArgument() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, registry, new int[] { registry.size() });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullSeatRegistryShouldThrowIllegalArgument() {
+		new SeatHold(1, TestObjectFactory.TEST_EMAIL, null, new int[] { 0 });
+	}
+
+	@Test
+	public void validConstruction() {
+		SeatHold hold = new SeatHold(1, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
+		assertNotNull(hold);
+	}
+
+}
@@ -0,0 +1,92 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit tests for SeatRegistry class.
+ *
+ *
+ * @author bstoll
+ *
+ */
+public class SeatRegistryTests {
+
+	@Test
+	public void testSize() {
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, TestObjectFactory.TEST_VENUE.getSeatRegistry().size());
+	}
+
+	@Test
+	public void testIdsAreDenseAndInSeatOrder() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		int id = 0;
+		for (Level level : TestObjectFactory.TEST_VENUE.getLevels()) {
+			for (Seat seat : level.getSeats()) {
+				assertEquals(id, registry.idOf(seat));
+				assertSame(seat, registry.getSeat(id));
+				id++;
+			}
+		}
+		assertEquals(registry.size(), id);
+	}
+
+	@Test
+	public void testGetSeatByCoordinates() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		Seat seat = registry.getSeat(2, 3, 4);
+		assertEquals(2, seat.getLevelId());
+		assertEquals(3, seat.getRow());
+		assertEquals(4, seat.getSeatNumber());
+		// Level 1 has 1250 seats of 50 per row.
+		assertEquals(1250 + 2 * 100 + 3, registry.idOf(2, 3, 4));
+	}
+
+	@Test
+	public void testIdOfEqualSeat() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		assertEquals(registry.idOf(3, 2, 1), registry.idOf(new Seat(3, 2, 1, TestObjectFactory.TEST_PRICE)));
+	}
+
+	@Test
+	public void unknownCoordinatesHaveNoId() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		assertEquals(-1, registry.idOf(5, 1, 1));
+		assertEquals(-1, registry.idOf(0, 1, 1));
+		assertEquals(-1, registry.idOf(1, 26, 1));
+		assertEquals(-1, registry.idOf(1, 1, 51));
+		assertEquals(-1, registry.idOf(1, 0, 1));
+		assertEquals(-1, registry.idOf(1, 1, 0));
+		assertNull(registry.getSeat(5, 1, 1));
+	}
+
+	@Test
+	public void testSparseLevelIds() {
+		Venue venue = new Venue(1, TestObjectFactory.TEST_NAME,
+				Arrays.asList(new Level(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_PRICE, 2, 2),
+						new Level(1_000_000, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_PRICE, 2, 2)));
+		SeatRegistry registry = venue.getSeatRegistry();
+		assertEquals(8, registry.size());
+		assertEquals(4, registry.idOf(1_000_000, 1, 1));
+		assertEquals(-1, registry.idOf(2, 1, 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeIdShouldThrowIllegalArgument() {
+		TestObjectFactory.TEST_VENUE.getSeatRegistry().getSeat(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void idPastTheLastSeatShouldThrowIllegalArgument() {
+		SeatRegistry registry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		registry.getSeat(registry.size());
+	}
+
+}
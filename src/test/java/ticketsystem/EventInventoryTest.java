@@ -0,0 +1,90 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import model.Event;
+import model.SeatHold;
+import model.Venue;
+import util.TestObjectFactory;
+
+/**
+ * Event Inventory Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class EventInventoryTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullVenueOnConstructionShouldThrowIllegalArgument() {
+		new EventInventory(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullSeatAllocationOnConstructionShouldThrowIllegalArgument() {
+		new EventInventory(TestObjectFactory.TEST_VENUE, null);
+	}
+
+	@Test
+	public void testEventsShareTheLayout() {
+		EventInventory inventory = new EventInventory(TestObjectFactory.TEST_VENUE);
+		for (int eventId = 1; eventId <= 300; eventId++) {
+			inventory.addEvent(new Event(eventId, "Show " + eventId, TestObjectFactory.TEST_VENUE));
+		}
+		assertEquals(300, inventory.getNumberOfEvents());
+		assertEquals(1, inventory.getEvents().get(0).getId());
+
+		TicketReserver first = inventory.getReserver(1);
+		TicketReserver last = inventory.getReserver(300);
+		SeatHold firstHold = first.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		SeatHold lastHold = last.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+
+		// Same seats of the same Venue, held separately per Event.
+		assertSame(firstHold.getSeats().get(0), lastHold.getSeats().get(0));
+		assertSame(TestObjectFactory.TEST_VENUE.getLevels().iterator().next().getSeats().get(0),
+				firstHold.getSeats().get(0));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 5, first.numberOfSeatsAvailable(Optional.empty()));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE,
+				inventory.getReserver(2).numberOfSeatsAvailable(Optional.empty()));
+		assertEquals(300, last.getEvent().getId());
+	}
+
+	@Test
+	public void testRemoveEvent() {
+		EventInventory inventory = new EventInventory(TestObjectFactory.TEST_VENUE);
+		TicketReserver ticketReserver = inventory
+				.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		assertSame(ticketReserver, inventory.removeEvent(1));
+		assertNull(inventory.getReserver(1));
+		assertNull(inventory.removeEvent(1));
+		assertEquals(0, inventory.getNumberOfEvents());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void duplicateEventShouldThrowIllegalState() {
+		EventInventory inventory = new EventInventory(TestObjectFactory.TEST_VENUE);
+		inventory.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		inventory.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void eventInOtherVenueShouldThrowIllegalArgument() {
+		EventInventory inventory = new EventInventory(TestObjectFactory.TEST_VENUE);
+		Venue otherVenue = new Venue(2, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_LEVELS);
+		inventory.addEvent(new Event(1, TestObjectFactory.TEST_NAME, otherVenue));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEventShouldThrowIllegalArgument() {
+		new EventInventory(TestObjectFactory.TEST_VENUE).addEvent(null);
+	}
+
+}
@@ -0,0 +1,160 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Executor Ticket Service Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class ExecutorTicketServiceTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullServiceOnConstructionShouldThrowIllegalArgument() {
+		new ExecutorTicketService(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroThreadsOnConstructionShouldThrowIllegalArgument() {
+		new ExecutorTicketService(TestObjectFactory.newService(), 0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroQueueCapacityOnConstructionShouldThrowIllegalArgument() {
+		new ExecutorTicketService(TestObjectFactory.newService(), 1, 0);
+	}
+
+	@Test
+	public void testHoldAndReserve() throws Exception {
+		ExecutorTicketService service = new ExecutorTicketService(TestObjectFactory.newService());
+
+		SeatHold seatHold = service
+				.findAndHoldSeatsAsync(5, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL)
+				.get(5, TimeUnit.SECONDS);
+		assertNotNull(seatHold);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 5,
+				service.numSeatsAvailableAsync(Optional.empty()).get().intValue());
+
+		String confirmationNumber = service.reserveSeatsAsync(seatHold.getId(), TestObjectFactory.TEST_EMAIL)
+				.get(5, TimeUnit.SECONDS);
+		assertNotNull(confirmationNumber);
+	}
+
+	@Test
+	public void testNoSeatsCompletesWithNull() throws Exception {
+		ExecutorTicketService service = new ExecutorTicketService(TestObjectFactory.newService());
+		assertNull(service.findAndHoldSeatsAsync(TestObjectFactory.TOTAL_SEATS_IN_VENUE + 1, Optional.empty(),
+				Optional.empty(), TestObjectFactory.TEST_EMAIL).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testInvalidRequestFailsFuture() throws Exception {
+		ExecutorTicketService service = new ExecutorTicketService(TestObjectFactory.newService());
+		assertFailsWith(IllegalArgumentException.class,
+				service.findAndHoldSeatsAsync(0, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL));
+		assertFailsWith(IllegalArgumentException.class, service.numSeatsAvailableAsync(Optional.of(9)));
+		assertFailsWith(IllegalStateException.class, service.reserveSeatsAsync(1, TestObjectFactory.TEST_EMAIL));
+	}
+
+	@Test
+	public void testErrorFailsFuture() throws Exception {
+		TicketService failingService = new DefaultTicketService(TestObjectFactory.newReserver()) {
+			@Override
+			public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
+					String customerEmail) {
+				throw new AssertionError("Failing on purpose");
+			}
+
+			@Override
+			public int numSeatsAvailable(Optional<Integer> venueLevel) {
+				throw new StackOverflowError();
+			}
+		};
+		ExecutorTicketService service = new ExecutorTicketService(failingService);
+		assertFailsWith(AssertionError.class,
+				service.findAndHoldSeatsAsync(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL));
+		assertFailsWith(StackOverflowError.class, service.numSeatsAvailableAsync(Optional.empty()));
+	}
+
+	@Test
+	public void testFullQueueRejectsWithoutBlocking() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TicketService blockingService = new DefaultTicketService(TestObjectFactory.newReserver()) {
+			@Override
+			public SeatHold findAndHoldSeats(int numSeats, Optional<Integer> minLevel, Optional<Integer> maxLevel,
+					String customerEmail) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.findAndHoldSeats(numSeats, minLevel, maxLevel, customerEmail);
+			}
+		};
+		ExecutorTicketService service = new ExecutorTicketService(blockingService, 1, 2);
+
+		List<CompletableFuture<SeatHold>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			futures.add(service.findAndHoldSeatsAsync(1, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL));
+		}
+		// One running, two queued, the last one rejected.
+		assertFailsWith(RejectedExecutionException.class, futures.get(3));
+		assertEquals(2, service.getQueueDepth());
+
+		release.countDown();
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(futures.get(i).get(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testShutdownRunsQueuedRequests() throws Exception {
+		ExecutorTicketService service = new ExecutorTicketService(TestObjectFactory.newService(), 2, 100);
+		List<CompletableFuture<SeatHold>> futures = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			futures.add(service.findAndHoldSeatsAsync(2, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL));
+		}
+		service.shutdown();
+		assertFailsWith(RejectedExecutionException.class,
+				service.findAndHoldSeatsAsync(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL));
+		assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+		for (CompletableFuture<SeatHold> future : futures) {
+			assertNotNull(future.getNow(null));
+		}
+	}
+
+	private static void assertFailsWith(Class<? extends Throwable> expected, CompletableFuture<?> future)
+			throws InterruptedException {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertEquals(expected, e.getCause().getClass());
+			return;
+		} catch (TimeoutException e) {
+			throw new AssertionError("Future did not complete", e);
+		}
+		throw new AssertionError("Future did not fail");
+	}
+
+}
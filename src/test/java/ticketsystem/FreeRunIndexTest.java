@@ -0,0 +1,92 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Free Run Index Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class FreeRunIndexTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroRowsOnConstructionShouldThrowIllegalArgument() {
+		new FreeRunIndex(0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroSeatsOnConstructionShouldThrowIllegalArgument() {
+		new FreeRunIndex(1, 0);
+	}
+
+	@Test
+	public void emptyIndexFindsFirstSeat() {
+		FreeRunIndex freeRuns = new FreeRunIndex(3, 10);
+		assertEquals(10, freeRuns.longestRun());
+		assertEquals(0, freeRuns.findRun(1));
+		assertEquals(0, freeRuns.findRun(10));
+		assertEquals(-1, freeRuns.findRun(11));
+	}
+
+	@Test
+	public void takenSeatsPushRunToNextRow() {
+		FreeRunIndex freeRuns = new FreeRunIndex(3, 10);
+		freeRuns.set(0, 3, false);
+		assertEquals(0, freeRuns.findRun(3));
+		assertEquals(4, freeRuns.findRun(4));
+		assertEquals(4, freeRuns.findRun(6));
+		assertEquals(10, freeRuns.findRun(7));
+
+		freeRuns.set(0, 3, true);
+		assertEquals(0, freeRuns.findRun(10));
+	}
+
+	@Test
+	public void runStraddlingMiddleOfRow() {
+		FreeRunIndex freeRuns = new FreeRunIndex(1, 8);
+		freeRuns.set(0, 0, false);
+		freeRuns.set(0, 1, false);
+		freeRuns.set(0, 7, false);
+		assertEquals(2, freeRuns.findRun(5));
+		assertEquals(-1, freeRuns.findRun(6));
+	}
+
+	@Test
+	public void matchesBruteForceSearch() {
+		Random random = new Random(42);
+		int rows = 13;
+		int seatsInRow = 37;
+		FreeRunIndex freeRuns = new FreeRunIndex(rows, seatsInRow);
+		boolean[] free = new boolean[rows * seatsInRow];
+		Arrays.fill(free, true);
+
+		for (int i = 0; i < 5000; i++) {
+			int seat = random.nextInt(free.length);
+			free[seat] = random.nextBoolean();
+			freeRuns.set(seat / seatsInRow, seat % seatsInRow, free[seat]);
+
+			int numSeats = random.nextInt(seatsInRow + 1) + 1;
+			assertEquals(bruteForceFindRun(free, seatsInRow, numSeats), freeRuns.findRun(numSeats));
+		}
+	}
+
+	private static int bruteForceFindRun(boolean[] free, int seatsInRow, int numSeats) {
+		for (int start = 0; start < free.length; start++) {
+			int run = 0;
+			while (run < numSeats && start % seatsInRow + run < seatsInRow && free[start + run]) {
+				run++;
+			}
+			if (run == numSeats) {
+				return start;
+			}
+		}
+		return -1;
+	}
+
+}
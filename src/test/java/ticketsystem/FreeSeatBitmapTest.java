@@ -0,0 +1,91 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Free Seat Bitmap Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class FreeSeatBitmapTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroSeatsOnConstructionShouldThrowIllegalArgument() {
+		new FreeSeatBitmap(0);
+	}
+
+	@Test
+	public void emptyBitmapFindsFirstSeat() {
+		FreeSeatBitmap freeSeats = new FreeSeatBitmap(100);
+		assertTrue(freeSeats.isFree(99));
+		assertEquals(0, freeSeats.nextFree(0));
+		assertEquals(99, freeSeats.nextFree(99));
+		assertEquals(-1, freeSeats.nextFree(100));
+	}
+
+	@Test
+	public void takenSeatsAreSkipped() {
+		FreeSeatBitmap freeSeats = new FreeSeatBitmap(200);
+		for (int seat = 0; seat < 150; seat++) {
+			freeSeats.set(seat, false);
+		}
+		assertFalse(freeSeats.isFree(0));
+		assertEquals(150, freeSeats.nextFree(0));
+
+		freeSeats.set(70, true);
+		assertEquals(70, freeSeats.nextFree(0));
+		assertEquals(150, freeSeats.nextFree(71));
+	}
+
+	@Test
+	public void lastFreeSeatOfLargeLevel() {
+		int numberOfSeats = 64 * 64 * 64 + 5;
+		FreeSeatBitmap freeSeats = new FreeSeatBitmap(numberOfSeats);
+		for (int seat = 0; seat < numberOfSeats; seat++) {
+			freeSeats.set(seat, false);
+		}
+		assertEquals(-1, freeSeats.nextFree(0));
+
+		freeSeats.set(numberOfSeats - 1, true);
+		assertEquals(numberOfSeats - 1, freeSeats.nextFree(0));
+		freeSeats.set(12345, true);
+		assertEquals(12345, freeSeats.nextFree(0));
+		assertEquals(numberOfSeats - 1, freeSeats.nextFree(12346));
+	}
+
+	@Test
+	public void matchesLinearScan() {
+		Random random = new Random(7);
+		int numberOfSeats = 10_000;
+		FreeSeatBitmap freeSeats = new FreeSeatBitmap(numberOfSeats);
+		boolean[] free = new boolean[numberOfSeats];
+		Arrays.fill(free, true);
+
+		for (int i = 0; i < 50_000; i++) {
+			int seat = random.nextInt(numberOfSeats);
+			// Mostly take seats so the bitmap gets sparse.
+			boolean isFree = random.nextInt(10) == 0;
+			freeSeats.set(seat, isFree);
+			free[seat] = isFree;
+
+			int from = random.nextInt(numberOfSeats + 1);
+			int expected = -1;
+			for (int s = from; s < numberOfSeats; s++) {
+				if (free[s]) {
+					expected = s;
+					break;
+				}
+			}
+			assertEquals(expected, freeSeats.nextFree(from));
+		}
+	}
+
+}
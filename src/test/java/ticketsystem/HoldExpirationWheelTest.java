@@ -0,0 +1,153 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Hold Expiration Wheel Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class HoldExpirationWheelTest {
+
+	private static final long TICK = 10;
+
+	private static SeatHold newSeatHold(int id) {
+		return new SeatHold(id, TestObjectFactory.TEST_EMAIL, TestObjectFactory.TEST_SEATS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroTickOnConstructionShouldThrowIllegalArgument() {
+		new HoldExpirationWheel(0, 8, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ticksPerWheelNotPowerOfTwoShouldThrowIllegalArgument() {
+		new HoldExpirationWheel(TICK, 6, 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void scheduleTwiceShouldThrowIllegalState() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		wheel.schedule(newSeatHold(1), 100);
+		wheel.schedule(newSeatHold(1), 100);
+	}
+
+	@Test
+	public void testGetAndCancel() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		SeatHold seatHold = newSeatHold(1);
+		wheel.schedule(seatHold, 100);
+
+		assertSame(seatHold, wheel.get(1));
+		assertEquals(1, wheel.size());
+		assertSame(seatHold, wheel.cancel(1));
+		assertNull(wheel.get(1));
+		assertNull(wheel.cancel(1));
+		assertEquals(0, wheel.size());
+		assertTrue(wheel.expireDue(1000).isEmpty());
+	}
+
+	@Test
+	public void expiresOnlyWhenDue() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		SeatHold seatHold = newSeatHold(1);
+		wheel.schedule(seatHold, 55);
+
+		assertTrue(wheel.expireDue(50).isEmpty());
+		assertEquals(1, wheel.size());
+
+		List<SeatHold> expired = wheel.expireDue(60);
+		assertEquals(1, expired.size());
+		assertSame(seatHold, expired.get(0));
+		assertNull(wheel.get(1));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void expiresDeadlinesBeyondOneTurn() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		// 8 ticks per turn, so this shares a bucket with tick 2.
+		wheel.schedule(newSeatHold(1), 10 * TICK);
+		wheel.schedule(newSeatHold(2), 2 * TICK);
+
+		assertEquals(1, wheel.expireDue(2 * TICK).size());
+		assertTrue(wheel.expireDue(9 * TICK).isEmpty());
+		assertEquals(1, wheel.expireDue(10 * TICK).get(0).getId());
+	}
+
+	@Test
+	public void expiresEverythingAfterLongPause() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		for (int id = 1; id <= 100; id++) {
+			wheel.schedule(newSeatHold(id), id * 3);
+		}
+
+		assertEquals(100, wheel.expireDue(1000 * TICK).size());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void deadlineInThePastExpiresOnNextTick() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		wheel.expireDue(50 * TICK);
+		wheel.schedule(newSeatHold(1), 0);
+
+		assertEquals(1, wheel.expireDue(51 * TICK).size());
+	}
+
+	@Test
+	public void manySeatHoldsSurviveResize() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		for (int id = 1; id <= 1000; id++) {
+			wheel.schedule(newSeatHold(id), id);
+		}
+		for (int id = 1; id <= 1000; id += 2) {
+			assertEquals(id, wheel.cancel(id).getId());
+		}
+
+		Set<Integer> expiredIds = new HashSet<>();
+		for (SeatHold seatHold : wheel.expireDue(2000)) {
+			expiredIds.add(seatHold.getId());
+		}
+		assertEquals(500, expiredIds.size());
+		for (int id = 2; id <= 1000; id += 2) {
+			assertTrue(expiredIds.contains(id));
+		}
+	}
+
+	@Test
+	public void testOldestDeadline() {
+		HoldExpirationWheel wheel = new HoldExpirationWheel(TICK, 8, 0);
+		assertFalse(wheel.oldestDeadlineNanos().isPresent());
+
+		wheel.schedule(newSeatHold(1), 105);
+		wheel.schedule(newSeatHold(2), 205);
+		wheel.schedule(newSeatHold(3), 305);
+		assertEquals(105, wheel.oldestDeadlineNanos().getAsLong());
+
+		wheel.cancel(2);
+		assertEquals(105, wheel.oldestDeadlineNanos().getAsLong());
+		wheel.expireDue(110);
+		assertEquals(305, wheel.oldestDeadlineNanos().getAsLong());
+		wheel.cancel(3);
+		assertFalse(wheel.oldestDeadlineNanos().isPresent());
+
+		wheel.schedule(newSeatHold(4), 405);
+		assertEquals(405, wheel.oldestDeadlineNanos().getAsLong());
+	}
+
+}
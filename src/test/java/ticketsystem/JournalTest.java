@@ -0,0 +1,423 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for Journal.
+ *
+ * @author bstoll
+ *
+ */
+public class JournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullPathOnConstruction() throws IOException {
+		new Journal(null, Durability.GROUP_COMMIT);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullDurabilityOnConstruction() throws IOException {
+		new Journal(folder.newFile().toPath(), null);
+	}
+
+	@Test
+	public void recordsAreWrittenInOrder() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendHold(1, 1234L, TestObjectFactory.TEST_EMAIL, new int[] { 4, 5 });
+			journal.appendReserve(1, "ABC");
+			journal.appendExpire(2);
+			journal.commit();
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+
+		ByteBuffer hold = nextBody(buffer);
+		assertEquals(Journal.HOLD, hold.get());
+		assertEquals(1, hold.getInt());
+		assertEquals(1234L, hold.getLong());
+		assertEquals(TestObjectFactory.TEST_EMAIL, nextString(hold));
+		assertEquals(2, hold.getInt());
+		assertEquals(4, hold.getInt());
+		assertEquals(5, hold.getInt());
+
+		ByteBuffer reserve = nextBody(buffer);
+		assertEquals(Journal.RESERVE, reserve.get());
+		assertEquals(1, reserve.getInt());
+		assertEquals("ABC", nextString(reserve));
+
+		ByteBuffer expire = nextBody(buffer);
+		assertEquals(Journal.EXPIRE, expire.get());
+		assertEquals(2, expire.getInt());
+
+		assertEquals(0, buffer.remaining());
+	}
+
+	@Test
+	public void groupCommitWaitsForDisk() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			assertEquals(0, journal.getDurablePosition());
+
+			journal.commit();
+
+			assertEquals(journal.getAppendedPosition(), journal.getDurablePosition());
+			assertEquals(journal.getAppendedPosition(), Files.size(path));
+		}
+	}
+
+	@Test
+	public void fsyncPerOpWritesOnAppend() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.FSYNC_PER_OP)) {
+			journal.appendExpire(1);
+			assertEquals(journal.getAppendedPosition(), journal.getDurablePosition());
+			assertEquals(journal.getAppendedPosition(), Files.size(path));
+		}
+	}
+
+	@Test
+	public void asyncWritesInBackground() throws IOException, InterruptedException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.ASYNC)) {
+			journal.appendExpire(1);
+			journal.commit();
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (journal.getDurablePosition() < journal.getAppendedPosition() && System.nanoTime() < deadline) {
+				Thread.sleep(5);
+			}
+			assertEquals(journal.getAppendedPosition(), Files.size(path));
+		}
+	}
+
+	@Test
+	public void reopenedJournalAppendsAtEnd() throws IOException {
+		Path path = folder.newFile().toPath();
+		long firstSize;
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			firstSize = journal.getAppendedPosition();
+		}
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			assertEquals(firstSize, journal.getAppendedPosition());
+			journal.appendExpire(2);
+		}
+		assertEquals(2 * firstSize, Files.size(path));
+	}
+
+	@Test
+	public void failedWriteFailsTheJournal() throws IOException {
+		Path path = folder.newFile().toPath();
+		Journal journal = new Journal(path, Durability.GROUP_COMMIT);
+		journal.appendExpire(1);
+		long appended = journal.getAppendedPosition();
+
+		// An interrupt closes the FileChannel, so the write fails.
+		Thread.currentThread().interrupt();
+		try {
+			journal.commit();
+			fail("Expected the write to fail");
+		} catch (UncheckedIOException e) {
+			// expected
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertEquals(0, journal.getDurablePosition());
+		assertEquals(appended, journal.getAppendedPosition());
+		try {
+			journal.appendExpire(2);
+			fail("Expected append to a failed journal to throw");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			journal.commit();
+			fail("Expected commit of a failed journal to throw");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(appended, journal.getAppendedPosition());
+	}
+
+	@Test
+	public void largeRecordsGrowTheBuffer() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendHold(1, 0L, TestObjectFactory.TEST_EMAIL, new int[100_000]);
+			journal.commit();
+			assertEquals(journal.getAppendedPosition(), Files.size(path));
+		}
+	}
+
+	@Test
+	public void serviceJournalsHoldReserveAndExpire() throws IOException, InterruptedException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1,
+					TimeUnit.SECONDS, null, LockingMode.GLOBAL, journal);
+			SeatHold reserved = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			String confirmationNumber = ticketService.reserveSeats(reserved.getId(), TestObjectFactory.TEST_EMAIL);
+			SeatHold expired = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+
+			assertEquals(journal.getAppendedPosition(), journal.getDurablePosition());
+
+			Thread.sleep(2000);
+			journal.sync();
+
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+			ByteBuffer body = nextBody(buffer);
+			assertEquals(Journal.HOLD, body.get());
+			assertEquals(reserved.getId(), body.getInt());
+
+			body = nextBody(buffer);
+			assertEquals(Journal.RESERVE, body.get());
+			assertEquals(reserved.getId(), body.getInt());
+			assertEquals(confirmationNumber, nextString(body));
+
+			body = nextBody(buffer);
+			assertEquals(Journal.HOLD, body.get());
+			assertEquals(expired.getId(), body.getInt());
+
+			body = nextBody(buffer);
+			assertEquals(Journal.EXPIRE, body.get());
+			assertEquals(expired.getId(), body.getInt());
+		}
+	}
+
+	@Test
+	public void replayReadsRecordsInOrder() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendHold(1, 1234L, TestObjectFactory.TEST_EMAIL, new int[] { 4, 5 });
+			journal.appendReserve(1, "ABC");
+			journal.appendExpire(2);
+		}
+
+		List<String> records = new ArrayList<>();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			assertEquals(3, journal.replay(0, new RecordingHandler(records)));
+		}
+		assertEquals(Arrays.asList("hold 1 1234 " + TestObjectFactory.TEST_EMAIL + " [4, 5]", "reserve 1 ABC",
+				"expire 2"), records);
+	}
+
+	@Test
+	public void replayFromPosition() throws IOException {
+		Path path = folder.newFile().toPath();
+		long position;
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			position = journal.getAppendedPosition();
+			journal.appendExpire(2);
+		}
+
+		List<String> records = new ArrayList<>();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.replay(position, new RecordingHandler(records));
+		}
+		assertEquals(Arrays.asList("expire 2"), records);
+	}
+
+	@Test
+	public void truncateBeforeKeepsLaterRecords() throws IOException {
+		Path path = folder.newFile().toPath();
+		long position;
+		long recordLength;
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			position = journal.getAppendedPosition();
+			journal.appendExpire(2);
+			recordLength = journal.getAppendedPosition() - position;
+			journal.sync();
+
+			journal.truncateBefore(position);
+
+			assertEquals(position, journal.getBasePosition());
+			assertEquals(position + recordLength, journal.getAppendedPosition());
+			assertEquals(Journal.BASE_RECORD_LENGTH + recordLength, Files.size(path));
+			journal.appendExpire(3);
+		}
+
+		List<String> records = new ArrayList<>();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			assertEquals(position, journal.getBasePosition());
+			assertEquals(position + 2 * recordLength, journal.getAppendedPosition());
+			assertEquals(2, journal.replay(position, new RecordingHandler(records)));
+		}
+		assertEquals(Arrays.asList("expire 2", "expire 3"), records);
+		assertEquals(Journal.BASE_RECORD_LENGTH + 2 * recordLength, Files.size(path));
+	}
+
+	@Test
+	public void truncateBeforeTwice() throws IOException {
+		Path path = folder.newFile().toPath();
+		long position;
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			journal.sync();
+			journal.truncateBefore(journal.getAppendedPosition());
+			journal.appendExpire(2);
+			journal.appendExpire(3);
+			journal.sync();
+			position = journal.getAppendedPosition();
+			journal.truncateBefore(position);
+			assertEquals(Journal.BASE_RECORD_LENGTH, Files.size(path));
+		}
+
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			assertEquals(position, journal.getBasePosition());
+			assertEquals(position, journal.getAppendedPosition());
+			assertEquals(0, journal.replay(position, new RecordingHandler(new ArrayList<>())));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void truncateBeforeUnwrittenRecordsShouldThrowIllegalArgument() throws IOException {
+		try (Journal journal = new Journal(folder.newFile().toPath(), Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			journal.truncateBefore(journal.getAppendedPosition());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void replayBeforeTruncationShouldThrowIllegalArgument() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			journal.sync();
+			journal.truncateBefore(journal.getAppendedPosition());
+		}
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.replay(0, new RecordingHandler(new ArrayList<>()));
+		}
+	}
+
+	@Test
+	public void replayCutsOffTornRecord() throws IOException {
+		Path path = folder.newFile().toPath();
+		long position;
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			position = journal.getAppendedPosition();
+			journal.appendHold(2, 0L, TestObjectFactory.TEST_EMAIL, new int[] { 1 });
+		}
+		// Lose the end of the last record, as a crash mid write would.
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(path) - 3);
+		}
+
+		List<String> records = new ArrayList<>();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			assertEquals(1, journal.replay(0, new RecordingHandler(records)));
+			assertEquals(position, journal.getAppendedPosition());
+			journal.appendExpire(3);
+		}
+		assertEquals(2 * position, Files.size(path));
+	}
+
+	@Test
+	public void replayCutsOffCorruptRecord() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+		}
+		byte[] bytes = Files.readAllBytes(path);
+		bytes[6]++;
+		Files.write(path, bytes);
+
+		try (Journal journal = new Journal(path, Durability.GROUP_COMMIT)) {
+			assertEquals(0, journal.replay(0, new RecordingHandler(new ArrayList<>())));
+		}
+		assertEquals(0, Files.size(path));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void replayAfterAppendShouldThrowIllegalState() throws IOException {
+		try (Journal journal = new Journal(folder.newFile().toPath(), Durability.GROUP_COMMIT)) {
+			journal.appendExpire(1);
+			journal.replay(0, new RecordingHandler(new ArrayList<>()));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void replayPastEndShouldThrowIllegalArgument() throws IOException {
+		try (Journal journal = new Journal(folder.newFile().toPath(), Durability.GROUP_COMMIT)) {
+			journal.replay(1, new RecordingHandler(new ArrayList<>()));
+		}
+	}
+
+	// Reads the next record, checks its CRC and returns its body.
+	private static ByteBuffer nextBody(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		byte[] body = new byte[length];
+		buffer.get(body);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		assertEquals((int) crc.getValue(), buffer.getInt());
+		return ByteBuffer.wrap(body);
+	}
+
+	private static String nextString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static final class RecordingHandler implements Journal.RecordHandler {
+
+		private final List<String> records;
+
+		private RecordingHandler(List<String> records) {
+			this.records = records;
+		}
+
+		@Override
+		public void hold(int seatHoldId, long expiresAtMillis, String customerEmail, int[] seatIndexes) {
+			records.add("hold " + seatHoldId + " " + expiresAtMillis + " " + customerEmail + " "
+					+ Arrays.toString(seatIndexes));
+		}
+
+		@Override
+		public void reserve(int seatHoldId, String confirmationNumber) {
+			records.add("reserve " + seatHoldId + " " + confirmationNumber);
+		}
+
+		@Override
+		public void expire(int seatHoldId) {
+			records.add("expire " + seatHoldId);
+		}
+
+	}
+
+}
@@ -0,0 +1,234 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import model.Seat;
+import model.Reservation;
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for Lock Free Ticket Service.
+ * 
+ * @author bstoll
+ *
+ */
+public class LockFreeTicketServiceTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullVenueOnConstruction() {
+		new LockFreeTicketService(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroExpirationTimeOnConstruction() {
+		new LockFreeTicketService(TestObjectFactory.TEST_VENUE, 0, TimeUnit.SECONDS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullExpirationUnitOnConstruction() {
+		new LockFreeTicketService(TestObjectFactory.TEST_VENUE, 1, null);
+	}
+
+	@Test
+	public void testNumSeatsAvailable() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+		assertEquals(TestObjectFactory.LEVEL_3_TOTAL_SEATS, ticketService.numSeatsAvailable(Optional.of(3)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidLevelShouldThrowIllegalArgument() {
+		new LockFreeTicketService(TestObjectFactory.TEST_VENUE).numSeatsAvailable(Optional.of(5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidRangeShouldThrowIllegalArgument() {
+		new LockFreeTicketService(TestObjectFactory.TEST_VENUE).findAndHoldSeats(1, Optional.of(3), Optional.of(2),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testFindAndHold() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1,
+				Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1, seatHold.getNumberOfSeats());
+		assertEquals(0, ticketService.numSeatsAvailable(Optional.of(1)));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 1, ticketService.numSeatsAvailable(Optional.of(2)));
+	}
+
+	@Test
+	public void failedHoldGivesSeatsBack() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1, Optional.of(1),
+				Optional.of(1), TestObjectFactory.TEST_EMAIL);
+
+		assertNull(seatHold);
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, ticketService.numSeatsAvailable(Optional.of(1)));
+	}
+
+	@Test
+	public void testReserve() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		assertNotNull(ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail()));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 5, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testReserveUsesGenerator() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE, 2, TimeUnit.MINUTES,
+				null, () -> "CONFIRMED");
+		SeatHold seatHold = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		assertEquals("CONFIRMED", ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail()));
+		assertNotNull(ticketService.findReservation("CONFIRMED"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullGeneratorOnConstruction() {
+		new LockFreeTicketService(TestObjectFactory.TEST_VENUE, 2, TimeUnit.MINUTES, null, null);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void reserveTwiceShouldThrowIllegalState() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void badEmailOnReserveShouldThrowIllegalState() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), "fake@email.com");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroIdOnReserveShouldThrowIllegalArgument() {
+		new LockFreeTicketService(TestObjectFactory.TEST_VENUE).reserveSeats(0, TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testExpiration() throws InterruptedException {
+		AtomicInteger expired = new AtomicInteger();
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE, 1, TimeUnit.SECONDS,
+				(seatHold) -> expired.incrementAndGet());
+		SeatHold seatHold = ticketService.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 10, ticketService.numSeatsAvailable(Optional.empty()));
+
+		Thread.sleep(2000);
+
+		assertEquals(1, expired.get());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+
+		try {
+			ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+		} catch (IllegalStateException e) {
+			return;
+		}
+		throw new AssertionError("Expired SeatHold should not be reservable");
+	}
+
+	@Test
+	public void reservedHoldDoesNotExpire() throws InterruptedException {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE, 1, TimeUnit.SECONDS);
+		SeatHold seatHold = ticketService.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 10, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void concurrentHoldsNeverShareSeats() throws Exception {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<List<Seat>>> futures = new ArrayList<>();
+		for (int thread = 0; thread < 8; thread++) {
+			Callable<List<Seat>> holder = () -> {
+				List<Seat> seatsHeld = new ArrayList<>();
+				SeatHold seatHold;
+				while ((seatHold = ticketService.findAndHoldSeats(7, Optional.empty(), Optional.empty(),
+						TestObjectFactory.TEST_EMAIL)) != null) {
+					seatsHeld.addAll(seatHold.getSeats());
+				}
+				return seatsHeld;
+			};
+			futures.add(executor.submit(holder));
+		}
+
+		Set<Seat> allSeats = new HashSet<>();
+		int seatsHeld = 0;
+		for (Future<List<Seat>> future : futures) {
+			List<Seat> seats = future.get();
+			seatsHeld += seats.size();
+			allSeats.addAll(seats);
+		}
+		executor.shutdown();
+
+		assertEquals(seatsHeld, allSeats.size());
+		assertTrue(TestObjectFactory.TOTAL_SEATS_IN_VENUE - seatsHeld < 7);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - seatsHeld,
+				ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testFindReservation() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(4, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		String confirmationNumber = ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+
+		Reservation reservation = ticketService.findReservation(confirmationNumber);
+		assertEquals(seatHold.getSeats(), reservation.getSeats());
+		assertEquals(TestObjectFactory.TEST_VENUE.getId(), reservation.getEvent().getId());
+		assertEquals(1, ticketService.findReservations(TestObjectFactory.TEST_EMAIL).size());
+		assertNull(ticketService.findReservation(null));
+	}
+
+	@Test
+	public void shutdownStopsTakingSeatHolds() {
+		LockFreeTicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.shutdown();
+
+		try {
+			ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+			throw new AssertionError("Shut down service should not hold seats");
+		} catch (IllegalStateException e) {
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 2,
+					ticketService.numSeatsAvailable(Optional.empty()));
+		}
+		// Holds made before the shutdown can still be reserved.
+		assertNotNull(ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL));
+	}
+
+}
@@ -0,0 +1,112 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for the MBeans of DefaultTicketService and TicketReserver.
+ * 
+ * @author bstoll
+ *
+ */
+public class MBeansTest {
+
+	private static final String NAME = "MBeansTest";
+
+	private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+	private final DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver());
+
+	@After
+	public void unregister() {
+		ticketService.unregisterMBeans();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyNameShouldThrowIllegalArgument() {
+		ticketService.registerMBeans("");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void registerTwiceShouldThrowIllegalState() {
+		ticketService.registerMBeans(NAME);
+		ticketService.registerMBeans(NAME);
+	}
+
+	@Test
+	public void takenNameShouldThrowIllegalStateAndRegisterNothing() {
+		ticketService.registerMBeans(NAME);
+		DefaultTicketService other = new DefaultTicketService(TestObjectFactory.newReserver());
+		try {
+			other.registerMBeans(NAME);
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		other.unregisterMBeans();
+		assertTrue(server.isRegistered(serviceName()));
+	}
+
+	@Test
+	public void testLevelInventory() throws JMException {
+		ticketService.registerMBeans(NAME);
+		SeatHold reserved = ticketService.findAndHoldSeats(3, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(reserved.getId(), TestObjectFactory.TEST_EMAIL);
+		ticketService.findAndHoldSeats(2, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+
+		ObjectName level1 = new ObjectName(serviceName().getDomain() + ":type=TicketReserver,name="
+				+ ObjectName.quote(NAME) + ",level=1");
+		assertEquals(1, server.getAttribute(level1, "LevelId"));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, server.getAttribute(level1, "TotalSeats"));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS - 5, server.getAttribute(level1, "SeatsAvailable"));
+		assertEquals(2, server.getAttribute(level1, "SeatsHeld"));
+		assertEquals(3, server.getAttribute(level1, "SeatsReserved"));
+
+		assertEquals(4, server.queryNames(new ObjectName(serviceName().getDomain() + ":type=TicketReserver,name="
+				+ ObjectName.quote(NAME) + ",*"), null).size());
+	}
+
+	@Test
+	public void testServiceStatus() throws JMException {
+		ticketService.registerMBeans(NAME);
+		ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+
+		assertEquals(1, server.getAttribute(serviceName(), "OutstandingSeatHolds"));
+		assertEquals(1L, server.getAttribute(serviceName(), "SeatHoldsCreated"));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 2, server.getAttribute(serviceName(), "SeatsAvailable"));
+		assertTrue((Long) server.getAttribute(serviceName(), "OldestSeatHoldAgeMillis") >= 0);
+		assertEquals(0, server.getAttribute(serviceName(), "ExpirationListenerQueueDepth"));
+		assertTrue((Integer) server.getAttribute(serviceName(), "ExpirationQueueDepth") >= 1);
+	}
+
+	@Test
+	public void testUnregister() {
+		ticketService.registerMBeans(NAME);
+		ticketService.unregisterMBeans();
+		assertFalse(server.isRegistered(serviceName()));
+		assertTrue(server.queryNames(MBeans.objectName("TicketReserver", NAME), null).isEmpty());
+
+		// Can be registered again once unregistered.
+		ticketService.registerMBeans(NAME);
+		assertTrue(server.isRegistered(serviceName()));
+	}
+
+	private static ObjectName serviceName() {
+		return MBeans.objectName("DefaultTicketService", NAME);
+	}
+
+}
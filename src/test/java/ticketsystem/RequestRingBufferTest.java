@@ -0,0 +1,99 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Request Ring Buffer Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class RequestRingBufferTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void capacityNotPowerOfTwoOnConstructionShouldThrowIllegalArgument() {
+		new RequestRingBuffer<Integer>(3);
+	}
+
+	@Test
+	public void testOfferAndPollInOrder() {
+		RequestRingBuffer<Integer> ring = new RequestRingBuffer<>(4);
+		assertTrue(ring.isEmpty());
+		assertNull(ring.poll());
+
+		// Go round the ring a few times.
+		for (int i = 0; i < 10; i++) {
+			assertTrue(ring.offer(i));
+			assertTrue(ring.offer(i + 100));
+			assertEquals(2, ring.size());
+			assertEquals(Integer.valueOf(i), ring.poll());
+			assertEquals(Integer.valueOf(i + 100), ring.poll());
+		}
+		assertTrue(ring.isEmpty());
+		assertEquals(0, ring.size());
+	}
+
+	@Test
+	public void testFullRingRejects() {
+		RequestRingBuffer<Integer> ring = new RequestRingBuffer<>(2);
+		assertTrue(ring.offer(1));
+		assertTrue(ring.offer(2));
+		assertFalse(ring.offer(3));
+		assertEquals(2, ring.size());
+
+		assertEquals(Integer.valueOf(1), ring.poll());
+		assertTrue(ring.offer(3));
+		assertEquals(Integer.valueOf(2), ring.poll());
+		assertEquals(Integer.valueOf(3), ring.poll());
+	}
+
+	@Test
+	public void testManyProducers() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 100_000;
+		RequestRingBuffer<Integer> ring = new RequestRingBuffer<>(64);
+		List<Thread> threads = new ArrayList<>();
+		for (int producer = 0; producer < producers; producer++) {
+			int first = producer * perProducer;
+			Thread thread = new Thread(() -> {
+				for (int i = first; i < first + perProducer; i++) {
+					while (!ring.offer(i)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		// Each producer's elements must come out in the order it offered them.
+		int[] last = new int[producers];
+		for (int producer = 0; producer < producers; producer++) {
+			last[producer] = producer * perProducer - 1;
+		}
+		for (int taken = 0; taken < producers * perProducer;) {
+			Integer element = ring.poll();
+			if (element == null) {
+				Thread.yield();
+				continue;
+			}
+			int producer = element / perProducer;
+			assertEquals(last[producer] + 1, element.intValue());
+			last[producer] = element;
+			taken++;
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(ring.isEmpty());
+	}
+
+}
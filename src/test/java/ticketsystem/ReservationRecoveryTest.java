@@ -0,0 +1,340 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import model.Event;
+import model.Reservation;
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for restarting a DefaultTicketService from its snapshot and
+ * journal.
+ *
+ * @author bstoll
+ *
+ */
+public class ReservationRecoveryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void recoverFromJournalOnly() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		SeatHold held;
+		SeatHold reserved;
+		String confirmationNumber;
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			reserved = ticketService.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			confirmationNumber = ticketService.reserveSeats(reserved.getId(), TestObjectFactory.TEST_EMAIL);
+			held = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		}
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			assertEquals(1, ticketService.recover(snapshotPath));
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 15,
+					ticketService.numSeatsAvailable(Optional.empty()));
+			assertEquals(reserved.getSeats(), ticketService.findReservation(confirmationNumber).getSeats());
+
+			assertNotNull(ticketService.reserveSeats(held.getId(), TestObjectFactory.TEST_EMAIL));
+			assertEquals(2, ticketService.findReservations(TestObjectFactory.TEST_EMAIL).size());
+			SeatHold next = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			assertEquals(held.getId() + 1, next.getId());
+		}
+	}
+
+	@Test
+	public void recoverSkipsPastReplayedConfirmationNumbers() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		String confirmationNumber;
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			confirmationNumber = ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+		}
+
+		List<String> skipped = new ArrayList<>();
+		ConfirmationNumberGenerator confirmationNumbers = new ConfirmationNumberGenerator() {
+
+			@Override
+			public String next() {
+				return "NEXT";
+			}
+
+			@Override
+			public void skipPast(String replayed) {
+				skipped.add(replayed);
+			}
+
+		};
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			TicketReserver ticketReserver = new TicketReserver(
+					new Event(TestObjectFactory.TEST_VENUE.getId(), TestObjectFactory.TEST_NAME,
+							TestObjectFactory.TEST_VENUE),
+					SeatAllocation.FIRST_AVAILABLE, confirmationNumbers);
+			DefaultTicketService ticketService = new DefaultTicketService(ticketReserver, 2, TimeUnit.MINUTES, null,
+					LockingMode.PER_LEVEL, journal);
+			ticketService.recover(snapshotPath);
+		}
+		assertEquals(Collections.singletonList(confirmationNumber), skipped);
+	}
+
+	@Test
+	public void recoverFromSingleWriterJournal() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		SeatHold held;
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2,
+					TimeUnit.MINUTES, null, LockingMode.SINGLE_WRITER, journal);
+			SeatHold reserved = ticketService.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			ticketService.reserveSeats(reserved.getId(), TestObjectFactory.TEST_EMAIL);
+			held = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+			assertEquals(journal.getAppendedPosition(), journal.getDurablePosition());
+		}
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			assertEquals(1, ticketService.recover(snapshotPath));
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 15,
+					ticketService.numSeatsAvailable(Optional.empty()));
+			assertNotNull(ticketService.reserveSeats(held.getId(), TestObjectFactory.TEST_EMAIL));
+		}
+	}
+
+	@Test
+	public void recoverFromSnapshotAndJournal() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		SeatHold heldBeforeSnapshot;
+		SeatHold heldAfterSnapshot;
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			SeatHold reserved = ticketService.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			ticketService.reserveSeats(reserved.getId(), TestObjectFactory.TEST_EMAIL);
+			heldBeforeSnapshot = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			SeatHold reservedAfterSnapshot = ticketService.findAndHoldSeats(3, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+
+			ticketService.writeSnapshot(snapshotPath);
+
+			ticketService.reserveSeats(reservedAfterSnapshot.getId(), TestObjectFactory.TEST_EMAIL);
+			heldAfterSnapshot = ticketService.findAndHoldSeats(2, Optional.of(2), Optional.of(2),
+					TestObjectFactory.TEST_EMAIL);
+		}
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			assertEquals(2, ticketService.recover(snapshotPath));
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 20,
+					ticketService.numSeatsAvailable(Optional.empty()));
+			assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 2, ticketService.numSeatsAvailable(Optional.of(2)));
+
+			assertNotNull(ticketService.reserveSeats(heldBeforeSnapshot.getId(), TestObjectFactory.TEST_EMAIL));
+			assertNotNull(ticketService.reserveSeats(heldAfterSnapshot.getId(), TestObjectFactory.TEST_EMAIL));
+		}
+	}
+
+	@Test
+	public void snapshotTruncatesJournal() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		SeatHold held;
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			for (int i = 0; i < 100; i++) {
+				SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+						TestObjectFactory.TEST_EMAIL);
+				ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+			}
+			long journalSize = Files.size(journalPath);
+
+			ticketService.writeSnapshot(snapshotPath);
+
+			assertEquals(Journal.BASE_RECORD_LENGTH, Files.size(journalPath));
+			assertEquals(journalSize, journal.getBasePosition());
+
+			held = ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+		}
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			assertEquals(1, ticketService.recover(snapshotPath));
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 205,
+					ticketService.numSeatsAvailable(Optional.empty()));
+			assertNotNull(ticketService.reserveSeats(held.getId(), TestObjectFactory.TEST_EMAIL));
+		}
+	}
+
+	@Test
+	public void reservationsBeforeSnapshotAreFound() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		SeatHold first;
+		SeatHold second;
+		String firstConfirmation;
+		String secondConfirmation;
+		String afterSnapshotConfirmation;
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			first = ticketService.findAndHoldSeats(3, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+			second = ticketService.findAndHoldSeats(4, Optional.of(2), Optional.of(2), TestObjectFactory.TEST_EMAIL);
+			firstConfirmation = ticketService.reserveSeats(first.getId(), TestObjectFactory.TEST_EMAIL);
+			secondConfirmation = ticketService.reserveSeats(second.getId(), TestObjectFactory.TEST_EMAIL);
+
+			ticketService.writeSnapshot(snapshotPath);
+
+			SeatHold afterSnapshot = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			afterSnapshotConfirmation = ticketService.reserveSeats(afterSnapshot.getId(),
+					TestObjectFactory.TEST_EMAIL);
+		}
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			assertEquals(0, ticketService.recover(snapshotPath));
+
+			Reservation reservation = ticketService.findReservation(firstConfirmation);
+			assertNotNull(reservation);
+			assertEquals(first.getId(), reservation.getSeatHold().getId());
+			assertEquals(first.getSeats(), reservation.getSeats());
+			assertEquals(TestObjectFactory.TEST_EMAIL, reservation.getCustomerEmail());
+			assertEquals(second.getSeats(), ticketService.findReservation(secondConfirmation).getSeats());
+
+			List<String> confirmationNumbers = new ArrayList<>();
+			for (Reservation customerReservation : ticketService.findReservations(TestObjectFactory.TEST_EMAIL)) {
+				confirmationNumbers.add(customerReservation.getConfirmationNumber());
+			}
+			assertEquals(Arrays.asList(firstConfirmation, secondConfirmation, afterSnapshotConfirmation),
+					confirmationNumbers);
+		}
+	}
+
+	@Test
+	public void snapshotKeepsLastConfirmationNumber() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+		Event event = new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE);
+
+		String confirmationNumber;
+		TimeBasedConfirmationNumberGenerator before = new TimeBasedConfirmationNumberGenerator(9);
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = new DefaultTicketService(
+					new TicketReserver(event, SeatAllocation.FIRST_AVAILABLE, before), 2, TimeUnit.MINUTES, null,
+					LockingMode.PER_LEVEL, journal);
+			SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			confirmationNumber = ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+			// The journal no longer holds the reservation afterwards.
+			ticketService.writeSnapshot(snapshotPath);
+		}
+
+		TimeBasedConfirmationNumberGenerator after = new TimeBasedConfirmationNumberGenerator(9);
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = new DefaultTicketService(
+					new TicketReserver(event, SeatAllocation.FIRST_AVAILABLE, after), 2, TimeUnit.MINUTES, null,
+					LockingMode.PER_LEVEL, journal);
+			ticketService.recover(snapshotPath);
+		}
+		assertEquals(confirmationNumber, after.lastIssued());
+		assertTrue(confirmationNumber.substring(0, 13).compareTo(after.next().substring(0, 13)) < 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void recoverTruncatedJournalWithoutSnapshotShouldThrowIllegalState() throws IOException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = newService(journal);
+			ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+			ticketService.writeSnapshot(snapshotPath);
+		}
+		Files.delete(snapshotPath);
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			newService(journal).recover(snapshotPath);
+		}
+	}
+
+	@Test
+	public void recoveredSeatHoldsStillExpire() throws IOException, InterruptedException {
+		Path journalPath = folder.getRoot().toPath().resolve("journal");
+		Path snapshotPath = folder.getRoot().toPath().resolve("snapshot");
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1,
+					TimeUnit.SECONDS, null, LockingMode.GLOBAL, journal);
+			ticketService.findAndHoldSeats(5, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		}
+
+		try (Journal journal = new Journal(journalPath, Durability.GROUP_COMMIT)) {
+			DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1,
+					TimeUnit.SECONDS, null, LockingMode.GLOBAL, journal);
+			assertEquals(1, ticketService.recover(snapshotPath));
+
+			Thread.sleep(2000);
+
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+		}
+	}
+
+	@Test
+	public void recoverWithoutJournalOrSnapshot() throws IOException {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver());
+		assertEquals(0, ticketService.recover(folder.getRoot().toPath().resolve("snapshot")));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void recoverAfterUseShouldThrowIllegalState() throws IOException {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver());
+		ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		ticketService.recover(folder.getRoot().toPath().resolve("snapshot"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void recoverNullSnapshotShouldThrowIllegalArgument() throws IOException {
+		new DefaultTicketService(TestObjectFactory.newReserver()).recover(null);
+	}
+
+	private static DefaultTicketService newService(Journal journal) {
+		return new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES, null,
+				LockingMode.PER_LEVEL, journal);
+	}
+
+}
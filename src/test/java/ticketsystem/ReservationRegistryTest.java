@@ -0,0 +1,131 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import model.Event;
+import model.Reservation;
+import model.SeatHold;
+import model.SeatRegistry;
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for ReservationRegistry.
+ *
+ * @author bstoll
+ *
+ */
+public class ReservationRegistryTest {
+
+	private static final Event TEST_EVENT = new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE);
+
+	@Test
+	public void testGetByConfirmationNumber() {
+		ReservationRegistry reservations = new ReservationRegistry();
+		Reservation reservation = reservations.add("A", TEST_EVENT, newSeatHold(1, TestObjectFactory.TEST_EMAIL, 0));
+
+		assertSame(reservation, reservations.get("A"));
+		assertEquals("A", reservation.getConfirmationNumber());
+		assertSame(TEST_EVENT, reservation.getEvent());
+		assertNull(reservations.get("B"));
+		assertNull(reservations.get(null));
+		assertEquals(1, reservations.size());
+	}
+
+	@Test
+	public void testGetByCustomerEmail() {
+		ReservationRegistry reservations = new ReservationRegistry();
+		reservations.add("A", TEST_EVENT, newSeatHold(1, TestObjectFactory.TEST_EMAIL, 0));
+		reservations.add("B", TEST_EVENT, newSeatHold(2, "other@test.com", 1));
+		reservations.add("C", TEST_EVENT, newSeatHold(3, TestObjectFactory.TEST_EMAIL, 2));
+
+		List<Reservation> found = reservations.getByCustomerEmail(TestObjectFactory.TEST_EMAIL);
+		assertEquals(2, found.size());
+		assertEquals("A", found.get(0).getConfirmationNumber());
+		assertEquals("C", found.get(1).getConfirmationNumber());
+		assertTrue(reservations.getByCustomerEmail("nobody@test.com").isEmpty());
+		assertTrue(reservations.getByCustomerEmail(null).isEmpty());
+	}
+
+	@Test
+	public void testManyReservationsOfOneCustomer() {
+		ReservationRegistry reservations = new ReservationRegistry();
+		reservations.add("0", TEST_EVENT, newSeatHold(1, TestObjectFactory.TEST_EMAIL, 0));
+		List<Reservation> before = reservations.getByCustomerEmail(TestObjectFactory.TEST_EMAIL);
+		for (int i = 1; i < 10_000; i++) {
+			reservations.add(Integer.toString(i), TEST_EVENT,
+					newSeatHold(i + 1, TestObjectFactory.TEST_EMAIL, i % TestObjectFactory.TOTAL_SEATS_IN_VENUE));
+		}
+
+		List<Reservation> found = reservations.getByCustomerEmail(TestObjectFactory.TEST_EMAIL);
+		assertEquals(10_000, found.size());
+		for (int i = 0; i < found.size(); i++) {
+			assertEquals(Integer.toString(i), found.get(i).getConfirmationNumber());
+		}
+		// Lists handed out earlier do not change.
+		assertEquals(1, before.size());
+	}
+
+	@Test
+	public void testConcurrentReservationsOfOneCustomer() throws InterruptedException {
+		ReservationRegistry reservations = new ReservationRegistry();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int thread = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					reservations.add(thread + "-" + i, TEST_EVENT,
+							newSeatHold(thread * 1000 + i + 1, TestObjectFactory.TEST_EMAIL, i));
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(4000, reservations.size());
+		assertEquals(4000, new HashSet<>(reservations.getByCustomerEmail(TestObjectFactory.TEST_EMAIL)).size());
+	}
+
+	@Test
+	public void testCustomerEmailIsShared() {
+		ReservationRegistry reservations = new ReservationRegistry();
+		reservations.add("A", TEST_EVENT, newSeatHold(1, new String(TestObjectFactory.TEST_EMAIL), 0));
+		Reservation second = reservations.add("B", TEST_EVENT,
+				newSeatHold(2, new String(TestObjectFactory.TEST_EMAIL), 1));
+
+		assertSame(reservations.get("A").getCustomerEmail(), second.getCustomerEmail());
+		assertSame(second.getCustomerEmail(), second.getSeatHold().getCustomerEmail());
+		assertEquals(2, second.getSeatHold().getId());
+		assertSame(TestObjectFactory.TEST_VENUE.getSeatRegistry().getSeat(1), second.getSeats().get(0));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void duplicateConfirmationNumberShouldThrowIllegalState() {
+		ReservationRegistry reservations = new ReservationRegistry();
+		reservations.add("A", TEST_EVENT, newSeatHold(1, TestObjectFactory.TEST_EMAIL, 0));
+		reservations.add("A", TEST_EVENT, newSeatHold(2, "other@test.com", 1));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void modifyingCustomerReservationsShouldThrowUnsupportedOperation() {
+		ReservationRegistry reservations = new ReservationRegistry();
+		reservations.add("A", TEST_EVENT, newSeatHold(1, TestObjectFactory.TEST_EMAIL, 0));
+		reservations.getByCustomerEmail(TestObjectFactory.TEST_EMAIL).clear();
+	}
+
+	private static SeatHold newSeatHold(int id, String customerEmail, int seatId) {
+		SeatRegistry seatRegistry = TestObjectFactory.TEST_VENUE.getSeatRegistry();
+		return new SeatHold(id, customerEmail, seatRegistry, new int[] { seatId });
+	}
+
+}
@@ -0,0 +1,144 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import model.Level;
+import model.Seat;
+import model.SeatHold;
+import model.Venue;
+import util.TestObjectFactory;
+
+/**
+ * Seat Availability Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class SeatAvailabilityTest {
+
+	@Test
+	public void testInitialAvailability() {
+		SeatAvailability availability = TestObjectFactory.newReserver().getSeatAvailability();
+		assertEquals(0, availability.getEpoch());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, availability.getNumberOfSeatsAvailable());
+		assertEquals(TestObjectFactory.LEVEL_3_TOTAL_SEATS, availability.getNumberOfSeatsAvailable(3));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, availability.getAvailableSeats(1).size());
+		assertTrue(availability.isAvailable(TestObjectFactory.TEST_SEATS.get(0)));
+	}
+
+	@Test
+	public void testHoldPublishesNewEpoch() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatAvailability before = reserver.getSeatAvailability();
+
+		SeatHold seatHold = reserver.findAndHoldSeats(3, Optional.of(2), Optional.of(2), TestObjectFactory.TEST_EMAIL);
+		SeatAvailability after = reserver.getSeatAvailability();
+
+		assertEquals(1, after.getEpoch());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 3, after.getNumberOfSeatsAvailable());
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 3, after.getNumberOfSeatsAvailable(2));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, after.getNumberOfSeatsAvailable(1));
+		for (Seat seat : seatHold.getSeats()) {
+			assertFalse(after.isAvailable(seat));
+			assertTrue(before.isAvailable(seat));
+		}
+		assertFalse(after.getAvailableSeats(2).containsAll(seatHold.getSeats()));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 3, after.getAvailableSeats(2).size());
+
+		// The earlier version is never changed.
+		assertEquals(0, before.getEpoch());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, before.getNumberOfSeatsAvailable());
+	}
+
+	@Test
+	public void testReserveDoesNotPublish() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		SeatAvailability held = reserver.getSeatAvailability();
+		reserver.reserveSeats(seatHold);
+		assertSame(held, reserver.getSeatAvailability());
+	}
+
+	@Test
+	public void testExpireSeatHoldsPublishesOnce() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold first = reserver.findAndHoldSeats(5, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+		SeatHold second = reserver.findAndHoldSeats(5, Optional.of(4), Optional.of(4), TestObjectFactory.TEST_EMAIL);
+		assertEquals(2, reserver.getSeatAvailability().getEpoch());
+
+		reserver.expireSeatHolds(Arrays.asList(first, second));
+		SeatAvailability availability = reserver.getSeatAvailability();
+
+		assertEquals(3, availability.getEpoch());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, availability.getNumberOfSeatsAvailable());
+		assertTrue(availability.isAvailable(first.getSeats().get(0)));
+		assertTrue(availability.isAvailable(second.getSeats().get(0)));
+	}
+
+	@Test
+	public void testFailedExpirePublishesWhatWasCleared() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(2, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+		Seat other = reserver.getSeatAvailability().getAvailableSeats(1).get(0);
+		SeatHold bad = new SeatHold(seatHold.getId(), TestObjectFactory.TEST_EMAIL,
+				Arrays.asList(seatHold.getSeats().get(0), other));
+		try {
+			reserver.expireSeatHold(bad);
+		} catch (IllegalStateException e) {
+			// Expected, the second seat is not held.
+		}
+		SeatAvailability availability = reserver.getSeatAvailability();
+		assertTrue(availability.isAvailable(seatHold.getSeats().get(0)));
+		assertFalse(availability.isAvailable(seatHold.getSeats().get(1)));
+		assertEquals(reserver.numberOfSeatsAvailable(Optional.empty()), availability.getNumberOfSeatsAvailable());
+	}
+
+	@Test
+	public void testLevelLargerThanABlock() {
+		int seatsInRow = 100;
+		int rows = 3 * LevelAvailability.BLOCK_SEATS / seatsInRow;
+		Level level = new Level(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_PRICE, rows, seatsInRow);
+		TicketReserver reserver = new TicketReserver(new Venue(1, TestObjectFactory.TEST_NAME,
+				Arrays.asList(level)));
+
+		// Take every seat but the last of each row, past the end of the first block.
+		int heldRows = LevelAvailability.BLOCK_SEATS / seatsInRow + 2;
+		for (int row = 0; row < heldRows; row++) {
+			reserver.findAndHoldSeats(seatsInRow - 1, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			reserver.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		}
+		SeatHold last = reserver.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		reserver.expireSeatHold(last);
+
+		SeatAvailability availability = reserver.getSeatAvailability();
+		List<Seat> availableSeats = availability.getAvailableSeats(1);
+		assertEquals(reserver.numberOfSeatsAvailable(Optional.empty()), availableSeats.size());
+		assertEquals(last.getSeats().get(0), availableSeats.get(0));
+		assertEquals(rows * seatsInRow - heldRows * seatsInRow, availableSeats.size());
+		assertEquals(level.getSeats().get(level.getSeats().size() - 1), availableSeats.get(availableSeats.size() - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownLevelShouldThrowIllegalArgument() {
+		TestObjectFactory.newReserver().getSeatAvailability().getNumberOfSeatsAvailable(5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownSeatShouldThrowIllegalArgument() {
+		TestObjectFactory.newReserver().getSeatAvailability()
+				.isAvailable(new Seat(1, TestObjectFactory.LEVEL_1_ROWS + 1, 1, TestObjectFactory.TEST_PRICE));
+	}
+
+}
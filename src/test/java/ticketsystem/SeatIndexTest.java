@@ -0,0 +1,83 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import model.Seat;
+import util.TestObjectFactory;
+
+/**
+ * Seat Index Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class SeatIndexTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullVenueOnConstructionShouldThrowIllegalArgument() {
+		new SeatIndex(null);
+	}
+
+	@Test
+	public void testSize() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, seatIndex.size());
+		assertEquals(4, seatIndex.getNumberOfLevels());
+	}
+
+	@Test
+	public void testLevelRanges() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		assertEquals(0, seatIndex.levelStart(0));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, seatIndex.levelEnd(0));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, seatIndex.levelStart(1));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, seatIndex.levelEnd(3));
+	}
+
+	@Test
+	public void testLevelOrdinal() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		assertEquals(0, seatIndex.levelOrdinal(1));
+		assertEquals(3, seatIndex.levelOrdinal(4));
+		assertEquals(-1, seatIndex.levelOrdinal(5));
+		assertEquals(4, seatIndex.levelId(3));
+	}
+
+	@Test
+	public void testLevelOrdinalOf() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		assertEquals(0, seatIndex.levelOrdinalOf(0));
+		assertEquals(0, seatIndex.levelOrdinalOf(TestObjectFactory.LEVEL_1_TOTAL_SEATS - 1));
+		assertEquals(1, seatIndex.levelOrdinalOf(TestObjectFactory.LEVEL_1_TOTAL_SEATS));
+		assertEquals(3, seatIndex.levelOrdinalOf(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 1));
+	}
+
+	@Test
+	public void indexOfAndSeatAtRoundTrip() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		for (int index = 0; index < seatIndex.size(); index++) {
+			assertEquals(index, seatIndex.indexOf(seatIndex.seatAt(index)));
+		}
+	}
+
+	@Test
+	public void indexOrderMatchesSeatOrder() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		for (int index = 1; index < seatIndex.size(); index++) {
+			assertEquals(-1, Integer.signum(seatIndex.seatAt(index - 1).compareTo(seatIndex.seatAt(index))));
+		}
+	}
+
+	@Test
+	public void seatNotInVenueShouldReturnNegative() {
+		SeatIndex seatIndex = new SeatIndex(TestObjectFactory.TEST_VENUE);
+		assertEquals(-1, seatIndex.indexOf(new Seat(6, 1, 1, TestObjectFactory.TEST_PRICE)));
+		assertEquals(-1, seatIndex.indexOf(
+				new Seat(1, TestObjectFactory.LEVEL_1_ROWS + 1, 1, TestObjectFactory.TEST_PRICE)));
+		assertEquals(-1, seatIndex.indexOf(
+				new Seat(1, 1, TestObjectFactory.LEVEL_1_SEATS_PER_ROW + 1, TestObjectFactory.TEST_PRICE)));
+	}
+
+}
@@ -0,0 +1,123 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import util.TestObjectFactory;
+
+/**
+ * Seat State Store Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class SeatStateStoreTest {
+
+	private static SeatStateStore newStore() {
+		return new SeatStateStore(new SeatIndex(TestObjectFactory.TEST_VENUE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullSeatIndexOnConstructionShouldThrowIllegalArgument() {
+		new SeatStateStore(null);
+	}
+
+	@Test
+	public void testValidConstruction() {
+		SeatStateStore store = newStore();
+		assertTrue(store.isAvailable(0));
+		assertFalse(store.isHeld(0));
+		assertFalse(store.isReserved(0));
+		assertEquals(-1, store.getSeatHoldId(0));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, store.getNumberOfSeatsAvailable());
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS, store.getNumberOfSeatsAvailable(1));
+	}
+
+	@Test
+	public void testHold() {
+		SeatStateStore store = newStore();
+		store.hold(TestObjectFactory.LEVEL_1_TOTAL_SEATS, 7);
+		assertTrue(store.isHeld(TestObjectFactory.LEVEL_1_TOTAL_SEATS));
+		assertFalse(store.isReserved(TestObjectFactory.LEVEL_1_TOTAL_SEATS));
+		assertEquals(7, store.getSeatHoldId(TestObjectFactory.LEVEL_1_TOTAL_SEATS));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, store.getNumberOfSeatsAvailable(0));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 1, store.getNumberOfSeatsAvailable(1));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 1, store.getNumberOfSeatsAvailable());
+	}
+
+	@Test
+	public void testHoldLargestId() {
+		SeatStateStore store = newStore();
+		store.hold(0, SeatStateStore.MAX_SEAT_HOLD_ID);
+		store.reserve(0, SeatStateStore.MAX_SEAT_HOLD_ID);
+		assertEquals(SeatStateStore.MAX_SEAT_HOLD_ID, store.getSeatHoldId(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroIdOnHoldShouldThrowIllegalArgument() {
+		newStore().hold(0, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeIdOnHoldShouldThrowIllegalArgument() {
+		newStore().hold(0, SeatStateStore.MAX_SEAT_HOLD_ID + 1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void ifAlreadyHeldOnHoldShouldThrowIllegalState() {
+		SeatStateStore store = newStore();
+		store.hold(0, 1);
+		store.hold(0, 1);
+	}
+
+	@Test
+	public void testReserve() {
+		SeatStateStore store = newStore();
+		store.hold(0, 1);
+		store.reserve(0, 1);
+		assertTrue(store.isHeld(0));
+		assertTrue(store.isReserved(0));
+		assertEquals(1, store.getSeatHoldId(0));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 1, store.getNumberOfSeatsAvailable());
+		assertEquals(1, store.getNumberOfSeatsReserved(0));
+		assertEquals(0, store.getNumberOfSeatsReserved(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void idDoesntMatchHeldIdOnReserveShouldThrowIllegalArgument() {
+		SeatStateStore store = newStore();
+		store.hold(0, 1);
+		store.reserve(0, 2);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void ifNotAlreadyHeldOnReserveShouldThrowIllegalState() {
+		newStore().reserve(0, 1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void ifAlreadyReservedOnReserveShouldThrowIllegalState() {
+		SeatStateStore store = newStore();
+		store.hold(0, 1);
+		store.reserve(0, 1);
+		store.reserve(0, 1);
+	}
+
+	@Test
+	public void testClear() {
+		SeatStateStore store = newStore();
+		store.hold(0, 1);
+		store.reserve(0, 1);
+		store.clear(0);
+		store.clear(0);
+
+		assertTrue(store.isAvailable(0));
+		assertEquals(-1, store.getSeatHoldId(0));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, store.getNumberOfSeatsAvailable());
+		assertEquals(0, store.getNumberOfSeatsReserved(0));
+	}
+
+}
@@ -0,0 +1,218 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import model.Event;
+import model.HoldRequest;
+import model.HoldResult;
+import model.Reservation;
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Sharded Ticket Service Unit Tests.
+ *
+ * @author bstoll
+ *
+ */
+public class ShardedTicketServiceTest {
+
+	private ShardedTicketService service;
+
+	@After
+	public void shutdown() {
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEventInventoryOnConstructionShouldThrowIllegalArgument() {
+		new ShardedTicketService(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroShardsOnConstructionShouldThrowIllegalArgument() {
+		new ShardedTicketService(new EventInventory(TestObjectFactory.TEST_VENUE), 0, 1, TimeUnit.MINUTES, null,
+				LockingMode.GLOBAL);
+	}
+
+	@Test
+	public void testSingleWriterPerEvent() {
+		service = new ShardedTicketService(new EventInventory(TestObjectFactory.TEST_VENUE), 2, 1, TimeUnit.MINUTES,
+				null, LockingMode.SINGLE_WRITER);
+		service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		service.addEvent(new Event(2, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		SeatHold seatHold = service.findAndHoldSeats(2, 3, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		assertNotNull(service.reserveSeats(2, seatHold.getId(), TestObjectFactory.TEST_EMAIL));
+
+		TicketService removed = service.getTicketService(1);
+		assertTrue(service.removeEvent(1));
+		try {
+			removed.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+			throw new AssertionError("Removed Event should not hold seats");
+		} catch (IllegalStateException e) {
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 3,
+					service.numSeatsAvailable(2, Optional.empty()));
+		}
+	}
+
+	@Test
+	public void testEventsAreRoutedToShards() {
+		service = newService(4, 2, TimeUnit.MINUTES, null);
+		assertEquals(4, service.getNumberOfShards());
+		assertEquals(1, service.shardOf(1));
+		assertEquals(0, service.shardOf(8));
+		assertEquals(3, service.shardOf(-1));
+
+		for (int eventId = 1; eventId <= 8; eventId++) {
+			service.addEvent(new Event(eventId, "Show " + eventId, TestObjectFactory.TEST_VENUE));
+		}
+		assertEquals(8, service.getEventInventory().getNumberOfEvents());
+
+		SeatHold seatHold = service.findAndHoldSeats(3, 10, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 10, service.numSeatsAvailable(3, Optional.empty()));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, service.numSeatsAvailable(7, Optional.empty()));
+		assertNotNull(service.reserveSeats(3, seatHold.getId(), TestObjectFactory.TEST_EMAIL));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 10,
+				service.getTicketService(3).numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testBatchHoldsAreRoutedToTheEvent() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		service.addEvent(new Event(2, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+
+		List<HoldResult> results = service.findAndHoldSeats(2,
+				Arrays.asList(new HoldRequest(4, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL),
+						new HoldRequest(6, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL)));
+		assertTrue(results.get(0).isHeld());
+		assertTrue(results.get(1).isHeld());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 10, service.numSeatsAvailable(2, Optional.empty()));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, service.numSeatsAvailable(1, Optional.empty()));
+	}
+
+	@Test
+	public void testEventsAlreadyInTheInventoryAreServed() {
+		EventInventory inventory = new EventInventory(TestObjectFactory.TEST_VENUE);
+		inventory.addEvent(new Event(5, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		service = new ShardedTicketService(inventory, 2, 2, TimeUnit.MINUTES, null, LockingMode.PER_LEVEL);
+		assertNotNull(service.getTicketService(5));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, service.numSeatsAvailable(5, Optional.empty()));
+	}
+
+	@Test
+	public void testRemoveEvent() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		TicketService ticketService = service.addEvent(
+				new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		assertSame(ticketService, service.getTicketService(1));
+
+		assertTrue(service.removeEvent(1));
+		assertFalse(service.removeEvent(1));
+		assertNull(service.getTicketService(1));
+		assertNull(service.getEventInventory().getReserver(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownEventShouldThrowIllegalArgument() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		service.findAndHoldSeats(1, 1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void duplicateEventShouldThrowIllegalState() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+	}
+
+	@Test
+	public void addEventAfterShutdownLeavesInventoryAlone() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		service.shutdown();
+		try {
+			service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+			fail("Expected addEvent after shutdown to throw");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertNull(service.getEventInventory().getReserver(1));
+		assertNull(service.getTicketService(1));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void requestAfterShutdownShouldThrowIllegalState() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		SeatHold seatHold = service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE))
+				.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		service.shutdown();
+		service.reserveSeats(1, seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void holdsExpireOnEveryShard() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(4);
+		service = newService(2, 50, TimeUnit.MILLISECONDS, seatHold -> expired.countDown());
+		for (int eventId = 1; eventId <= 4; eventId++) {
+			service.addEvent(new Event(eventId, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+			service.findAndHoldSeats(eventId, 2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		}
+
+		assertTrue(expired.await(5, TimeUnit.SECONDS));
+		for (int eventId = 1; eventId <= 4; eventId++) {
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE,
+					service.numSeatsAvailable(eventId, Optional.empty()));
+		}
+	}
+
+	@Test
+	public void testReservationsAreFoundAcrossEvents() {
+		service = newService(2, 2, TimeUnit.MINUTES, null);
+		service.addEvent(new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+		service.addEvent(new Event(2, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE));
+
+		SeatHold first = service.findAndHoldSeats(1, 2, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		String firstConfirmation = service.reserveSeats(1, first.getId(), TestObjectFactory.TEST_EMAIL);
+		SeatHold second = service.findAndHoldSeats(2, 3, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		String secondConfirmation = service.reserveSeats(2, second.getId(), TestObjectFactory.TEST_EMAIL);
+
+		assertEquals(1, service.findReservation(firstConfirmation).getEvent().getId());
+		assertEquals(2, service.findReservation(secondConfirmation).getEvent().getId());
+		assertSame(service.findReservation(secondConfirmation),
+				service.getTicketService(1).findReservation(secondConfirmation));
+
+		List<Reservation> reservations = service.findReservations(TestObjectFactory.TEST_EMAIL);
+		assertEquals(2, reservations.size());
+		assertEquals(firstConfirmation, reservations.get(0).getConfirmationNumber());
+		assertEquals(secondConfirmation, reservations.get(1).getConfirmationNumber());
+	}
+
+	private static ShardedTicketService newService(int shards, long expirationTime, TimeUnit expirationUnits,
+			Consumer<SeatHold> expirationListener) {
+		return new ShardedTicketService(new EventInventory(TestObjectFactory.TEST_VENUE), shards, expirationTime,
+				expirationUnits, expirationListener, LockingMode.GLOBAL);
+	}
+
+}
@@ -0,0 +1,74 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit Tests for SingleWriterReservationLock.
+ *
+ * @author bstoll
+ *
+ */
+public class SingleWriterReservationLockTest {
+
+	@Test
+	public void testActionsRunOnWriter() {
+		SingleWriterReservationLock lock = newLock();
+		try {
+			Thread caller = Thread.currentThread();
+			assertTrue(lock.withLevels(1, 1, () -> Thread.currentThread() != caller));
+			assertEquals(Integer.valueOf(5), lock.withLevels(1, 1, () -> lock.withLevels(1, 1, () -> 5)));
+		} finally {
+			lock.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void actionAfterShutdownShouldThrowIllegalState() {
+		SingleWriterReservationLock lock = newLock();
+		lock.shutdown();
+		lock.withLevels(1, 1, () -> 1);
+	}
+
+	@Test
+	public void callersRacingShutdownAreNeverLeftWaiting() throws Exception {
+		SingleWriterReservationLock lock = newLock();
+		AtomicInteger ran = new AtomicInteger();
+		AtomicInteger refused = new AtomicInteger();
+		ExecutorService callers = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			futures.add(callers.submit(() -> {
+				for (int j = 0; j < 10_000; j++) {
+					try {
+						lock.withLevels(1, 1, ran::incrementAndGet);
+					} catch (IllegalStateException e) {
+						refused.incrementAndGet();
+					}
+				}
+			}));
+		}
+		lock.shutdown();
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		callers.shutdown();
+
+		assertEquals(40_000, ran.get() + refused.get());
+	}
+
+	private static SingleWriterReservationLock newLock() {
+		return new SingleWriterReservationLock(new TicketServiceMetrics(() -> 0, () -> 0), null);
+	}
+
+}
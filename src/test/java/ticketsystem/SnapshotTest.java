@@ -0,0 +1,105 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for Snapshot.
+ *
+ * @author bstoll
+ *
+ */
+public class SnapshotTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void writeAndRead() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("snapshot");
+		int[] states = { 0, 0, 2 << 1, 2 << 1, (3 << 1) | 1, 0 };
+		Snapshot.ActiveSeatHold active = new Snapshot.ActiveSeatHold(2, 1234L, TestObjectFactory.TEST_EMAIL);
+		Snapshot.ReservedSeatHold reserved = new Snapshot.ReservedSeatHold(3, "13ZJPEQXC0400=",
+				TestObjectFactory.TEST_EMAIL);
+		new Snapshot(42L, 3, "13ZJPEQXC0400=", states, Collections.singletonList(active),
+				Collections.singletonList(reserved)).write(path);
+
+		Snapshot snapshot = Snapshot.read(path);
+
+		assertEquals(42L, snapshot.getJournalPosition());
+		assertEquals(3, snapshot.getLastSeatHoldId());
+		assertEquals("13ZJPEQXC0400=", snapshot.getLastConfirmationNumber());
+		assertArrayEquals(states, snapshot.getSeatStates());
+		assertEquals(1, snapshot.getActiveSeatHolds().size());
+		assertEquals(2, snapshot.getActiveSeatHolds().get(0).getSeatHoldId());
+		assertEquals(1234L, snapshot.getActiveSeatHolds().get(0).getExpiresAtMillis());
+		assertEquals(TestObjectFactory.TEST_EMAIL, snapshot.getActiveSeatHolds().get(0).getCustomerEmail());
+		assertEquals(1, snapshot.getReservedSeatHolds().size());
+		assertEquals(3, snapshot.getReservedSeatHolds().get(0).getSeatHoldId());
+		assertEquals("13ZJPEQXC0400=", snapshot.getReservedSeatHolds().get(0).getConfirmationNumber());
+		assertEquals(TestObjectFactory.TEST_EMAIL, snapshot.getReservedSeatHolds().get(0).getCustomerEmail());
+	}
+
+	@Test
+	public void seatsOfInactiveSeatHoldsAreWrittenAsAvailable() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("snapshot");
+		new Snapshot(0L, 2, null, new int[] { 1 << 1, (2 << 1) | 1 }, Collections.emptyList(),
+				Collections.emptyList()).write(path);
+
+		assertArrayEquals(new int[] { 0, (2 << 1) | 1 }, Snapshot.read(path).getSeatStates());
+	}
+
+	@Test
+	public void emptyVenueIsSmall() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("snapshot");
+		new Snapshot(0L, 0, null, new int[80_000], Collections.emptyList(), Collections.emptyList()).write(path);
+
+		Snapshot snapshot = Snapshot.read(path);
+		assertEquals(Arrays.asList(), snapshot.getActiveSeatHolds());
+		assertNull(snapshot.getLastConfirmationNumber());
+		assertEquals(46, Files.size(path));
+	}
+
+	@Test
+	public void writeReplacesOldSnapshot() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("snapshot");
+		new Snapshot(1L, 0, null, new int[1], Collections.emptyList(), Collections.emptyList()).write(path);
+		new Snapshot(2L, 0, null, new int[1], Collections.emptyList(), Collections.emptyList()).write(path);
+
+		assertEquals(2L, Snapshot.read(path).getJournalPosition());
+		assertEquals(1, folder.getRoot().list().length);
+	}
+
+	@Test(expected = IOException.class)
+	public void corruptSnapshotShouldThrowIOException() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("snapshot");
+		new Snapshot(1L, 0, null, new int[1], Collections.emptyList(), Collections.emptyList()).write(path);
+		byte[] bytes = Files.readAllBytes(path);
+		bytes[10]++;
+		Files.write(path, bytes);
+
+		Snapshot.read(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void notASnapshotShouldThrowIOException() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[16]);
+
+		Snapshot.read(path);
+	}
+
+}
@@ -1,282 +1,528 @@
-package ticketsystem;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertNull;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
-import org.junit.Test;
-
-import model.Seat;
-import model.SeatHold;
-import util.TestObjectFactory;
-
-/**
- * Ticket Reserver Unit Tests.
- * 
- * @author bstoll
- *
- */
-public class TicketReserverTest {
-
-	@Test
-	public void validConstruction() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		assertNotNull(reserver);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void nullVenueOnConstructionShouldThrowIllegalArgument() {
-		new TicketReserver(null);
-	}
-
-	@Test
-	public void numberOfSeatsAvailable() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-
-		int numberOfSeatsLevel1 = reserver.numberOfSeatsAvailable(Optional.of(1));
-		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, numberOfSeatsLevel1);
-
-		int numberOfSeatsLevel2 = reserver.numberOfSeatsAvailable(Optional.of(2));
-		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS, numberOfSeatsLevel2);
-
-		int numberOfSeatsLevel3 = reserver.numberOfSeatsAvailable(Optional.of(3));
-		assertEquals(TestObjectFactory.LEVEL_3_TOTAL_SEATS, numberOfSeatsLevel3);
-
-		int numberOfSeatsLevel4 = reserver.numberOfSeatsAvailable(Optional.of(4));
-		assertEquals(TestObjectFactory.LEVEL_4_TOTAL_SEATS, numberOfSeatsLevel4);
-	}
-
-	@Test
-	public void testFindAndHoldAllSeats() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), Optional.of(4),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsInvalidRange() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(5), Optional.of(4),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsMinGreaterThanVenueMax() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(5), Optional.of(4),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsMinLessThanVenueMin() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(0), Optional.of(4),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsMaxLessThanVenueMin() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), Optional.of(0),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsMaxGreaterThanVenueMax() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), Optional.of(5),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsMinHigherThanMax() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(3), Optional.of(2),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsNullMin() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, null, Optional.of(4),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldAllSeatsNullMax() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), null,
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test
-	public void testFindAndHoldAllSeatsEmptyConstraints() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test
-	public void testFindAndHoldAllSeatsPlus1() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		SeatHold seatHold = reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE + 1, Optional.of(1),
-				Optional.of(4), TestObjectFactory.TEST_EMAIL);
-		assertNull(seatHold);
-
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldSeatsZeroSeats() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(0, Optional.of(1), Optional.of(4), TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldSeatsNegativeSeats() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(-1, Optional.of(1), Optional.of(4), TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test
-	public void testFindAndHoldSeatsFirstLevelAlreadyTaken() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		SeatHold seatHold1 = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS, Optional.of(1),
-				Optional.of(4), TestObjectFactory.TEST_EMAIL);
-		SeatHold seatHold2 = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS, Optional.of(1),
-				Optional.of(4), TestObjectFactory.TEST_EMAIL);
-
-		assertNotNull(seatHold1);
-		assertNotNull(seatHold2);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldSeatsEmptyEmail() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(1, Optional.of(1), Optional.of(4), "");
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void testFindAndHoldSeatsNullEmail() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.findAndHoldSeats(1, Optional.of(1), Optional.of(4), null);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void invalidLevelShouldThrowIllegalArgument() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.numberOfSeatsAvailable(Optional.of(5));
-	}
-
-	@Test
-	public void nullOptionalLevelShouldReturnTotalSeatsInVenue() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		int numberOfSeatsInVenue = reserver.numberOfSeatsAvailable(null);
-		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, numberOfSeatsInVenue);
-	}
-
-	@Test
-	public void emptyOptionalLevelShouldReturnTotalSeatsInVenue() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		int numberOfSeatsInVenue = reserver.numberOfSeatsAvailable(Optional.empty());
-		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, numberOfSeatsInVenue);
-	}
-
-	@Test
-	public void reserveSeats() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		SeatHold seatHold = reserver.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		String confirmationNumber = reserver.reserveSeats(seatHold);
-		assertNotNull(confirmationNumber);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void reserveSeatsNullSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		SeatHold seatHold = null;
-		String confirmationNumber = reserver.reserveSeats(seatHold);
-		assertNotNull(confirmationNumber);
-	}
-
-	@Test(expected = IllegalStateException.class)
-	public void reserveSeatsFakeSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-
-		// Make a seat that i dont actually have a hold to.
-		Seat seat = new Seat(3, 3, 3, TestObjectFactory.TEST_PRICE);
-
-		List<Seat> seats = new ArrayList<>();
-		seats.add(seat);
-
-		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
-		reserver.reserveSeats(seatHold);
-
-	}
-
-	@Test(expected = IllegalStateException.class)
-	public void reserveSeatsFakeSeatAndSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-
-		// Make a seat that doesnt actually exist
-		// Level 6 doesnt exist.
-		Seat seat = new Seat(6, 6, 6, TestObjectFactory.TEST_PRICE);
-
-		List<Seat> seats = new ArrayList<>();
-		seats.add(seat);
-
-		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
-		reserver.reserveSeats(seatHold);
-
-	}
-
-	@Test
-	public void expireSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		SeatHold seatHold1 = reserver.findAndHoldSeats(100, Optional.of(1), Optional.of(4),
-				TestObjectFactory.TEST_EMAIL);
-		reserver.expireSeatHold(seatHold1);
-
-	}
-
-	@Test(expected = IllegalStateException.class)
-	public void expireSeatHoldBadSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		// Make a seat that i dont actually have a hold to.
-		Seat seat = new Seat(3, 3, 3, TestObjectFactory.TEST_PRICE);
-
-		List<Seat> seats = new ArrayList<>();
-		seats.add(seat);
-
-		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
-		reserver.expireSeatHold(seatHold);
-
-	}
-
-	@Test(expected = IllegalStateException.class)
-	public void expireSeatHoldBadSeatAndSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-
-		// Make a seat that doesnt actually exist
-		// Level 6 doesnt exist.
-		Seat seat = new Seat(6, 6, 6, TestObjectFactory.TEST_PRICE);
-
-		List<Seat> seats = new ArrayList<>();
-		seats.add(seat);
-
-		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
-		reserver.expireSeatHold(seatHold);
-
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void expireSeatHoldNullSeatHold() {
-		TicketReserver reserver = TestObjectFactory.newReserver();
-		reserver.expireSeatHold(null);
-
-	}
-
-}
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import model.Event;
+import model.HoldRequest;
+import model.HoldResult;
+import model.Seat;
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Ticket Reserver Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class TicketReserverTest {
+
+	@Test
+	public void validConstruction() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		assertNotNull(reserver);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullVenueOnConstructionShouldThrowIllegalArgument() {
+		new TicketReserver(null);
+	}
+
+	@Test
+	public void venueConstructionIsSingleEvent() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		assertEquals(TestObjectFactory.TEST_VENUE.getId(), reserver.getEvent().getId());
+		assertEquals(TestObjectFactory.TEST_VENUE, reserver.getEvent().getVenue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEventOnConstructionShouldThrowIllegalArgument() {
+		new TicketReserver((Event) null, SeatAllocation.FIRST_AVAILABLE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullSeatAllocationOnConstructionShouldThrowIllegalArgument() {
+		new TicketReserver(TestObjectFactory.TEST_VENUE, null);
+	}
+
+	@Test
+	public void numberOfSeatsAvailable() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+
+		int numberOfSeatsLevel1 = reserver.numberOfSeatsAvailable(Optional.of(1));
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, numberOfSeatsLevel1);
+
+		int numberOfSeatsLevel2 = reserver.numberOfSeatsAvailable(Optional.of(2));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS, numberOfSeatsLevel2);
+
+		int numberOfSeatsLevel3 = reserver.numberOfSeatsAvailable(Optional.of(3));
+		assertEquals(TestObjectFactory.LEVEL_3_TOTAL_SEATS, numberOfSeatsLevel3);
+
+		int numberOfSeatsLevel4 = reserver.numberOfSeatsAvailable(Optional.of(4));
+		assertEquals(TestObjectFactory.LEVEL_4_TOTAL_SEATS, numberOfSeatsLevel4);
+	}
+
+	@Test
+	public void testFindAndHoldAllSeats() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsInvalidRange() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(5), Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsMinGreaterThanVenueMax() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(5), Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsMinLessThanVenueMin() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(0), Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsMaxLessThanVenueMin() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), Optional.of(0),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsMaxGreaterThanVenueMax() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), Optional.of(5),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsMinHigherThanMax() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(3), Optional.of(2),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsNullMin() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, null, Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldAllSeatsNullMax() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.of(1), null,
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testFindAndHoldAllSeatsEmptyConstraints() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testFindAndHoldAllSeatsPlus1() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE + 1, Optional.of(1),
+				Optional.of(4), TestObjectFactory.TEST_EMAIL);
+		assertNull(seatHold);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldSeatsZeroSeats() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(0, Optional.of(1), Optional.of(4), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldSeatsNegativeSeats() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(-1, Optional.of(1), Optional.of(4), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testFindAndHoldSeatsFirstLevelAlreadyTaken() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold1 = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS, Optional.of(1),
+				Optional.of(4), TestObjectFactory.TEST_EMAIL);
+		SeatHold seatHold2 = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS, Optional.of(1),
+				Optional.of(4), TestObjectFactory.TEST_EMAIL);
+
+		assertNotNull(seatHold1);
+		assertNotNull(seatHold2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldSeatsEmptyEmail() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(1, Optional.of(1), Optional.of(4), "");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindAndHoldSeatsNullEmail() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(1, Optional.of(1), Optional.of(4), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidLevelShouldThrowIllegalArgument() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.numberOfSeatsAvailable(Optional.of(5));
+	}
+
+	@Test
+	public void nullOptionalLevelShouldReturnTotalSeatsInVenue() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		int numberOfSeatsInVenue = reserver.numberOfSeatsAvailable(null);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, numberOfSeatsInVenue);
+	}
+
+	@Test
+	public void emptyOptionalLevelShouldReturnTotalSeatsInVenue() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		int numberOfSeatsInVenue = reserver.numberOfSeatsAvailable(Optional.empty());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, numberOfSeatsInVenue);
+	}
+
+	@Test
+	public void numberOfSeatsAvailableAfterHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 10, Optional.of(1), Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+
+		assertEquals(0, reserver.numberOfSeatsAvailable(Optional.of(1)));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 10, reserver.numberOfSeatsAvailable(Optional.of(2)));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - TestObjectFactory.LEVEL_1_TOTAL_SEATS - 10,
+				reserver.numberOfSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void numberOfSeatsAvailableAfterReserve() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		reserver.reserveSeats(seatHold);
+
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS - 10, reserver.numberOfSeatsAvailable(Optional.of(1)));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 10, reserver.numberOfSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void numberOfSeatsAvailableAfterExpire() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		reserver.expireSeatHold(seatHold);
+
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS, reserver.numberOfSeatsAvailable(Optional.of(1)));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, reserver.numberOfSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void failedRequestDoesNotStopBatch() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		// Only one SeatHold id is left after this one.
+		reserver.restoreSeatHold(SeatStateStore.MAX_SEAT_HOLD_ID - 1, TestObjectFactory.TEST_EMAIL, new int[] { 0 });
+
+		List<HoldResult> results = reserver.findAndHoldSeats(Arrays.asList(
+				new HoldRequest(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(2, Optional.of(9), Optional.of(9), TestObjectFactory.TEST_EMAIL)));
+
+		assertEquals(3, results.size());
+		assertTrue(results.get(0).isHeld());
+		assertTrue(results.get(1).getFailure() instanceof IllegalStateException);
+		assertTrue(results.get(2).getFailure() instanceof IllegalArgumentException);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 3, reserver.numberOfSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void contiguousAllocationKeepsGroupInOneRow() {
+		TicketReserver reserver = new TicketReserver(TestObjectFactory.TEST_VENUE, SeatAllocation.CONTIGUOUS);
+		reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_SEATS_PER_ROW - 5, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+
+		// Does not fit in what is left of row 1, so it should start row 2.
+		SeatHold seatHold = reserver.findAndHoldSeats(10, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+
+		List<Seat> seats = seatHold.getSeats();
+		for (int i = 0; i < seats.size(); i++) {
+			assertEquals(2, seats.get(i).getRow());
+			assertEquals(i + 1, seats.get(i).getSeatNumber());
+		}
+
+		// Still fits in row 1.
+		SeatHold smallSeatHold = reserver.findAndHoldSeats(5, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+		assertEquals(1, smallSeatHold.getSeats().get(0).getRow());
+		assertEquals(TestObjectFactory.LEVEL_1_SEATS_PER_ROW - 4, smallSeatHold.getSeats().get(0).getSeatNumber());
+	}
+
+	@Test
+	public void contiguousAllocationReusesExpiredSeats() {
+		TicketReserver reserver = new TicketReserver(TestObjectFactory.TEST_VENUE, SeatAllocation.CONTIGUOUS);
+		SeatHold seatHold1 = reserver.findAndHoldSeats(10, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+		reserver.findAndHoldSeats(10, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+		reserver.expireSeatHold(seatHold1);
+
+		SeatHold seatHold3 = reserver.findAndHoldSeats(10, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+		assertEquals(seatHold1.getSeats(), seatHold3.getSeats());
+	}
+
+	@Test
+	public void contiguousAllocationGoesUpALevelToSitTogether() {
+		TicketReserver reserver = new TicketReserver(TestObjectFactory.TEST_VENUE, SeatAllocation.CONTIGUOUS);
+		SeatHold seatHold = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_SEATS_PER_ROW + 1, Optional.of(1),
+				Optional.of(4), TestObjectFactory.TEST_EMAIL);
+
+		for (Seat seat : seatHold.getSeats()) {
+			assertEquals(2, seat.getLevelId());
+			assertEquals(1, seat.getRow());
+		}
+	}
+
+	@Test
+	public void contiguousAllocationSplitsGroupWhenItCanNotSitTogether() {
+		TicketReserver reserver = new TicketReserver(TestObjectFactory.TEST_VENUE, SeatAllocation.CONTIGUOUS);
+		SeatHold seatHold = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_SEATS_PER_ROW + 1, Optional.of(1),
+				Optional.of(1), TestObjectFactory.TEST_EMAIL);
+
+		assertNotNull(seatHold);
+		assertEquals(TestObjectFactory.LEVEL_1_SEATS_PER_ROW + 1, seatHold.getNumberOfSeats());
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS - TestObjectFactory.LEVEL_1_SEATS_PER_ROW - 1,
+				reserver.numberOfSeatsAvailable(Optional.of(1)));
+	}
+
+	@Test
+	public void contiguousAllocationSplitsGroupAroundHeldSeats() {
+		TicketReserver reserver = new TicketReserver(TestObjectFactory.TEST_VENUE, SeatAllocation.CONTIGUOUS);
+		SeatHold held = reserver.findAndHoldSeats(10, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+		SeatHold reserved = reserver.findAndHoldSeats(10, Optional.of(1), Optional.of(1),
+				TestObjectFactory.TEST_EMAIL);
+		reserver.reserveSeats(reserved);
+
+		// Wider than a row, so the group is split up.
+		SeatHold split = reserver.findAndHoldSeats(TestObjectFactory.LEVEL_1_SEATS_PER_ROW + 1, Optional.of(1),
+				Optional.of(1), TestObjectFactory.TEST_EMAIL);
+
+		assertNotNull(split);
+		for (Seat seat : split.getSeats()) {
+			assertFalse(held.getSeats().contains(seat));
+			assertFalse(reserved.getSeats().contains(seat));
+		}
+		assertEquals(TestObjectFactory.LEVEL_1_TOTAL_SEATS - TestObjectFactory.LEVEL_1_SEATS_PER_ROW - 21,
+				reserver.numberOfSeatsAvailable(Optional.of(1)));
+	}
+
+	@Test
+	public void contiguousAllocationHoldsAllSeats() {
+		TicketReserver reserver = new TicketReserver(TestObjectFactory.TEST_VENUE, SeatAllocation.CONTIGUOUS);
+		for (int i = 0; i < TestObjectFactory.TOTAL_SEATS_IN_VENUE / 5; i++) {
+			assertNotNull(reserver.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL));
+		}
+		assertEquals(0, reserver.numberOfSeatsAvailable(Optional.empty()));
+		assertNull(reserver.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL));
+	}
+
+	@Test
+	public void reserveSeats() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		String confirmationNumber = reserver.reserveSeats(seatHold);
+		assertNotNull(confirmationNumber);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void reserveSeatsNullSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = null;
+		String confirmationNumber = reserver.reserveSeats(seatHold);
+		assertNotNull(confirmationNumber);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void reserveSeatsFakeSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+
+		// Make a seat that i dont actually have a hold to.
+		Seat seat = new Seat(3, 3, 3, TestObjectFactory.TEST_PRICE);
+
+		List<Seat> seats = new ArrayList<>();
+		seats.add(seat);
+
+		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
+		reserver.reserveSeats(seatHold);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void reserveSeatsFakeSeatAndSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+
+		// Make a seat that doesnt actually exist
+		// Level 6 doesnt exist.
+		Seat seat = new Seat(6, 6, 6, TestObjectFactory.TEST_PRICE);
+
+		List<Seat> seats = new ArrayList<>();
+		seats.add(seat);
+
+		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
+		reserver.reserveSeats(seatHold);
+
+	}
+
+	@Test
+	public void expireSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold1 = reserver.findAndHoldSeats(100, Optional.of(1), Optional.of(4),
+				TestObjectFactory.TEST_EMAIL);
+		reserver.expireSeatHold(seatHold1);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void expireSeatHoldBadSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		// Make a seat that i dont actually have a hold to.
+		Seat seat = new Seat(3, 3, 3, TestObjectFactory.TEST_PRICE);
+
+		List<Seat> seats = new ArrayList<>();
+		seats.add(seat);
+
+		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
+		reserver.expireSeatHold(seatHold);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void expireSeatHoldBadSeatAndSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+
+		// Make a seat that doesnt actually exist
+		// Level 6 doesnt exist.
+		Seat seat = new Seat(6, 6, 6, TestObjectFactory.TEST_PRICE);
+
+		List<Seat> seats = new ArrayList<>();
+		seats.add(seat);
+
+		SeatHold seatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
+		reserver.expireSeatHold(seatHold);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void expireSeatHoldNullSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.expireSeatHold(null);
+
+	}
+
+	@Test
+	public void expireSeatHolds() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		List<SeatHold> seatHolds = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			seatHolds.add(reserver.findAndHoldSeats(10, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL));
+		}
+
+		assertEquals(seatHolds, reserver.expireSeatHolds(seatHolds));
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, reserver.numberOfSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void expireSeatHoldsSkipsBadSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		SeatHold seatHold = reserver.findAndHoldSeats(5, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+
+		List<Seat> seats = new ArrayList<>();
+		seats.add(new Seat(6, 6, 6, TestObjectFactory.TEST_PRICE));
+		SeatHold badSeatHold = new SeatHold(66, TestObjectFactory.TEST_EMAIL, seats);
+
+		List<SeatHold> expired = reserver.expireSeatHolds(Arrays.asList(badSeatHold, seatHold));
+
+		assertEquals(Collections.singletonList(seatHold), expired);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, reserver.numberOfSeatsAvailable(Optional.empty()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void expireSeatHoldsNullSeatHolds() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.expireSeatHolds(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void expireSeatHoldsNullSeatHold() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		reserver.expireSeatHolds(Collections.singletonList(null));
+	}
+
+	@Test
+	public void findAndHoldSeatsBatch() {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		List<HoldRequest> requests = Arrays.asList(
+				new HoldRequest(3, Optional.of(2), Optional.of(2), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(1, Optional.of(3), Optional.of(2), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.empty(), Optional.empty(),
+						TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(2, Optional.of(4), Optional.empty(), TestObjectFactory.TEST_EMAIL));
+
+		List<HoldResult> results = reserver.findAndHoldSeats(requests);
+
+		assertEquals(requests.size(), results.size());
+		assertEquals(3, results.get(0).getSeatHold().getNumberOfSeats());
+		assertTrue(results.get(1).getFailure() instanceof IllegalArgumentException);
+		assertNull(results.get(2).getSeatHold());
+		assertNull(results.get(2).getFailure());
+		assertEquals(4, results.get(3).getSeatHold().getSeats().get(0).getLevelId());
+		assertEquals(results.get(0).getSeatHold().getId() + 1, results.get(3).getSeatHold().getId());
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 5, reserver.numberOfSeatsAvailable(Optional.empty()));
+		// Both levels are published together.
+		assertEquals(1, reserver.getSeatAvailability().getEpoch());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 5,
+				reserver.getSeatAvailability().getNumberOfSeatsAvailable());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void findAndHoldSeatsBatchNullRequests() {
+		TestObjectFactory.newReserver().findAndHoldSeats((List<HoldRequest>) null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void findAndHoldSeatsBatchNullRequest() {
+		TestObjectFactory.newReserver().findAndHoldSeats(Collections.singletonList(null));
+	}
+
+}
@@ -0,0 +1,119 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Ticket Service Metrics Unit Tests.
+ * 
+ * @author bstoll
+ *
+ */
+public class TicketServiceMetricsTest {
+
+	@Test
+	public void testOperationsAreRecorded() {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver());
+		TicketServiceMetrics metrics = ticketService.getMetrics();
+
+		ticketService.numSeatsAvailable(Optional.empty());
+		SeatHold seatHold = ticketService.findAndHoldSeats(4, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		assertNull(ticketService.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE, Optional.empty(),
+				Optional.empty(), TestObjectFactory.TEST_EMAIL));
+		ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+
+		assertEquals(1, metrics.getNumSeatsAvailableLatencies().getTotalCount());
+		assertEquals(3, metrics.getFindAndHoldSeatsLatencies().getTotalCount());
+		assertEquals(1, metrics.getReserveSeatsLatencies().getTotalCount());
+		assertEquals(2, metrics.getSeatHoldsCreated());
+		assertEquals(1, metrics.getSeatHoldsNotFound());
+		assertEquals(1, metrics.getReservations());
+		assertEquals(0, metrics.getFindAndHoldSeatsErrors());
+		assertEquals(0, metrics.getReserveSeatsErrors());
+		assertEquals(1, metrics.getOutstandingSeatHolds());
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 6, metrics.getSeatsAvailable());
+
+		// Three holds and a reserve each take the lock once.
+		assertEquals(4, metrics.getLockWaitTimes().getTotalCount());
+		assertEquals(4, metrics.getLockHoldTimes().getTotalCount());
+		assertTrue(metrics.getFindAndHoldSeatsLatencies().getMaxValue() >= metrics.getLockHoldTimes()
+				.getMinValue());
+	}
+
+	@Test
+	public void testErrorsAreRecorded() {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver());
+		TicketServiceMetrics metrics = ticketService.getMetrics();
+
+		try {
+			ticketService.findAndHoldSeats(0, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			ticketService.reserveSeats(1, TestObjectFactory.TEST_EMAIL);
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+
+		assertEquals(1, metrics.getFindAndHoldSeatsErrors());
+		assertEquals(1, metrics.getReserveSeatsErrors());
+		assertEquals(1, metrics.getFindAndHoldSeatsLatencies().getTotalCount());
+		assertEquals(1, metrics.getReserveSeatsLatencies().getTotalCount());
+		assertEquals(0, metrics.getSeatHoldsCreated());
+		assertEquals(0, metrics.getReservations());
+	}
+
+	@Test
+	public void testExpirationsAreRecorded() throws InterruptedException {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 50,
+				TimeUnit.MILLISECONDS, null, LockingMode.PER_LEVEL);
+		TicketServiceMetrics metrics = ticketService.getMetrics();
+
+		ticketService.findAndHoldSeats(4, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL);
+		ticketService.findAndHoldSeats(4, Optional.of(2), Optional.of(3), TestObjectFactory.TEST_EMAIL);
+		assertEquals(2, metrics.getOutstandingSeatHolds());
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (metrics.getSeatHoldsExpired() < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(2, metrics.getSeatHoldsExpired());
+		assertEquals(0, metrics.getOutstandingSeatHolds());
+		assertTrue(metrics.getExpirationLatencies().getTotalCount() >= 1);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, metrics.getSeatsAvailable());
+	}
+
+	@Test
+	public void testSampleRates() {
+		TicketServiceMetrics metrics = new TicketServiceMetrics(() -> 0, () -> 0);
+		long startNanos = System.nanoTime();
+		metrics.sampleRates(startNanos);
+		for (int i = 0; i < 20; i++) {
+			metrics.recordFindAndHoldSeats(1, true);
+		}
+		metrics.recordReserveSeats(1);
+		metrics.recordExpiration(1, 10);
+
+		metrics.sampleRates(startNanos + TimeUnit.SECONDS.toNanos(2));
+		assertEquals(10, metrics.getHoldsPerSecond(), 0.001);
+		assertEquals(0.5, metrics.getReservationsPerSecond(), 0.001);
+		assertEquals(5, metrics.getExpirationsPerSecond(), 0.001);
+
+		metrics.sampleRates(startNanos + TimeUnit.SECONDS.toNanos(4));
+		assertEquals(0, metrics.getHoldsPerSecond(), 0.001);
+	}
+
+}
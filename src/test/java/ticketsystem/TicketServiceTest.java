@@ -1,136 +1,506 @@
-package ticketsystem;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertNull;
-
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-
-import org.junit.Test;
-
-import model.SeatHold;
-import util.TestObjectFactory;
-
-/**
- * Unit Tests for Ticket Service.
- * 
- * @author bstoll
- *
- */
-public class TicketServiceTest {
-
-	@Test
-	public void validConstruction() {
-		TicketService ticketService = TestObjectFactory.newService();
-		assertNotNull(ticketService);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void nullReserverOnConstruction() {
-		new DefaultTicketService(null);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void negativeExpirationTimeOnConstruction() {
-		new DefaultTicketService(TestObjectFactory.newReserver(), -1, TimeUnit.SECONDS);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void zeroExpirationTimeOnConstruction() {
-		new DefaultTicketService(TestObjectFactory.newReserver(), 0, TimeUnit.SECONDS);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void nullExpirationUnitOnConstruction() {
-		new DefaultTicketService(TestObjectFactory.newReserver(), 1, null);
-	}
-
-	@Test
-	public void testNumSeatsAvailable() {
-		TicketService ticketService = TestObjectFactory.newService();
-		ticketService.numSeatsAvailable(Optional.of(1));
-	}
-
-	@Test
-	public void testFindAndHold() {
-		TicketService ticketService = TestObjectFactory.newService();
-		ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test
-	public void testReserve() {
-		TicketService ticketService = TestObjectFactory.newService();
-		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void negativeIdOnReserveShouldThrowIllegalArgument() {
-		TicketService ticketService = TestObjectFactory.newService();
-		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		ticketService.reserveSeats(-1, seatHold.getCustomerEmail());
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void zeroIdOnReserveShouldThrowIllegalArgument() {
-		TicketService ticketService = TestObjectFactory.newService();
-		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		ticketService.reserveSeats(0, seatHold.getCustomerEmail());
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void nullEmailOnReserveShouldThrowIllegalArgument() {
-		TicketService ticketService = TestObjectFactory.newService();
-		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		ticketService.reserveSeats(seatHold.getId(), null);
-	}
-
-	@Test(expected = IllegalArgumentException.class)
-	public void emptyEmailOnReserveShouldThrowIllegalArgument() {
-		TicketService ticketService = TestObjectFactory.newService();
-		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		ticketService.reserveSeats(seatHold.getId(), "");
-	}
-
-	@Test(expected = IllegalStateException.class)
-	public void badEmailOnReserveShouldThrowIllegalArgument() {
-		TicketService ticketService = TestObjectFactory.newService();
-		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
-				TestObjectFactory.TEST_EMAIL);
-		ticketService.reserveSeats(seatHold.getId(), "fake@email.com");
-	}
-
-	@Test(expected = IllegalStateException.class)
-	public void noHoldsBeforeReserveShouldThrowIllegalState() {
-		TicketService ticketService = TestObjectFactory.newService();
-		ticketService.reserveSeats(1, TestObjectFactory.TEST_EMAIL);
-	}
-
-	@Test
-	public void testReserveTooManySeats() throws InterruptedException {
-		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 5, TimeUnit.SECONDS);
-		SeatHold seatHold = ticketService.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE + 1, Optional.empty(),
-				Optional.empty(), TestObjectFactory.TEST_EMAIL);
-
-		assertNull(seatHold);
-	}
-
-	@Test
-	public void testExpiration() throws InterruptedException {
-		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.SECONDS);
-		ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
-		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 1, ticketService.numSeatsAvailable(Optional.empty()));
-
-		Thread.sleep(3000);
-
-		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
-
-	}
-
-}
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import model.HoldRequest;
+import model.HoldResult;
+import model.Reservation;
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Unit Tests for Ticket Service.
+ * 
+ * @author bstoll
+ *
+ */
+public class TicketServiceTest {
+
+	@Test
+	public void validConstruction() {
+		TicketService ticketService = TestObjectFactory.newService();
+		assertNotNull(ticketService);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullReserverOnConstruction() {
+		new DefaultTicketService(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeExpirationTimeOnConstruction() {
+		new DefaultTicketService(TestObjectFactory.newReserver(), -1, TimeUnit.SECONDS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroExpirationTimeOnConstruction() {
+		new DefaultTicketService(TestObjectFactory.newReserver(), 0, TimeUnit.SECONDS);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullExpirationUnitOnConstruction() {
+		new DefaultTicketService(TestObjectFactory.newReserver(), 1, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullLockingModeOnConstruction() {
+		new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS, null, null);
+	}
+
+	@Test
+	public void testNumSeatsAvailable() {
+		TicketService ticketService = TestObjectFactory.newService();
+		ticketService.numSeatsAvailable(Optional.of(1));
+	}
+
+	@Test
+	public void testFindAndHold() {
+		TicketService ticketService = TestObjectFactory.newService();
+		ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testReserve() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeIdOnReserveShouldThrowIllegalArgument() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(-1, seatHold.getCustomerEmail());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroIdOnReserveShouldThrowIllegalArgument() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(0, seatHold.getCustomerEmail());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullEmailOnReserveShouldThrowIllegalArgument() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyEmailOnReserveShouldThrowIllegalArgument() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), "");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void badEmailOnReserveShouldThrowIllegalArgument() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), "fake@email.com");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void noHoldsBeforeReserveShouldThrowIllegalState() {
+		TicketService ticketService = TestObjectFactory.newService();
+		ticketService.reserveSeats(1, TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testReserveTooManySeats() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 5, TimeUnit.SECONDS);
+		SeatHold seatHold = ticketService.findAndHoldSeats(TestObjectFactory.TOTAL_SEATS_IN_VENUE + 1, Optional.empty(),
+				Optional.empty(), TestObjectFactory.TEST_EMAIL);
+
+		assertNull(seatHold);
+	}
+
+	@Test
+	public void testExpiration() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.SECONDS);
+		ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 1, ticketService.numSeatsAvailable(Optional.empty()));
+
+		Thread.sleep(3000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void reserveAfterExpirationShouldThrowIllegalState() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS);
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+
+		Thread.sleep(2000);
+
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+	}
+
+	@Test
+	public void badEmailOnReserveDoesNotStopExpiration() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS);
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		try {
+			ticketService.reserveSeats(seatHold.getId(), "fake@email.com");
+		} catch (IllegalStateException e) {
+			// Expected, the hold should still expire.
+		}
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void reservedSeatsDoNotExpire() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS);
+		SeatHold seatHold = ticketService.findAndHoldSeats(3, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 3, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void expirationListenerIsCalledAfterSeatsAreReleased() throws InterruptedException {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		CountDownLatch expired = new CountDownLatch(3);
+		List<Integer> availableWhenNotified = new CopyOnWriteArrayList<>();
+		TicketService ticketService = new DefaultTicketService(reserver, 1, TimeUnit.SECONDS, seatHold -> {
+			availableWhenNotified.add(reserver.numberOfSeatsAvailable(Optional.empty()));
+			expired.countDown();
+		});
+		for (int i = 0; i < 3; i++) {
+			ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		}
+
+		assertTrue(expired.await(5, TimeUnit.SECONDS));
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+		for (int available : availableWhenNotified) {
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, available);
+		}
+	}
+
+	@Test
+	public void testPerLevelLocking() {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES,
+				null, LockingMode.PER_LEVEL);
+		SeatHold seatHold = ticketService.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1,
+				Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		assertNotNull(ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail()));
+		assertEquals(0, ticketService.numSeatsAvailable(Optional.of(1)));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 1, ticketService.numSeatsAvailable(Optional.of(2)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void perLevelLockingInvalidLevelShouldThrowIllegalArgument() {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES,
+				null, LockingMode.PER_LEVEL);
+		ticketService.findAndHoldSeats(1, Optional.of(3), Optional.of(2), TestObjectFactory.TEST_EMAIL);
+	}
+
+	@Test
+	public void testPerLevelLockingExpiration() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS,
+				null, LockingMode.PER_LEVEL);
+		ticketService.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testPerLevelLockingConcurrentHolds() throws Exception {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES,
+				null, LockingMode.PER_LEVEL);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int thread = 0; thread < 8; thread++) {
+			int level = thread % 4 + 1;
+			Callable<Integer> holder = () -> {
+				int seatsHeld = 0;
+				for (int i = 0; i < 100; i++) {
+					// Every other request spans two levels to make the locks overlap.
+					int maxLevel = i % 2 == 0 ? level : Math.min(level + 1, 4);
+					SeatHold seatHold = ticketService.findAndHoldSeats(3, Optional.of(level), Optional.of(maxLevel),
+							TestObjectFactory.TEST_EMAIL);
+					if (seatHold != null) {
+						seatsHeld += seatHold.getNumberOfSeats();
+						if (i % 3 == 0) {
+							ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+						}
+					}
+				}
+				return seatsHeld;
+			};
+			futures.add(executor.submit(holder));
+		}
+
+		int seatsHeld = 0;
+		for (Future<Integer> future : futures) {
+			seatsHeld += future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(8 * 100 * 3, seatsHeld);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - seatsHeld,
+				ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testSingleWriter() {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES,
+				null, LockingMode.SINGLE_WRITER);
+		SeatHold seatHold = ticketService.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1,
+				Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+		assertNotNull(ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail()));
+		assertEquals(0, ticketService.numSeatsAvailable(Optional.of(1)));
+		assertEquals(TestObjectFactory.LEVEL_2_TOTAL_SEATS - 1, ticketService.numSeatsAvailable(Optional.of(2)));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void singleWriterReserveTwiceShouldThrowIllegalState() {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES,
+				null, LockingMode.SINGLE_WRITER);
+		SeatHold seatHold = ticketService.findAndHoldSeats(1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+		ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+	}
+
+	@Test
+	public void testSingleWriterExpiration() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS,
+				null, LockingMode.SINGLE_WRITER);
+		ticketService.findAndHoldSeats(TestObjectFactory.LEVEL_1_TOTAL_SEATS + 1, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testSingleWriterConcurrentHolds() throws Exception {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2, TimeUnit.MINUTES,
+				null, LockingMode.SINGLE_WRITER);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int thread = 0; thread < 8; thread++) {
+			Callable<Integer> holder = () -> {
+				int seatsHeld = 0;
+				for (int i = 0; i < 100; i++) {
+					SeatHold seatHold = ticketService.findAndHoldSeats(3, Optional.empty(), Optional.empty(),
+							TestObjectFactory.TEST_EMAIL);
+					seatsHeld += seatHold.getNumberOfSeats();
+					if (i % 3 == 0) {
+						ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail());
+					}
+				}
+				return seatsHeld;
+			};
+			futures.add(executor.submit(holder));
+		}
+
+		int seatsHeld = 0;
+		for (Future<Integer> future : futures) {
+			seatsHeld += future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(8 * 100 * 3, seatsHeld);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - seatsHeld,
+				ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testFindAndHoldSeatsBatch() {
+		for (LockingMode lockingMode : LockingMode.values()) {
+			TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 2,
+					TimeUnit.MINUTES, null, lockingMode);
+			List<HoldResult> results = ticketService.findAndHoldSeats(Arrays.asList(
+					new HoldRequest(2, Optional.of(1), Optional.of(1), TestObjectFactory.TEST_EMAIL),
+					new HoldRequest(2, Optional.of(9), Optional.of(9), TestObjectFactory.TEST_EMAIL),
+					new HoldRequest(2, Optional.of(3), Optional.of(4), TestObjectFactory.TEST_EMAIL)));
+
+			assertTrue(results.get(0).isHeld());
+			assertTrue(results.get(1).getFailure() instanceof IllegalArgumentException);
+			assertTrue(results.get(2).isHeld());
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 4,
+					ticketService.numSeatsAvailable(Optional.empty()));
+
+			// Held seats can be reserved like any other SeatHold.
+			SeatHold seatHold = results.get(2).getSeatHold();
+			assertNotNull(ticketService.reserveSeats(seatHold.getId(), seatHold.getCustomerEmail()));
+		}
+	}
+
+	@Test
+	public void testFindAndHoldSeatsBatchExpires() throws InterruptedException {
+		TicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1, TimeUnit.SECONDS);
+		List<HoldResult> results = ticketService.findAndHoldSeats(Arrays.asList(
+				new HoldRequest(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(5, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL)));
+		assertTrue(results.get(1).isHeld());
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void testFindAndHoldSeatsBatchExpiresAfterFailedRequest() throws InterruptedException {
+		TicketReserver reserver = TestObjectFactory.newReserver();
+		// Only one SeatHold id is left after this one, it is never expired.
+		reserver.restoreSeatHold(SeatStateStore.MAX_SEAT_HOLD_ID - 1, TestObjectFactory.TEST_EMAIL, new int[] { 0 });
+		TicketService ticketService = new DefaultTicketService(reserver, 1, TimeUnit.SECONDS);
+
+		List<HoldResult> results = ticketService.findAndHoldSeats(Arrays.asList(
+				new HoldRequest(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL)));
+		assertTrue(results.get(0).isHeld());
+		assertTrue(results.get(1).getFailure() instanceof IllegalStateException);
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 3, ticketService.numSeatsAvailable(Optional.empty()));
+
+		Thread.sleep(2000);
+
+		assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 1, ticketService.numSeatsAvailable(Optional.empty()));
+	}
+
+	@Test
+	public void shutdownStopsTakingSeatHolds() {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver());
+		SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.shutdown();
+		assertTrue(ticketService.isShutdown());
+
+		try {
+			ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+			throw new AssertionError("Shut down service should not hold seats");
+		} catch (IllegalStateException e) {
+			assertEquals(TestObjectFactory.TOTAL_SEATS_IN_VENUE - 2,
+					ticketService.numSeatsAvailable(Optional.empty()));
+		}
+		// Holds made before the shutdown can still be reserved.
+		assertNotNull(ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL));
+	}
+
+	@Test
+	public void shutdownStopsSingleWriter() {
+		DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1,
+				TimeUnit.MINUTES, null, LockingMode.SINGLE_WRITER);
+		SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		ticketService.shutdown();
+
+		try {
+			ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+			throw new AssertionError("Stopped writer should not reserve seats");
+		} catch (IllegalStateException e) {
+			assertEquals("Ticket service is shut down", e.getMessage());
+		}
+	}
+
+	@Test
+	public void shutdownLeavesSharedExecutorsRunning() {
+		ScheduledThreadPoolExecutor executor = DefaultTicketService.newExpirationExecutor();
+		ThreadPoolExecutor listenerExecutor = DefaultTicketService.newListenerExecutor();
+		try {
+			DefaultTicketService ticketService = new DefaultTicketService(TestObjectFactory.newReserver(), 1,
+					TimeUnit.MINUTES, null, LockingMode.GLOBAL, null, executor, listenerExecutor,
+					new ReservationRegistry());
+			assertEquals(2, executor.getQueue().size());
+
+			ticketService.shutdown();
+
+			assertTrue(executor.getQueue().isEmpty());
+			assertFalse(executor.isShutdown());
+			assertFalse(listenerExecutor.isShutdown());
+		} finally {
+			executor.shutdownNow();
+			listenerExecutor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFindAndHoldSeatsBatchDefault() {
+		TicketService ticketService = new LockFreeTicketService(TestObjectFactory.TEST_VENUE);
+		List<HoldResult> results = ticketService.findAndHoldSeats(Arrays.asList(
+				new HoldRequest(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL),
+				new HoldRequest(2, Optional.of(2), Optional.of(1), TestObjectFactory.TEST_EMAIL)));
+		assertTrue(results.get(0).isHeld());
+		assertTrue(results.get(1).getFailure() instanceof IllegalArgumentException);
+	}
+
+	@Test
+	public void testFindReservation() {
+		TicketService ticketService = TestObjectFactory.newService();
+		SeatHold seatHold = ticketService.findAndHoldSeats(3, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		String confirmationNumber = ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL);
+
+		Reservation reservation = ticketService.findReservation(confirmationNumber);
+		assertEquals(confirmationNumber, reservation.getConfirmationNumber());
+		assertEquals(seatHold.getSeats(), reservation.getSeats());
+		assertEquals(TestObjectFactory.TEST_EMAIL, reservation.getCustomerEmail());
+		assertNull(ticketService.findReservation("0000000000000="));
+		assertNull(ticketService.findReservation(null));
+	}
+
+	@Test
+	public void testFindReservationsByCustomerEmail() {
+		TicketService ticketService = TestObjectFactory.newService();
+		List<String> confirmationNumbers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			SeatHold seatHold = ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+					TestObjectFactory.TEST_EMAIL);
+			confirmationNumbers.add(ticketService.reserveSeats(seatHold.getId(), TestObjectFactory.TEST_EMAIL));
+		}
+		// Held but never reserved.
+		ticketService.findAndHoldSeats(2, Optional.empty(), Optional.empty(), TestObjectFactory.TEST_EMAIL);
+
+		List<Reservation> reservations = ticketService.findReservations(TestObjectFactory.TEST_EMAIL);
+		assertEquals(3, reservations.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(confirmationNumbers.get(i), reservations.get(i).getConfirmationNumber());
+		}
+		assertTrue(ticketService.findReservations("nobody@test.com").isEmpty());
+	}
+
+}
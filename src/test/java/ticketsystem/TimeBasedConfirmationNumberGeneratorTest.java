@@ -0,0 +1,212 @@
+package ticketsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import model.Event;
+import model.SeatHold;
+import util.TestObjectFactory;
+
+/**
+ * Time Based Confirmation Number Generator Unit Tests.
+ *
+ * @author bstoll
+ *
+ */
+public class TimeBasedConfirmationNumberGeneratorTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeNodeIdShouldThrowIllegalArgument() {
+		new TimeBasedConfirmationNumberGenerator(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLargeNodeIdShouldThrowIllegalArgument() {
+		new TimeBasedConfirmationNumberGenerator(TimeBasedConfirmationNumberGenerator.MAX_NODE_ID + 1);
+	}
+
+	@Test
+	public void testNumbersAreValidAndIncreasing() {
+		TimeBasedConfirmationNumberGenerator generator = new TimeBasedConfirmationNumberGenerator(7);
+		assertEquals(7, generator.getNodeId());
+
+		String previous = generator.next();
+		// Far more than fit in one millisecond, so the sequence carries over.
+		for (int i = 0; i < 20_000; i++) {
+			String next = generator.next();
+			assertEquals(TimeBasedConfirmationNumberGenerator.LENGTH, next.length());
+			assertTrue(next, TimeBasedConfirmationNumberGenerator.isValid(next));
+			assertTrue(previous.substring(0, 13).compareTo(next.substring(0, 13)) < 0);
+			previous = next;
+		}
+	}
+
+	@Test
+	public void testNodesNeverCollide() {
+		TimeBasedConfirmationNumberGenerator first = new TimeBasedConfirmationNumberGenerator(1);
+		TimeBasedConfirmationNumberGenerator second = new TimeBasedConfirmationNumberGenerator(2);
+		Set<String> numbers = new HashSet<>();
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(numbers.add(first.next()));
+			assertTrue(numbers.add(second.next()));
+		}
+	}
+
+	@Test
+	public void testUniqueAcrossThreads() throws InterruptedException {
+		TimeBasedConfirmationNumberGenerator generator = new TimeBasedConfirmationNumberGenerator(3);
+		Set<String> numbers = ConcurrentHashMap.newKeySet();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					numbers.add(generator.next());
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40_000, numbers.size());
+	}
+
+	@Test
+	public void testIsValid() {
+		String number = new TimeBasedConfirmationNumberGenerator(5).next();
+		assertTrue(TimeBasedConfirmationNumberGenerator.isValid(number.toLowerCase()));
+		assertFalse(TimeBasedConfirmationNumberGenerator.isValid(null));
+		assertFalse(TimeBasedConfirmationNumberGenerator.isValid(number.substring(1)));
+		assertFalse(TimeBasedConfirmationNumberGenerator.isValid("Z" + number.substring(1)));
+		assertFalse(TimeBasedConfirmationNumberGenerator.isValid(number.substring(0, 13) + "I"));
+
+		// Any single changed symbol is caught by the check symbol.
+		char[] chars = number.toCharArray();
+		chars[6] = chars[6] == '7' ? '8' : '7';
+		assertFalse(TimeBasedConfirmationNumberGenerator.isValid(new String(chars)));
+	}
+
+	@Test
+	public void testSkipPastNumberAheadOfTheClock() {
+		TimeBasedConfirmationNumberGenerator generator = new TimeBasedConfirmationNumberGenerator(4);
+		// Decades ahead of the clock, as if the clock was set back since.
+		String ahead = withCheckSymbol("6" + generator.next().substring(1, 13));
+		assertTrue(TimeBasedConfirmationNumberGenerator.isValid(ahead));
+
+		generator.skipPast(ahead);
+		String next = generator.next();
+		assertTrue(TimeBasedConfirmationNumberGenerator.isValid(next));
+		assertTrue(ahead.substring(0, 13).compareTo(next.substring(0, 13)) < 0);
+	}
+
+	@Test
+	public void testSkipPastIgnoresOtherNumbers() {
+		TimeBasedConfirmationNumberGenerator generator = new TimeBasedConfirmationNumberGenerator(4);
+		generator.skipPast(null);
+		generator.skipPast(UUID.randomUUID().toString());
+		generator.skipPast("7ZZZZZZZZZZZZ0");
+		String next = generator.next();
+		assertTrue(next.startsWith("0") || next.startsWith("1"));
+	}
+
+	@Test
+	public void testLastIssued() {
+		TimeBasedConfirmationNumberGenerator generator = new TimeBasedConfirmationNumberGenerator(6);
+		assertNull(generator.lastIssued());
+		generator.next();
+		String last = generator.next();
+		assertEquals(last, generator.lastIssued());
+
+		TimeBasedConfirmationNumberGenerator restarted = new TimeBasedConfirmationNumberGenerator(6);
+		restarted.skipPast(generator.lastIssued());
+		assertEquals(last, restarted.lastIssued());
+		assertTrue(last.substring(0, 13).compareTo(restarted.next().substring(0, 13)) < 0);
+	}
+
+	@Test
+	public void testNodeIdProperty() {
+		String nodeId = System.getProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY);
+		try {
+			System.setProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY, "12");
+			assertEquals(12, TimeBasedConfirmationNumberGenerator.fromNodeIdProperty().getNodeId());
+		} finally {
+			restoreNodeIdProperty(nodeId);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void missingNodeIdPropertyShouldThrowIllegalState() {
+		String nodeId = System.getProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY);
+		try {
+			System.clearProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY);
+			TimeBasedConfirmationNumberGenerator.fromNodeIdProperty();
+		} finally {
+			restoreNodeIdProperty(nodeId);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidNodeIdPropertyShouldThrowIllegalArgument() {
+		String nodeId = System.getProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY);
+		try {
+			System.setProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY, "node-1");
+			TimeBasedConfirmationNumberGenerator.fromNodeIdProperty();
+		} finally {
+			restoreNodeIdProperty(nodeId);
+		}
+	}
+
+	@Test
+	public void testTicketReserverUsesGenerator() {
+		TicketReserver ticketReserver = new TicketReserver(
+				new Event(1, TestObjectFactory.TEST_NAME, TestObjectFactory.TEST_VENUE),
+				SeatAllocation.FIRST_AVAILABLE, () -> "CONFIRMED");
+		SeatHold seatHold = ticketReserver.findAndHoldSeats(2, Optional.empty(), Optional.empty(),
+				TestObjectFactory.TEST_EMAIL);
+		assertEquals("CONFIRMED", ticketReserver.reserveSeats(seatHold));
+	}
+
+	@Test
+	public void testDefaultConfirmationNumbers() {
+		TicketReserver ticketReserver = TestObjectFactory.newReserver();
+		String first = ticketReserver.reserveSeats(ticketReserver.findAndHoldSeats(1, Optional.empty(),
+				Optional.empty(), TestObjectFactory.TEST_EMAIL));
+		String second = ticketReserver.reserveSeats(ticketReserver.findAndHoldSeats(1, Optional.empty(),
+				Optional.empty(), TestObjectFactory.TEST_EMAIL));
+		assertTrue(TimeBasedConfirmationNumberGenerator.isValid(first));
+		assertNotEquals(first, second);
+	}
+
+	private static void restoreNodeIdProperty(String nodeId) {
+		if (nodeId != null) {
+			System.setProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY, nodeId);
+		} else {
+			System.clearProperty(TimeBasedConfirmationNumberGenerator.NODE_ID_PROPERTY);
+		}
+	}
+
+	// Crockford base32 value of the 13 symbols, followed by its check symbol.
+	private static String withCheckSymbol(String value) {
+		String symbols = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U";
+		long decoded = 0;
+		for (char symbol : value.toCharArray()) {
+			decoded = (decoded << 5) | symbols.indexOf(symbol);
+		}
+		return value + symbols.charAt((int) (decoded % symbols.length()));
+	}
+
+}
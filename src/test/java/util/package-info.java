@@ -1,8 +1,8 @@
-
-/**
- * Test Utilities.
- * 
- * @author bstoll
- *
- */
+
+/**
+ * Test Utilities.
+ * 
+ * @author bstoll
+ *
+ */
 package util;
\ No newline at end of file